@@ -25,7 +25,8 @@ public class Main {
         MultiDictionary<Number, String> multiDictionary = new MultiDictionary<>();
         TrieDictionary<Number, String> trieDictionary = new TrieDictionary<>();
         TreeDictionary<Double, String> treeDictionary = new TreeDictionary<>();
-        SortedArrayNavigableDictionary<Double, String> sortedArrayNavigableDictionary = new SortedArrayNavigableDictionary<>();
+        SortedArrayNavigableDictionary<Double, String> sortedArrayNavigableDictionary =
+                SortedArrayNavigableDictionary.withDoubleKeys(SortedArrayNavigableDictionary.Layout.PACKED);
 
         //IDictionary polymorphism
         fillDictionary(hashDictionary, 10);
@@ -1,25 +1,158 @@
 package org.example.dictionaries;
 
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
 public abstract class AbstractDictionary<K, V> implements IDictionary<K, V> {
+    private transient Set<IEntry<K, V>> entrySet;
+    private transient Collection<K> keys;
+    private transient Collection<V> values;
 
+    /**
+     * Iterator over the backing structure of the dictionary, the {@link #entrySet()},
+     * {@link #keys()} and {@link #values()} views are built on top of it.
+     * {@link Iterator#remove()} should remove the last returned entry from the dictionary
+     * or throw {@link UnsupportedOperationException} if the dictionary is immutable.
+     */
+    protected abstract Iterator<IEntry<K, V>> entryIterator();
+
+    /**
+     * Override when keys can be iterated without creating an entry per element.
+     */
+    protected Iterator<K> keyIterator() {
+        Iterator<IEntry<K, V>> i = entryIterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return i.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return i.next().getKey();
+            }
+
+            @Override
+            public void remove() {
+                i.remove();
+            }
+        };
+    }
+
+    /**
+     * Override when values can be iterated without creating an entry per element.
+     */
+    protected Iterator<V> valueIterator() {
+        Iterator<IEntry<K, V>> i = entryIterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return i.hasNext();
+            }
+
+            @Override
+            public V next() {
+                return i.next().getValue();
+            }
+
+            @Override
+            public void remove() {
+                i.remove();
+            }
+        };
+    }
+
+    protected static IllegalStateException noCursorEntry() {
+        return new IllegalStateException("Cursor is not positioned on an entry.");
+    }
+
+    /**
+     * Cursor over {@link #entryIterator()}, override when the layout
+     * can be walked without creating an entry per element.
+     */
+    @Override
+    public ICursor<K, V> cursor() {
+        return cursorOf(entryIterator());
+    }
+
+    /**
+     * @return cursor that moves through the entries of the iterator
+     */
+    protected static <K, V> ICursor<K, V> cursorOf(Iterator<IEntry<K, V>> i) {
+        return new ICursor<>() {
+            private IEntry<K, V> entry;
+
+            @Override
+            public boolean advance() {
+                entry = i.hasNext() ? i.next() : null;
+                return entry != null;
+            }
+
+            private IEntry<K, V> entry() {
+                if (entry == null) {
+                    throw noCursorEntry();
+                }
+                return entry;
+            }
+
+            @Override
+            public K key() {
+                return entry().getKey();
+            }
+
+            @Override
+            public V value() {
+                return entry().getValue();
+            }
+
+            @Override
+            public V setValue(V value) {
+                return entry().setValue(value);
+            }
+        };
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (ICursor<K, V> cursor = cursor(); cursor.advance(); ) {
+            action.accept(cursor.key(), cursor.value());
+        }
+    }
+
+    /**
+     * @return live view of the entries, changes of the dictionary are visible through it
+     * and removal through the view removes the mapping from the dictionary
+     */
+    @Override
+    public Set<IEntry<K, V>> entrySet() {
+        Set<IEntry<K, V>> es;
+        return (es = entrySet) == null ? (entrySet = new EntrySetView()) : es;
+    }
+
+    /**
+     * @return live view of the values, see {@link #entrySet()}
+     */
     @Override
     public Collection<V> values() {
-        return entrySet().stream()
-                .map(IEntry::getValue)
-                .toList();
+        Collection<V> vs;
+        return (vs = values) == null ? (values = new ValuesView()) : vs;
     }
 
+    /**
+     * @return live view of the keys, see {@link #entrySet()}
+     */
     @Override
     public Collection<K> keys() {
-        return entrySet().stream()
-                .map(IEntry::getKey)
-                .toList();
+        Collection<K> ks;
+        return (ks = keys) == null ? (keys = new KeysView()) : ks;
     }
 
     @Override
@@ -110,7 +243,11 @@ public abstract class AbstractDictionary<K, V> implements IDictionary<K, V> {
 
     @Override
     public int size() {
-        return entrySet().size();
+        int size = 0;
+        for (Iterator<IEntry<K, V>> i = entryIterator(); i.hasNext(); i.next()) {
+            size++;
+        }
+        return size;
     }
 
     @Override
@@ -207,4 +344,83 @@ public abstract class AbstractDictionary<K, V> implements IDictionary<K, V> {
         sb.append("}");
         return sb.toString();
     }
+
+    private final class EntrySetView extends AbstractSet<IEntry<K, V>> {
+        @Override
+        public Iterator<IEntry<K, V>> iterator() {
+            return entryIterator();
+        }
+
+        @Override
+        public int size() {
+            return AbstractDictionary.this.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            if (!(o instanceof IEntry<?, ?> e)) {
+                return false;
+            }
+            K key = (K) e.getKey();
+            V value = get(key);
+            return Objects.equals(value, e.getValue()) && (value != null || containsKey(key));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            if (contains(o)) {
+                AbstractDictionary.this.remove((K) ((IEntry<?, ?>) o).getKey());
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private final class KeysView extends AbstractCollection<K> {
+        @Override
+        public Iterator<K> iterator() {
+            return keyIterator();
+        }
+
+        @Override
+        public int size() {
+            return AbstractDictionary.this.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            return containsKey((K) o);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            if (containsKey((K) o)) {
+                AbstractDictionary.this.remove((K) o);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private final class ValuesView extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            return valueIterator();
+        }
+
+        @Override
+        public int size() {
+            return AbstractDictionary.this.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            return containsValue((V) o);
+        }
+    }
 }
@@ -2,9 +2,10 @@ package org.example.dictionaries;
 
 import org.example.dictionaries.entries.KeyValueHolder;
 
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -159,17 +160,117 @@ abstract class AbstractImmutableDictionary<K, V> extends AbstractDictionary<K, V
         }
 
         @Override
-        @SuppressWarnings("unchecked")
-        public Set<IEntry<K, V>> entrySet() {
-            Set<IEntry<K, V>> entrySet = new HashSet<>();
-            if (table.length == 0)
-                return entrySet;
+        protected Iterator<IEntry<K, V>> entryIterator() {
+            return new PairIterator<>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public IEntry<K, V> next() {
+                    int i = nextIndex();
+                    return new KeyValueHolder<>((K) table[i], (V) table[i + 1]);
+                }
+            };
+        }
+
+        @Override
+        protected Iterator<K> keyIterator() {
+            return new PairIterator<>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public K next() {
+                    return (K) table[nextIndex()];
+                }
+            };
+        }
+
+        @Override
+        protected Iterator<V> valueIterator() {
+            return new PairIterator<>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public V next() {
+                    return (V) table[nextIndex() + 1];
+                }
+            };
+        }
+
+        @Override
+        public ICursor<K, V> cursor() {
+            return new ICursor<>() {
+                private int index = -2;
+
+                @Override
+                public boolean advance() {
+                    while ((index += 2) < table.length) {
+                        if (table[index] != null) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+
+                private int index() {
+                    if (index < 0 || index >= table.length) {
+                        throw noCursorEntry();
+                    }
+                    return index;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public K key() {
+                    return (K) table[index()];
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public V value() {
+                    return (V) table[index() + 1];
+                }
 
+                @Override
+                public V setValue(V value) {
+                    throw uoe();
+                }
+            };
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            Objects.requireNonNull(action);
             for (int i = 0; i < table.length; i += 2) {
-                if (table[i] != null)
-                    entrySet.add(new KeyValueHolder<>((K) table[i], (V) table[i + 1]));
+                if (table[i] != null) {
+                    action.accept((K) table[i], (V) table[i + 1]);
+                }
+            }
+        }
+
+        /**
+         * Does not support {@link Iterator#remove()}, as the dictionary is immutable.
+         */
+        private abstract class PairIterator<E> implements Iterator<E> {
+            private int index = advance(0);
+
+            private int advance(int i) {
+                while (i < table.length && table[i] == null) {
+                    i += 2;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return index < table.length;
+            }
+
+            int nextIndex() {
+                if (index >= table.length) {
+                    throw new NoSuchElementException();
+                }
+                int current = index;
+                index = advance(index + 2);
+                return current;
             }
-            return entrySet;
         }
 
         private int probe(Object pk) {
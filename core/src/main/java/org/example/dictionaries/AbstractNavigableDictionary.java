@@ -0,0 +1,329 @@
+package org.example.dictionaries;
+
+import java.util.Iterator;
+
+/**
+ * Base of the navigable dictionaries, provides the range views on top of
+ * the navigation methods and {@link #rangeIterator}.
+ */
+public abstract class AbstractNavigableDictionary<K, V> extends AbstractDictionary<K, V>
+        implements INavigableDictionary<K, V> {
+
+    /**
+     * @return comparison of the keys in the order of the dictionary
+     */
+    protected abstract int compare(K key1, K key2);
+
+    /**
+     * Iterator over the keys between the bounds in ascending or descending order,
+     * a null bound means the range is unbounded on that side. Should cost O(log n) to
+     * position and O(1) amortized per step. {@link Iterator#remove()} removes the last
+     * returned entry from the dictionary.
+     */
+    protected abstract Iterator<IEntry<K, V>> rangeIterator(K lo, boolean loInclusive,
+                                                            K hi, boolean hiInclusive,
+                                                            boolean descending);
+
+    /**
+     * Cursor over the same keys as {@link #rangeIterator}, override when the layout
+     * can be walked without creating an entry per step.
+     */
+    protected ICursor<K, V> rangeCursor(K lo, boolean loInclusive, K hi, boolean hiInclusive,
+                                        boolean descending) {
+        return cursorOf(rangeIterator(lo, loInclusive, hi, hiInclusive, descending));
+    }
+
+    @Override
+    public INavigableDictionary<K, V> subDictionary(K fromKey, boolean fromInclusive,
+                                                    K toKey, boolean toInclusive) {
+        if (fromKey == null || toKey == null) {
+            throw new NullPointerException("Null keys are not supported.");
+        }
+        if (compare(fromKey, toKey) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        return new RangeView<>(this, fromKey, fromInclusive, toKey, toInclusive, false);
+    }
+
+    @Override
+    public INavigableDictionary<K, V> headDictionary(K toKey, boolean inclusive) {
+        if (toKey == null) {
+            throw new NullPointerException("Null keys are not supported.");
+        }
+        return new RangeView<>(this, null, false, toKey, inclusive, false);
+    }
+
+    @Override
+    public INavigableDictionary<K, V> tailDictionary(K fromKey, boolean inclusive) {
+        if (fromKey == null) {
+            throw new NullPointerException("Null keys are not supported.");
+        }
+        return new RangeView<>(this, fromKey, inclusive, null, false, false);
+    }
+
+    @Override
+    public INavigableDictionary<K, V> descendingDictionary() {
+        return new RangeView<>(this, null, false, null, false, true);
+    }
+
+    /**
+     * Live view of the keys of a navigable dictionary between two bounds, a null bound
+     * means unbounded. Iteration is delegated to {@link #rangeIterator}, so it costs
+     * as much as the range and not as the whole dictionary. Bounds are absolute,
+     * a descending view only reverses the order of iteration and navigation.
+     */
+    private static final class RangeView<K, V> extends AbstractDictionary<K, V>
+            implements INavigableDictionary<K, V> {
+        private final AbstractNavigableDictionary<K, V> base;
+        private final K lo;
+        private final boolean loInclusive;
+        private final K hi;
+        private final boolean hiInclusive;
+        private final boolean descending;
+
+        RangeView(AbstractNavigableDictionary<K, V> base,
+                  K lo, boolean loInclusive, K hi, boolean hiInclusive, boolean descending) {
+            this.base = base;
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+        }
+
+        private boolean tooLow(K key) {
+            if (lo == null) {
+                return false;
+            }
+            int c = base.compare(key, lo);
+            return c < 0 || (c == 0 && !loInclusive);
+        }
+
+        private boolean tooHigh(K key) {
+            if (hi == null) {
+                return false;
+            }
+            int c = base.compare(key, hi);
+            return c > 0 || (c == 0 && !hiInclusive);
+        }
+
+        private boolean inRange(K key) {
+            return key != null && !tooLow(key) && !tooHigh(key);
+        }
+
+        /**
+         * Like {@link #inRange} but also accepts a key equal to an exclusive bound,
+         * such a key is a valid bound of a nested view.
+         */
+        private boolean inClosedRange(K key) {
+            return (lo == null || base.compare(key, lo) >= 0)
+                   && (hi == null || base.compare(key, hi) <= 0);
+        }
+
+        @Override
+        protected Iterator<IEntry<K, V>> entryIterator() {
+            return base.rangeIterator(lo, loInclusive, hi, hiInclusive, descending);
+        }
+
+        /**
+         * O(log n) from the ranks of the bounds when the base is an
+         * {@link IOrderStatisticDictionary}, otherwise counts the range.
+         */
+        @Override
+        public int size() {
+            if (!(base instanceof IOrderStatisticDictionary<K, V> ranked)) {
+                return super.size();
+            }
+            int from = lo == null ? 0 : ranked.rank(lo) + (!loInclusive && base.containsKey(lo) ? 1 : 0);
+            int to = hi == null ? base.size() : ranked.rank(hi) + (hiInclusive && base.containsKey(hi) ? 1 : 0);
+            return Math.max(0, to - from);
+        }
+
+        /**
+         * Also serves {@link #forEach}.
+         */
+        @Override
+        public ICursor<K, V> cursor() {
+            return base.rangeCursor(lo, loInclusive, hi, hiInclusive, descending);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return base instanceof IOrderStatisticDictionary ? size() == 0 : !entryIterator().hasNext();
+        }
+
+        @Override
+        public boolean containsKey(K key) {
+            return inRange(key) && base.containsKey(key);
+        }
+
+        @Override
+        public V get(K key) {
+            return inRange(key) ? base.get(key) : null;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            if (!inRange(key)) {
+                throw new IllegalArgumentException("Key out of range.");
+            }
+            return base.put(key, value);
+        }
+
+        @Override
+        public V remove(K key) {
+            return inRange(key) ? base.remove(key) : null;
+        }
+
+        private IEntry<K, V> lowest() {
+            Iterator<IEntry<K, V>> i = base.rangeIterator(lo, loInclusive, hi, hiInclusive, false);
+            return i.hasNext() ? i.next() : null;
+        }
+
+        private IEntry<K, V> highest() {
+            Iterator<IEntry<K, V>> i = base.rangeIterator(lo, loInclusive, hi, hiInclusive, true);
+            return i.hasNext() ? i.next() : null;
+        }
+
+        private IEntry<K, V> ceiling(K key) {
+            if (tooLow(key)) {
+                return lowest();
+            }
+            IEntry<K, V> e = base.ceilingEntry(key);
+            return e == null || tooHigh(e.getKey()) ? null : e;
+        }
+
+        private IEntry<K, V> higher(K key) {
+            if (tooLow(key)) {
+                return lowest();
+            }
+            IEntry<K, V> e = base.higherEntry(key);
+            return e == null || tooHigh(e.getKey()) ? null : e;
+        }
+
+        private IEntry<K, V> floor(K key) {
+            if (tooHigh(key)) {
+                return highest();
+            }
+            IEntry<K, V> e = base.floorEntry(key);
+            return e == null || tooLow(e.getKey()) ? null : e;
+        }
+
+        private IEntry<K, V> lower(K key) {
+            if (tooHigh(key)) {
+                return highest();
+            }
+            IEntry<K, V> e = base.lowerEntry(key);
+            return e == null || tooLow(e.getKey()) ? null : e;
+        }
+
+        private static <K, V> K keyOf(IEntry<K, V> entry) {
+            return entry == null ? null : entry.getKey();
+        }
+
+        @Override
+        public IEntry<K, V> lowerEntry(K key) {
+            return descending ? higher(key) : lower(key);
+        }
+
+        @Override
+        public K lowerKey(K key) {
+            return keyOf(lowerEntry(key));
+        }
+
+        @Override
+        public IEntry<K, V> floorEntry(K key) {
+            return descending ? ceiling(key) : floor(key);
+        }
+
+        @Override
+        public K floorKey(K key) {
+            return keyOf(floorEntry(key));
+        }
+
+        @Override
+        public IEntry<K, V> ceilingEntry(K key) {
+            return descending ? floor(key) : ceiling(key);
+        }
+
+        @Override
+        public K ceilingKey(K key) {
+            return keyOf(ceilingEntry(key));
+        }
+
+        @Override
+        public IEntry<K, V> higherEntry(K key) {
+            return descending ? lower(key) : higher(key);
+        }
+
+        @Override
+        public K higherKey(K key) {
+            return keyOf(higherEntry(key));
+        }
+
+        /**
+         * Bounds are given in the order of the view, so a descending view swaps them.
+         */
+        @Override
+        public INavigableDictionary<K, V> subDictionary(K fromKey, boolean fromInclusive,
+                                                        K toKey, boolean toInclusive) {
+            if (fromKey == null || toKey == null) {
+                throw new NullPointerException("Null keys are not supported.");
+            }
+            int c = base.compare(fromKey, toKey);
+            if (descending ? c < 0 : c > 0) {
+                throw new IllegalArgumentException("fromKey > toKey");
+            }
+            return descending
+                    ? restrict(toKey, toInclusive, fromKey, fromInclusive)
+                    : restrict(fromKey, fromInclusive, toKey, toInclusive);
+        }
+
+        @Override
+        public INavigableDictionary<K, V> headDictionary(K toKey, boolean inclusive) {
+            if (toKey == null) {
+                throw new NullPointerException("Null keys are not supported.");
+            }
+            return descending
+                    ? restrict(toKey, inclusive, null, false)
+                    : restrict(null, false, toKey, inclusive);
+        }
+
+        @Override
+        public INavigableDictionary<K, V> tailDictionary(K fromKey, boolean inclusive) {
+            if (fromKey == null) {
+                throw new NullPointerException("Null keys are not supported.");
+            }
+            return descending
+                    ? restrict(null, false, fromKey, inclusive)
+                    : restrict(fromKey, inclusive, null, false);
+        }
+
+        @Override
+        public INavigableDictionary<K, V> descendingDictionary() {
+            return new RangeView<>(base, lo, loInclusive, hi, hiInclusive, !descending);
+        }
+
+        /**
+         * @return view of the intersection with the absolute bounds, null keeps the current bound
+         */
+        private RangeView<K, V> restrict(K newLo, boolean newLoInclusive, K newHi, boolean newHiInclusive) {
+            if (newLo != null && !inClosedRange(newLo) || newHi != null && !inClosedRange(newHi)) {
+                throw new IllegalArgumentException("Key out of range.");
+            }
+            if (newLo == null) {
+                newLo = lo;
+                newLoInclusive = loInclusive;
+            } else if (lo != null && base.compare(newLo, lo) == 0) {
+                newLoInclusive &= loInclusive;
+            }
+            if (newHi == null) {
+                newHi = hi;
+                newHiInclusive = hiInclusive;
+            } else if (hi != null && base.compare(newHi, hi) == 0) {
+                newHiInclusive &= hiInclusive;
+            }
+            return new RangeView<>(base, newLo, newLoInclusive, newHi, newHiInclusive, descending);
+        }
+    }
+}
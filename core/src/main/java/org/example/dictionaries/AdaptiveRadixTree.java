@@ -0,0 +1,809 @@
+package org.example.dictionaries;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Adaptive radix tree over byte string keys, iterated in unsigned lexicographic order.
+ * <p>
+ * Inner nodes grow from 4 to 16, 48 and 256 children and shrink back on removal, so the fan-out
+ * follows the data instead of always taking 256 slots. Every inner node keeps the bytes of its
+ * single-child path in {@code prefix}, and a subtree that holds only one key is just its
+ * leaf, with the whole key. A key that ends on an inner node is the {@code terminal} leaf there.
+ */
+final class AdaptiveRadixTree<V> {
+    private static final byte[] NO_BYTES = new byte[0];
+
+    /**
+     * Null, a {@link Leaf} or a {@link Node}.
+     */
+    private Object root;
+    private int size;
+    /**
+     * Outcome of the last {@link #put} and {@link #remove}.
+     */
+    private V previous;
+    private Leaf<V> removed;
+
+    static final class Leaf<V> {
+        final byte[] key;
+        V value;
+
+        Leaf(byte[] key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    Leaf<V> get(byte[] key, int offset, int length) {
+        Object node = root;
+        int depth = 0;
+        while (node instanceof Node n) {
+            int p = n.prefix.length;
+            if (length - depth < p
+                    || !Arrays.equals(n.prefix, 0, p, key, offset + depth, offset + depth + p)) {
+                return null;
+            }
+            depth += p;
+            if (depth == length) {
+                return (Leaf<V>) n.terminal;
+            }
+            node = n.find(key[offset + depth] & 0xFF);
+            depth++;
+        }
+        Leaf<V> leaf = (Leaf<V>) node;
+        return leaf != null && Arrays.equals(leaf.key, 0, leaf.key.length, key, offset, offset + length)
+                ? leaf : null;
+    }
+
+    /**
+     * @return leaf of the remaining bytes of the buffer, read with absolute gets,
+     * the position of the buffer does not move
+     */
+    @SuppressWarnings("unchecked")
+    Leaf<V> get(ByteBuffer key) {
+        if (key.hasArray()) {
+            return get(key.array(), key.arrayOffset() + key.position(), key.remaining());
+        }
+        int start = key.position();
+        int length = key.remaining();
+        Object node = root;
+        int depth = 0;
+        while (node instanceof Node n) {
+            int p = n.prefix.length;
+            if (length - depth < p || !regionEquals(n.prefix, 0, key, start + depth, p)) {
+                return null;
+            }
+            depth += p;
+            if (depth == length) {
+                return (Leaf<V>) n.terminal;
+            }
+            node = n.find(key.get(start + depth) & 0xFF);
+            depth++;
+        }
+        Leaf<V> leaf = (Leaf<V>) node;
+        return leaf != null && leaf.key.length == length && regionEquals(leaf.key, 0, key, start, length)
+                ? leaf : null;
+    }
+
+    private static boolean regionEquals(byte[] bytes, int from, ByteBuffer buffer, int index, int length) {
+        for (int i = 0; i < length; i++) {
+            if (bytes[from + i] != buffer.get(index + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param key taken over by the tree, must not be changed afterwards
+     * @return previous value of the key, null if it was absent
+     */
+    V put(byte[] key, V value) {
+        previous = null;
+        root = insert(root, key, 0, value);
+        V result = previous;
+        previous = null;
+        return result;
+    }
+
+    /**
+     * @return removed leaf, null if the key was absent
+     */
+    Leaf<V> remove(byte[] key) {
+        removed = null;
+        root = delete(root, key, 0);
+        Leaf<V> result = removed;
+        removed = null;
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object insert(Object node, byte[] key, int depth, V value) {
+        if (node == null) {
+            size++;
+            return new Leaf<>(key, value);
+        }
+        if (node instanceof Leaf<?> l) {
+            Leaf<V> leaf = (Leaf<V>) l;
+            int p = Arrays.mismatch(leaf.key, depth, leaf.key.length, key, depth, key.length);
+            if (p < 0) {
+                previous = leaf.value;
+                leaf.value = value;
+                return leaf;
+            }
+            // lazy expansion ends here, the two keys part after the common bytes
+            Node split = new Node4();
+            split.prefix = Arrays.copyOfRange(key, depth, depth + p);
+            place(split, leaf, depth + p);
+            place(split, new Leaf<>(key, value), depth + p);
+            size++;
+            return split;
+        }
+        Node n = (Node) node;
+        int p = prefixMatch(n.prefix, key, depth);
+        if (p < n.prefix.length) {
+            Node split = new Node4();
+            split.prefix = Arrays.copyOf(n.prefix, p);
+            split.add(n.prefix[p] & 0xFF, n);
+            n.prefix = Arrays.copyOfRange(n.prefix, p + 1, n.prefix.length);
+            place(split, new Leaf<>(key, value), depth + p);
+            size++;
+            return split;
+        }
+        depth += p;
+        if (depth == key.length) {
+            if (n.terminal == null) {
+                n.terminal = new Leaf<>(key, value);
+                size++;
+            } else {
+                Leaf<V> terminal = (Leaf<V>) n.terminal;
+                previous = terminal.value;
+                terminal.value = value;
+            }
+            return n;
+        }
+        int b = key[depth] & 0xFF;
+        Object child = n.find(b);
+        if (child == null) {
+            if (n.isFull()) {
+                n = n.grow();
+            }
+            n.add(b, new Leaf<>(key, value));
+            size++;
+            return n;
+        }
+        Object newChild = insert(child, key, depth + 1, value);
+        if (newChild != child) {
+            n.replace(b, newChild);
+        }
+        return n;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object delete(Object node, byte[] key, int depth) {
+        if (node == null) {
+            return null;
+        }
+        if (node instanceof Leaf<?> leaf) {
+            if (Arrays.equals(leaf.key, key)) {
+                removed = (Leaf<V>) leaf;
+                size--;
+                return null;
+            }
+            return leaf;
+        }
+        Node n = (Node) node;
+        int p = prefixMatch(n.prefix, key, depth);
+        if (p < n.prefix.length) {
+            return n;
+        }
+        depth += p;
+        if (depth == key.length) {
+            if (n.terminal == null) {
+                return n;
+            }
+            removed = (Leaf<V>) n.terminal;
+            size--;
+            n.terminal = null;
+            return collapse(n);
+        }
+        int b = key[depth] & 0xFF;
+        Object child = n.find(b);
+        if (child == null) {
+            return n;
+        }
+        Object newChild = delete(child, key, depth + 1);
+        if (newChild == child) {
+            return n;
+        }
+        if (newChild != null) {
+            n.replace(b, newChild);
+            return n;
+        }
+        n.remove(b);
+        return collapse(n.shrink());
+    }
+
+    /**
+     * @return node without the inner nodes that no longer branch, a lone key becomes its leaf
+     */
+    private static Object collapse(Node n) {
+        if (n.count == 0) {
+            return n.terminal;
+        }
+        if (n.count > 1 || n.terminal != null) {
+            return n;
+        }
+        int b = n.next(0);
+        Object child = n.find(b);
+        if (child instanceof Node c) {
+            byte[] prefix = new byte[n.prefix.length + 1 + c.prefix.length];
+            System.arraycopy(n.prefix, 0, prefix, 0, n.prefix.length);
+            prefix[n.prefix.length] = (byte) b;
+            System.arraycopy(c.prefix, 0, prefix, n.prefix.length + 1, c.prefix.length);
+            c.prefix = prefix;
+        }
+        return child;
+    }
+
+    private static void place(Node node, Leaf<?> leaf, int depth) {
+        if (leaf.key.length == depth) {
+            node.terminal = leaf;
+        } else {
+            node.add(leaf.key[depth] & 0xFF, leaf);
+        }
+    }
+
+    /**
+     * @return number of leading bytes of the prefix that match the key from the depth
+     */
+    private static int prefixMatch(byte[] prefix, byte[] key, int depth) {
+        int length = Math.min(prefix.length, key.length - depth);
+        int p = Arrays.mismatch(prefix, 0, length, key, depth, depth + length);
+        return p < 0 ? length : p;
+    }
+
+    /**
+     * @param from          key to start from, the first or last key if null
+     * @param fromInclusive whether the iteration starts with the key itself if present
+     * @param to            key to end at, unbounded if null
+     * @param toInclusive   whether the iteration ends with the key itself if present
+     * @return iterator in key order, or in reverse order if descending, over the keys between the bounds;
+     * {@link Iterator#remove()} removes from the tree and finds its place again by key
+     */
+    Iterator<Leaf<V>> iterator(byte[] from, boolean fromInclusive, byte[] to, boolean toInclusive,
+                               boolean descending) {
+        return new LeafIterator(from, fromInclusive, to, toInclusive, descending);
+    }
+
+    /**
+     * Inner node, children are addressed by the unsigned value of their byte.
+     */
+    private abstract static class Node {
+        byte[] prefix = NO_BYTES;
+        Leaf<?> terminal;
+        int count;
+
+        abstract Object find(int b);
+
+        abstract void replace(int b, Object child);
+
+        abstract boolean isFull();
+
+        /**
+         * Only called when the node is not full and has no child at b.
+         */
+        abstract void add(int b, Object child);
+
+        abstract void remove(int b);
+
+        /**
+         * @return node of the next size with the same children
+         */
+        abstract Node grow();
+
+        /**
+         * @return node of the previous size when the children fit with room to spare, else this node
+         */
+        abstract Node shrink();
+
+        /**
+         * @return smallest child byte from b on, -1 if there is none
+         */
+        abstract int next(int b);
+
+        /**
+         * @return largest child byte up to b, -1 if there is none
+         */
+        abstract int previous(int b);
+
+        <N extends Node> N copyHeader(N node) {
+            node.prefix = prefix;
+            node.terminal = terminal;
+            return node;
+        }
+    }
+
+    /**
+     * Children in parallel arrays sorted by byte, searched linearly.
+     */
+    private abstract static class SortedNode extends Node {
+        final byte[] keys;
+        final Object[] children;
+
+        SortedNode(int capacity) {
+            keys = new byte[capacity];
+            children = new Object[capacity];
+        }
+
+        private int indexOf(int b) {
+            for (int i = 0; i < count; i++) {
+                int k = keys[i] & 0xFF;
+                if (k >= b) {
+                    return k == b ? i : -1;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int b) {
+            int i = indexOf(b);
+            return i >= 0 ? children[i] : null;
+        }
+
+        @Override
+        void replace(int b, Object child) {
+            children[indexOf(b)] = child;
+        }
+
+        @Override
+        boolean isFull() {
+            return count == keys.length;
+        }
+
+        @Override
+        void add(int b, Object child) {
+            int i = count;
+            while (i > 0 && (keys[i - 1] & 0xFF) > b) {
+                keys[i] = keys[i - 1];
+                children[i] = children[i - 1];
+                i--;
+            }
+            keys[i] = (byte) b;
+            children[i] = child;
+            count++;
+        }
+
+        @Override
+        void remove(int b) {
+            int i = indexOf(b);
+            count--;
+            System.arraycopy(keys, i + 1, keys, i, count - i);
+            System.arraycopy(children, i + 1, children, i, count - i);
+            children[count] = null;
+        }
+
+        @Override
+        int next(int b) {
+            for (int i = 0; i < count; i++) {
+                int k = keys[i] & 0xFF;
+                if (k >= b) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        int previous(int b) {
+            for (int i = count - 1; i >= 0; i--) {
+                int k = keys[i] & 0xFF;
+                if (k <= b) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+
+        <N extends Node> N copyTo(N node) {
+            for (int i = 0; i < count; i++) {
+                node.add(keys[i] & 0xFF, children[i]);
+            }
+            return copyHeader(node);
+        }
+    }
+
+    private static final class Node4 extends SortedNode {
+        Node4() {
+            super(4);
+        }
+
+        @Override
+        Node grow() {
+            return copyTo(new Node16());
+        }
+
+        @Override
+        Node shrink() {
+            return this;
+        }
+    }
+
+    private static final class Node16 extends SortedNode {
+        Node16() {
+            super(16);
+        }
+
+        @Override
+        Node grow() {
+            return copyTo(new Node48());
+        }
+
+        @Override
+        Node shrink() {
+            return count <= 3 ? copyTo(new Node4()) : this;
+        }
+    }
+
+    /**
+     * 256 byte slots pointing into 48 children.
+     */
+    private static final class Node48 extends Node {
+        /**
+         * Index of the child plus one, 0 if there is no child for the byte.
+         */
+        private final byte[] index = new byte[256];
+        private final Object[] children = new Object[48];
+
+        @Override
+        Object find(int b) {
+            int i = index[b];
+            return i != 0 ? children[i - 1] : null;
+        }
+
+        @Override
+        void replace(int b, Object child) {
+            children[index[b] - 1] = child;
+        }
+
+        @Override
+        boolean isFull() {
+            return count == children.length;
+        }
+
+        @Override
+        void add(int b, Object child) {
+            int i = 0;
+            while (children[i] != null) {
+                i++;
+            }
+            children[i] = child;
+            index[b] = (byte) (i + 1);
+            count++;
+        }
+
+        @Override
+        void remove(int b) {
+            children[index[b] - 1] = null;
+            index[b] = 0;
+            count--;
+        }
+
+        @Override
+        Node grow() {
+            Node256 node = new Node256();
+            for (int b = 0; b < 256; b++) {
+                if (index[b] != 0) {
+                    node.add(b, children[index[b] - 1]);
+                }
+            }
+            return copyHeader(node);
+        }
+
+        @Override
+        Node shrink() {
+            if (count > 12) {
+                return this;
+            }
+            Node16 node = new Node16();
+            for (int b = 0; b < 256; b++) {
+                if (index[b] != 0) {
+                    node.add(b, children[index[b] - 1]);
+                }
+            }
+            return copyHeader(node);
+        }
+
+        @Override
+        int next(int b) {
+            for (; b < 256; b++) {
+                if (index[b] != 0) {
+                    return b;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        int previous(int b) {
+            for (; b >= 0; b--) {
+                if (index[b] != 0) {
+                    return b;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final class Node256 extends Node {
+        private final Object[] children = new Object[256];
+
+        @Override
+        Object find(int b) {
+            return children[b];
+        }
+
+        @Override
+        void replace(int b, Object child) {
+            children[b] = child;
+        }
+
+        @Override
+        boolean isFull() {
+            return false;
+        }
+
+        @Override
+        void add(int b, Object child) {
+            children[b] = child;
+            count++;
+        }
+
+        @Override
+        void remove(int b) {
+            children[b] = null;
+            count--;
+        }
+
+        @Override
+        Node grow() {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        Node shrink() {
+            if (count > 36) {
+                return this;
+            }
+            Node48 node = new Node48();
+            for (int b = 0; b < 256; b++) {
+                if (children[b] != null) {
+                    node.add(b, children[b]);
+                }
+            }
+            return copyHeader(node);
+        }
+
+        @Override
+        int next(int b) {
+            for (; b < 256; b++) {
+                if (children[b] != null) {
+                    return b;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        int previous(int b) {
+            for (; b >= 0; b--) {
+                if (children[b] != null) {
+                    return b;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Depth first walk, the terminal of a node comes before its children in ascending order
+     * and after them in descending order.
+     */
+    private final class LeafIterator implements Iterator<Leaf<V>> {
+        /**
+         * Ascending cursor before the terminal of a node, descending cursor for the terminal.
+         */
+        private static final int TERMINAL = -1;
+        /**
+         * Descending cursor after the terminal of a node.
+         */
+        private static final int DONE = -2;
+
+        private final byte[] fence;
+        private final boolean fenceInclusive;
+        private final boolean descending;
+        private Node[] nodes = new Node[16];
+        /**
+         * Next child byte to visit in each node, the smallest one from there on when ascending,
+         * the largest one up to there when descending.
+         */
+        private int[] cursors = new int[16];
+        private int depth = -1;
+        private Leaf<V> pending;
+        private Leaf<V> next;
+        private Leaf<V> last;
+
+        LeafIterator(byte[] from, boolean fromInclusive, byte[] to, boolean toInclusive, boolean descending) {
+            this.fence = to;
+            this.fenceInclusive = toInclusive;
+            this.descending = descending;
+            seek(from, fromInclusive);
+        }
+
+        private boolean beforeFence(Leaf<V> leaf) {
+            if (fence == null) {
+                return true;
+            }
+            int c = Arrays.compareUnsigned(leaf.key, fence);
+            return (descending ? c > 0 : c < 0) || c == 0 && fenceInclusive;
+        }
+
+        private void push(Node node, int cursor) {
+            if (++depth == nodes.length) {
+                nodes = Arrays.copyOf(nodes, 2 * depth);
+                cursors = Arrays.copyOf(cursors, 2 * depth);
+            }
+            nodes[depth] = node;
+            cursors[depth] = cursor;
+        }
+
+        /**
+         * Positions the walk before the first key past the given one in the direction of the walk,
+         * or before the first key of the direction if null.
+         */
+        @SuppressWarnings("unchecked")
+        private void seek(byte[] key, boolean inclusive) {
+            depth = -1;
+            pending = null;
+            int whole = descending ? 255 : TERMINAL;
+            Object node = root;
+            int d = 0;
+            while (node instanceof Node n) {
+                if (key == null) {
+                    push(n, whole);
+                    return;
+                }
+                int p = n.prefix.length;
+                int length = Math.min(p, key.length - d);
+                int c = Arrays.compareUnsigned(n.prefix, 0, length, key, d, d + length);
+                if (c == 0 && length < p) {
+                    // the key ends inside the prefix, so it is before the whole subtree
+                    c = 1;
+                }
+                if (c != 0) {
+                    // the whole subtree is on one side of the key
+                    if (c > 0 != descending) {
+                        push(n, whole);
+                    }
+                    return;
+                }
+                d += p;
+                if (d == key.length) {
+                    // the key is the terminal, the children come after it
+                    if (descending) {
+                        if (inclusive) {
+                            push(n, TERMINAL);
+                        }
+                    } else {
+                        push(n, inclusive ? TERMINAL : 0);
+                    }
+                    return;
+                }
+                int b = key[d] & 0xFF;
+                push(n, descending ? b - 1 : b + 1);
+                node = n.find(b);
+                d++;
+            }
+            if (node != null) {
+                Leaf<V> leaf = (Leaf<V>) node;
+                int c = key == null ? 0 : Arrays.compareUnsigned(leaf.key, key);
+                if (key == null || (descending ? c < 0 : c > 0) || c == 0 && inclusive) {
+                    pending = leaf;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private Leaf<V> advance() {
+            if (pending != null) {
+                Leaf<V> leaf = pending;
+                pending = null;
+                return leaf;
+            }
+            while (depth >= 0) {
+                Node n = nodes[depth];
+                int cursor = cursors[depth];
+                int b;
+                if (descending) {
+                    if (cursor == DONE) {
+                        nodes[depth--] = null;
+                        continue;
+                    }
+                    b = cursor >= 0 ? n.previous(cursor) : -1;
+                    if (b < 0) {
+                        cursors[depth] = DONE;
+                        if (n.terminal != null) {
+                            return (Leaf<V>) n.terminal;
+                        }
+                        continue;
+                    }
+                    cursors[depth] = b - 1;
+                } else {
+                    if (cursor == TERMINAL) {
+                        cursors[depth] = 0;
+                        if (n.terminal != null) {
+                            return (Leaf<V>) n.terminal;
+                        }
+                        continue;
+                    }
+                    b = cursor < 256 ? n.next(cursor) : -1;
+                    if (b < 0) {
+                        nodes[depth--] = null;
+                        continue;
+                    }
+                    cursors[depth] = b + 1;
+                }
+                Object child = n.find(b);
+                if (child instanceof Node c) {
+                    push(c, descending ? 255 : TERMINAL);
+                } else {
+                    return (Leaf<V>) child;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = advance();
+                if (next != null && !beforeFence(next)) {
+                    next = null;
+                    depth = -1;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Leaf<V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = null;
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            AdaptiveRadixTree.this.remove(last.key);
+            // nodes on the stack may have shrunk or collapsed
+            seek(next != null ? next.key : last.key, next != null);
+            next = null;
+            last = null;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package org.example.dictionaries;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Navigable dictionary on an {@link AdaptiveRadixTree} of binary-comparable key encodings.
+ * A lookup costs one step per byte of the key instead of a key comparison per level, and the keys
+ * are ordered by the unsigned bytes of their encodings, which the {@link KeyEncoder} makes agree with
+ * the natural order of the keys.
+ */
+public class AdaptiveRadixTreeDictionary<K, V> extends AbstractNavigableDictionary<K, V> {
+    /**
+     * Order-preserving conversion of keys to bytes: for any keys a and b, the unsigned
+     * lexicographic comparison of {@code encode(a)} and {@code encode(b)} is the order of the keys.
+     */
+    public interface KeyEncoder<K> {
+        byte[] encode(K key);
+
+        K decode(byte[] bytes);
+    }
+
+    private static final KeyEncoder<String> STRING_ENCODER = new KeyEncoder<>() {
+        @Override
+        public byte[] encode(String key) {
+            return ByteTrieDictionary.utf8(key);
+        }
+
+        @Override
+        public String decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    private static final KeyEncoder<Integer> INT_ENCODER = new KeyEncoder<>() {
+        @Override
+        public byte[] encode(Integer key) {
+            // flipping the sign bit puts negative numbers before positive ones
+            int bits = key ^ Integer.MIN_VALUE;
+            return new byte[]{(byte) (bits >>> 24), (byte) (bits >>> 16), (byte) (bits >>> 8), (byte) bits};
+        }
+
+        @Override
+        public Integer decode(byte[] bytes) {
+            int bits = (bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8 | bytes[3] & 0xFF;
+            return bits ^ Integer.MIN_VALUE;
+        }
+    };
+
+    private static final KeyEncoder<Long> LONG_ENCODER = new KeyEncoder<>() {
+        @Override
+        public byte[] encode(Long key) {
+            return longBytes(key ^ Long.MIN_VALUE);
+        }
+
+        @Override
+        public Long decode(byte[] bytes) {
+            return bytesLong(bytes) ^ Long.MIN_VALUE;
+        }
+    };
+
+    private static final KeyEncoder<Double> DOUBLE_ENCODER = new KeyEncoder<>() {
+        /**
+         * Positive numbers only need the sign bit set, negative ones also need the other bits
+         * flipped so that a larger magnitude comes first, which gives the order of {@link Double#compare}.
+         */
+        @Override
+        public byte[] encode(Double key) {
+            long bits = Double.doubleToLongBits(key);
+            return longBytes(bits < 0 ? ~bits : bits ^ Long.MIN_VALUE);
+        }
+
+        @Override
+        public Double decode(byte[] bytes) {
+            long bits = bytesLong(bytes);
+            return Double.longBitsToDouble(bits < 0 ? bits ^ Long.MIN_VALUE : ~bits);
+        }
+    };
+
+    private static byte[] longBytes(long bits) {
+        byte[] bytes = new byte[Long.BYTES];
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            bytes[i] = (byte) bits;
+            bits >>>= 8;
+        }
+        return bytes;
+    }
+
+    private static long bytesLong(byte[] bytes) {
+        long bits = 0;
+        for (byte b : bytes) {
+            bits = bits << 8 | (b & 0xFF);
+        }
+        return bits;
+    }
+
+    private final AdaptiveRadixTree<V> tree = new AdaptiveRadixTree<>();
+    private final KeyEncoder<K> encoder;
+
+    public AdaptiveRadixTreeDictionary(KeyEncoder<K> encoder) {
+        this.encoder = Objects.requireNonNull(encoder);
+    }
+
+    /**
+     * @return dictionary in code point order, which is {@link String#compareTo} order
+     * except for supplementary characters; keys with an unpaired surrogate have no UTF-8
+     * encoding and are rejected with {@link IllegalArgumentException}
+     */
+    public static <V> AdaptiveRadixTreeDictionary<String, V> withStringKeys() {
+        return new AdaptiveRadixTreeDictionary<>(STRING_ENCODER);
+    }
+
+    public static <V> AdaptiveRadixTreeDictionary<Integer, V> withIntKeys() {
+        return new AdaptiveRadixTreeDictionary<>(INT_ENCODER);
+    }
+
+    public static <V> AdaptiveRadixTreeDictionary<Long, V> withLongKeys() {
+        return new AdaptiveRadixTreeDictionary<>(LONG_ENCODER);
+    }
+
+    /**
+     * @return dictionary in {@link Double#compare} order
+     */
+    public static <V> AdaptiveRadixTreeDictionary<Double, V> withDoubleKeys() {
+        return new AdaptiveRadixTreeDictionary<>(DOUBLE_ENCODER);
+    }
+
+    private byte[] encode(K key) {
+        if (key == null) {
+            throw new NullPointerException("Null keys are not supported.");
+        }
+        return encoder.encode(key);
+    }
+
+    private AdaptiveRadixTree.Leaf<V> leaf(K key) {
+        byte[] bytes = encode(key);
+        return tree.get(bytes, 0, bytes.length);
+    }
+
+    @Override
+    protected int compare(K key1, K key2) {
+        return Arrays.compareUnsigned(encode(key1), encode(key2));
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return tree.put(encode(key), value);
+    }
+
+    @Override
+    public V get(K key) {
+        AdaptiveRadixTree.Leaf<V> leaf = leaf(key);
+        return leaf != null ? leaf.value : null;
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        AdaptiveRadixTree.Leaf<V> leaf = leaf(key);
+        return leaf != null ? leaf.value : defaultValue;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return leaf(key) != null;
+    }
+
+    @Override
+    public V remove(K key) {
+        AdaptiveRadixTree.Leaf<V> leaf = tree.remove(encode(key));
+        return leaf != null ? leaf.value : null;
+    }
+
+    @Override
+    public int size() {
+        return tree.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return tree.size() == 0;
+    }
+
+    /**
+     * @return first leaf past the key in the direction, null if there is none
+     */
+    private AdaptiveRadixTree.Leaf<V> seek(K key, boolean inclusive, boolean descending) {
+        Iterator<AdaptiveRadixTree.Leaf<V>> leaves = tree.iterator(encode(key), inclusive, null, false, descending);
+        return leaves.hasNext() ? leaves.next() : null;
+    }
+
+    private IEntry<K, V> entry(AdaptiveRadixTree.Leaf<V> leaf) {
+        return leaf == null ? null : new LeafEntry(leaf);
+    }
+
+    private K key(AdaptiveRadixTree.Leaf<V> leaf) {
+        return leaf == null ? null : encoder.decode(leaf.key);
+    }
+
+    @Override
+    public IEntry<K, V> lowerEntry(K key) {
+        return entry(seek(key, false, true));
+    }
+
+    @Override
+    public K lowerKey(K key) {
+        return key(seek(key, false, true));
+    }
+
+    @Override
+    public IEntry<K, V> floorEntry(K key) {
+        return entry(seek(key, true, true));
+    }
+
+    @Override
+    public K floorKey(K key) {
+        return key(seek(key, true, true));
+    }
+
+    @Override
+    public IEntry<K, V> ceilingEntry(K key) {
+        return entry(seek(key, true, false));
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+        return key(seek(key, true, false));
+    }
+
+    @Override
+    public IEntry<K, V> higherEntry(K key) {
+        return entry(seek(key, false, false));
+    }
+
+    @Override
+    public K higherKey(K key) {
+        return key(seek(key, false, false));
+    }
+
+    @Override
+    protected Iterator<IEntry<K, V>> entryIterator() {
+        return rangeIterator(null, false, null, false, false);
+    }
+
+    /**
+     * Seeks the first key in range and walks the tree until the encoding passes the other bound.
+     */
+    @Override
+    protected Iterator<IEntry<K, V>> rangeIterator(K lo, boolean loInclusive,
+                                                   K hi, boolean hiInclusive,
+                                                   boolean descending) {
+        byte[] loBytes = lo == null ? null : encode(lo);
+        byte[] hiBytes = hi == null ? null : encode(hi);
+        Iterator<AdaptiveRadixTree.Leaf<V>> leaves = descending
+                ? tree.iterator(hiBytes, hiInclusive, loBytes, loInclusive, true)
+                : tree.iterator(loBytes, loInclusive, hiBytes, hiInclusive, false);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return leaves.hasNext();
+            }
+
+            @Override
+            public IEntry<K, V> next() {
+                return new LeafEntry(leaves.next());
+            }
+
+            @Override
+            public void remove() {
+                leaves.remove();
+            }
+        };
+    }
+
+    /**
+     * Decodes the key once, {@link #setValue} writes to the leaf.
+     */
+    private final class LeafEntry implements IEntry<K, V> {
+        private final AdaptiveRadixTree.Leaf<V> leaf;
+        private final K key;
+
+        LeafEntry(AdaptiveRadixTree.Leaf<V> leaf) {
+            this.leaf = leaf;
+            this.key = encoder.decode(leaf.key);
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return leaf.value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V oldValue = leaf.value;
+            leaf.value = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof IEntry<?, ?> that)) return false;
+            return Objects.equals(key, that.getKey()) && Objects.equals(leaf.value, that.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(leaf.value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + leaf.value;
+        }
+    }
+}
@@ -0,0 +1,776 @@
+package org.example.dictionaries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * B+ tree with wide nodes ordered by the natural order of the keys or by a comparator.
+ * Keys and values live in the leaves, which are linked in both directions so scans and
+ * navigation step from leaf to leaf, inner nodes only hold separators. With the default
+ * order of 64 a node spans a few cache lines and ten million keys are four levels deep.
+ */
+public class BPlusTreeDictionary<K extends Comparable<K>, V> extends AbstractNavigableDictionary<K, V> {
+    private static final int DEFAULT_ORDER = 64;
+
+    /**
+     * Maximum number of keys in a leaf and of children of an inner node.
+     */
+    private final int order;
+    private final Comparator<? super K> comparator;
+    private Node root;
+    private int size;
+
+    private abstract static class Node {
+        final Object[] keys;
+        int size;
+
+        Node(int capacity) {
+            this.keys = new Object[capacity];
+        }
+    }
+
+    /**
+     * Holds size keys and values, one slot more than the order for the split after an insert.
+     */
+    private static final class Leaf extends Node {
+        final Object[] values;
+        Leaf prev;
+        Leaf next;
+
+        Leaf(int order) {
+            super(order + 1);
+            this.values = new Object[order + 1];
+        }
+    }
+
+    /**
+     * Holds size separators and size + 1 children, keys of children[i] are below keys[i]
+     * and keys of children[i + 1] are at or above it.
+     */
+    private static final class Inner extends Node {
+        final Node[] children;
+
+        Inner(int order) {
+            super(order);
+            this.children = new Node[order + 1];
+        }
+    }
+
+    public BPlusTreeDictionary() {
+        this(DEFAULT_ORDER);
+    }
+
+    public BPlusTreeDictionary(int order) {
+        this(order, null);
+    }
+
+    /**
+     * @param order      maximum number of keys in a leaf and of children of an inner node
+     * @param comparator order of the keys, null for the natural order
+     */
+    public BPlusTreeDictionary(int order, Comparator<? super K> comparator) {
+        if (order < 4) {
+            throw new IllegalArgumentException("Order must be at least 4.");
+        }
+        this.order = order;
+        this.comparator = comparator;
+        this.root = new Leaf(order);
+    }
+
+    /**
+     * Builds the tree bottom up in O(n) from entries in strictly ascending key order.
+     *
+     * @throws IllegalArgumentException if the keys are not strictly ascending
+     */
+    public static <K extends Comparable<K>, V> BPlusTreeDictionary<K, V> fromSorted(
+            Iterator<? extends IEntry<K, V>> entries) {
+        List<K> keys = new ArrayList<>();
+        List<V> values = new ArrayList<>();
+        while (entries.hasNext()) {
+            IEntry<K, V> entry = entries.next();
+            keys.add(entry.getKey());
+            values.add(entry.getValue());
+        }
+        BPlusTreeDictionary<K, V> dictionary = new BPlusTreeDictionary<>();
+        dictionary.buildFromSorted(keys, values);
+        return dictionary;
+    }
+
+    /**
+     * Builds the tree bottom up in O(n) from keys in strictly ascending natural order,
+     * values[i] is mapped to keys[i].
+     *
+     * @throws IllegalArgumentException if the keys are not strictly ascending
+     */
+    public static <K extends Comparable<K>, V> BPlusTreeDictionary<K, V> fromSortedArrays(K[] keys, V[] values) {
+        BPlusTreeDictionary<K, V> dictionary = new BPlusTreeDictionary<>();
+        dictionary.buildFromSorted(Arrays.asList(keys), Arrays.asList(values));
+        return dictionary;
+    }
+
+    /**
+     * Packs the keys into evenly filled leaves, then every level into evenly filled
+     * parents until one node is left.
+     */
+    private void buildFromSorted(List<K> keys, List<V> values) {
+        if (keys.size() != values.size()) {
+            throw new IllegalArgumentException("Keys and values must have the same length.");
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            K key = keys.get(i);
+            if (key == null) {
+                throw new NullPointerException("Null keys are not supported.");
+            }
+            if (i > 0 && compare(keys.get(i - 1), key) >= 0) {
+                throw new IllegalArgumentException("Keys must be in strictly ascending order.");
+            }
+        }
+        int n = keys.size();
+        size = n;
+        if (n == 0) {
+            root = new Leaf(order);
+            return;
+        }
+        int leafCount = (n + order - 1) / order;
+        List<Node> level = new ArrayList<>(leafCount);
+        List<Object> lowest = new ArrayList<>(leafCount);
+        Leaf prev = null;
+        for (int j = 0, from = 0; j < leafCount; j++) {
+            int to = (int) ((long) n * (j + 1) / leafCount);
+            Leaf leaf = new Leaf(order);
+            for (int i = from; i < to; i++) {
+                leaf.keys[i - from] = keys.get(i);
+                leaf.values[i - from] = values.get(i);
+            }
+            leaf.size = to - from;
+            leaf.prev = prev;
+            if (prev != null) {
+                prev.next = leaf;
+            }
+            prev = leaf;
+            level.add(leaf);
+            lowest.add(keys.get(from));
+            from = to;
+        }
+        while (level.size() > 1) {
+            int count = level.size();
+            int parentCount = (count + order - 1) / order;
+            List<Node> parents = new ArrayList<>(parentCount);
+            List<Object> parentLowest = new ArrayList<>(parentCount);
+            for (int j = 0, from = 0; j < parentCount; j++) {
+                int to = (int) ((long) count * (j + 1) / parentCount);
+                Inner inner = new Inner(order);
+                for (int i = from; i < to; i++) {
+                    inner.children[i - from] = level.get(i);
+                    if (i > from) {
+                        inner.keys[i - from - 1] = lowest.get(i);
+                    }
+                }
+                inner.size = to - from - 1;
+                parents.add(inner);
+                parentLowest.add(lowest.get(from));
+                from = to;
+            }
+            level = parents;
+            lowest = parentLowest;
+        }
+        root = level.get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(Node node, int index) {
+        return (K) node.keys[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(Leaf leaf, int index) {
+        return (V) leaf.values[index];
+    }
+
+    @Override
+    protected int compare(K key1, K key2) {
+        if (comparator != null) {
+            return comparator.compare(key1, key2);
+        } else {
+            return key1.compareTo(key2);
+        }
+    }
+
+    /**
+     * @return index of the key among the keys of the node, or -(insertion point + 1) if absent
+     */
+    private int search(Node node, K key) {
+        int low = 0;
+        int high = node.size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(key(node, mid), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * @return index of the child of the inner node whose keys range covers key
+     */
+    private int childIndex(Inner inner, K key) {
+        int index = search(inner, key);
+        return index >= 0 ? index + 1 : -(index + 1);
+    }
+
+    private Leaf findLeaf(K key) {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            node = inner.children[childIndex(inner, key)];
+        }
+        return (Leaf) node;
+    }
+
+    private Leaf firstLeaf() {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            node = inner.children[0];
+        }
+        return (Leaf) node;
+    }
+
+    private Leaf lastLeaf() {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            node = inner.children[inner.size];
+        }
+        return (Leaf) node;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return key != null && search(findLeaf(key), key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        for (Leaf leaf = firstLeaf(); leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.size; i++) {
+                if (Objects.equals(leaf.values[i], value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        Leaf leaf = findLeaf(key);
+        int index = search(leaf, key);
+        return index >= 0 ? value(leaf, index) : null;
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        if (key == null) {
+            return defaultValue;
+        }
+        Leaf leaf = findLeaf(key);
+        int index = search(leaf, key);
+        return index >= 0 ? value(leaf, index) : defaultValue;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("Null keys are not supported.");
+        }
+        if (size == 0) {
+            compare(key, key); // type check of the first key
+        }
+        V oldValue = insert(root, key, value);
+        if (overflows(root)) {
+            Inner newRoot = new Inner(order);
+            newRoot.children[0] = root;
+            root = newRoot;
+            splitChild(newRoot, 0);
+        }
+        return oldValue;
+    }
+
+    private V insert(Node node, K key, V value) {
+        if (node instanceof Inner inner) {
+            int i = childIndex(inner, key);
+            V oldValue = insert(inner.children[i], key, value);
+            if (overflows(inner.children[i])) {
+                splitChild(inner, i);
+            }
+            return oldValue;
+        }
+        Leaf leaf = (Leaf) node;
+        int index = search(leaf, key);
+        if (index >= 0) {
+            V oldValue = value(leaf, index);
+            leaf.values[index] = value;
+            return oldValue;
+        }
+        index = -(index + 1);
+        System.arraycopy(leaf.keys, index, leaf.keys, index + 1, leaf.size - index);
+        System.arraycopy(leaf.values, index, leaf.values, index + 1, leaf.size - index);
+        leaf.keys[index] = key;
+        leaf.values[index] = value;
+        leaf.size++;
+        size++;
+        return null;
+    }
+
+    private boolean overflows(Node node) {
+        return node instanceof Leaf ? node.size > order : node.size >= order;
+    }
+
+    private boolean underflows(Node node) {
+        return node instanceof Leaf ? node.size < order / 2 : node.size < (order + 1) / 2 - 1;
+    }
+
+    /**
+     * Splits the overfull child i in two halves and adds the separator to the parent.
+     */
+    private void splitChild(Inner parent, int i) {
+        Node child = parent.children[i];
+        Node sibling;
+        Object separator;
+        if (child instanceof Leaf leaf) {
+            Leaf right = new Leaf(order);
+            int mid = leaf.size / 2;
+            right.size = leaf.size - mid;
+            System.arraycopy(leaf.keys, mid, right.keys, 0, right.size);
+            System.arraycopy(leaf.values, mid, right.values, 0, right.size);
+            Arrays.fill(leaf.keys, mid, leaf.size, null);
+            Arrays.fill(leaf.values, mid, leaf.size, null);
+            leaf.size = mid;
+            right.next = leaf.next;
+            if (right.next != null) {
+                right.next.prev = right;
+            }
+            right.prev = leaf;
+            leaf.next = right;
+            separator = right.keys[0];
+            sibling = right;
+        } else {
+            Inner inner = (Inner) child;
+            Inner right = new Inner(order);
+            int mid = inner.size / 2;
+            separator = inner.keys[mid];
+            right.size = inner.size - mid - 1;
+            System.arraycopy(inner.keys, mid + 1, right.keys, 0, right.size);
+            System.arraycopy(inner.children, mid + 1, right.children, 0, right.size + 1);
+            Arrays.fill(inner.keys, mid, inner.size, null);
+            Arrays.fill(inner.children, mid + 1, inner.size + 1, null);
+            inner.size = mid;
+            sibling = right;
+        }
+        System.arraycopy(parent.keys, i, parent.keys, i + 1, parent.size - i);
+        System.arraycopy(parent.children, i + 1, parent.children, i + 2, parent.size - i);
+        parent.keys[i] = separator;
+        parent.children[i + 1] = sibling;
+        parent.size++;
+    }
+
+    @Override
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        V oldValue = delete(root, key);
+        if (root instanceof Inner inner && inner.size == 0) {
+            root = inner.children[0];
+        }
+        return oldValue;
+    }
+
+    private V delete(Node node, K key) {
+        if (node instanceof Inner inner) {
+            int i = childIndex(inner, key);
+            V oldValue = delete(inner.children[i], key);
+            if (underflows(inner.children[i])) {
+                rebalance(inner, i);
+            }
+            return oldValue;
+        }
+        Leaf leaf = (Leaf) node;
+        int index = search(leaf, key);
+        if (index < 0) {
+            return null;
+        }
+        V oldValue = value(leaf, index);
+        System.arraycopy(leaf.keys, index + 1, leaf.keys, index, leaf.size - index - 1);
+        System.arraycopy(leaf.values, index + 1, leaf.values, index, leaf.size - index - 1);
+        leaf.size--;
+        leaf.keys[leaf.size] = null;
+        leaf.values[leaf.size] = null;
+        size--;
+        return oldValue;
+    }
+
+    /**
+     * Refills the underfull child i from a sibling that can spare a key,
+     * otherwise merges it with a sibling.
+     */
+    private void rebalance(Inner parent, int i) {
+        if (i > 0 && parent.children[i - 1].size > minKeys(parent.children[i - 1])) {
+            borrowFromLeft(parent, i);
+        } else if (i < parent.size && parent.children[i + 1].size > minKeys(parent.children[i + 1])) {
+            borrowFromRight(parent, i);
+        } else if (i > 0) {
+            merge(parent, i - 1);
+        } else {
+            merge(parent, i);
+        }
+    }
+
+    private int minKeys(Node node) {
+        return node instanceof Leaf ? order / 2 : (order + 1) / 2 - 1;
+    }
+
+    private void borrowFromLeft(Inner parent, int i) {
+        Node child = parent.children[i];
+        Node left = parent.children[i - 1];
+        System.arraycopy(child.keys, 0, child.keys, 1, child.size);
+        if (child instanceof Leaf leaf) {
+            Leaf leftLeaf = (Leaf) left;
+            System.arraycopy(leaf.values, 0, leaf.values, 1, leaf.size);
+            leaf.keys[0] = leftLeaf.keys[leftLeaf.size - 1];
+            leaf.values[0] = leftLeaf.values[leftLeaf.size - 1];
+            leftLeaf.values[leftLeaf.size - 1] = null;
+            parent.keys[i - 1] = leaf.keys[0];
+        } else {
+            Inner inner = (Inner) child;
+            Inner leftInner = (Inner) left;
+            System.arraycopy(inner.children, 0, inner.children, 1, inner.size + 1);
+            inner.keys[0] = parent.keys[i - 1];
+            inner.children[0] = leftInner.children[leftInner.size];
+            leftInner.children[leftInner.size] = null;
+            parent.keys[i - 1] = leftInner.keys[leftInner.size - 1];
+        }
+        left.keys[left.size - 1] = null;
+        left.size--;
+        child.size++;
+    }
+
+    private void borrowFromRight(Inner parent, int i) {
+        Node child = parent.children[i];
+        Node right = parent.children[i + 1];
+        if (child instanceof Leaf leaf) {
+            Leaf rightLeaf = (Leaf) right;
+            leaf.keys[leaf.size] = rightLeaf.keys[0];
+            leaf.values[leaf.size] = rightLeaf.values[0];
+            System.arraycopy(rightLeaf.values, 1, rightLeaf.values, 0, rightLeaf.size - 1);
+            rightLeaf.values[rightLeaf.size - 1] = null;
+            System.arraycopy(right.keys, 1, right.keys, 0, right.size - 1);
+            parent.keys[i] = right.keys[0];
+        } else {
+            Inner inner = (Inner) child;
+            Inner rightInner = (Inner) right;
+            inner.keys[inner.size] = parent.keys[i];
+            inner.children[inner.size + 1] = rightInner.children[0];
+            parent.keys[i] = right.keys[0];
+            System.arraycopy(right.keys, 1, right.keys, 0, right.size - 1);
+            System.arraycopy(rightInner.children, 1, rightInner.children, 0, rightInner.size);
+            rightInner.children[rightInner.size] = null;
+        }
+        right.keys[right.size - 1] = null;
+        right.size--;
+        child.size++;
+    }
+
+    /**
+     * Appends child j + 1 to child j and drops the separator between them from the parent.
+     */
+    private void merge(Inner parent, int j) {
+        Node left = parent.children[j];
+        Node right = parent.children[j + 1];
+        if (left instanceof Leaf leftLeaf) {
+            Leaf rightLeaf = (Leaf) right;
+            System.arraycopy(rightLeaf.keys, 0, leftLeaf.keys, leftLeaf.size, rightLeaf.size);
+            System.arraycopy(rightLeaf.values, 0, leftLeaf.values, leftLeaf.size, rightLeaf.size);
+            leftLeaf.size += rightLeaf.size;
+            leftLeaf.next = rightLeaf.next;
+            if (leftLeaf.next != null) {
+                leftLeaf.next.prev = leftLeaf;
+            }
+        } else {
+            Inner leftInner = (Inner) left;
+            Inner rightInner = (Inner) right;
+            leftInner.keys[leftInner.size] = parent.keys[j];
+            System.arraycopy(rightInner.keys, 0, leftInner.keys, leftInner.size + 1, rightInner.size);
+            System.arraycopy(rightInner.children, 0, leftInner.children, leftInner.size + 1, rightInner.size + 1);
+            leftInner.size += rightInner.size + 1;
+        }
+        System.arraycopy(parent.keys, j + 1, parent.keys, j, parent.size - j - 1);
+        System.arraycopy(parent.children, j + 2, parent.children, j + 1, parent.size - j - 1);
+        parent.keys[parent.size - 1] = null;
+        parent.children[parent.size] = null;
+        parent.size--;
+    }
+
+    /**
+     * Position of a key, the leaf is null when there is no such key.
+     */
+    private record Position(Leaf leaf, int index) {
+    }
+
+    /**
+     * @return position of the least key greater than key, or equal to it if inclusive
+     */
+    private Position ceilingPosition(K key, boolean inclusive) {
+        Leaf leaf = findLeaf(key);
+        int index = search(leaf, key);
+        index = index >= 0 ? (inclusive ? index : index + 1) : -(index + 1);
+        if (index == leaf.size) {
+            leaf = leaf.next;
+            index = 0;
+        }
+        return new Position(leaf, index);
+    }
+
+    /**
+     * @return position of the greatest key less than key, or equal to it if inclusive
+     */
+    private Position floorPosition(K key, boolean inclusive) {
+        Leaf leaf = findLeaf(key);
+        int index = search(leaf, key);
+        index = index >= 0 ? (inclusive ? index : index - 1) : -(index + 1) - 1;
+        if (index < 0) {
+            leaf = leaf.prev;
+            index = leaf == null ? 0 : leaf.size - 1;
+        }
+        return new Position(leaf, index);
+    }
+
+    private IEntry<K, V> entry(Position position) {
+        Leaf leaf = position.leaf();
+        return leaf == null ? null : new LeafEntry(key(leaf, position.index()), value(leaf, position.index()));
+    }
+
+    private K key(Position position) {
+        return position.leaf() == null ? null : key(position.leaf(), position.index());
+    }
+
+    @Override
+    public IEntry<K, V> lowerEntry(K key) {
+        return entry(floorPosition(key, false));
+    }
+
+    @Override
+    public K lowerKey(K key) {
+        return key(floorPosition(key, false));
+    }
+
+    @Override
+    public IEntry<K, V> floorEntry(K key) {
+        return entry(floorPosition(key, true));
+    }
+
+    @Override
+    public K floorKey(K key) {
+        return key(floorPosition(key, true));
+    }
+
+    @Override
+    public IEntry<K, V> ceilingEntry(K key) {
+        return entry(ceilingPosition(key, true));
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+        return key(ceilingPosition(key, true));
+    }
+
+    @Override
+    public IEntry<K, V> higherEntry(K key) {
+        return entry(ceilingPosition(key, false));
+    }
+
+    @Override
+    public K higherKey(K key) {
+        return key(ceilingPosition(key, false));
+    }
+
+    @Override
+    protected Iterator<IEntry<K, V>> entryIterator() {
+        return rangeIterator(null, false, null, false, false);
+    }
+
+    /**
+     * Walks the linked leaves from the first key in range.
+     */
+    @Override
+    protected Iterator<IEntry<K, V>> rangeIterator(K lo, boolean loInclusive,
+                                                   K hi, boolean hiInclusive,
+                                                   boolean descending) {
+        Position start;
+        if (descending) {
+            Leaf last = lastLeaf();
+            start = hi == null ? new Position(last.size == 0 ? null : last, last.size - 1)
+                    : floorPosition(hi, hiInclusive);
+        } else {
+            Leaf first = firstLeaf();
+            start = lo == null ? new Position(first.size == 0 ? null : first, 0)
+                    : ceilingPosition(lo, loInclusive);
+        }
+        return new LeafIterator(start.leaf(), start.index(), descending ? lo : hi,
+                descending ? loInclusive : hiInclusive, descending);
+    }
+
+    private final class LeafIterator implements Iterator<IEntry<K, V>> {
+        private final K fence;
+        private final boolean fenceInclusive;
+        private final boolean descending;
+        private Leaf leaf;
+        private int index;
+        private K lastReturned;
+
+        LeafIterator(Leaf leaf, int index, K fence, boolean fenceInclusive, boolean descending) {
+            this.fence = fence;
+            this.fenceInclusive = fenceInclusive;
+            this.descending = descending;
+            this.leaf = leaf;
+            this.index = index;
+            fence();
+        }
+
+        /**
+         * Ends the iteration if the current key is past the fence.
+         */
+        private void fence() {
+            if (leaf == null || fence == null) {
+                return;
+            }
+            int c = compare(key(leaf, index), fence);
+            if (descending ? c < 0 || (c == 0 && !fenceInclusive) : c > 0 || (c == 0 && !fenceInclusive)) {
+                leaf = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leaf != null;
+        }
+
+        @Override
+        public IEntry<K, V> next() {
+            if (leaf == null) {
+                throw new NoSuchElementException();
+            }
+            IEntry<K, V> entry = new LeafEntry(key(leaf, index), value(leaf, index));
+            lastReturned = entry.getKey();
+            if (descending) {
+                if (--index < 0) {
+                    leaf = leaf.prev;
+                    index = leaf == null ? 0 : leaf.size - 1;
+                }
+            } else if (++index == leaf.size) {
+                leaf = leaf.next;
+                index = 0;
+            }
+            fence();
+            return entry;
+        }
+
+        /**
+         * Removal may move keys between leaves, so the iterator finds its next key again.
+         */
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            K resume = leaf == null ? null : key(leaf, index);
+            BPlusTreeDictionary.this.remove(lastReturned);
+            lastReturned = null;
+            if (resume != null) {
+                leaf = findLeaf(resume);
+                index = search(leaf, resume);
+            }
+        }
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (Leaf leaf = firstLeaf(); leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.size; i++) {
+                action.accept(key(leaf, i), value(leaf, i));
+            }
+        }
+    }
+
+    /**
+     * Copy of a mapping handed out by navigation and iteration, {@link #setValue} writes through.
+     */
+    private final class LeafEntry implements IEntry<K, V> {
+        private final K key;
+        private V value;
+
+        LeafEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V oldValue = this.value;
+            this.value = value;
+            replace(key, value);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof IEntry<?, ?> that)) return false;
+            return Objects.equals(key, that.getKey()) && Objects.equals(value, that.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
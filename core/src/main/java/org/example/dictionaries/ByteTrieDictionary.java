@@ -0,0 +1,166 @@
+package org.example.dictionaries;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Trie of the UTF-8 bytes of its keys, see {@link AdaptiveRadixTree}. Keys that arrive as bytes are
+ * looked up with {@link #get(byte[], int, int)} or {@link #get(ByteBuffer)} without decoding
+ * them into a {@code String}. Iteration follows the unsigned order of the bytes, which is code point order.
+ * Keys must be well-formed UTF-16, one with an unpaired surrogate has no UTF-8 encoding and
+ * is rejected with {@link IllegalArgumentException}.
+ */
+public class ByteTrieDictionary<V> extends AbstractDictionary<String, V> {
+    private final AdaptiveRadixTree<V> tree = new AdaptiveRadixTree<>();
+
+    private static byte[] encode(String key) {
+        if (key == null) {
+            throw new NullPointerException("Null keys are not supported.");
+        }
+        return utf8(key);
+    }
+
+    /**
+     * {@link String#getBytes} replaces an unpaired surrogate with {@code '?'}, which would make
+     * the key collide with the one that has a real {@code '?'} there, so such keys are rejected.
+     *
+     * @return UTF-8 bytes of the key
+     * @throws IllegalArgumentException if the key has an unpaired surrogate
+     */
+    static byte[] utf8(String key) {
+        for (int i = 0, n = key.length(); i < n; i++) {
+            char c = key.charAt(i);
+            if (Character.isSurrogate(c)) {
+                if (!Character.isHighSurrogate(c) || i + 1 == n || !Character.isLowSurrogate(key.charAt(i + 1))) {
+                    throw new IllegalArgumentException("Unpaired surrogate at index " + i + " of the key.");
+                }
+                i++;
+            }
+        }
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public V put(String key, V value) {
+        return tree.put(encode(key), value);
+    }
+
+    @Override
+    public V get(String key) {
+        byte[] bytes = encode(key);
+        AdaptiveRadixTree.Leaf<V> leaf = tree.get(bytes, 0, bytes.length);
+        return leaf != null ? leaf.value : null;
+    }
+
+    /**
+     * @return value of the key whose UTF-8 bytes are the given range, null if there is none
+     */
+    public V get(byte[] key, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, key.length);
+        AdaptiveRadixTree.Leaf<V> leaf = tree.get(key, offset, length);
+        return leaf != null ? leaf.value : null;
+    }
+
+    /**
+     * @return value of the key whose UTF-8 bytes are the remaining bytes of the buffer,
+     * null if there is none; the position of the buffer does not move
+     */
+    public V get(ByteBuffer key) {
+        AdaptiveRadixTree.Leaf<V> leaf = tree.get(key);
+        return leaf != null ? leaf.value : null;
+    }
+
+    @Override
+    public V getOrDefault(String key, V defaultValue) {
+        byte[] bytes = encode(key);
+        AdaptiveRadixTree.Leaf<V> leaf = tree.get(bytes, 0, bytes.length);
+        return leaf != null ? leaf.value : defaultValue;
+    }
+
+    @Override
+    public boolean containsKey(String key) {
+        byte[] bytes = encode(key);
+        return tree.get(bytes, 0, bytes.length) != null;
+    }
+
+    @Override
+    public V remove(String key) {
+        AdaptiveRadixTree.Leaf<V> leaf = tree.remove(encode(key));
+        return leaf != null ? leaf.value : null;
+    }
+
+    @Override
+    public int size() {
+        return tree.size();
+    }
+
+    @Override
+    protected Iterator<IEntry<String, V>> entryIterator() {
+        Iterator<AdaptiveRadixTree.Leaf<V>> leaves = tree.iterator(null, true, null, false, false);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return leaves.hasNext();
+            }
+
+            @Override
+            public IEntry<String, V> next() {
+                return new LeafEntry<>(leaves.next());
+            }
+
+            @Override
+            public void remove() {
+                leaves.remove();
+            }
+        };
+    }
+
+    /**
+     * Decodes the key once, {@link #setValue} writes to the leaf.
+     */
+    private static final class LeafEntry<V> implements IEntry<String, V> {
+        private final AdaptiveRadixTree.Leaf<V> leaf;
+        private final String key;
+
+        LeafEntry(AdaptiveRadixTree.Leaf<V> leaf) {
+            this.leaf = leaf;
+            this.key = new String(leaf.key, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return leaf.value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V oldValue = leaf.value;
+            leaf.value = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof IEntry<?, ?> that)) return false;
+            return Objects.equals(key, that.getKey()) && Objects.equals(leaf.value, that.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(leaf.value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + leaf.value;
+        }
+    }
+}
@@ -0,0 +1,975 @@
+package org.example.dictionaries;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Thread safe hash dictionary with lock free reads. Empty buckets are claimed by CAS,
+ * updates of a non-empty bucket lock its first node, so writers of different buckets
+ * do not contend. The table is resized cooperatively: every writer that finds
+ * a resize in progress transfers a stride of buckets before retrying.
+ * <p>
+ * {@link #putIfAbsent}, {@link #computeIfAbsent}, {@link #computeIfPresent},
+ * {@link #replace} and {@link #remove(Object, Object)} are atomic, the mapping functions
+ * are called at most once while the bucket is locked and must not update this dictionary.
+ * Iterators, cursors and {@link #forEach} are weakly consistent: they never throw
+ * {@link java.util.ConcurrentModificationException} and may or may not reflect
+ * updates made after their creation.
+ * <p>
+ * Null keys and null values are not supported.
+ */
+public class ConcurrentHashDictionary<K, V> extends AbstractDictionary<K, V>
+        implements IDictionary<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final int MIN_TRANSFER_STRIDE = 16;
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /*
+     * While a resize is running sizeCtl holds the resize stamp of the old table length
+     * in the upper bits and 1 + number of transferring threads in the lower bits.
+     */
+    private static final int RESIZE_STAMP_BITS = 16;
+    private static final int RESIZE_STAMP_SHIFT = 32 - RESIZE_STAMP_BITS;
+    private static final int MAX_RESIZERS = (1 << (32 - RESIZE_STAMP_BITS)) - 1;
+
+    private static final int MOVED = -1;
+    private static final int RESERVED = -2;
+    private static final int HASH_BITS = 0x7fffffff;
+
+    private static final VarHandle TABLE_ELEMENT = MethodHandles.arrayElementVarHandle(Node[].class);
+    private static final VarHandle SIZE_CTL;
+    private static final VarHandle TRANSFER_INDEX;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            SIZE_CTL = lookup.findVarHandle(ConcurrentHashDictionary.class, "sizeCtl", int.class);
+            TRANSFER_INDEX = lookup.findVarHandle(ConcurrentHashDictionary.class, "transferIndex", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile Node<K, V>[] table;
+    private volatile Node<K, V>[] nextTable;
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Initial table length before the table is created, -1 while it is being created,
+     * resize threshold afterwards and negative resize state while resizing.
+     */
+    private volatile int sizeCtl;
+
+    /**
+     * Buckets of the old table below this index are not yet claimed by a transferring thread.
+     */
+    private volatile int transferIndex;
+
+    public ConcurrentHashDictionary() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity initial number of buckets, rounded up to a power of two
+     */
+    public ConcurrentHashDictionary(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be a positive integer.");
+        }
+        int n = -1 >>> Integer.numberOfLeadingZeros(capacity - 1);
+        this.sizeCtl = (n < 0) ? 1 : (n >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY : n + 1;
+    }
+
+    /**
+     * Like {@link HashDictionary#spread(int)}, the sign bit is cleared
+     * because negative hashes mark special nodes.
+     */
+    private static int spread(int hashCode) {
+        return (hashCode ^ (hashCode >>> 16)) & HASH_BITS;
+    }
+
+    private static int resizeStamp(int n) {
+        return Integer.numberOfLeadingZeros(n) | (1 << (RESIZE_STAMP_BITS - 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V> tabAt(Node<K, V>[] tab, int i) {
+        return (Node<K, V>) TABLE_ELEMENT.getAcquire(tab, i);
+    }
+
+    private static <K, V> boolean casTabAt(Node<K, V>[] tab, int i, Node<K, V> c, Node<K, V> v) {
+        return TABLE_ELEMENT.compareAndSet(tab, i, c, v);
+    }
+
+    private static <K, V> void setTabAt(Node<K, V>[] tab, int i, Node<K, V> v) {
+        TABLE_ELEMENT.setRelease(tab, i, v);
+    }
+
+    private static NullPointerException nullKey() {
+        return new NullPointerException("Null keys are not supported.");
+    }
+
+    private static NullPointerException nullValue() {
+        return new NullPointerException("Null values are not supported.");
+    }
+
+    private static IllegalStateException recursiveUpdate() {
+        return new IllegalStateException("Recursive update.");
+    }
+
+    @Override
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        Node<K, V> e = find(key);
+        return e == null ? null : e.value;
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        V v;
+        return (v = get(key)) == null ? defaultValue : v;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        if (value == null) {
+            return false;
+        }
+        Traverser<K, V> t = new Traverser<>(table);
+        for (Node<K, V> p; (p = t.advance()) != null; ) {
+            V v = p.value;
+            if (v == value || value.equals(v)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Node<K, V> find(Object key) {
+        int h = spread(key.hashCode());
+        Node<K, V>[] tab;
+        Node<K, V> e;
+        int n;
+        if ((tab = table) != null && (n = tab.length) > 0 && (e = tabAt(tab, (n - 1) & h)) != null) {
+            int eh;
+            K ek;
+            if ((eh = e.hash) == h) {
+                if ((ek = e.key) == key || key.equals(ek)) {
+                    return e;
+                }
+            } else if (eh < 0) {
+                return e.find(h, key);
+            }
+            while ((e = e.next) != null) {
+                if (e.hash == h && ((ek = e.key) == key || key.equals(ek))) {
+                    return e;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return putValue(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return putValue(key, value, true);
+    }
+
+    private V putValue(K key, V value, boolean onlyIfAbsent) {
+        if (key == null) {
+            throw nullKey();
+        }
+        if (value == null) {
+            throw nullValue();
+        }
+        int hash = spread(key.hashCode());
+        int binCount = 0;
+        for (Node<K, V>[] tab = table; ; ) {
+            Node<K, V> f;
+            int n, i, fh;
+            K fk;
+            V fv;
+            if (tab == null || (n = tab.length) == 0) {
+                tab = initTable();
+            } else if ((f = tabAt(tab, i = (n - 1) & hash)) == null) {
+                if (casTabAt(tab, i, null, new Node<>(hash, key, value, null))) {
+                    break;
+                }
+            } else if ((fh = f.hash) == MOVED) {
+                tab = helpTransfer(tab, f);
+            } else if (onlyIfAbsent && fh == hash
+                       && ((fk = f.key) == key || key.equals(fk))
+                       && (fv = f.value) != null) {
+                return fv;
+            } else {
+                V oldValue = null;
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) {
+                        if (fh >= 0) {
+                            binCount = 1;
+                            for (Node<K, V> e = f; ; ++binCount) {
+                                K ek;
+                                if (e.hash == hash && ((ek = e.key) == key || key.equals(ek))) {
+                                    oldValue = e.value;
+                                    if (!onlyIfAbsent) {
+                                        e.value = value;
+                                    }
+                                    break;
+                                }
+                                Node<K, V> pred = e;
+                                if ((e = e.next) == null) {
+                                    pred.next = new Node<>(hash, key, value, null);
+                                    break;
+                                }
+                            }
+                        } else if (f instanceof ReservationNode) {
+                            throw recursiveUpdate();
+                        }
+                    }
+                }
+                if (binCount != 0) {
+                    if (oldValue != null) {
+                        return oldValue;
+                    }
+                    break;
+                }
+            }
+        }
+        addCount(1L, binCount);
+        return null;
+    }
+
+    @Override
+    public V remove(K key) {
+        return key == null ? null : replaceNode(key, null, null);
+    }
+
+    @Override
+    public boolean remove(K key, V value) {
+        return key != null && value != null && replaceNode(key, null, value) != null;
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        if (key == null) {
+            throw nullKey();
+        }
+        if (value == null) {
+            throw nullValue();
+        }
+        return replaceNode(key, value, null);
+    }
+
+    /**
+     * Replaces the value of key by value, or removes the mapping if value is null,
+     * provided the current value equals expected or expected is null.
+     *
+     * @return previous value or null if nothing was replaced
+     */
+    private V replaceNode(K key, V value, V expected) {
+        int hash = spread(key.hashCode());
+        for (Node<K, V>[] tab = table; ; ) {
+            Node<K, V> f;
+            int n, i, fh;
+            if (tab == null || (n = tab.length) == 0 || (f = tabAt(tab, i = (n - 1) & hash)) == null) {
+                break;
+            } else if ((fh = f.hash) == MOVED) {
+                tab = helpTransfer(tab, f);
+            } else {
+                V oldValue = null;
+                boolean validated = false;
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) {
+                        if (fh >= 0) {
+                            validated = true;
+                            for (Node<K, V> e = f, pred = null; ; ) {
+                                K ek;
+                                if (e.hash == hash && ((ek = e.key) == key || key.equals(ek))) {
+                                    V ev = e.value;
+                                    if (expected == null || expected == ev || expected.equals(ev)) {
+                                        oldValue = ev;
+                                        if (value != null) {
+                                            e.value = value;
+                                        } else if (pred != null) {
+                                            pred.next = e.next;
+                                        } else {
+                                            setTabAt(tab, i, e.next);
+                                        }
+                                    }
+                                    break;
+                                }
+                                pred = e;
+                                if ((e = e.next) == null) {
+                                    break;
+                                }
+                            }
+                        } else if (f instanceof ReservationNode) {
+                            throw recursiveUpdate();
+                        }
+                    }
+                }
+                if (validated) {
+                    if (oldValue != null && value == null) {
+                        addCount(-1L, -1);
+                    }
+                    return oldValue;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (key == null) {
+            throw nullKey();
+        }
+        Objects.requireNonNull(mappingFunction);
+        int hash = spread(key.hashCode());
+        V value = null;
+        int binCount = 0;
+        for (Node<K, V>[] tab = table; ; ) {
+            Node<K, V> f;
+            int n, i, fh;
+            K fk;
+            V fv;
+            if (tab == null || (n = tab.length) == 0) {
+                tab = initTable();
+            } else if ((f = tabAt(tab, i = (n - 1) & hash)) == null) {
+                // the empty bucket is locked by a placeholder while the value is computed
+                Node<K, V> r = new ReservationNode<>();
+                synchronized (r) {
+                    if (casTabAt(tab, i, null, r)) {
+                        binCount = 1;
+                        Node<K, V> node = null;
+                        try {
+                            if ((value = mappingFunction.apply(key)) != null) {
+                                node = new Node<>(hash, key, value, null);
+                            }
+                        } finally {
+                            setTabAt(tab, i, node);
+                        }
+                    }
+                }
+                if (binCount != 0) {
+                    break;
+                }
+            } else if ((fh = f.hash) == MOVED) {
+                tab = helpTransfer(tab, f);
+            } else if (fh == hash
+                       && ((fk = f.key) == key || key.equals(fk))
+                       && (fv = f.value) != null) {
+                return fv;
+            } else {
+                boolean added = false;
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) {
+                        if (fh >= 0) {
+                            binCount = 1;
+                            for (Node<K, V> e = f; ; ++binCount) {
+                                K ek;
+                                if (e.hash == hash && ((ek = e.key) == key || key.equals(ek))) {
+                                    value = e.value;
+                                    break;
+                                }
+                                Node<K, V> pred = e;
+                                if ((e = e.next) == null) {
+                                    if ((value = mappingFunction.apply(key)) != null) {
+                                        if (pred.next != null) {
+                                            throw recursiveUpdate();
+                                        }
+                                        added = true;
+                                        pred.next = new Node<>(hash, key, value, null);
+                                    }
+                                    break;
+                                }
+                            }
+                        } else if (f instanceof ReservationNode) {
+                            throw recursiveUpdate();
+                        }
+                    }
+                }
+                if (binCount != 0) {
+                    if (!added) {
+                        return value;
+                    }
+                    break;
+                }
+            }
+        }
+        if (value != null) {
+            addCount(1L, binCount);
+        }
+        return value;
+    }
+
+    @Override
+    public V computeIfPresent(K key,
+                              BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        if (key == null) {
+            throw nullKey();
+        }
+        Objects.requireNonNull(remappingFunction);
+        int hash = spread(key.hashCode());
+        V value = null;
+        int delta = 0;
+        int binCount = 0;
+        for (Node<K, V>[] tab = table; ; ) {
+            Node<K, V> f;
+            int n, i, fh;
+            if (tab == null || (n = tab.length) == 0 || (f = tabAt(tab, i = (n - 1) & hash)) == null) {
+                break;
+            } else if ((fh = f.hash) == MOVED) {
+                tab = helpTransfer(tab, f);
+            } else {
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) {
+                        if (fh >= 0) {
+                            binCount = 1;
+                            for (Node<K, V> e = f, pred = null; ; ++binCount) {
+                                K ek;
+                                if (e.hash == hash && ((ek = e.key) == key || key.equals(ek))) {
+                                    value = remappingFunction.apply(key, e.value);
+                                    if (value != null) {
+                                        e.value = value;
+                                    } else {
+                                        delta = -1;
+                                        if (pred != null) {
+                                            pred.next = e.next;
+                                        } else {
+                                            setTabAt(tab, i, e.next);
+                                        }
+                                    }
+                                    break;
+                                }
+                                pred = e;
+                                if ((e = e.next) == null) {
+                                    break;
+                                }
+                            }
+                        } else if (f instanceof ReservationNode) {
+                            throw recursiveUpdate();
+                        }
+                    }
+                }
+                if (binCount != 0) {
+                    break;
+                }
+            }
+        }
+        if (delta != 0) {
+            addCount(delta, -1);
+        }
+        return value;
+    }
+
+    @Override
+    public int size() {
+        long n = count.sum();
+        return (n < 0L) ? 0 : (n > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) n;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count.sum() <= 0L;
+    }
+
+    private Node<K, V>[] initTable() {
+        Node<K, V>[] tab;
+        int sc;
+        while ((tab = table) == null || tab.length == 0) {
+            if ((sc = sizeCtl) < 0) {
+                // lost the race to another initializing thread
+                Thread.yield();
+            } else if (SIZE_CTL.compareAndSet(this, sc, -1)) {
+                try {
+                    if ((tab = table) == null || tab.length == 0) {
+                        int n = (sc > 0) ? sc : DEFAULT_CAPACITY;
+                        @SuppressWarnings("unchecked")
+                        Node<K, V>[] nt = (Node<K, V>[]) new Node<?, ?>[n];
+                        table = tab = nt;
+                        sc = n - (n >>> 2);
+                    }
+                } finally {
+                    sizeCtl = sc;
+                }
+                break;
+            }
+        }
+        return tab;
+    }
+
+    /**
+     * Adds x to the count and, if check is non-negative, starts or joins
+     * a resize when the count reached the threshold.
+     */
+    private void addCount(long x, int check) {
+        count.add(x);
+        if (check < 0) {
+            return;
+        }
+        Node<K, V>[] tab, nt;
+        int n, sc;
+        long s = count.sum();
+        while (s >= (long) (sc = sizeCtl) && (tab = table) != null
+               && (n = tab.length) < MAXIMUM_CAPACITY) {
+            int rs = resizeStamp(n) << RESIZE_STAMP_SHIFT;
+            if (sc < 0) {
+                if (sc == rs + MAX_RESIZERS || sc == rs + 1
+                    || (nt = nextTable) == null || transferIndex <= 0) {
+                    break;
+                }
+                if (SIZE_CTL.compareAndSet(this, sc, sc + 1)) {
+                    transfer(tab, nt);
+                }
+            } else if (SIZE_CTL.compareAndSet(this, sc, rs + 2)) {
+                transfer(tab, null);
+            }
+            s = count.sum();
+        }
+    }
+
+    /**
+     * Joins the running resize that moved bucket f.
+     *
+     * @return table to retry the operation on
+     */
+    private Node<K, V>[] helpTransfer(Node<K, V>[] tab, Node<K, V> f) {
+        Node<K, V>[] nextTab;
+        int sc;
+        if (tab != null && f instanceof ForwardingNode<K, V> fwd && (nextTab = fwd.nextTable) != null) {
+            int rs = resizeStamp(tab.length) << RESIZE_STAMP_SHIFT;
+            while (nextTab == nextTable && table == tab && (sc = sizeCtl) < 0) {
+                if (sc == rs + MAX_RESIZERS || sc == rs + 1 || transferIndex <= 0) {
+                    break;
+                }
+                if (SIZE_CTL.compareAndSet(this, sc, sc + 1)) {
+                    transfer(tab, nextTab);
+                    break;
+                }
+            }
+            return nextTab;
+        }
+        return table;
+    }
+
+    /**
+     * Moves buckets of tab into nextTab, each thread claims strides of buckets from
+     * {@link #transferIndex} downwards. Chains are split into a low and a high part by
+     * copying nodes, so readers still traversing the old chain are not disturbed,
+     * and the old bucket is replaced by a {@link ForwardingNode}.
+     */
+    private void transfer(Node<K, V>[] tab, Node<K, V>[] nextTab) {
+        int n = tab.length;
+        int stride = Math.max(NCPU > 1 ? (n >>> 3) / NCPU : n, MIN_TRANSFER_STRIDE);
+        if (nextTab == null) {
+            @SuppressWarnings("unchecked")
+            Node<K, V>[] nt = (Node<K, V>[]) new Node<?, ?>[n << 1];
+            nextTab = nt;
+            nextTable = nextTab;
+            transferIndex = n;
+        }
+        int nextn = nextTab.length;
+        ForwardingNode<K, V> fwd = new ForwardingNode<>(nextTab);
+        boolean advance = true;
+        boolean finishing = false;
+        for (int i = 0, bound = 0; ; ) {
+            Node<K, V> f;
+            int fh;
+            while (advance) {
+                int nextIndex, nextBound;
+                if (--i >= bound || finishing) {
+                    advance = false;
+                } else if ((nextIndex = transferIndex) <= 0) {
+                    i = -1;
+                    advance = false;
+                } else if (TRANSFER_INDEX.compareAndSet(this, nextIndex,
+                        nextBound = (nextIndex > stride ? nextIndex - stride : 0))) {
+                    bound = nextBound;
+                    i = nextIndex - 1;
+                    advance = false;
+                }
+            }
+            if (i < 0 || i >= n || i + n >= nextn) {
+                int sc;
+                if (finishing) {
+                    nextTable = null;
+                    table = nextTab;
+                    sizeCtl = (n << 1) - (n >>> 1);
+                    return;
+                }
+                if (SIZE_CTL.compareAndSet(this, sc = sizeCtl, sc - 1)) {
+                    if ((sc - 2) != resizeStamp(n) << RESIZE_STAMP_SHIFT) {
+                        return;
+                    }
+                    // last transferring thread rechecks every bucket before publishing
+                    finishing = advance = true;
+                    i = n;
+                }
+            } else if ((f = tabAt(tab, i)) == null) {
+                advance = casTabAt(tab, i, null, fwd);
+            } else if ((fh = f.hash) == MOVED) {
+                advance = true;
+            } else {
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) {
+                        if (f instanceof ReservationNode) {
+                            throw recursiveUpdate();
+                        }
+                        // nodes after lastRun all land in the same bucket and are reused
+                        int runBit = fh & n;
+                        Node<K, V> lastRun = f;
+                        for (Node<K, V> p = f.next; p != null; p = p.next) {
+                            int b = p.hash & n;
+                            if (b != runBit) {
+                                runBit = b;
+                                lastRun = p;
+                            }
+                        }
+                        Node<K, V> ln = runBit == 0 ? lastRun : null;
+                        Node<K, V> hn = runBit == 0 ? null : lastRun;
+                        for (Node<K, V> p = f; p != lastRun; p = p.next) {
+                            if ((p.hash & n) == 0) {
+                                ln = new Node<>(p.hash, p.key, p.value, ln);
+                            } else {
+                                hn = new Node<>(p.hash, p.key, p.value, hn);
+                            }
+                        }
+                        setTabAt(nextTab, i, ln);
+                        setTabAt(nextTab, i + n, hn);
+                        setTabAt(tab, i, fwd);
+                        advance = true;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public ICursor<K, V> cursor() {
+        Traverser<K, V> t = new Traverser<>(table);
+        return new ICursor<>() {
+            private Node<K, V> current;
+
+            @Override
+            public boolean advance() {
+                return (current = t.advance()) != null;
+            }
+
+            private Node<K, V> current() {
+                if (current == null) {
+                    throw noCursorEntry();
+                }
+                return current;
+            }
+
+            @Override
+            public K key() {
+                return current().key;
+            }
+
+            @Override
+            public V value() {
+                return current().value;
+            }
+
+            @Override
+            public V setValue(V value) {
+                if (value == null) {
+                    throw nullValue();
+                }
+                return put(current().key, value);
+            }
+        };
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        Traverser<K, V> t = new Traverser<>(table);
+        for (Node<K, V> p; (p = t.advance()) != null; ) {
+            action.accept(p.key, p.value);
+        }
+    }
+
+    @Override
+    protected Iterator<IEntry<K, V>> entryIterator() {
+        Traverser<K, V> t = new Traverser<>(table);
+        return new Iterator<>() {
+            private Node<K, V> next = t.advance();
+            private K lastKey;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public IEntry<K, V> next() {
+                Node<K, V> e = next;
+                if (e == null) {
+                    throw new NoSuchElementException();
+                }
+                next = t.advance();
+                lastKey = e.key;
+                return new MapEntry(e.key, e.value);
+            }
+
+            @Override
+            public void remove() {
+                if (lastKey == null) {
+                    throw new IllegalStateException();
+                }
+                ConcurrentHashDictionary.this.remove(lastKey);
+                lastKey = null;
+            }
+        };
+    }
+
+    /**
+     * Snapshot of a mapping returned by the iterators, {@link #setValue} writes through.
+     */
+    private final class MapEntry implements IEntry<K, V> {
+        private final K key;
+        private V value;
+
+        MapEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            if (value == null) {
+                throw nullValue();
+            }
+            V oldValue = this.value;
+            this.value = value;
+            put(key, value);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IEntry<?, ?> e
+                   && key.equals(e.getKey())
+                   && value.equals(e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    private static class Node<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        volatile Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+
+        /**
+         * Lookup for lock free readers that reach a special node.
+         */
+        Node<K, V> find(int h, Object k) {
+            Node<K, V> e = this;
+            do {
+                K ek;
+                if (e.hash == h && ((ek = e.key) == k || k.equals(ek))) {
+                    return e;
+                }
+            } while ((e = e.next) != null);
+            return null;
+        }
+    }
+
+    /**
+     * Head of a bucket that was moved to the next table.
+     */
+    private static final class ForwardingNode<K, V> extends Node<K, V> {
+        final Node<K, V>[] nextTable;
+
+        ForwardingNode(Node<K, V>[] nextTable) {
+            super(MOVED, null, null, null);
+            this.nextTable = nextTable;
+        }
+
+        @Override
+        Node<K, V> find(int h, Object k) {
+            outer:
+            for (Node<K, V>[] tab = nextTable; ; ) {
+                Node<K, V> e;
+                int n;
+                if ((n = tab.length) == 0 || (e = tabAt(tab, (n - 1) & h)) == null) {
+                    return null;
+                }
+                while (true) {
+                    int eh;
+                    K ek;
+                    if ((eh = e.hash) == h && ((ek = e.key) == k || k.equals(ek))) {
+                        return e;
+                    }
+                    if (eh < 0) {
+                        if (e instanceof ForwardingNode<K, V> fwd) {
+                            tab = fwd.nextTable;
+                            continue outer;
+                        }
+                        return e.find(h, k);
+                    }
+                    if ((e = e.next) == null) {
+                        return null;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Placeholder of an empty bucket while {@link #computeIfAbsent} computes its value.
+     */
+    private static final class ReservationNode<K, V> extends Node<K, V> {
+        ReservationNode() {
+            super(RESERVED, null, null, null);
+        }
+
+        @Override
+        Node<K, V> find(int h, Object k) {
+            return null;
+        }
+    }
+
+    /**
+     * Weakly consistent walk over the buckets. A forwarded bucket i of a table
+     * of length n is continued in buckets i and i + n of the next table,
+     * the tables left behind are kept on a stack.
+     */
+    private static final class Traverser<K, V> {
+        private Node<K, V>[] tab;
+        private Node<K, V> next;
+        private TableStack<K, V> stack;
+        private TableStack<K, V> spare;
+        private int index;
+        private int baseIndex;
+        private final int baseLimit;
+
+        Traverser(Node<K, V>[] tab) {
+            this.tab = tab;
+            this.baseLimit = tab == null ? 0 : tab.length;
+        }
+
+        /**
+         * @return next node or null if the walk is over
+         */
+        Node<K, V> advance() {
+            Node<K, V> e;
+            if ((e = next) != null) {
+                e = e.next;
+            }
+            while (true) {
+                Node<K, V>[] t;
+                int i, n;
+                if (e != null) {
+                    return next = e;
+                }
+                if (baseIndex >= baseLimit || (t = tab) == null
+                    || (n = t.length) <= (i = index) || i < 0) {
+                    return next = null;
+                }
+                if ((e = tabAt(t, i)) != null && e.hash < 0) {
+                    if (e instanceof ForwardingNode<K, V> fwd) {
+                        tab = fwd.nextTable;
+                        e = null;
+                        pushState(t, i, n);
+                        continue;
+                    }
+                    e = null;
+                }
+                if (stack != null) {
+                    recoverState(n);
+                } else if ((index = i + baseLimit) >= n) {
+                    index = ++baseIndex;
+                }
+            }
+        }
+
+        private void pushState(Node<K, V>[] t, int i, int n) {
+            TableStack<K, V> s = spare;
+            if (s != null) {
+                spare = s.next;
+            } else {
+                s = new TableStack<>();
+            }
+            s.tab = t;
+            s.length = n;
+            s.index = i;
+            s.next = stack;
+            stack = s;
+        }
+
+        private void recoverState(int n) {
+            TableStack<K, V> s;
+            int len;
+            while ((s = stack) != null && (index += (len = s.length)) >= n) {
+                n = len;
+                index = s.index;
+                tab = s.tab;
+                s.tab = null;
+                TableStack<K, V> next = s.next;
+                s.next = spare;
+                stack = next;
+                spare = s;
+            }
+            if (s == null && (index += baseLimit) >= n) {
+                index = ++baseIndex;
+            }
+        }
+    }
+
+    private static final class TableStack<K, V> {
+        int length;
+        int index;
+        Node<K, V>[] tab;
+        TableStack<K, V> next;
+    }
+}
@@ -0,0 +1,913 @@
+package org.example.dictionaries;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Thread safe navigable dictionary backed by a lock free skip list.
+ * <p>
+ * Entries live in a sorted linked list of nodes, the index levels above it are
+ * shortcuts added with probability 1/4 per level. Inserts link a node with a single CAS.
+ * Removal first clears the value of the node by CAS (logical deletion), then appends
+ * a marker node behind it so no concurrent insert can link after it, and finally
+ * unlinks both. Every traversal helps unlinking deleted nodes it passes.
+ * <p>
+ * Iterators, cursors and {@link #forEach} are weakly consistent and visit keys
+ * in ascending order. Navigation methods return snapshot entries whose
+ * {@code setValue} writes through. Null keys and null values are not supported.
+ */
+public class ConcurrentSkipListDictionary<K extends Comparable<K>, V> extends AbstractNavigableDictionary<K, V>
+        implements INavigableDictionary<K, V> {
+    private static final VarHandle HEAD;
+    private static final VarHandle NEXT;
+    private static final VarHandle VALUE;
+    private static final VarHandle RIGHT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(ConcurrentSkipListDictionary.class, "head", Index.class);
+            NEXT = lookup.findVarHandle(Node.class, "next", Node.class);
+            VALUE = lookup.findVarHandle(Node.class, "value", Object.class);
+            RIGHT = lookup.findVarHandle(Index.class, "right", Index.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /*
+     * Relations of findNear, GT is the absence of LT.
+     */
+    private static final int EQ = 1;
+    private static final int LT = 2;
+    private static final int GT = 0;
+
+    private final Comparator<? super K> comparator;
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Top left index, its node is the header of the base list with a null key.
+     */
+    private volatile Index<K, V> head;
+
+    public ConcurrentSkipListDictionary() {
+        this(null);
+    }
+
+    public ConcurrentSkipListDictionary(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    @Override
+    protected int compare(K key1, K key2) {
+        if (comparator != null) {
+            return comparator.compare(key1, key2);
+        } else {
+            return key1.compareTo(key2);
+        }
+    }
+
+    private static NullPointerException nullKey() {
+        return new NullPointerException("Null keys are not supported.");
+    }
+
+    private static NullPointerException nullValue() {
+        return new NullPointerException("Null values are not supported.");
+    }
+
+    /**
+     * Marks n as deleted by appending a marker node behind it, then unlinks n from b.
+     * Nodes followed by a marker never get a new successor.
+     */
+    private static <K, V> void unlinkNode(Node<K, V> b, Node<K, V> n) {
+        if (b != null && n != null) {
+            Node<K, V> f, p;
+            while (true) {
+                if ((f = n.next) != null && f.key == null) {
+                    p = f.next;
+                    break;
+                } else if (NEXT.compareAndSet(n, f, new Node<K, V>(null, null, f))) {
+                    p = f;
+                    break;
+                }
+            }
+            NEXT.compareAndSet(b, n, p);
+        }
+    }
+
+    /**
+     * Descends the index levels, unlinking indices of deleted nodes on the way.
+     *
+     * @return base level node with a key less than key, possibly the header,
+     * or null if the dictionary was never written to
+     */
+    private Node<K, V> findPredecessor(K key) {
+        Index<K, V> q;
+        VarHandle.acquireFence();
+        if ((q = head) == null) {
+            return null;
+        }
+        for (Index<K, V> r, d; ; ) {
+            while ((r = q.right) != null) {
+                Node<K, V> p;
+                K k;
+                if ((p = r.node) == null || (k = p.key) == null || p.value == null) {
+                    RIGHT.compareAndSet(q, r, r.right);
+                } else if (compare(key, k) > 0) {
+                    q = r;
+                } else {
+                    break;
+                }
+            }
+            if ((d = q.down) != null) {
+                q = d;
+            } else {
+                return q.node;
+            }
+        }
+    }
+
+    private Node<K, V> findNode(K key) {
+        Node<K, V> b;
+        outer:
+        while ((b = findPredecessor(key)) != null) {
+            while (true) {
+                Node<K, V> n;
+                K k;
+                int c;
+                if ((n = b.next) == null) {
+                    break outer;
+                } else if ((k = n.key) == null) {
+                    // b was deleted, restart from the index
+                    break;
+                } else if (n.value == null) {
+                    unlinkNode(b, n);
+                } else if ((c = compare(key, k)) > 0) {
+                    b = n;
+                } else if (c == 0) {
+                    return n;
+                } else {
+                    break outer;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param rel combination of {@link #EQ}, {@link #LT} and {@link #GT}
+     * @return closest live or recently deleted node in relation rel to key, or null
+     */
+    private Node<K, V> findNear(K key, int rel) {
+        if (key == null) {
+            throw nullKey();
+        }
+        Node<K, V> result;
+        outer:
+        for (Node<K, V> b; ; ) {
+            if ((b = findPredecessor(key)) == null) {
+                result = null;
+                break;
+            }
+            while (true) {
+                Node<K, V> n;
+                K k;
+                int c;
+                if ((n = b.next) == null) {
+                    result = ((rel & LT) != 0 && b.key != null) ? b : null;
+                    break outer;
+                } else if ((k = n.key) == null) {
+                    break;
+                } else if (n.value == null) {
+                    unlinkNode(b, n);
+                } else if (((c = compare(key, k)) == 0 && (rel & EQ) != 0)
+                           || (c < 0 && (rel & LT) == 0)) {
+                    result = n;
+                    break outer;
+                } else if (c <= 0 && (rel & LT) != 0) {
+                    result = (b.key != null) ? b : null;
+                    break outer;
+                } else {
+                    b = n;
+                }
+            }
+        }
+        return result;
+    }
+
+    private IEntry<K, V> findNearEntry(K key, int rel) {
+        while (true) {
+            Node<K, V> n;
+            V v;
+            if ((n = findNear(key, rel)) == null) {
+                return null;
+            }
+            if ((v = n.value) != null) {
+                return new SnapshotEntry(n.key, v);
+            }
+        }
+    }
+
+    private K findNearKey(K key, int rel) {
+        while (true) {
+            Node<K, V> n;
+            if ((n = findNear(key, rel)) == null) {
+                return null;
+            }
+            if (n.value != null) {
+                return n.key;
+            }
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        Node<K, V> n = findNode(key);
+        return n == null ? null : n.value;
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        V v;
+        return (v = get(key)) == null ? defaultValue : v;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        if (value == null) {
+            return false;
+        }
+        for (Node<K, V> n = first(); n != null; n = n.next) {
+            V v = n.value;
+            if (v != null && value.equals(v)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return doPut(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return doPut(key, value, true);
+    }
+
+    private V doPut(K key, V value, boolean onlyIfAbsent) {
+        if (key == null) {
+            throw nullKey();
+        }
+        if (value == null) {
+            throw nullValue();
+        }
+        while (true) {
+            Index<K, V> h;
+            Node<K, V> b;
+            VarHandle.acquireFence();
+            int levels = 0;
+            if ((h = head) == null) {
+                Node<K, V> base = new Node<>(null, null, null);
+                h = new Index<>(base, null, null);
+                b = HEAD.compareAndSet(this, null, h) ? base : null;
+            } else {
+                // same descent as findPredecessor, counting the levels
+                for (Index<K, V> q = h, r, d; ; ) {
+                    while ((r = q.right) != null) {
+                        Node<K, V> p;
+                        K k;
+                        if ((p = r.node) == null || (k = p.key) == null || p.value == null) {
+                            RIGHT.compareAndSet(q, r, r.right);
+                        } else if (compare(key, k) > 0) {
+                            q = r;
+                        } else {
+                            break;
+                        }
+                    }
+                    if ((d = q.down) != null) {
+                        ++levels;
+                        q = d;
+                    } else {
+                        b = q.node;
+                        break;
+                    }
+                }
+            }
+            if (b != null) {
+                Node<K, V> z = null;
+                while (true) {
+                    Node<K, V> n, p;
+                    K k;
+                    V v;
+                    int c;
+                    if ((n = b.next) == null) {
+                        if (b.key == null) {
+                            // first key, fail before linking if it is not comparable
+                            compare(key, key);
+                        }
+                        c = -1;
+                    } else if ((k = n.key) == null) {
+                        break;
+                    } else if ((v = n.value) == null) {
+                        unlinkNode(b, n);
+                        c = 1;
+                    } else if ((c = compare(key, k)) > 0) {
+                        b = n;
+                    } else if (c == 0 && (onlyIfAbsent || VALUE.compareAndSet(n, v, value))) {
+                        return v;
+                    }
+                    if (c < 0 && NEXT.compareAndSet(b, n, p = new Node<>(key, value, n))) {
+                        z = p;
+                        break;
+                    }
+                }
+                if (z != null) {
+                    addIndices(h, levels, z);
+                    count.increment();
+                    return null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gives the new node a tower of random height, one level with probability 1/4
+     * and every further level with probability 1/2, and may add a level on top.
+     */
+    private void addIndices(Index<K, V> h, int levels, Node<K, V> z) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if ((random.nextInt() & 0x3) != 0) {
+            return;
+        }
+        long rnd = random.nextLong();
+        int skips = levels;
+        Index<K, V> x = null;
+        while (true) {
+            x = new Index<>(z, x, null);
+            if (rnd >= 0L || --skips < 0) {
+                break;
+            } else {
+                rnd <<= 1;
+            }
+        }
+        if (addIndices(h, skips, x) && skips < 0 && head == h) {
+            Index<K, V> hx = new Index<>(z, x, null);
+            Index<K, V> nh = new Index<>(h.node, h, hx);
+            HEAD.compareAndSet(this, h, nh);
+        }
+        if (z.value == null) {
+            // deleted while indexing, clean up the stale indices
+            findPredecessor(z.key);
+        }
+    }
+
+    /**
+     * Splices the tower x into the levels below q, skipping the top skips levels.
+     *
+     * @return false if the node of x was deleted meanwhile
+     */
+    private boolean addIndices(Index<K, V> q, int skips, Index<K, V> x) {
+        Node<K, V> z;
+        K key;
+        if (x != null && (z = x.node) != null && (key = z.key) != null && q != null) {
+            boolean retrying = false;
+            while (true) {
+                Index<K, V> r, d;
+                int c;
+                if ((r = q.right) != null) {
+                    Node<K, V> p;
+                    K k;
+                    if ((p = r.node) == null || (k = p.key) == null || p.value == null) {
+                        RIGHT.compareAndSet(q, r, r.right);
+                        c = 0;
+                    } else if ((c = compare(key, k)) > 0) {
+                        q = r;
+                    } else if (c == 0) {
+                        break;
+                    }
+                } else {
+                    c = -1;
+                }
+                if (c < 0) {
+                    if ((d = q.down) != null && skips > 0) {
+                        --skips;
+                        q = d;
+                    } else if (d != null && !retrying && !addIndices(d, 0, x.down)) {
+                        break;
+                    } else {
+                        x.right = r;
+                        if (RIGHT.compareAndSet(q, r, x)) {
+                            return true;
+                        } else {
+                            retrying = true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V remove(K key) {
+        return key == null ? null : doRemove(key, null);
+    }
+
+    @Override
+    public boolean remove(K key, V value) {
+        return key != null && value != null && doRemove(key, value) != null;
+    }
+
+    /**
+     * Removes the mapping of key if its value equals expected or expected is null.
+     *
+     * @return removed value or null
+     */
+    private V doRemove(K key, V expected) {
+        V result = null;
+        Node<K, V> b;
+        outer:
+        while ((b = findPredecessor(key)) != null && result == null) {
+            while (true) {
+                Node<K, V> n;
+                K k;
+                V v;
+                int c;
+                if ((n = b.next) == null) {
+                    break outer;
+                } else if ((k = n.key) == null) {
+                    break;
+                } else if ((v = n.value) == null) {
+                    unlinkNode(b, n);
+                } else if ((c = compare(key, k)) > 0) {
+                    b = n;
+                } else if (c < 0) {
+                    break outer;
+                } else if (expected != null && !expected.equals(v)) {
+                    break outer;
+                } else if (VALUE.compareAndSet(n, v, null)) {
+                    result = v;
+                    unlinkNode(b, n);
+                    break;
+                }
+            }
+        }
+        if (result != null) {
+            // unlink the indices of the removed node
+            findPredecessor(key);
+            count.decrement();
+        }
+        return result;
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        if (key == null) {
+            throw nullKey();
+        }
+        if (value == null) {
+            throw nullValue();
+        }
+        for (Node<K, V> n; (n = findNode(key)) != null; ) {
+            V v;
+            if ((v = n.value) != null && VALUE.compareAndSet(n, v, value)) {
+                return v;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The mapping function may be called by several threads racing for an absent key,
+     * only the first computed value is inserted.
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (key == null) {
+            throw nullKey();
+        }
+        Objects.requireNonNull(mappingFunction);
+        V v, p, r;
+        if ((v = get(key)) == null && (r = mappingFunction.apply(key)) != null) {
+            v = (p = doPut(key, r, true)) == null ? r : p;
+        }
+        return v;
+    }
+
+    /**
+     * The remapping function may be called again if the value changed concurrently,
+     * the result is only stored if the value it was computed from is still current.
+     */
+    @Override
+    public V computeIfPresent(K key,
+                              BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        if (key == null) {
+            throw nullKey();
+        }
+        Objects.requireNonNull(remappingFunction);
+        Node<K, V> n;
+        V v;
+        while ((n = findNode(key)) != null) {
+            if ((v = n.value) != null) {
+                V r = remappingFunction.apply(key, v);
+                if (r != null) {
+                    if (VALUE.compareAndSet(n, v, r)) {
+                        return r;
+                    }
+                } else if (doRemove(key, v) != null) {
+                    break;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        long n = count.sum();
+        return (n < 0L) ? 0 : (n > Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) n;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return live(first()) == null;
+    }
+
+    /**
+     * @return first base level node, may already be deleted
+     */
+    private Node<K, V> first() {
+        Index<K, V> h;
+        VarHandle.acquireFence();
+        return (h = head) == null ? null : h.node.next;
+    }
+
+    /**
+     * @return last base level node, may already be deleted, or null if there is none
+     */
+    private Node<K, V> findLast() {
+        outer:
+        while (true) {
+            Index<K, V> q;
+            VarHandle.acquireFence();
+            if ((q = head) == null) {
+                return null;
+            }
+            for (Index<K, V> r, d; ; ) {
+                while ((r = q.right) != null) {
+                    Node<K, V> p;
+                    if ((p = r.node) == null || p.value == null) {
+                        RIGHT.compareAndSet(q, r, r.right);
+                    } else {
+                        q = r;
+                    }
+                }
+                if ((d = q.down) != null) {
+                    q = d;
+                } else {
+                    Node<K, V> b = q.node;
+                    for (Node<K, V> n; ; ) {
+                        if ((n = b.next) == null) {
+                            return b.key == null ? null : b;
+                        } else if (n.key == null) {
+                            continue outer;
+                        } else if (n.value == null) {
+                            unlinkNode(b, n);
+                        } else {
+                            b = n;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return first live node after n
+     */
+    private static <K, V> Node<K, V> live(Node<K, V> n) {
+        while (n != null && n.value == null) {
+            n = n.next;
+        }
+        return n;
+    }
+
+    @Override
+    public IEntry<K, V> lowerEntry(K key) {
+        return findNearEntry(key, LT);
+    }
+
+    @Override
+    public K lowerKey(K key) {
+        return findNearKey(key, LT);
+    }
+
+    @Override
+    public IEntry<K, V> floorEntry(K key) {
+        return findNearEntry(key, LT | EQ);
+    }
+
+    @Override
+    public K floorKey(K key) {
+        return findNearKey(key, LT | EQ);
+    }
+
+    @Override
+    public IEntry<K, V> ceilingEntry(K key) {
+        return findNearEntry(key, GT | EQ);
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+        return findNearKey(key, GT | EQ);
+    }
+
+    @Override
+    public IEntry<K, V> higherEntry(K key) {
+        return findNearEntry(key, GT);
+    }
+
+    @Override
+    public K higherKey(K key) {
+        return findNearKey(key, GT);
+    }
+
+    @Override
+    public ICursor<K, V> cursor() {
+        return new ICursor<>() {
+            private Node<K, V> next = first();
+            private K key;
+            private V value;
+
+            @Override
+            public boolean advance() {
+                Node<K, V> n = next;
+                while (n != null) {
+                    V v = n.value;
+                    if (v != null) {
+                        key = n.key;
+                        value = v;
+                        next = n.next;
+                        return true;
+                    }
+                    n = n.next;
+                }
+                next = null;
+                key = null;
+                value = null;
+                return false;
+            }
+
+            @Override
+            public K key() {
+                if (key == null) {
+                    throw noCursorEntry();
+                }
+                return key;
+            }
+
+            @Override
+            public V value() {
+                if (key == null) {
+                    throw noCursorEntry();
+                }
+                return value;
+            }
+
+            @Override
+            public V setValue(V value) {
+                V oldValue = put(key(), value);
+                this.value = value;
+                return oldValue;
+            }
+        };
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (Node<K, V> n = first(); n != null; n = n.next) {
+            V v = n.value;
+            if (v != null) {
+                action.accept(n.key, v);
+            }
+        }
+    }
+
+    @Override
+    protected Iterator<IEntry<K, V>> entryIterator() {
+        return new Iterator<>() {
+            private Node<K, V> next = live(first());
+            private V nextValue = next == null ? null : next.value;
+            private K lastKey;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public IEntry<K, V> next() {
+                Node<K, V> n = next;
+                if (n == null) {
+                    throw new NoSuchElementException();
+                }
+                IEntry<K, V> entry = new SnapshotEntry(n.key, nextValue);
+                lastKey = n.key;
+                // the value is read once, a node deleted meanwhile is skipped
+                do {
+                    n = n.next;
+                } while (n != null && (nextValue = n.value) == null);
+                next = n;
+                return entry;
+            }
+
+            @Override
+            public void remove() {
+                if (lastKey == null) {
+                    throw new IllegalStateException();
+                }
+                ConcurrentSkipListDictionary.this.remove(lastKey);
+                lastKey = null;
+            }
+        };
+    }
+
+    /**
+     * Ascending iteration follows the base list, descending iteration has no back links
+     * and searches the predecessor of the last key through the index, O(log n) per step.
+     */
+    @Override
+    protected Iterator<IEntry<K, V>> rangeIterator(K lo, boolean loInclusive,
+                                                   K hi, boolean hiInclusive,
+                                                   boolean descending) {
+        return new Iterator<>() {
+            private Node<K, V> next;
+            private V nextValue;
+            private K lastKey;
+
+            {
+                Node<K, V> n;
+                if (descending) {
+                    n = hi == null ? findLast() : findNear(hi, hiInclusive ? LT | EQ : LT);
+                } else {
+                    n = lo == null ? first() : findNear(lo, loInclusive ? GT | EQ : GT);
+                }
+                advance(n);
+            }
+
+            /**
+             * Moves to the first live node from n on, in iteration order and inside the range.
+             */
+            private void advance(Node<K, V> n) {
+                while (n != null && (nextValue = n.value) == null) {
+                    n = descending ? findNear(n.key, LT) : n.next;
+                }
+                if (n != null && (descending ? tooLow(n.key) : tooHigh(n.key))) {
+                    n = null;
+                }
+                next = n;
+            }
+
+            private boolean tooLow(K key) {
+                if (lo == null) {
+                    return false;
+                }
+                int c = compare(key, lo);
+                return c < 0 || (c == 0 && !loInclusive);
+            }
+
+            private boolean tooHigh(K key) {
+                if (hi == null) {
+                    return false;
+                }
+                int c = compare(key, hi);
+                return c > 0 || (c == 0 && !hiInclusive);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public IEntry<K, V> next() {
+                Node<K, V> n = next;
+                if (n == null) {
+                    throw new NoSuchElementException();
+                }
+                IEntry<K, V> entry = new SnapshotEntry(n.key, nextValue);
+                lastKey = n.key;
+                advance(descending ? findNear(n.key, LT) : n.next);
+                return entry;
+            }
+
+            @Override
+            public void remove() {
+                if (lastKey == null) {
+                    throw new IllegalStateException();
+                }
+                ConcurrentSkipListDictionary.this.remove(lastKey);
+                lastKey = null;
+            }
+        };
+    }
+
+    /**
+     * Key and value read at one point in time, {@link #setValue} writes through.
+     */
+    private final class SnapshotEntry implements IEntry<K, V> {
+        private final K key;
+        private V value;
+
+        SnapshotEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            if (value == null) {
+                throw nullValue();
+            }
+            V oldValue = this.value;
+            this.value = value;
+            put(key, value);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IEntry<?, ?> e
+                   && key.equals(e.getKey())
+                   && value.equals(e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Base level node. The header and the deletion markers have a null key,
+     * a null value means the node is deleted.
+     */
+    private static final class Node<K, V> {
+        final K key;
+        volatile V value;
+        volatile Node<K, V> next;
+
+        Node(K key, V value, Node<K, V> next) {
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    private static final class Index<K, V> {
+        final Node<K, V> node;
+        final Index<K, V> down;
+        volatile Index<K, V> right;
+
+        Index(Node<K, V> node, Index<K, V> down, Index<K, V> right) {
+            this.node = node;
+            this.down = down;
+            this.right = right;
+        }
+    }
+}
@@ -0,0 +1,994 @@
+package org.example.dictionaries;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Thread safe hash trie with lock free reads and updates and constant time snapshots (Ctrie).
+ * <p>
+ * Like {@link PersistentHashDictionary} the trie branches on 5 bits of the hash per level,
+ * but every branch node hangs below a mutable indirection node. An update copies the one
+ * branch node it changes and swaps it into the indirection node by CAS, so writers of
+ * different subtrees do not contend. A removal that would leave a branch node with a single
+ * entry leaves a tomb instead, the next thread that reaches the tomb moves its entry up
+ * into the parent.
+ * <p>
+ * {@link #snapshot} replaces the root by a copy of a new generation with a double compare
+ * single swap on the root. An indirection node of an older generation is never changed
+ * afterwards: its CAS only commits while the root still has its generation, and writers copy
+ * the nodes of older generations on their way down. The snapshot and the dictionary thus
+ * share all nodes at first and split one path per update.
+ * <p>
+ * Iterators, cursors, {@link #forEach} and {@link #size} run on a read-only snapshot and see
+ * the state of one instant, {@code size} is O(n). Entries returned by the iterators are
+ * snapshots whose {@code setValue} writes through. {@link #putIfAbsent}, {@link #replace} and
+ * {@link #remove(Object, Object)} are atomic. The compute methods are not, as no lock is taken:
+ * {@link #computeIfAbsent} may call the mapping function in several threads at once and keeps
+ * only the value stored first, {@link #computeIfPresent} may call the remapping function again
+ * if the value changed concurrently.
+ * <p>
+ * Null keys and null values are not supported.
+ */
+public class ConcurrentTrieDictionary<K, V> extends AbstractDictionary<K, V>
+        implements IDictionary<K, V> {
+    private static final VarHandle ROOT;
+    private static final VarHandle MAIN;
+    private static final VarHandle PREV;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            ROOT = lookup.findVarHandle(ConcurrentTrieDictionary.class, "root", Object.class);
+            MAIN = lookup.findVarHandle(INode.class, "main", MainNode.class);
+            PREV = lookup.findVarHandle(MainNode.class, "prev", MainNode.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    /**
+     * The hash has no bits left at this level, keys with equal hashes share a list node.
+     */
+    private static final int MAX_LEVEL = 35;
+
+    /**
+     * Result of the recursive operations when the update lost a race and must start over at the root.
+     */
+    private static final Object RESTART = new Object();
+
+    /*
+     * Conditions of insert, any other condition is the expected current value.
+     */
+    private static final Object ALWAYS = new Object();
+    private static final Object IF_ABSENT = new Object();
+    private static final Object IF_PRESENT = new Object();
+
+    /**
+     * Root indirection node, or a {@link Descriptor} while a snapshot swaps it.
+     */
+    private volatile Object root;
+    private final boolean readOnly;
+    /**
+     * Number of entries of a read-only snapshot, -1 until counted.
+     */
+    private volatile int size = -1;
+
+    public ConcurrentTrieDictionary() {
+        Gen gen = new Gen();
+        this.root = new INode<>(gen, new CNode<K, V>(0, new Object[0], gen));
+        this.readOnly = false;
+    }
+
+    private ConcurrentTrieDictionary(INode<K, V> root, boolean readOnly) {
+        this.root = root;
+        this.readOnly = readOnly;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static NullPointerException nullKey() {
+        return new NullPointerException("Null keys are not supported.");
+    }
+
+    private static NullPointerException nullValue() {
+        return new NullPointerException("Null values are not supported.");
+    }
+
+    /**
+     * @return independent copy of this dictionary in O(1), both share their nodes
+     * until they are updated
+     */
+    public ConcurrentTrieDictionary<K, V> snapshot() {
+        while (true) {
+            INode<K, V> r = readRoot();
+            MainNode<K, V> expected = gcasRead(r);
+            if (swapRoot(r, expected, copyToGen(r, new Gen()))) {
+                return new ConcurrentTrieDictionary<>(copyToGen(r, new Gen()), false);
+            }
+        }
+    }
+
+    /**
+     * @return unmodifiable view of the current state in O(1), later updates of this
+     * dictionary do not show in it
+     */
+    public IDictionary<K, V> readOnlySnapshot() {
+        return readOnlyTrie();
+    }
+
+    private ConcurrentTrieDictionary<K, V> readOnlyTrie() {
+        if (readOnly) {
+            return this;
+        }
+        while (true) {
+            INode<K, V> r = readRoot();
+            MainNode<K, V> expected = gcasRead(r);
+            if (swapRoot(r, expected, copyToGen(r, new Gen()))) {
+                // nobody updates the nodes of the old generation any more
+                return new ConcurrentTrieDictionary<>(r, true);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        int hash = hash(key);
+        while (true) {
+            INode<K, V> r = readRoot();
+            Object result = lookup(r, key, hash, r.gen);
+            if (result != RESTART) {
+                return (V) result;
+            }
+        }
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        V v;
+        return (v = get(key)) == null ? defaultValue : v;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return insert(key, value, ALWAYS);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return insert(key, value, IF_ABSENT);
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        return insert(key, value, IF_PRESENT);
+    }
+
+    private boolean replace(K key, V expected, V value) {
+        return expected.equals(insert(key, value, expected));
+    }
+
+    @SuppressWarnings("unchecked")
+    private V insert(K key, V value, Object condition) {
+        if (readOnly) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+        if (key == null) {
+            throw nullKey();
+        }
+        if (value == null) {
+            throw nullValue();
+        }
+        int hash = hash(key);
+        while (true) {
+            INode<K, V> r = readRoot();
+            Object result = insert(r, key, value, hash, condition, 0, null, r.gen);
+            if (result != RESTART) {
+                return (V) result;
+            }
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        return key == null ? null : removeKey(key, null);
+    }
+
+    @Override
+    public boolean remove(K key, V value) {
+        return key != null && value != null && removeKey(key, value) != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V removeKey(K key, V expected) {
+        if (readOnly) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+        int hash = hash(key);
+        while (true) {
+            INode<K, V> r = readRoot();
+            Object result = remove(r, key, expected, hash, 0, null, r.gen);
+            if (result != RESTART) {
+                return (V) result;
+            }
+        }
+    }
+
+    /**
+     * Not atomic: the mapping function is called without any lock, so threads that miss the key
+     * at the same time may all call it. Only the first value is stored and returned to all of them,
+     * the other results are dropped.
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (key == null) {
+            throw nullKey();
+        }
+        Objects.requireNonNull(mappingFunction);
+        V v, p, r;
+        if ((v = get(key)) == null && (r = mappingFunction.apply(key)) != null) {
+            v = (p = putIfAbsent(key, r)) == null ? r : p;
+        }
+        return v;
+    }
+
+    /**
+     * The remapping function may be called again if the value changed concurrently,
+     * the result is only stored if the value it was computed from is still current.
+     */
+    @Override
+    public V computeIfPresent(K key,
+                              BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        if (key == null) {
+            throw nullKey();
+        }
+        Objects.requireNonNull(remappingFunction);
+        V v;
+        while ((v = get(key)) != null) {
+            V r = remappingFunction.apply(key, v);
+            if (r != null) {
+                if (replace(key, v, r)) {
+                    return r;
+                }
+            } else if (removeKey(key, v) != null) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Counts the entries of a read-only snapshot in O(n), a read-only snapshot keeps its count.
+     */
+    @Override
+    public int size() {
+        if (!readOnly) {
+            return readOnlyTrie().size();
+        }
+        int n = size;
+        if (n < 0) {
+            n = 0;
+            for (Walk<K, V> walk = new Walk<>(this); walk.advance() != null; ) {
+                n++;
+            }
+            size = n;
+        }
+        return n;
+    }
+
+    /**
+     * Only the root can hold an empty branch node, every other one is contracted on removal.
+     */
+    @Override
+    public boolean isEmpty() {
+        return ((CNode<K, V>) gcasRead(readRoot())).bitmap == 0;
+    }
+
+    @Override
+    public ICursor<K, V> cursor() {
+        Walk<K, V> walk = new Walk<>(readOnlyTrie());
+        return new ICursor<>() {
+            private SNode<K, V> current;
+
+            @Override
+            public boolean advance() {
+                return (current = walk.advance()) != null;
+            }
+
+            private SNode<K, V> current() {
+                if (current == null) {
+                    throw noCursorEntry();
+                }
+                return current;
+            }
+
+            @Override
+            public K key() {
+                return current().key;
+            }
+
+            @Override
+            public V value() {
+                return current().value;
+            }
+
+            @Override
+            public V setValue(V value) {
+                return put(current().key, value);
+            }
+        };
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        Walk<K, V> walk = new Walk<>(readOnlyTrie());
+        for (SNode<K, V> e; (e = walk.advance()) != null; ) {
+            action.accept(e.key, e.value);
+        }
+    }
+
+    @Override
+    protected Iterator<IEntry<K, V>> entryIterator() {
+        Walk<K, V> walk = new Walk<>(readOnlyTrie());
+        return new Iterator<>() {
+            private SNode<K, V> next = walk.advance();
+            private K lastKey;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public IEntry<K, V> next() {
+                SNode<K, V> e = next;
+                if (e == null) {
+                    throw new NoSuchElementException();
+                }
+                next = walk.advance();
+                lastKey = e.key;
+                return new MapEntry(e.key, e.value);
+            }
+
+            @Override
+            public void remove() {
+                if (lastKey == null) {
+                    throw new IllegalStateException();
+                }
+                ConcurrentTrieDictionary.this.remove(lastKey);
+                lastKey = null;
+            }
+        };
+    }
+
+    /*
+     * Root swap (RDCSS): the root is replaced by a descriptor first, which is committed
+     * only if the old root still holds the expected main node and rolled back otherwise.
+     */
+
+    @SuppressWarnings("unchecked")
+    private INode<K, V> readRoot() {
+        Object r = root;
+        return r instanceof INode ? (INode<K, V>) r : completeRoot(false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private INode<K, V> completeRoot(boolean abort) {
+        while (true) {
+            Object r = root;
+            if (r instanceof INode) {
+                return (INode<K, V>) r;
+            }
+            Descriptor<K, V> d = (Descriptor<K, V>) r;
+            if (abort) {
+                if (ROOT.compareAndSet(this, d, d.oldRoot)) {
+                    return d.oldRoot;
+                }
+            } else if (gcasRead(d.oldRoot) == d.expectedMain) {
+                if (ROOT.compareAndSet(this, d, d.newRoot)) {
+                    d.committed = true;
+                    return d.newRoot;
+                }
+            } else if (ROOT.compareAndSet(this, d, d.oldRoot)) {
+                return d.oldRoot;
+            }
+        }
+    }
+
+    private boolean swapRoot(INode<K, V> oldRoot, MainNode<K, V> expectedMain, INode<K, V> newRoot) {
+        Descriptor<K, V> d = new Descriptor<>(oldRoot, expectedMain, newRoot);
+        if (ROOT.compareAndSet(this, oldRoot, d)) {
+            completeRoot(false);
+            return d.committed;
+        }
+        return false;
+    }
+
+    /*
+     * Generation compare and swap (GCAS): the new main node points to the one it replaces until
+     * the swap is committed. Whoever reads it first checks that the root still has the generation
+     * of the indirection node and commits the swap, or rolls it back if a snapshot came in between.
+     */
+
+    private MainNode<K, V> gcasRead(INode<K, V> in) {
+        MainNode<K, V> m = in.main;
+        return m.prev == null ? m : gcasComplete(in, m);
+    }
+
+    private boolean gcas(INode<K, V> in, MainNode<K, V> old, MainNode<K, V> n) {
+        n.prev = old;
+        if (MAIN.compareAndSet(in, old, n)) {
+            gcasComplete(in, n);
+            return n.prev == null;
+        }
+        return false;
+    }
+
+    private MainNode<K, V> gcasComplete(INode<K, V> in, MainNode<K, V> m) {
+        while (true) {
+            MainNode<K, V> prev = m.prev;
+            INode<K, V> r = completeRoot(true);
+            if (prev == null) {
+                return m;
+            }
+            if (prev instanceof FailedNode<K, V> failed) {
+                if (MAIN.compareAndSet(in, m, failed.restored)) {
+                    return failed.restored;
+                }
+                m = in.main;
+            } else if (r.gen == in.gen && !readOnly) {
+                if (PREV.compareAndSet(m, prev, null)) {
+                    return m;
+                }
+            } else {
+                PREV.compareAndSet(m, prev, new FailedNode<>(prev));
+                m = in.main;
+            }
+        }
+    }
+
+    private INode<K, V> copyToGen(INode<K, V> in, Gen gen) {
+        return new INode<>(gen, gcasRead(in));
+    }
+
+    /**
+     * @return copy of the branch node whose indirection nodes are copied into the generation
+     */
+    @SuppressWarnings("unchecked")
+    private CNode<K, V> renewed(CNode<K, V> cn, Gen gen) {
+        Object[] array = cn.array.clone();
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] instanceof INode) {
+                array[i] = copyToGen((INode<K, V>) array[i], gen);
+            }
+        }
+        return new CNode<>(cn.bitmap, array, gen);
+    }
+
+    /**
+     * @return copy of the branch node with its tombed children replaced by their entries
+     */
+    @SuppressWarnings("unchecked")
+    private MainNode<K, V> compressed(CNode<K, V> cn, int level, Gen gen) {
+        Object[] array = cn.array.clone();
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] instanceof INode && gcasRead((INode<K, V>) array[i]) instanceof TNode<K, V> tomb) {
+                array[i] = tomb.entry;
+            }
+        }
+        return contracted(new CNode<>(cn.bitmap, array, gen), level);
+    }
+
+    /**
+     * @return tomb of the only entry of a branch node below the root, the branch node otherwise
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> MainNode<K, V> contracted(CNode<K, V> cn, int level) {
+        if (level > 0 && cn.array.length == 1 && cn.array[0] instanceof SNode) {
+            return new TNode<>((SNode<K, V>) cn.array[0]);
+        }
+        return cn;
+    }
+
+    /**
+     * @return subtree of two entries whose hashes agree below the level
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> MainNode<K, V> dual(SNode<K, V> x, SNode<K, V> y, int level, Gen gen) {
+        if (level >= MAX_LEVEL) {
+            return new LNode<>(new SNode[]{x, y});
+        }
+        int xIndex = (x.hash >>> level) & MASK;
+        int yIndex = (y.hash >>> level) & MASK;
+        int bitmap = (1 << xIndex) | (1 << yIndex);
+        if (xIndex == yIndex) {
+            return new CNode<>(bitmap, new Object[]{new INode<>(gen, dual(x, y, level + BITS, gen))}, gen);
+        }
+        return new CNode<>(bitmap, xIndex < yIndex ? new Object[]{x, y} : new Object[]{y, x}, gen);
+    }
+
+    private static boolean holds(Object condition, Object current) {
+        if (condition == ALWAYS) {
+            return true;
+        } else if (condition == IF_ABSENT) {
+            return current == null;
+        } else if (condition == IF_PRESENT) {
+            return current != null;
+        } else {
+            return condition.equals(current);
+        }
+    }
+
+    /**
+     * @return value of the key, null if there is none, or {@link #RESTART}
+     */
+    @SuppressWarnings("unchecked")
+    private Object lookup(INode<K, V> in, K key, int hash, Gen startGen) {
+        INode<K, V> parent = null;
+        int level = 0;
+        while (true) {
+            MainNode<K, V> m = gcasRead(in);
+            if (m instanceof CNode<K, V> cn) {
+                int flag = 1 << ((hash >>> level) & MASK);
+                if ((cn.bitmap & flag) == 0) {
+                    return null;
+                }
+                Object sub = cn.array[Integer.bitCount(cn.bitmap & (flag - 1))];
+                if (sub instanceof SNode) {
+                    SNode<K, V> sn = (SNode<K, V>) sub;
+                    return sn.hash == hash && sn.key.equals(key) ? sn.value : null;
+                }
+                INode<K, V> child = (INode<K, V>) sub;
+                if (readOnly || child.gen == startGen) {
+                    parent = in;
+                    in = child;
+                    level += BITS;
+                } else if (!gcas(in, cn, renewed(cn, startGen))) {
+                    return RESTART;
+                }
+            } else if (m instanceof TNode<K, V> tomb) {
+                if (!readOnly) {
+                    clean(parent, level - BITS, in.gen);
+                    return RESTART;
+                }
+                return tomb.entry.hash == hash && tomb.entry.key.equals(key) ? tomb.entry.value : null;
+            } else {
+                return ((LNode<K, V>) m).get(key);
+            }
+        }
+    }
+
+    /**
+     * Puts the value if the condition holds for the current value of the key.
+     *
+     * @return previous value, null if there was none, or {@link #RESTART}
+     */
+    @SuppressWarnings("unchecked")
+    private Object insert(INode<K, V> in, K key, V value, int hash, Object condition,
+                          int level, INode<K, V> parent, Gen startGen) {
+        while (true) {
+            MainNode<K, V> m = gcasRead(in);
+            if (m instanceof CNode<K, V> cn) {
+                int flag = 1 << ((hash >>> level) & MASK);
+                int pos = Integer.bitCount(cn.bitmap & (flag - 1));
+                if ((cn.bitmap & flag) == 0) {
+                    if (!holds(condition, null)) {
+                        return null;
+                    }
+                    CNode<K, V> current = cn.gen == in.gen ? cn : renewed(cn, in.gen);
+                    SNode<K, V> sn = new SNode<>(key, value, hash);
+                    return gcas(in, cn, current.insertedAt(pos, flag, sn, in.gen)) ? null : RESTART;
+                }
+                Object sub = cn.array[pos];
+                if (sub instanceof INode) {
+                    INode<K, V> child = (INode<K, V>) sub;
+                    if (child.gen == startGen) {
+                        return insert(child, key, value, hash, condition, level + BITS, in, startGen);
+                    }
+                    if (!gcas(in, cn, renewed(cn, startGen))) {
+                        return RESTART;
+                    }
+                    continue;
+                }
+                SNode<K, V> sn = (SNode<K, V>) sub;
+                if (sn.hash == hash && sn.key.equals(key)) {
+                    if (!holds(condition, sn.value)) {
+                        return sn.value;
+                    }
+                    CNode<K, V> updated = cn.updatedAt(pos, new SNode<>(key, value, hash), in.gen);
+                    return gcas(in, cn, updated) ? sn.value : RESTART;
+                }
+                if (!holds(condition, null)) {
+                    return null;
+                }
+                // the entries share the hash bits so far, they move one level down
+                CNode<K, V> current = cn.gen == in.gen ? cn : renewed(cn, in.gen);
+                INode<K, V> branch = new INode<>(in.gen, dual(sn, new SNode<>(key, value, hash), level + BITS, in.gen));
+                return gcas(in, cn, current.updatedAt(pos, branch, in.gen)) ? null : RESTART;
+            } else if (m instanceof TNode) {
+                clean(parent, level - BITS, in.gen);
+                return RESTART;
+            } else {
+                LNode<K, V> ln = (LNode<K, V>) m;
+                V current = ln.get(key);
+                if (!holds(condition, current)) {
+                    return current;
+                }
+                return gcas(in, ln, ln.inserted(new SNode<>(key, value, hash))) ? current : RESTART;
+            }
+        }
+    }
+
+    /**
+     * Removes the key if its value equals the expected one, whatever its value if expected is null.
+     *
+     * @return removed value, null if nothing was removed, or {@link #RESTART}
+     */
+    @SuppressWarnings("unchecked")
+    private Object remove(INode<K, V> in, K key, V expected, int hash,
+                          int level, INode<K, V> parent, Gen startGen) {
+        MainNode<K, V> m = gcasRead(in);
+        if (m instanceof CNode<K, V> cn) {
+            int flag = 1 << ((hash >>> level) & MASK);
+            if ((cn.bitmap & flag) == 0) {
+                return null;
+            }
+            int pos = Integer.bitCount(cn.bitmap & (flag - 1));
+            Object sub = cn.array[pos];
+            Object result;
+            if (sub instanceof INode) {
+                INode<K, V> child = (INode<K, V>) sub;
+                if (child.gen == startGen) {
+                    result = remove(child, key, expected, hash, level + BITS, in, startGen);
+                } else if (gcas(in, cn, renewed(cn, startGen))) {
+                    result = remove(in, key, expected, hash, level, parent, startGen);
+                } else {
+                    result = RESTART;
+                }
+            } else {
+                SNode<K, V> sn = (SNode<K, V>) sub;
+                if (sn.hash != hash || !sn.key.equals(key) || expected != null && !expected.equals(sn.value)) {
+                    return null;
+                }
+                result = gcas(in, cn, contracted(cn.removedAt(pos, flag, in.gen), level)) ? sn.value : RESTART;
+            }
+            if (result != null && result != RESTART && parent != null
+                && gcasRead(in) instanceof TNode<K, V> tomb) {
+                cleanParent(in, tomb, hash, level, parent, startGen);
+            }
+            return result;
+        } else if (m instanceof TNode) {
+            clean(parent, level - BITS, in.gen);
+            return RESTART;
+        } else {
+            LNode<K, V> ln = (LNode<K, V>) m;
+            V current = ln.get(key);
+            if (current == null || expected != null && !expected.equals(current)) {
+                return null;
+            }
+            return gcas(in, ln, ln.removed(key)) ? current : RESTART;
+        }
+    }
+
+    /**
+     * Compresses the tombs below the parent into its branch node.
+     */
+    private void clean(INode<K, V> parent, int level, Gen gen) {
+        if (gcasRead(parent) instanceof CNode<K, V> cn) {
+            gcas(parent, cn, compressed(cn, level, gen));
+        }
+    }
+
+    /**
+     * Replaces the tombed indirection node in the branch node of its parent by the entry of the tomb.
+     */
+    private void cleanParent(INode<K, V> in, TNode<K, V> tomb, int hash,
+                             int level, INode<K, V> parent, Gen startGen) {
+        while (gcasRead(parent) instanceof CNode<K, V> cn) {
+            int flag = 1 << ((hash >>> (level - BITS)) & MASK);
+            if ((cn.bitmap & flag) == 0) {
+                return;
+            }
+            int pos = Integer.bitCount(cn.bitmap & (flag - 1));
+            if (cn.array[pos] != in) {
+                return;
+            }
+            MainNode<K, V> contracted = contracted(cn.updatedAt(pos, tomb.entry, in.gen), level - BITS);
+            if (gcas(parent, cn, contracted) || readRoot().gen != startGen) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Snapshot of a mapping returned by the iterators, {@link #setValue} writes through.
+     */
+    private final class MapEntry implements IEntry<K, V> {
+        private final K key;
+        private V value;
+
+        MapEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            if (value == null) {
+                throw nullValue();
+            }
+            V oldValue = this.value;
+            this.value = value;
+            put(key, value);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IEntry<?, ?> e
+                   && key.equals(e.getKey())
+                   && value.equals(e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Identity of a generation of indirection nodes.
+     */
+    private static final class Gen {
+    }
+
+    /**
+     * Indirection node, the only mutable node of the trie.
+     */
+    private static final class INode<K, V> {
+        final Gen gen;
+        volatile MainNode<K, V> main;
+
+        INode(Gen gen, MainNode<K, V> main) {
+            this.gen = gen;
+            this.main = main;
+        }
+    }
+
+    private abstract static class MainNode<K, V> {
+        /**
+         * Main node this one replaced while its swap is not yet committed, null afterwards.
+         */
+        volatile MainNode<K, V> prev;
+    }
+
+    /**
+     * Branch node, the bitmap has a bit for each hash index of the level that has a child.
+     * Children are entries or indirection nodes in the order of their hash index.
+     */
+    private static final class CNode<K, V> extends MainNode<K, V> {
+        final int bitmap;
+        final Object[] array;
+        final Gen gen;
+
+        CNode(int bitmap, Object[] array, Gen gen) {
+            this.bitmap = bitmap;
+            this.array = array;
+            this.gen = gen;
+        }
+
+        CNode<K, V> updatedAt(int pos, Object child, Gen gen) {
+            Object[] array = this.array.clone();
+            array[pos] = child;
+            return new CNode<>(bitmap, array, gen);
+        }
+
+        CNode<K, V> insertedAt(int pos, int flag, Object child, Gen gen) {
+            Object[] array = new Object[this.array.length + 1];
+            System.arraycopy(this.array, 0, array, 0, pos);
+            array[pos] = child;
+            System.arraycopy(this.array, pos, array, pos + 1, this.array.length - pos);
+            return new CNode<>(bitmap | flag, array, gen);
+        }
+
+        CNode<K, V> removedAt(int pos, int flag, Gen gen) {
+            Object[] array = new Object[this.array.length - 1];
+            System.arraycopy(this.array, 0, array, 0, pos);
+            System.arraycopy(this.array, pos + 1, array, pos, array.length - pos);
+            return new CNode<>(bitmap ^ flag, array, gen);
+        }
+    }
+
+    /**
+     * Entry, immutable so that readers never see a half updated one.
+     */
+    private static final class SNode<K, V> {
+        final K key;
+        final V value;
+        final int hash;
+
+        SNode(K key, V value, int hash) {
+            this.key = key;
+            this.value = value;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * Tomb of a branch node that was left with a single entry, the entry belongs into the parent.
+     */
+    private static final class TNode<K, V> extends MainNode<K, V> {
+        final SNode<K, V> entry;
+
+        TNode(SNode<K, V> entry) {
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * Entries whose hashes are equal.
+     */
+    private static final class LNode<K, V> extends MainNode<K, V> {
+        final SNode<K, V>[] entries;
+
+        LNode(SNode<K, V>[] entries) {
+            this.entries = entries;
+        }
+
+        V get(K key) {
+            for (SNode<K, V> e : entries) {
+                if (e.key.equals(key)) {
+                    return e.value;
+                }
+            }
+            return null;
+        }
+
+        LNode<K, V> inserted(SNode<K, V> entry) {
+            for (int i = 0; i < entries.length; i++) {
+                if (entries[i].key.equals(entry.key)) {
+                    SNode<K, V>[] copy = entries.clone();
+                    copy[i] = entry;
+                    return new LNode<>(copy);
+                }
+            }
+            SNode<K, V>[] copy = Arrays.copyOf(entries, entries.length + 1);
+            copy[entries.length] = entry;
+            return new LNode<>(copy);
+        }
+
+        /**
+         * @return list without the key, or the tomb of the last entry
+         */
+        @SuppressWarnings("unchecked")
+        MainNode<K, V> removed(K key) {
+            SNode<K, V>[] copy = new SNode[entries.length - 1];
+            int n = 0;
+            for (SNode<K, V> e : entries) {
+                if (!e.key.equals(key)) {
+                    copy[n++] = e;
+                }
+            }
+            return copy.length == 1 ? new TNode<>(copy[0]) : new LNode<>(copy);
+        }
+    }
+
+    /**
+     * Main node of an aborted swap, the swap is rolled back to the main node it replaced.
+     */
+    private static final class FailedNode<K, V> extends MainNode<K, V> {
+        final MainNode<K, V> restored;
+
+        FailedNode(MainNode<K, V> restored) {
+            this.restored = restored;
+        }
+    }
+
+    /**
+     * Root swap in progress, committed if the old root still holds the expected main node.
+     */
+    private static final class Descriptor<K, V> {
+        final INode<K, V> oldRoot;
+        final MainNode<K, V> expectedMain;
+        final INode<K, V> newRoot;
+        volatile boolean committed;
+
+        Descriptor(INode<K, V> oldRoot, MainNode<K, V> expectedMain, INode<K, V> newRoot) {
+            this.oldRoot = oldRoot;
+            this.expectedMain = expectedMain;
+            this.newRoot = newRoot;
+        }
+    }
+
+    /**
+     * Depth-first walk over the entries of a read-only snapshot, the hash has at most seven levels.
+     */
+    private static final class Walk<K, V> {
+        private final ConcurrentTrieDictionary<K, V> trie;
+        private final Object[][] arrays = new Object[MAX_LEVEL / BITS + 1][];
+        private final int[] positions = new int[MAX_LEVEL / BITS + 1];
+        private int depth = -1;
+        /**
+         * Entries of a list node or tomb that are not yet returned.
+         */
+        private SNode<K, V>[] pending;
+        private int pendingPosition;
+
+        Walk(ConcurrentTrieDictionary<K, V> trie) {
+            this.trie = trie;
+            descend(trie.readRoot());
+        }
+
+        @SuppressWarnings("unchecked")
+        private void descend(INode<K, V> in) {
+            MainNode<K, V> m = trie.gcasRead(in);
+            if (m instanceof CNode<K, V> cn) {
+                arrays[++depth] = cn.array;
+                positions[depth] = 0;
+            } else {
+                pending = m instanceof TNode<K, V> tomb ? new SNode[]{tomb.entry} : ((LNode<K, V>) m).entries;
+                pendingPosition = 0;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        SNode<K, V> advance() {
+            while (true) {
+                if (pending != null) {
+                    if (pendingPosition < pending.length) {
+                        return pending[pendingPosition++];
+                    }
+                    pending = null;
+                }
+                if (depth < 0) {
+                    return null;
+                }
+                if (positions[depth] == arrays[depth].length) {
+                    arrays[depth--] = null;
+                    continue;
+                }
+                Object sub = arrays[depth][positions[depth]++];
+                if (sub instanceof SNode) {
+                    return (SNode<K, V>) sub;
+                }
+                descend((INode<K, V>) sub);
+            }
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package org.example.dictionaries;
+
+import org.example.dictionaries.entries.KeyValueHolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable trie packed into two int arrays, built by {@link TrieDictionary#compile()}.
+ * <p>
+ * A state {@code s} moves on the code {@code c} of a char to {@code t = base[s] + c} when
+ * {@code check[t] == s}, so a lookup is one array probe per char and no object is kept per node.
+ * Chars are mapped to dense codes in char order, code 0 is the end of a key: the state reached by it
+ * stores {@code -(index + 1)} as its base, where index is the rank of the key among all keys.
+ * As {@code check} points to the parent state, the key of a rank is rebuilt by walking up from its end state.
+ * The keys of a subtree have consecutive ranks, so prefix counts and top-k queries work on rank ranges.
+ */
+final class DoubleArrayTrieDictionary<V> extends AbstractImmutableDictionary<String, V>
+        implements IPrefixDictionary<String, V> {
+    private static final int FREE = -1;
+    private static final int ROOT = 0;
+    /**
+     * Share of taken slots above which the search for a base skips the scanned region for good.
+     */
+    private static final double DENSE = 0.95;
+
+    private final int[] base;
+    private final int[] check;
+    /**
+     * Code of every char, 0 for chars that no key contains.
+     */
+    private final int[] codes;
+    private final char[] alphabet;
+    /**
+     * End state of the key of every rank.
+     */
+    private final int[] ends;
+    private final Object[] values;
+    private volatile Ranking ranking;
+
+    /**
+     * @param keys   distinct keys in {@code String} order
+     * @param values values of the keys
+     */
+    DoubleArrayTrieDictionary(String[] keys, Object[] values) {
+        this.values = values;
+        this.ends = new int[keys.length];
+
+        int maxChar = 0;
+        boolean[] used = new boolean[Character.MAX_VALUE + 1];
+        for (String key : keys) {
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                used[c] = true;
+                maxChar = Math.max(maxChar, c);
+            }
+        }
+        codes = new int[maxChar + 1];
+        int alphabetSize = 0;
+        for (int c = 0; c <= maxChar; c++) {
+            if (used[c]) {
+                codes[c] = ++alphabetSize;
+            }
+        }
+        alphabet = new char[alphabetSize];
+        for (int c = 0; c <= maxChar; c++) {
+            if (used[c]) {
+                alphabet[codes[c] - 1] = (char) c;
+            }
+        }
+
+        Builder builder = new Builder(keys, Math.max(16, 2 * keys.length));
+        builder.build();
+        base = Arrays.copyOf(builder.base, builder.size);
+        check = Arrays.copyOf(builder.check, builder.size);
+    }
+
+    /**
+     * Places the children of one state at a time, depth first, at the first base where all their slots are free.
+     */
+    private final class Builder {
+        private final String[] keys;
+        private int[] base;
+        private int[] check;
+        private int size = 1;
+        private int firstFree = 1;
+
+        Builder(String[] keys, int capacity) {
+            this.keys = keys;
+            this.base = new int[capacity];
+            this.check = new int[capacity];
+            Arrays.fill(check, FREE);
+            check[ROOT] = ROOT;
+        }
+
+        void build() {
+            if (keys.length == 0) {
+                base[ROOT] = 1;
+                return;
+            }
+            // state, first and last + 1 key of its subtree, depth
+            int[] stack = new int[64];
+            int top = 0;
+            stack[top++] = ROOT;
+            stack[top++] = 0;
+            stack[top++] = keys.length;
+            stack[top++] = 0;
+            int[] childCodes = new int[alphabet.length + 1];
+            int[] childStarts = new int[alphabet.length + 2];
+            while (top > 0) {
+                int depth = stack[--top];
+                int hi = stack[--top];
+                int lo = stack[--top];
+                int state = stack[--top];
+
+                int children = 0;
+                for (int i = lo; i < hi; ) {
+                    String key = keys[i];
+                    int code = key.length() == depth ? 0 : codes[key.charAt(depth)];
+                    childCodes[children] = code;
+                    childStarts[children++] = i;
+                    i++;
+                    if (code != 0) {
+                        char c = key.charAt(depth);
+                        while (i < hi && keys[i].charAt(depth) == c) {
+                            i++;
+                        }
+                    }
+                }
+                childStarts[children] = hi;
+
+                int b = findBase(childCodes, children);
+                base[state] = b;
+                for (int j = 0; j < children; j++) {
+                    check[b + childCodes[j]] = state;
+                }
+                size = Math.max(size, b + childCodes[children - 1] + 1);
+                for (int j = children - 1; j >= 0; j--) {
+                    int child = b + childCodes[j];
+                    if (childCodes[j] == 0) {
+                        base[child] = -(childStarts[j] + 1);
+                        ends[childStarts[j]] = child;
+                        continue;
+                    }
+                    if (top + 4 > stack.length) {
+                        stack = Arrays.copyOf(stack, 2 * stack.length);
+                    }
+                    stack[top++] = child;
+                    stack[top++] = childStarts[j];
+                    stack[top++] = childStarts[j + 1];
+                    stack[top++] = depth + 1;
+                }
+            }
+        }
+
+        /**
+         * @return smallest base from the first free slot on that puts every code on a free slot
+         */
+        private int findBase(int[] childCodes, int children) {
+            int first = childCodes[0];
+            int last = childCodes[children - 1];
+            int taken = 0;
+            int position = Math.max(firstFree, first + 1);
+            while (true) {
+                ensureCapacity(position + last - first + 1);
+                if (check[position] != FREE) {
+                    taken++;
+                    position++;
+                    continue;
+                }
+                int b = position - first;
+                boolean fits = true;
+                for (int j = 1; j < children && fits; j++) {
+                    fits = check[b + childCodes[j]] == FREE;
+                }
+                if (fits) {
+                    if ((double) taken / (position - firstFree + 1) >= DENSE) {
+                        firstFree = position;
+                    }
+                    while (firstFree < check.length && check[firstFree] != FREE) {
+                        firstFree++;
+                    }
+                    return b;
+                }
+                position++;
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > check.length) {
+                int length = Math.max(capacity, 2 * check.length);
+                int oldLength = check.length;
+                base = Arrays.copyOf(base, length);
+                check = Arrays.copyOf(check, length);
+                Arrays.fill(check, oldLength, length, FREE);
+            }
+        }
+    }
+
+    /**
+     * @return state after the char, negative if there is none
+     */
+    private int transition(int state, char c) {
+        if (c >= codes.length || codes[c] == 0) {
+            return -1;
+        }
+        int next = base[state] + codes[c];
+        return next < check.length && check[next] == state ? next : -1;
+    }
+
+    /**
+     * @return rank of the key ending in the state, negative if no key ends there
+     */
+    private int rankAt(int state) {
+        int end = base[state];
+        return end < check.length && check[end] == state ? -base[end] - 1 : -1;
+    }
+
+    /**
+     * @return state reached by the chars of the prefix, negative if no key starts with it
+     */
+    private int walk(String prefix) {
+        int state = ROOT;
+        for (int i = 0; i < prefix.length() && state >= 0; i++) {
+            state = transition(state, prefix.charAt(i));
+        }
+        return state;
+    }
+
+    /**
+     * Walks up from the end state twice, once for the length and once to fill the chars from the back.
+     * Reversing a builder instead would keep surrogate pairs together and scramble their halves.
+     */
+    private String keyAt(int rank) {
+        int length = 0;
+        for (int state = check[ends[rank]]; state != ROOT; state = check[state]) {
+            length++;
+        }
+        char[] key = new char[length];
+        for (int state = check[ends[rank]]; state != ROOT; ) {
+            int parent = check[state];
+            key[--length] = alphabet[state - base[parent] - 1];
+            state = parent;
+        }
+        return new String(key);
+    }
+
+    /**
+     * @return first rank, inclusive, and last rank, exclusive, of the keys below the state
+     */
+    private int[] ranks(int state) {
+        return new int[]{extremeRank(state, true), extremeRank(state, false) + 1};
+    }
+
+    private int extremeRank(int state, boolean smallest) {
+        while (true) {
+            int b = base[state];
+            int code = smallest ? 0 : alphabet.length;
+            int step = smallest ? 1 : -1;
+            while (code >= 0 && code <= alphabet.length
+                    && (b + code >= check.length || check[b + code] != state)) {
+                code += step;
+            }
+            if (code == 0) {
+                return -base[b] - 1;
+            }
+            state = b + code;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(String key) {
+        if (key == null) {
+            throw new NullPointerException("Null keys are not supported.");
+        }
+        int state = walk(key);
+        int rank = state >= 0 ? rankAt(state) : -1;
+        return rank >= 0 ? (V) values[rank] : null;
+    }
+
+    @Override
+    public boolean containsKey(String key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V getOrDefault(String key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    @Override
+    protected Iterator<IEntry<String, V>> entryIterator() {
+        return new RankIterator(0, values.length);
+    }
+
+    @Override
+    public Iterator<IEntry<String, V>> prefixEntries(String prefix) {
+        Objects.requireNonNull(prefix);
+        int state = walk(prefix);
+        if (state < 0 || values.length == 0) {
+            return new RankIterator(0, 0);
+        }
+        int[] ranks = ranks(state);
+        return new RankIterator(ranks[0], ranks[1]);
+    }
+
+    @Override
+    public String longestPrefixOf(String query) {
+        Objects.requireNonNull(query);
+        int state = ROOT;
+        int longest = rankAt(ROOT) >= 0 ? 0 : -1;
+        for (int i = 0; i < query.length() && (state = transition(state, query.charAt(i))) >= 0; i++) {
+            if (rankAt(state) >= 0) {
+                longest = i + 1;
+            }
+        }
+        return longest >= 0 ? query.substring(0, longest) : null;
+    }
+
+    @Override
+    public int countWithPrefix(String prefix) {
+        Objects.requireNonNull(prefix);
+        int state = walk(prefix);
+        if (state < 0 || values.length == 0) {
+            return 0;
+        }
+        int[] ranks = ranks(state);
+        return ranks[1] - ranks[0];
+    }
+
+    /**
+     * Splits the rank range of the prefix around its best value, the best of each part is found
+     * in a segment tree over the values. The tree is built once per comparator instance, after
+     * that the query is O(prefix + k log n).
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<IEntry<String, V>> topK(String prefix, int k, Comparator<? super V> comparator) {
+        Objects.requireNonNull(prefix);
+        Objects.requireNonNull(comparator);
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative.");
+        }
+        List<IEntry<String, V>> result = new ArrayList<>(Math.min(k, 64));
+        int state = walk(prefix);
+        if (state < 0 || values.length == 0 || k == 0) {
+            return result;
+        }
+        Ranking ranking = this.ranking;
+        if (ranking == null || ranking.comparator != comparator) {
+            this.ranking = ranking = new Ranking((Comparator<Object>) comparator);
+        }
+        int[] ranks = ranks(state);
+        Ranking r = ranking;
+        // ranges of ranks as {best, lo, hi}, ordered by their best value
+        PriorityQueue<int[]> queue = new PriorityQueue<>(
+                (a, b) -> r.comparator.compare(values[b[0]], values[a[0]]));
+        queue.add(new int[]{r.best(ranks[0], ranks[1]), ranks[0], ranks[1]});
+        while (!queue.isEmpty() && result.size() < k) {
+            int[] range = queue.poll();
+            int best = range[0];
+            result.add(new KeyValueHolder<>(keyAt(best), (V) values[best]));
+            if (range[1] < best) {
+                queue.add(new int[]{r.best(range[1], best), range[1], best});
+            }
+            if (best + 1 < range[2]) {
+                queue.add(new int[]{r.best(best + 1, range[2]), best + 1, range[2]});
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Segment tree of the ranks with the best value of every node, for one comparator.
+     */
+    private final class Ranking {
+        private final Comparator<Object> comparator;
+        private final int[] tree;
+
+        Ranking(Comparator<Object> comparator) {
+            this.comparator = comparator;
+            int n = values.length;
+            tree = new int[2 * n];
+            for (int i = 0; i < n; i++) {
+                tree[n + i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                tree[i] = better(tree[2 * i], tree[2 * i + 1]);
+            }
+        }
+
+        private int better(int a, int b) {
+            return comparator.compare(values[b], values[a]) > 0 ? b : a;
+        }
+
+        /**
+         * @return rank with the best value from lo, inclusive, to hi, exclusive
+         */
+        int best(int lo, int hi) {
+            int n = values.length;
+            int best = lo;
+            for (lo += n, hi += n; lo < hi; lo >>>= 1, hi >>>= 1) {
+                if ((lo & 1) != 0) {
+                    best = better(best, tree[lo++]);
+                }
+                if ((hi & 1) != 0) {
+                    best = better(best, tree[--hi]);
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Entries of a range of ranks in key order, does not support {@link Iterator#remove()}.
+     */
+    private final class RankIterator implements Iterator<IEntry<String, V>> {
+        private int rank;
+        private final int end;
+
+        RankIterator(int rank, int end) {
+            this.rank = rank;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rank < end;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public IEntry<String, V> next() {
+            if (rank >= end) {
+                throw new NoSuchElementException();
+            }
+            int current = rank++;
+            return new KeyValueHolder<>(keyAt(current), (V) values[current]);
+        }
+    }
+}
@@ -1,11 +1,10 @@
 package org.example.dictionaries;
 
-import org.example.dictionaries.entries.KeyValueHolder;
-
 import java.io.Serializable;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -58,8 +57,29 @@ public class EnumDictionary<K extends Enum<K>, V> extends AbstractDictionary<K,
         return dictionary.remove(key);
     }
 
-    public Set<IEntry<K, V>> entrySet() {
-        return dictionary.entrySet();
+    @Override
+    protected Iterator<IEntry<K, V>> entryIterator() {
+        return dictionary.entryIterator();
+    }
+
+    @Override
+    protected Iterator<K> keyIterator() {
+        return dictionary.keyIterator();
+    }
+
+    @Override
+    protected Iterator<V> valueIterator() {
+        return dictionary.valueIterator();
+    }
+
+    @Override
+    public ICursor<K, V> cursor() {
+        return dictionary.cursor();
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        dictionary.forEach(action);
     }
 
     @Override
@@ -86,6 +106,7 @@ public class EnumDictionary<K extends Enum<K>, V> extends AbstractDictionary<K,
         private final Class<K> keyType;
         private final Enum<?>[] keyUniverse;
         private final Object[] values;
+        private int size;
 
         InternalDictionary(Class<K> keyType) {
             this.keyType = keyType;
@@ -98,6 +119,9 @@ public class EnumDictionary<K extends Enum<K>, V> extends AbstractDictionary<K,
             Objects.requireNonNull(value);
             V oldValue = get(key);
             values[key.ordinal()] = value;
+            if (oldValue == null) {
+                size++;
+            }
             return oldValue;
         }
 
@@ -143,7 +167,7 @@ public class EnumDictionary<K extends Enum<K>, V> extends AbstractDictionary<K,
 
         @Override
         public int size() {
-            return keyUniverse.length;
+            return size;
         }
 
         @Override
@@ -152,20 +176,184 @@ public class EnumDictionary<K extends Enum<K>, V> extends AbstractDictionary<K,
                 K enumKey = key;
                 V oldValue = get(enumKey);
                 values[enumKey.ordinal()] = null;
+                if (oldValue != null) {
+                    size--;
+                }
                 return oldValue;
             }
             return null;
         }
 
         @Override
-        public Set<IEntry<K,V>> entrySet() {
-            Set<IEntry<K,V>> entrySet = new HashSet<>();
-            for(int i = 0; i < keyUniverse.length; i++) {
-                if(values[i] != null)
-                    entrySet.add(new KeyValueHolder(keyUniverse[i], values[i]));
+        protected Iterator<IEntry<K, V>> entryIterator() {
+            return new OrdinalIterator<>() {
+                @Override
+                public IEntry<K, V> next() {
+                    return new OrdinalEntry(nextOrdinal());
+                }
+            };
+        }
+
+        @Override
+        protected Iterator<K> keyIterator() {
+            return new OrdinalIterator<>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public K next() {
+                    return (K) keyUniverse[nextOrdinal()];
+                }
+            };
+        }
+
+        @Override
+        protected Iterator<V> valueIterator() {
+            return new OrdinalIterator<>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public V next() {
+                    return (V) values[nextOrdinal()];
+                }
+            };
+        }
+
+        @Override
+        public ICursor<K, V> cursor() {
+            return new ICursor<>() {
+                private int index = -1;
+
+                @Override
+                public boolean advance() {
+                    while (++index < values.length) {
+                        if (values[index] != null) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+
+                private int index() {
+                    if (index < 0 || index >= values.length) {
+                        throw noCursorEntry();
+                    }
+                    return index;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public K key() {
+                    return (K) keyUniverse[index()];
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public V value() {
+                    return (V) values[index()];
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public V setValue(V value) {
+                    Objects.requireNonNull(value);
+                    int i = index();
+                    V oldValue = (V) values[i];
+                    values[i] = value;
+                    return oldValue;
+                }
+            };
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            Objects.requireNonNull(action);
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    action.accept((K) keyUniverse[i], (V) values[i]);
+                }
+            }
+        }
+
+        private abstract class OrdinalIterator<E> implements Iterator<E> {
+            private int index = advance(0);
+            private int current = -1;
+
+            private int advance(int i) {
+                while (i < values.length && values[i] == null) {
+                    i++;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return index < values.length;
+            }
+
+            int nextOrdinal() {
+                if (index >= values.length) {
+                    throw new NoSuchElementException();
+                }
+                current = index;
+                index = advance(index + 1);
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                if (current < 0) {
+                    throw new IllegalStateException();
+                }
+                if (values[current] != null) {
+                    values[current] = null;
+                    size--;
+                }
+                current = -1;
+            }
+        }
+
+        /**
+         * Entry backed by the slot of its ordinal, {@link #setValue} writes through to the dictionary.
+         */
+        private class OrdinalEntry implements IEntry<K, V> {
+            private final int ordinal;
+
+            OrdinalEntry(int ordinal) {
+                this.ordinal = ordinal;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public K getKey() {
+                return (K) keyUniverse[ordinal];
             }
 
-            return entrySet;
+            @Override
+            @SuppressWarnings("unchecked")
+            public V getValue() {
+                return (V) values[ordinal];
+            }
+
+            @Override
+            public V setValue(V value) {
+                return put(getKey(), value);
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                return o instanceof IEntry<?, ?> e
+                       && getKey().equals(e.getKey())
+                       && Objects.equals(getValue(), e.getValue());
+            }
+
+            @Override
+            public int hashCode() {
+                return getKey().hashCode() ^ Objects.hashCode(getValue());
+            }
+
+            @Override
+            public String toString() {
+                return getKey() + "=" + getValue();
+            }
         }
     }
 }
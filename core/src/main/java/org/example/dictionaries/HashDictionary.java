@@ -1,99 +1,98 @@
 package org.example.dictionaries;
 
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Set;
+import java.util.function.BiConsumer;
 
 public class HashDictionary<K, V> extends AbstractDictionary<K,V>
         implements IDictionary<K, V> {
     private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
     private static final float LOAD_FACTOR = 0.75f;
+    private static final float OPEN_ADDRESSING_LOAD_FACTOR = 0.5f;
 
-    private Node<K, V>[] buckets;
-    private int size;
+    /**
+     * Storage layout of the hash table, chosen at construction.
+     */
+    public enum Layout {
+        /**
+         * Array of buckets with a linked chain of nodes per bucket.
+         */
+        CHAINING,
+        /**
+         * Flat table with keys and values stored next to each other in one array
+         * and collisions resolved by linear probing, no node is allocated per entry.
+         */
+        OPEN_ADDRESSING
+    }
+
+    private final AbstractDictionary<K, V> dictionary;
 
     public HashDictionary() {
         this(DEFAULT_CAPACITY);
     }
 
     public HashDictionary(int capacity) {
+        this(capacity, Layout.CHAINING);
+    }
+
+    public HashDictionary(Layout layout) {
+        this(DEFAULT_CAPACITY, layout);
+    }
+
+    /**
+     * @param capacity initial number of buckets (slots for {@link Layout#OPEN_ADDRESSING}),
+     *                 rounded up to a power of two
+     * @param layout   storage layout of the table
+     */
+    public HashDictionary(int capacity, Layout layout) {
         if (capacity <= 0) {
             throw new IllegalArgumentException("Capacity must be a positive integer.");
         }
-        this.buckets = new Node[capacity];
-        this.size = 0;
+        Objects.requireNonNull(layout);
+        int tableSize = tableSizeFor(capacity);
+        this.dictionary = layout == Layout.CHAINING
+                ? new ChainedTable<>(tableSize)
+                : new OpenAddressingTable<>(tableSize);
+    }
+
+    /**
+     * Spreads higher bits of the hash code to the lower ones,
+     * because power of two tables use only the lower bits for indexing.
+     */
+    static int spread(int hashCode) {
+        return hashCode ^ (hashCode >>> 16);
     }
 
-    private int getIndex(K key) {
-        int hashCode = Objects.hashCode(key);
-        return Math.abs(hashCode) % buckets.length;
+    private static int tableSizeFor(int capacity) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(capacity - 1);
+        return (n < 0) ? 1 : (n >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY : n + 1;
     }
 
     @Override
     public boolean isEmpty() {
-        return size == 0;
+        return dictionary.isEmpty();
     }
 
     @Override
     public boolean containsKey(K key) {
-        int index = getIndex(key);
-        Node<K, V> node = buckets[index];
-        while (node != null) {
-            if (Objects.equals(node.key, key)) {
-                return true;
-            }
-            node = node.next;
-        }
-        return false;
+        return dictionary.containsKey(key);
     }
 
     @Override
     public boolean containsValue(V value) {
-        for (Node<K, V> node : buckets) {
-            while (node != null) {
-                if (Objects.equals(node.value, value)) {
-                    return true;
-                }
-                node = node.next;
-            }
-        }
-        return false;
+        return dictionary.containsValue(value);
     }
 
     @Override
     public V put(K key, V value) {
-        int index = getIndex(key);
-        Node<K, V> node = buckets[index];
-        while (node != null) {
-            if (Objects.equals(node.key, key)) {
-                V oldValue = node.value;
-                node.value = value;
-                return oldValue;
-            }
-            node = node.next;
-        }
-        Node<K, V> newNode = new Node<>(key, value);
-        newNode.next = buckets[index];
-        buckets[index] = newNode;
-        size++;
-
-        if ((float) size / buckets.length > LOAD_FACTOR) {
-            resizeBuckets();
-        }
-        return null;
+        return dictionary.put(key, value);
     }
 
     @Override
     public V get(K key) {
-        int index = getIndex(key);
-        Node<K, V> node = buckets[index];
-        while (node != null) {
-            if (Objects.equals(node.key, key)) {
-                return node.value;
-            }
-            node = node.next;
-        }
-        return null;
+        return dictionary.get(key);
     }
 
     @Override
@@ -104,55 +103,37 @@ public class HashDictionary<K, V> extends AbstractDictionary<K,V>
 
     @Override
     public int size() {
-        return size;
+        return dictionary.size();
     }
 
     @Override
     public V remove(K key) {
-        int index = getIndex(key);
-        Node<K, V> prevNode = null;
-        Node<K, V> node = buckets[index];
-        while (node != null) {
-            if (Objects.equals(node.key, key)) {
-                if (prevNode == null) {
-                    buckets[index] = node.next;
-                } else {
-                    prevNode.next = node.next;
-                }
-                size--;
-                return node.value;
-            }
-            prevNode = node;
-            node = node.next;
-        }
-        return null;
+        return dictionary.remove(key);
     }
 
-    private void resizeBuckets() {
-        int newCapacity = buckets.length * 2;
-        Node<K, V>[] newBuckets = new Node[newCapacity];
-        for (Node<K, V> node : buckets) {
-            while (node != null) {
-                int newIndex = getIndex(node.key);
-                Node<K, V> nextNode = node.next;
-                node.next = newBuckets[newIndex];
-                newBuckets[newIndex] = node;
-                node = nextNode;
-            }
-        }
-        buckets = newBuckets;
+    @Override
+    protected Iterator<IEntry<K, V>> entryIterator() {
+        return dictionary.entryIterator();
     }
 
     @Override
-    public Set<IEntry<K, V>> entrySet() {
-        Set<IEntry<K, V>> entrySet = new HashSet<>();
-        for (Node<K, V> node : buckets) {
-            while (node != null) {
-                entrySet.add(node);
-                node = node.next;
-            }
-        }
-        return entrySet;
+    protected Iterator<K> keyIterator() {
+        return dictionary.keyIterator();
+    }
+
+    @Override
+    protected Iterator<V> valueIterator() {
+        return dictionary.valueIterator();
+    }
+
+    @Override
+    public ICursor<K, V> cursor() {
+        return dictionary.cursor();
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        dictionary.forEach(action);
     }
 
     @Override
@@ -160,15 +141,14 @@ public class HashDictionary<K, V> extends AbstractDictionary<K,V>
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         HashDictionary<K, V> that = (HashDictionary<K, V>) o;
-        if (size != that.size) return false;
-        for (IEntry<K, V> entry : buckets) {
-            if (entry != null) {
-                K key = entry.getKey();
-                V value = entry.getValue();
-                V thatValue = that.get(key);
-                if (!Objects.equals(value, thatValue)) {
-                    return false;
-                }
+        if (size() != that.size()) return false;
+        for (IEntry<K, V> entry : entrySet()) {
+            K key = entry.getKey();
+            V value = entry.getValue();
+            V thatValue = that.get(key);
+            if (!Objects.equals(value, thatValue)
+                || (thatValue == null && !that.containsKey(key))) {
+                return false;
             }
         }
         return true;
@@ -177,16 +157,570 @@ public class HashDictionary<K, V> extends AbstractDictionary<K,V>
     @Override
     public int hashCode() {
         int hashCode = 0;
-        for (IEntry<K, V> entry : buckets) {
-            if (entry != null) {
-                K key = entry.getKey();
-                V value = entry.getValue();
-                hashCode += Objects.hash(key, value);
-            }
+        for (IEntry<K, V> entry : entrySet()) {
+            hashCode += Objects.hash(entry.getKey(), entry.getValue());
         }
         return hashCode;
     }
 
+    private static final class ChainedTable<K, V> extends AbstractDictionary<K, V> {
+        private Node<K, V>[] buckets;
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        ChainedTable(int capacity) {
+            this.buckets = new Node[capacity];
+            this.size = 0;
+        }
+
+        private int getIndex(K key) {
+            return spread(Objects.hashCode(key)) & (buckets.length - 1);
+        }
+
+        @Override
+        public boolean containsKey(K key) {
+            int index = getIndex(key);
+            Node<K, V> node = buckets[index];
+            while (node != null) {
+                if (Objects.equals(node.key, key)) {
+                    return true;
+                }
+                node = node.next;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean containsValue(V value) {
+            for (Node<K, V> node : buckets) {
+                while (node != null) {
+                    if (Objects.equals(node.value, value)) {
+                        return true;
+                    }
+                    node = node.next;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            int index = getIndex(key);
+            Node<K, V> node = buckets[index];
+            while (node != null) {
+                if (Objects.equals(node.key, key)) {
+                    V oldValue = node.value;
+                    node.value = value;
+                    return oldValue;
+                }
+                node = node.next;
+            }
+            Node<K, V> newNode = new Node<>(key, value);
+            newNode.next = buckets[index];
+            buckets[index] = newNode;
+            size++;
+
+            if ((float) size / buckets.length > LOAD_FACTOR && buckets.length < MAXIMUM_CAPACITY) {
+                resizeBuckets();
+            }
+            return null;
+        }
+
+        @Override
+        public V get(K key) {
+            int index = getIndex(key);
+            Node<K, V> node = buckets[index];
+            while (node != null) {
+                if (Objects.equals(node.key, key)) {
+                    return node.value;
+                }
+                node = node.next;
+            }
+            return null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public V remove(K key) {
+            int index = getIndex(key);
+            Node<K, V> prevNode = null;
+            Node<K, V> node = buckets[index];
+            while (node != null) {
+                if (Objects.equals(node.key, key)) {
+                    if (prevNode == null) {
+                        buckets[index] = node.next;
+                    } else {
+                        prevNode.next = node.next;
+                    }
+                    size--;
+                    return node.value;
+                }
+                prevNode = node;
+                node = node.next;
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void resizeBuckets() {
+            int newCapacity = buckets.length * 2;
+            Node<K, V>[] newBuckets = new Node[newCapacity];
+            for (Node<K, V> node : buckets) {
+                while (node != null) {
+                    int newIndex = spread(Objects.hashCode(node.key)) & (newCapacity - 1);
+                    Node<K, V> nextNode = node.next;
+                    node.next = newBuckets[newIndex];
+                    newBuckets[newIndex] = node;
+                    node = nextNode;
+                }
+            }
+            buckets = newBuckets;
+        }
+
+        @Override
+        protected Iterator<IEntry<K, V>> entryIterator() {
+            return new ChainIterator<>() {
+                @Override
+                public IEntry<K, V> next() {
+                    return nextNode();
+                }
+            };
+        }
+
+        @Override
+        protected Iterator<K> keyIterator() {
+            return new ChainIterator<>() {
+                @Override
+                public K next() {
+                    return nextNode().key;
+                }
+            };
+        }
+
+        @Override
+        protected Iterator<V> valueIterator() {
+            return new ChainIterator<>() {
+                @Override
+                public V next() {
+                    return nextNode().value;
+                }
+            };
+        }
+
+        @Override
+        public ICursor<K, V> cursor() {
+            return new ICursor<>() {
+                private final Node<K, V>[] tab = buckets;
+                private int index;
+                private Node<K, V> node;
+
+                @Override
+                public boolean advance() {
+                    if (node != null) {
+                        node = node.next;
+                    }
+                    while (node == null && index < tab.length) {
+                        node = tab[index++];
+                    }
+                    return node != null;
+                }
+
+                private Node<K, V> node() {
+                    if (node == null) {
+                        throw noCursorEntry();
+                    }
+                    return node;
+                }
+
+                @Override
+                public K key() {
+                    return node().key;
+                }
+
+                @Override
+                public V value() {
+                    return node().value;
+                }
+
+                @Override
+                public V setValue(V value) {
+                    return node().setValue(value);
+                }
+            };
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            Objects.requireNonNull(action);
+            for (Node<K, V> node : buckets) {
+                for (; node != null; node = node.next) {
+                    action.accept(node.key, node.value);
+                }
+            }
+        }
+
+        private abstract class ChainIterator<E> implements Iterator<E> {
+            private final Node<K, V>[] tab = buckets;
+            private int index;
+            private Node<K, V> next;
+            private Node<K, V> current;
+
+            ChainIterator() {
+                advanceBucket();
+            }
+
+            private void advanceBucket() {
+                while (next == null && index < tab.length) {
+                    next = tab[index++];
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            Node<K, V> nextNode() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                current = next;
+                next = next.next;
+                advanceBucket();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                if (current == null) {
+                    throw new IllegalStateException();
+                }
+                // unlinking the current node leaves the pointer to the next one intact
+                ChainedTable.this.remove(current.key);
+                current = null;
+            }
+        }
+    }
+
+    private static final class OpenAddressingTable<K, V> extends AbstractDictionary<K, V> {
+        /**
+         * Stands for the {@code null} key in the table, where {@code null} marks an empty slot.
+         */
+        private static final Object NULL_KEY = new Object();
+        /**
+         * Two array cells per slot, so the table holds half as many slots as a bucket array.
+         */
+        private static final int MAXIMUM_SLOTS = MAXIMUM_CAPACITY >> 1;
+
+        /**
+         * Keys at even indexes, each value right after its key,
+         * same as in {@link AbstractImmutableDictionary.DictionaryN}.
+         */
+        private Object[] table;
+        private int size;
+        private int threshold;
+
+        OpenAddressingTable(int capacity) {
+            capacity = Math.min(capacity, MAXIMUM_SLOTS);
+            this.table = new Object[capacity << 1];
+            this.threshold = (int) (capacity * OPEN_ADDRESSING_LOAD_FACTOR);
+        }
+
+        private static Object maskNull(Object key) {
+            return key == null ? NULL_KEY : key;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <K> K unmaskNull(Object key) {
+            return key == NULL_KEY ? null : (K) key;
+        }
+
+        private static int getIndex(Object key, int length) {
+            // length is a power of two, so the shift leaves the index even
+            return (spread(key.hashCode()) << 1) & (length - 1);
+        }
+
+        private static int nextIndex(int index, int length) {
+            return (index + 2) & (length - 1);
+        }
+
+        /**
+         * @return index of the masked key or {@code -(insertion index) - 1} if it is absent
+         */
+        private int probe(Object key) {
+            Object[] tab = table;
+            int length = tab.length;
+            int index = getIndex(key, length);
+            while (true) {
+                Object item = tab[index];
+                if (item == null) {
+                    return -index - 1;
+                } else if (item == key || item.equals(key)) {
+                    return index;
+                }
+                index = nextIndex(index, length);
+            }
+        }
+
+        @Override
+        public boolean containsKey(K key) {
+            return probe(maskNull(key)) >= 0;
+        }
+
+        @Override
+        public boolean containsValue(V value) {
+            Object[] tab = table;
+            for (int i = 0; i < tab.length; i += 2) {
+                if (tab[i] != null && Objects.equals(tab[i + 1], value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(K key) {
+            int index = probe(maskNull(key));
+            return index >= 0 ? (V) table[index + 1] : null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V put(K key, V value) {
+            Object k = maskNull(key);
+            int index = probe(k);
+            if (index >= 0) {
+                V oldValue = (V) table[index + 1];
+                table[index + 1] = value;
+                return oldValue;
+            }
+            index = -index - 1;
+            table[index] = k;
+            table[index + 1] = value;
+            if (++size > threshold) {
+                resize();
+            }
+            return null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V remove(K key) {
+            int index = probe(maskNull(key));
+            if (index < 0) {
+                return null;
+            }
+            V oldValue = (V) table[index + 1];
+            size--;
+            closeDeletion(index);
+            return oldValue;
+        }
+
+        /**
+         * Backward shift deletion: moves later entries of the same probe sequence
+         * into the freed slot, so lookups never need tombstones.
+         */
+        private void closeDeletion(int d) {
+            Object[] tab = table;
+            int length = tab.length;
+            tab[d] = null;
+            tab[d + 1] = null;
+
+            Object item;
+            for (int i = nextIndex(d, length); (item = tab[i]) != null; i = nextIndex(i, length)) {
+                int r = getIndex(item, length);
+                // move the entry at i to d if d lies cyclically between its home slot r and i
+                if ((i < r && (r <= d || d <= i)) || (r <= d && d <= i)) {
+                    tab[d] = item;
+                    tab[d + 1] = tab[i + 1];
+                    tab[i] = null;
+                    tab[i + 1] = null;
+                    d = i;
+                }
+            }
+        }
+
+        private void resize() {
+            Object[] oldTable = table;
+            int capacity = oldTable.length >> 1;
+            if (capacity >= MAXIMUM_SLOTS) {
+                if (size >= capacity - 1) {
+                    throw new IllegalStateException("Capacity exhausted.");
+                }
+                return;
+            }
+            int newLength = oldTable.length << 1;
+            Object[] newTable = new Object[newLength];
+            for (int i = 0; i < oldTable.length; i += 2) {
+                Object key = oldTable[i];
+                if (key != null) {
+                    int index = getIndex(key, newLength);
+                    while (newTable[index] != null) {
+                        index = nextIndex(index, newLength);
+                    }
+                    newTable[index] = key;
+                    newTable[index + 1] = oldTable[i + 1];
+                }
+            }
+            table = newTable;
+            threshold = (int) ((capacity << 1) * OPEN_ADDRESSING_LOAD_FACTOR);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        protected Iterator<IEntry<K, V>> entryIterator() {
+            return new SlotIterator<>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public IEntry<K, V> next() {
+                    int index = nextIndex();
+                    return new TableEntry<>(OpenAddressingTable.this, unmaskNull(tab[index]), (V) tab[index + 1]);
+                }
+            };
+        }
+
+        @Override
+        protected Iterator<K> keyIterator() {
+            return new SlotIterator<>() {
+                @Override
+                public K next() {
+                    return unmaskNull(tab[nextIndex()]);
+                }
+            };
+        }
+
+        @Override
+        protected Iterator<V> valueIterator() {
+            return new SlotIterator<>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public V next() {
+                    return (V) tab[nextIndex() + 1];
+                }
+            };
+        }
+
+        @Override
+        public ICursor<K, V> cursor() {
+            return new ICursor<>() {
+                private final Object[] tab = table;
+                private int index = -2;
+
+                @Override
+                public boolean advance() {
+                    while ((index += 2) < tab.length) {
+                        if (tab[index] != null) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+
+                private int index() {
+                    if (index < 0 || index >= tab.length) {
+                        throw noCursorEntry();
+                    }
+                    return index;
+                }
+
+                @Override
+                public K key() {
+                    return unmaskNull(tab[index()]);
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public V value() {
+                    return (V) tab[index() + 1];
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public V setValue(V value) {
+                    int i = index() + 1;
+                    V oldValue = (V) tab[i];
+                    tab[i] = value;
+                    return oldValue;
+                }
+            };
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            Objects.requireNonNull(action);
+            Object[] tab = table;
+            for (int i = 0; i < tab.length; i += 2) {
+                if (tab[i] != null) {
+                    action.accept(unmaskNull(tab[i]), (V) tab[i + 1]);
+                }
+            }
+        }
+
+        /**
+         * Walks the slots downwards, starting right below an empty slot. Every cluster is
+         * then visited from its end to its start, and backward shift deletion only moves
+         * entries that were already visited, so {@link #remove()} neither skips nor repeats entries.
+         */
+        private abstract class SlotIterator<E> implements Iterator<E> {
+            final Object[] tab = table;
+            private final int start;
+            private int index;
+            private int current = -1;
+
+            SlotIterator() {
+                int empty = 0;
+                // the load factor guarantees at least one empty slot
+                while (tab[empty] != null) {
+                    empty += 2;
+                }
+                start = empty;
+                index = empty;
+                advance();
+            }
+
+            private void advance() {
+                int mask = tab.length - 1;
+                do {
+                    index = (index - 2) & mask;
+                } while (index != start && tab[index] == null);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return index != start;
+            }
+
+            int nextIndex() {
+                if (index == start) {
+                    throw new NoSuchElementException();
+                }
+                current = index;
+                advance();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                if (current < 0) {
+                    throw new IllegalStateException();
+                }
+                size--;
+                closeDeletion(current);
+                current = -1;
+            }
+        }
+    }
+
     private static class Node<K, V> implements IEntry<K, V> {
         private final K key;
         private V value;
@@ -234,4 +768,59 @@ public class HashDictionary<K, V> extends AbstractDictionary<K,V>
             return key + "=" + value;
         }
     }
+
+    /**
+     * Entry of {@link OpenAddressingTable}, which has no node per entry to hand out,
+     * {@link #setValue} writes through to the table while the key is still in it.
+     */
+    private static class TableEntry<K, V> implements IEntry<K, V> {
+        private final OpenAddressingTable<K, V> table;
+        private final K key;
+        private V value;
+
+        TableEntry(OpenAddressingTable<K, V> table, K key, V value) {
+            this.table = table;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V oldValue = this.value;
+            this.value = value;
+            // like a detached node of the chained table, an entry of a removed key stays removed
+            if (table.containsKey(key)) {
+                table.put(key, value);
+            }
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof IEntry<?, ?> entry)) return false;
+            return Objects.equals(key, entry.getKey()) &&
+                   Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
 }
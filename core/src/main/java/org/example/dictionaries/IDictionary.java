@@ -4,6 +4,7 @@ import org.example.dictionaries.entries.KeyValueHolder;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -14,8 +15,14 @@ public interface IDictionary<K, V> {
 
     boolean containsValue(V value);
 
+    /**
+     * @return live view of the values, backed by the dictionary
+     */
     Collection<V> values();
 
+    /**
+     * @return live view of the keys, backed by the dictionary
+     */
     Collection<K> keys();
 
 
@@ -36,6 +43,10 @@ public interface IDictionary<K, V> {
 
     boolean remove(K key, V value);
 
+    /**
+     * @return live view of the entries, backed by the dictionary;
+     * removal through the view or its iterator removes the mapping from the dictionary
+     */
     Set<IEntry<K, V>> entrySet();
 
 
@@ -46,6 +57,17 @@ public interface IDictionary<K, V> {
      */
     V replace(K key, V value);
 
+    /**
+     * @return cursor positioned before the first entry, the same cursor object is moved
+     * over all entries, so a scan allocates no entry per element
+     */
+    ICursor<K, V> cursor();
+
+    /**
+     * Performs the action for each key/value pair without creating entries.
+     */
+    void forEach(BiConsumer<? super K, ? super V> action);
+
     static <K, V> IEntry<K, V> entry(K k, V v) {
         return new KeyValueHolder<>(k, v);
     }
@@ -62,6 +84,27 @@ public interface IDictionary<K, V> {
         int hashCode();
     }
 
+    /**
+     * Mutable position in a dictionary,
+     * {@code for (ICursor<K, V> c = dictionary.cursor(); c.advance(); ) { ... }}.
+     * Structural changes of the dictionary other than {@link #setValue} invalidate the cursor.
+     */
+    interface ICursor<K, V> {
+        /**
+         * @return true if the cursor moved to the next entry, false if there are no more entries
+         */
+        boolean advance();
+
+        K key();
+
+        V value();
+
+        /**
+         * @return previous value of the current entry
+         */
+        V setValue(V value);
+    }
+
     V putIfAbsent(K key, V value);
 
     V computeIfAbsent(K key,
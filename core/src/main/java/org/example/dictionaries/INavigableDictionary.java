@@ -16,4 +16,28 @@ public interface INavigableDictionary<K, V> extends IDictionary<K, V> {
     IEntry<K, V> higherEntry(K key);
 
     K higherKey(K key);
+
+    /**
+     * @return live view of the keys from fromKey to toKey, iterated in the order of this
+     * dictionary at a cost proportional to the range; putting a key outside
+     * of the range throws {@link IllegalArgumentException}
+     */
+    INavigableDictionary<K, V> subDictionary(K fromKey, boolean fromInclusive,
+                                             K toKey, boolean toInclusive);
+
+    /**
+     * @return live view of the keys before toKey, see {@link #subDictionary}
+     */
+    INavigableDictionary<K, V> headDictionary(K toKey, boolean inclusive);
+
+    /**
+     * @return live view of the keys after fromKey, see {@link #subDictionary}
+     */
+    INavigableDictionary<K, V> tailDictionary(K fromKey, boolean inclusive);
+
+    /**
+     * @return live view of this dictionary in reverse order, navigation methods
+     * and range views of the returned dictionary are reversed as well
+     */
+    INavigableDictionary<K, V> descendingDictionary();
 }
@@ -0,0 +1,29 @@
+package org.example.dictionaries;
+
+/**
+ * Navigable dictionary that can answer rank queries in O(log n).
+ * Positions are zero based in ascending key order.
+ */
+public interface IOrderStatisticDictionary<K, V> extends INavigableDictionary<K, V> {
+    /**
+     * @return number of keys strictly less than key, key does not have to be present
+     */
+    int rank(K key);
+
+    /**
+     * @return key at position index
+     * @throws IndexOutOfBoundsException if index is not in {@code [0, size())}
+     */
+    K select(int index);
+
+    /**
+     * @return entry at position index
+     * @throws IndexOutOfBoundsException if index is not in {@code [0, size())}
+     */
+    IEntry<K, V> kthEntry(int index);
+
+    /**
+     * @return number of keys in {@code [lo, hi]}, 0 if lo is greater than hi
+     */
+    int countRange(K lo, K hi);
+}
@@ -0,0 +1,32 @@
+package org.example.dictionaries;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Dictionary of string keys that answers queries about key prefixes.
+ */
+public interface IPrefixDictionary<K, V> extends IDictionary<K, V> {
+    /**
+     * @return lazy iterator over the entries whose keys start with the prefix
+     */
+    Iterator<IEntry<K, V>> prefixEntries(String prefix);
+
+    /**
+     * @return longest key that is a prefix of the query, null if no key is
+     */
+    K longestPrefixOf(String query);
+
+    /**
+     * @return number of keys that start with the prefix
+     */
+    int countWithPrefix(String prefix);
+
+    /**
+     * Autocomplete query.
+     *
+     * @return at most k entries whose keys start with the prefix, with the largest values first
+     */
+    List<IEntry<K, V>> topK(String prefix, int k, Comparator<? super V> comparator);
+}
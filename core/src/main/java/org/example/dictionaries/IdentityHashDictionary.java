@@ -1,8 +1,9 @@
 package org.example.dictionaries;
 
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -59,7 +60,7 @@ public class IdentityHashDictionary<K, V> extends AbstractDictionary<K, V> imple
         }
 
         ensureCapacity(size + 1);
-        index = findEmptyIndex(key);
+        index = findEmptyIndex(table, key);
         Entry<K, V> newEntry = new Entry<>(key, value);
         table[index] = newEntry;
         size++;
@@ -100,14 +101,95 @@ public class IdentityHashDictionary<K, V> extends AbstractDictionary<K, V> imple
     }
 
     @Override
-    public Set<IEntry<K, V>> entrySet() {
-        Set<IEntry<K, V>> entrySet = new HashSet<>();
-        for (IEntry<K, V> entry : table) {
+    protected Iterator<IEntry<K, V>> entryIterator() {
+        return new Iterator<>() {
+            private final Entry<K, V>[] tab = table;
+            private int index = advance(0);
+            private int current = -1;
+
+            private int advance(int i) {
+                while (i < tab.length && tab[i] == null) {
+                    i++;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return index < tab.length;
+            }
+
+            @Override
+            public IEntry<K, V> next() {
+                if (index >= tab.length) {
+                    throw new NoSuchElementException();
+                }
+                current = index;
+                index = advance(index + 1);
+                return tab[current];
+            }
+
+            @Override
+            public void remove() {
+                if (current < 0) {
+                    throw new IllegalStateException();
+                }
+                // removal only clears the slot, so the remaining entries stay in place
+                tab[current] = null;
+                size--;
+                current = -1;
+            }
+        };
+    }
+
+    @Override
+    public ICursor<K, V> cursor() {
+        return new ICursor<>() {
+            private final Entry<K, V>[] tab = table;
+            private int index = -1;
+
+            @Override
+            public boolean advance() {
+                while (++index < tab.length) {
+                    if (tab[index] != null) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            private Entry<K, V> entry() {
+                if (index < 0 || index >= tab.length) {
+                    throw noCursorEntry();
+                }
+                return tab[index];
+            }
+
+            @Override
+            public K key() {
+                return entry().key;
+            }
+
+            @Override
+            public V value() {
+                return entry().value;
+            }
+
+            @Override
+            public V setValue(V value) {
+                return entry().setValue(value);
+            }
+        };
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (Entry<K, V> entry : table) {
             if (entry != null) {
-                entrySet.add(entry);
+                action.accept(entry.key, entry.value);
             }
         }
-        return entrySet;
     }
 
     @Override
@@ -178,8 +260,8 @@ public class IdentityHashDictionary<K, V> extends AbstractDictionary<K, V> imple
         return -1;
     }
 
-    private int findEmptyIndex(K key) {
-        int index = getIndex(key);
+    private static <K, V> int findEmptyIndex(Entry<K, V>[] table, K key) {
+        int index = System.identityHashCode(key) & (table.length - 1);
         int startIndex = index;
         do {
             if (table[index] == null) {
@@ -209,7 +291,7 @@ public class IdentityHashDictionary<K, V> extends AbstractDictionary<K, V> imple
     private void transferEntries(Entry<K, V>[] source, Entry<K, V>[] destination) {
         for (Entry<K, V> entry : source) {
             if (entry != null) {
-                int index = findEmptyIndex(entry.getKey());
+                int index = findEmptyIndex(destination, entry.getKey());
                 destination[index] = entry;
             }
         }
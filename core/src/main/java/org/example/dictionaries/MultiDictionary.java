@@ -1,13 +1,18 @@
 package org.example.dictionaries;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
 public class MultiDictionary<K, V> extends AbstractDictionary<K, V> implements IDictionary<K, V> {
     private final IDictionary<K, Set<V>> dictionary;
+    private int size;
 
     public MultiDictionary() {
         dictionary = new HashDictionary<>();
@@ -40,7 +45,9 @@ public class MultiDictionary<K, V> extends AbstractDictionary<K, V> implements I
             values = new HashSet<>();
             dictionary.put(key, values);
         }
-        values.add(value);
+        if (values.add(value)) {
+            size++;
+        }
         return null;
     }
 
@@ -54,12 +61,20 @@ public class MultiDictionary<K, V> extends AbstractDictionary<K, V> implements I
     public boolean remove(K key, V value) {
         Set<V> values;
 
-        return (values = dictionary.get(key)) != null
-               && values.remove(value);
+        if ((values = dictionary.get(key)) != null
+            && values.remove(value)) {
+            size--;
+            return true;
+        }
+        return false;
     }
 
+    /**
+     * @return unmodifiable view of all values mapped to the key or null if there are none
+     */
     public Set<V> getAll(K key) {
-        return dictionary.get(key);
+        Set<V> values = dictionary.get(key);
+        return values != null ? Collections.unmodifiableSet(values) : null;
     }
 
     @Override
@@ -70,29 +85,119 @@ public class MultiDictionary<K, V> extends AbstractDictionary<K, V> implements I
 
     @Override
     public int size() {
-        int size = 0;
-        for (Set<V> values : dictionary.values()) {
-            size += values.size();
-        }
         return size;
     }
 
     @Override
     public V remove(K key) {
         Set<V> values = dictionary.remove(key);
+        if (values != null) {
+            size -= values.size();
+        }
         return (values != null && !values.isEmpty()) ? values.iterator().next() : null;
     }
 
-    public Set<IEntry<K, V>> entrySet() {
-        Set<IEntry<K, V>> entries = new HashSet<>();
-        for (IEntry<K, Set<V>> entry : dictionary.entrySet()) {
-            K key = entry.getKey();
-            Set<V> values = entry.getValue();
-            for (V value : values) {
-                entries.add(new KeyValueHolder<>(key, value));
+    /**
+     * @return iterator with an entry per key/value pair
+     */
+    @Override
+    protected Iterator<IEntry<K, V>> entryIterator() {
+        return new Iterator<>() {
+            private final Iterator<IEntry<K, Set<V>>> keys = dictionary.entrySet().iterator();
+            private K key;
+            private Set<V> keyValues;
+            private Iterator<V> values = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!values.hasNext() && keys.hasNext()) {
+                    IEntry<K, Set<V>> entry = keys.next();
+                    key = entry.getKey();
+                    keyValues = entry.getValue();
+                    values = keyValues.iterator();
+                }
+                return values.hasNext();
+            }
+
+            @Override
+            public IEntry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return new KeyValueHolder<>(key, values.next());
+            }
+
+            @Override
+            public void remove() {
+                values.remove();
+                size--;
+                if (keyValues.isEmpty()) {
+                    keys.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * @return cursor with a position per key/value pair,
+     * {@link ICursor#setValue} is not supported as values of a key form a set
+     */
+    @Override
+    public ICursor<K, V> cursor() {
+        return new ICursor<>() {
+            private final ICursor<K, Set<V>> keys = dictionary.cursor();
+            private Iterator<V> values = Collections.emptyIterator();
+            private K key;
+            private V value;
+            private boolean positioned;
+
+            @Override
+            public boolean advance() {
+                while (!values.hasNext()) {
+                    if (!keys.advance()) {
+                        positioned = false;
+                        return false;
+                    }
+                    key = keys.key();
+                    values = keys.value().iterator();
+                }
+                value = values.next();
+                positioned = true;
+                return true;
+            }
+
+            @Override
+            public K key() {
+                if (!positioned) {
+                    throw noCursorEntry();
+                }
+                return key;
+            }
+
+            @Override
+            public V value() {
+                if (!positioned) {
+                    throw noCursorEntry();
+                }
+                return value;
+            }
+
+            @Override
+            public V setValue(V value) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (ICursor<K, Set<V>> keys = dictionary.cursor(); keys.advance(); ) {
+            K key = keys.key();
+            for (V value : keys.value()) {
+                action.accept(key, value);
             }
         }
-        return entries;
     }
 
     @Override
@@ -100,6 +205,7 @@ public class MultiDictionary<K, V> extends AbstractDictionary<K, V> implements I
         Set<V> values = dictionary.get(key);
         if (values != null && !values.isEmpty()) {
             V oldValue = values.iterator().next();
+            size -= values.size() - 1;
             values.clear();
             values.add(value);
             return oldValue;
@@ -114,8 +220,10 @@ public class MultiDictionary<K, V> extends AbstractDictionary<K, V> implements I
             values = new HashSet<>();
             values.add(value);
             dictionary.put(key, values);
+            size++;
         } else if (values.isEmpty()) {
             values.add(value);
+            size++;
         }
         return null;
     }
@@ -129,12 +237,14 @@ public class MultiDictionary<K, V> extends AbstractDictionary<K, V> implements I
                 values = new HashSet<>();
                 values.add(newValue);
                 dictionary.put(key, values);
+                size++;
                 return newValue;
             }
         } else if (values.isEmpty()) {
             V newValue = mappingFunction.apply(key);
             if (newValue != null) {
                 values.add(newValue);
+                size++;
                 return newValue;
             }
         }
@@ -147,9 +257,11 @@ public class MultiDictionary<K, V> extends AbstractDictionary<K, V> implements I
         if (values != null && !values.isEmpty()) {
             V oldValue = values.iterator().next();
             V newValue = remappingFunction.apply(key, oldValue);
+            size -= values.size();
             if (newValue != null) {
                 values.clear();
                 values.add(newValue);
+                size++;
                 return newValue;
             } else {
                 values.clear();
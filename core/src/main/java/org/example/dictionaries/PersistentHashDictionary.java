@@ -0,0 +1,568 @@
+package org.example.dictionaries;
+
+import org.example.dictionaries.entries.KeyValueHolder;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable hash array mapped trie in the CHAMP layout. {@link #with} and {@link #without}
+ * return a new dictionary that copies only the nodes on the path to the changed key,
+ * O(log32 n) of them, and shares every other node with this one.
+ * <p>
+ * Every node consumes five bits of the hash and keeps two bitmaps: entries stored inline
+ * and child nodes. The inline keys and values come first in its array and the children
+ * follow in reverse order, so a node without children is just a compact array of pairs.
+ * Keys whose 32 hash bits are all equal end up in a collision node. Removal keeps the
+ * trie canonical, equal dictionaries have equal shapes whatever the order of updates.
+ * Like the dictionaries of {@link IDictionary#ofEntries}, null keys and values are rejected.
+ */
+public final class PersistentHashDictionary<K, V> extends AbstractImmutableDictionary<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int HASH_BITS = 32;
+
+    private static final PersistentHashDictionary<?, ?> EMPTY =
+            new PersistentHashDictionary<>(new BitmapNode(0, 0, new Object[0]), 0);
+
+    private final Node root;
+    private final int size;
+    /**
+     * Cached {@link #hashCode}, 0 until computed.
+     */
+    private int hashCode;
+
+    private PersistentHashDictionary(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashDictionary<K, V> empty() {
+        return (PersistentHashDictionary<K, V>) EMPTY;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int fragment(int hash, int shift) {
+        return (hash >>> shift) & MASK;
+    }
+
+    /**
+     * @return dictionary with the key mapped to the value, this dictionary if it already was
+     */
+    public PersistentHashDictionary<K, V> with(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("Null keys are not supported.");
+        }
+        Objects.requireNonNull(value, "Null values are not supported.");
+        Change change = new Change();
+        Node newRoot = root.updated(key, value, hash(key), 0, change);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashDictionary<>(newRoot, change.sizeChanged ? size + 1 : size);
+    }
+
+    /**
+     * @return dictionary without the key, this dictionary if the key is absent
+     */
+    public PersistentHashDictionary<K, V> without(K key) {
+        if (key == null) {
+            return this;
+        }
+        Change change = new Change();
+        Node newRoot = root.removed(key, hash(key), 0, change);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashDictionary<>(newRoot, size - 1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        return key == null ? null : (V) root.find(key, hash(key), 0);
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        root.forEach((BiConsumer<Object, Object>) action);
+    }
+
+    @Override
+    protected Iterator<IEntry<K, V>> entryIterator() {
+        return new NodeIterator();
+    }
+
+    /**
+     * The shape is canonical, so two dictionaries are equal when their tries are, and
+     * subtrees they share from a common version are equal without being walked.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PersistentHashDictionary<?, ?> that)) return false;
+        return size == that.size && root.equivalent(that.root);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hashCode;
+        if (h == 0 && size > 0) {
+            int[] sum = new int[1];
+            root.forEach((key, value) -> sum[0] += Objects.hash(key, value));
+            hashCode = h = sum[0];
+        }
+        return h;
+    }
+
+    /**
+     * Outcome of an update below the root.
+     */
+    private static final class Change {
+        boolean sizeChanged;
+    }
+
+    private abstract static class Node {
+        /**
+         * @return value of the key, null if absent
+         */
+        abstract Object find(Object key, int hash, int shift);
+
+        /**
+         * @return node with the key mapped to the value, this node if nothing changed
+         */
+        abstract Node updated(Object key, Object value, int hash, int shift, Change change);
+
+        /**
+         * @return node without the key, this node if the key is absent
+         */
+        abstract Node removed(Object key, int hash, int shift, Change change);
+
+        abstract int entryCount();
+
+        abstract int nodeCount();
+
+        abstract Object keyAt(int index);
+
+        abstract Object valueAt(int index);
+
+        abstract Node nodeAt(int index);
+
+        /**
+         * @return whether the subtrees hold the same entries, given that both are canonical
+         */
+        abstract boolean equivalent(Node other);
+
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0, n = entryCount(); i < n; i++) {
+                action.accept(keyAt(i), valueAt(i));
+            }
+            for (int i = 0, n = nodeCount(); i < n; i++) {
+                nodeAt(i).forEach(action);
+            }
+        }
+
+        /**
+         * @return node that is left with a single entry and no children, so the parent inlines it
+         */
+        boolean isSingleton() {
+            return entryCount() == 1 && nodeCount() == 0;
+        }
+    }
+
+    /**
+     * @return node with just the entry, positioned for the root so it stays valid
+     * when it travels up through parents that drop it
+     */
+    private static Node singleton(Object key, Object value) {
+        return new BitmapNode(1 << fragment(hash(key), 0), 0, new Object[]{key, value});
+    }
+
+    /**
+     * @return subtree at the shift holding both entries, they have different keys
+     */
+    private static Node mergeTwo(Object key0, Object value0, int hash0,
+                                 Object key1, Object value1, int hash1, int shift) {
+        if (shift >= HASH_BITS) {
+            return new CollisionNode(hash0, new Object[]{key0, value0, key1, value1});
+        }
+        int fragment0 = fragment(hash0, shift);
+        int fragment1 = fragment(hash1, shift);
+        if (fragment0 != fragment1) {
+            Object[] content = fragment0 < fragment1
+                    ? new Object[]{key0, value0, key1, value1}
+                    : new Object[]{key1, value1, key0, value0};
+            return new BitmapNode((1 << fragment0) | (1 << fragment1), 0, content);
+        }
+        Node child = mergeTwo(key0, value0, hash0, key1, value1, hash1, shift + BITS);
+        return new BitmapNode(0, 1 << fragment0, new Object[]{child});
+    }
+
+    private static final class BitmapNode extends Node {
+        private final int dataMap;
+        private final int nodeMap;
+        /**
+         * Inline keys and values in pairs, then the children in reverse order.
+         */
+        private final Object[] content;
+
+        BitmapNode(int dataMap, int nodeMap, Object[] content) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        private static int index(int bitmap, int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private int nodeIndex(int bit) {
+            return content.length - 1 - index(nodeMap, bit);
+        }
+
+        @Override
+        int entryCount() {
+            return Integer.bitCount(dataMap);
+        }
+
+        @Override
+        int nodeCount() {
+            return Integer.bitCount(nodeMap);
+        }
+
+        @Override
+        Object keyAt(int index) {
+            return content[2 * index];
+        }
+
+        @Override
+        Object valueAt(int index) {
+            return content[2 * index + 1];
+        }
+
+        @Override
+        Node nodeAt(int index) {
+            return (Node) content[content.length - 1 - index];
+        }
+
+        @Override
+        boolean equivalent(Node other) {
+            if (this == other) return true;
+            if (!(other instanceof BitmapNode that)
+                || dataMap != that.dataMap || nodeMap != that.nodeMap) return false;
+            for (int i = 0, n = 2 * entryCount(); i < n; i++) {
+                if (!content[i].equals(that.content[i])) {
+                    return false;
+                }
+            }
+            for (int i = 0, n = nodeCount(); i < n; i++) {
+                if (!nodeAt(i).equivalent(that.nodeAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int bit = 1 << fragment(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = 2 * index(dataMap, bit);
+                return key.equals(content[i]) ? content[i + 1] : null;
+            }
+            if ((nodeMap & bit) != 0) {
+                return ((Node) content[nodeIndex(bit)]).find(key, hash, shift + BITS);
+            }
+            return null;
+        }
+
+        @Override
+        Node updated(Object key, Object value, int hash, int shift, Change change) {
+            int bit = 1 << fragment(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = 2 * index(dataMap, bit);
+                Object existingKey = content[i];
+                if (key.equals(existingKey)) {
+                    if (content[i + 1] == value) {
+                        return this;
+                    }
+                    Object[] copy = content.clone();
+                    copy[i + 1] = value;
+                    return new BitmapNode(dataMap, nodeMap, copy);
+                }
+                Node child = mergeTwo(existingKey, content[i + 1], hash(existingKey),
+                        key, value, hash, shift + BITS);
+                change.sizeChanged = true;
+                return inlineToNode(bit, child);
+            }
+            if ((nodeMap & bit) != 0) {
+                int i = nodeIndex(bit);
+                Node child = (Node) content[i];
+                Node newChild = child.updated(key, value, hash, shift + BITS, change);
+                if (newChild == child) {
+                    return this;
+                }
+                Object[] copy = content.clone();
+                copy[i] = newChild;
+                return new BitmapNode(dataMap, nodeMap, copy);
+            }
+            change.sizeChanged = true;
+            int i = 2 * index(dataMap, bit);
+            Object[] copy = new Object[content.length + 2];
+            System.arraycopy(content, 0, copy, 0, i);
+            copy[i] = key;
+            copy[i + 1] = value;
+            System.arraycopy(content, i, copy, i + 2, content.length - i);
+            return new BitmapNode(dataMap | bit, nodeMap, copy);
+        }
+
+        @Override
+        Node removed(Object key, int hash, int shift, Change change) {
+            int bit = 1 << fragment(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = 2 * index(dataMap, bit);
+                if (!key.equals(content[i])) {
+                    return this;
+                }
+                change.sizeChanged = true;
+                if (shift > 0 && entryCount() == 2 && nodeCount() == 0) {
+                    int other = i == 0 ? 2 : 0;
+                    return singleton(content[other], content[other + 1]);
+                }
+                Object[] copy = new Object[content.length - 2];
+                System.arraycopy(content, 0, copy, 0, i);
+                System.arraycopy(content, i + 2, copy, i, content.length - i - 2);
+                return new BitmapNode(dataMap ^ bit, nodeMap, copy);
+            }
+            if ((nodeMap & bit) != 0) {
+                Node child = (Node) content[nodeIndex(bit)];
+                Node newChild = child.removed(key, hash, shift + BITS, change);
+                if (newChild == child) {
+                    return this;
+                }
+                if (!newChild.isSingleton()) {
+                    Object[] copy = content.clone();
+                    copy[nodeIndex(bit)] = newChild;
+                    return new BitmapNode(dataMap, nodeMap, copy);
+                }
+                if (dataMap == 0 && nodeCount() == 1) {
+                    // nothing else here, the parent takes the entry
+                    return newChild;
+                }
+                return nodeToInline(bit, newChild.keyAt(0), newChild.valueAt(0));
+            }
+            return this;
+        }
+
+        /**
+         * @return copy with the inline entry at bit replaced by the child
+         */
+        private Node inlineToNode(int bit, Node child) {
+            int oldIndex = 2 * index(dataMap, bit);
+            int newIndex = content.length - 2 - index(nodeMap, bit);
+            Object[] copy = new Object[content.length - 1];
+            System.arraycopy(content, 0, copy, 0, oldIndex);
+            System.arraycopy(content, oldIndex + 2, copy, oldIndex, newIndex - oldIndex);
+            copy[newIndex] = child;
+            System.arraycopy(content, newIndex + 2, copy, newIndex + 1, content.length - newIndex - 2);
+            return new BitmapNode(dataMap ^ bit, nodeMap | bit, copy);
+        }
+
+        /**
+         * @return copy with the child at bit replaced by the inline entry
+         */
+        private Node nodeToInline(int bit, Object key, Object value) {
+            int oldIndex = nodeIndex(bit);
+            int newIndex = 2 * index(dataMap, bit);
+            Object[] copy = new Object[content.length + 1];
+            System.arraycopy(content, 0, copy, 0, newIndex);
+            copy[newIndex] = key;
+            copy[newIndex + 1] = value;
+            System.arraycopy(content, newIndex, copy, newIndex + 2, oldIndex - newIndex);
+            System.arraycopy(content, oldIndex + 1, copy, oldIndex + 2, content.length - oldIndex - 1);
+            return new BitmapNode(dataMap | bit, nodeMap ^ bit, copy);
+        }
+    }
+
+    /**
+     * Keys with equal hashes below the last level of the trie, searched linearly.
+     */
+    private static final class CollisionNode extends Node {
+        private final int hash;
+        private final Object[] content;
+
+        CollisionNode(int hash, Object[] content) {
+            this.hash = hash;
+            this.content = content;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < content.length; i += 2) {
+                if (key.equals(content[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        int entryCount() {
+            return content.length / 2;
+        }
+
+        @Override
+        int nodeCount() {
+            return 0;
+        }
+
+        @Override
+        Object keyAt(int index) {
+            return content[2 * index];
+        }
+
+        @Override
+        Object valueAt(int index) {
+            return content[2 * index + 1];
+        }
+
+        @Override
+        Node nodeAt(int index) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        /**
+         * Entries are kept in insertion order, so they are compared as a set.
+         */
+        @Override
+        boolean equivalent(Node other) {
+            if (this == other) return true;
+            if (!(other instanceof CollisionNode that)
+                || hash != that.hash || content.length != that.content.length) return false;
+            for (int i = 0; i < content.length; i += 2) {
+                int j = that.indexOf(content[i]);
+                if (j < 0 || !content[i + 1].equals(that.content[j + 1])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int i = this.hash == hash ? indexOf(key) : -1;
+            return i >= 0 ? content[i + 1] : null;
+        }
+
+        @Override
+        Node updated(Object key, Object value, int hash, int shift, Change change) {
+            int i = indexOf(key);
+            if (i >= 0) {
+                if (content[i + 1] == value) {
+                    return this;
+                }
+                Object[] copy = content.clone();
+                copy[i + 1] = value;
+                return new CollisionNode(hash, copy);
+            }
+            change.sizeChanged = true;
+            Object[] copy = Arrays.copyOf(content, content.length + 2);
+            copy[content.length] = key;
+            copy[content.length + 1] = value;
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        Node removed(Object key, int hash, int shift, Change change) {
+            int i = indexOf(key);
+            if (i < 0) {
+                return this;
+            }
+            change.sizeChanged = true;
+            if (content.length == 4) {
+                int other = i == 0 ? 2 : 0;
+                return singleton(content[other], content[other + 1]);
+            }
+            Object[] copy = new Object[content.length - 2];
+            System.arraycopy(content, 0, copy, 0, i);
+            System.arraycopy(content, i + 2, copy, i, content.length - i - 2);
+            return new CollisionNode(hash, copy);
+        }
+    }
+
+    /**
+     * Depth first walk that visits the inline entries of a node before its children.
+     */
+    private final class NodeIterator implements Iterator<IEntry<K, V>> {
+        // one level per five hash bits plus the collision level
+        private final Node[] nodes = new Node[HASH_BITS / BITS + 2];
+        private final int[] entryCursor = new int[nodes.length];
+        private final int[] nodeCursor = new int[nodes.length];
+        private int depth;
+
+        NodeIterator() {
+            nodes[0] = root;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (depth >= 0) {
+                Node node = nodes[depth];
+                if (entryCursor[depth] < node.entryCount()) {
+                    return true;
+                }
+                if (nodeCursor[depth] < node.nodeCount()) {
+                    Node child = node.nodeAt(nodeCursor[depth]++);
+                    depth++;
+                    nodes[depth] = child;
+                    entryCursor[depth] = 0;
+                    nodeCursor[depth] = 0;
+                } else {
+                    nodes[depth--] = null;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public IEntry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node node = nodes[depth];
+            int i = entryCursor[depth]++;
+            return new KeyValueHolder<>((K) node.keyAt(i), (V) node.valueAt(i));
+        }
+    }
+}
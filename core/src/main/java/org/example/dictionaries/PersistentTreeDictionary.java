@@ -0,0 +1,632 @@
+package org.example.dictionaries;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Navigable dictionary over an immutable balanced tree. put and remove copy the path
+ * from the root to the changed node and share the rest with the previous version, so
+ * {@link #snapshot()} hands out the current version in O(1). Snapshots never change and
+ * can be read from any thread without locking while a single writer keeps updating
+ * the dictionary; writers must not run concurrently.
+ */
+public class PersistentTreeDictionary<K extends Comparable<K>, V> extends AbstractNavigableDictionary<K, V> {
+    private final Comparator<? super K> comparator;
+    private volatile Snapshot<K, V> current;
+
+    /**
+     * AVL node, the heights of the two subtrees differ by at most one.
+     */
+    private static final class Node<K, V> implements IEntry<K, V> {
+        final K key;
+        final V value;
+        final Node<K, V> left;
+        final Node<K, V> right;
+        final int height;
+
+        Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    public PersistentTreeDictionary() {
+        this(null);
+    }
+
+    public PersistentTreeDictionary(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+        this.current = new Snapshot<K, V>(null, 0, comparator);
+    }
+
+    /**
+     * @return immutable view of the current version, later updates of this dictionary
+     * are not visible through it
+     */
+    public INavigableDictionary<K, V> snapshot() {
+        return current;
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    @Override
+    protected int compare(K key1, K key2) {
+        if (comparator != null) {
+            return comparator.compare(key1, key2);
+        } else {
+            return key1.compareTo(key2);
+        }
+    }
+
+    /**
+     * @return new node over the subtrees, rotated once or twice if their heights differ by two
+     */
+    private static <K, V> Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+        int hl = height(left);
+        int hr = height(right);
+        if (hl > hr + 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+            }
+            Node<K, V> pivot = left.right;
+            return new Node<>(pivot.key, pivot.value,
+                    new Node<>(left.key, left.value, left.left, pivot.left),
+                    new Node<>(key, value, pivot.right, right));
+        }
+        if (hr > hl + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+            }
+            Node<K, V> pivot = right.left;
+            return new Node<>(pivot.key, pivot.value,
+                    new Node<>(key, value, left, pivot.left),
+                    new Node<>(right.key, right.value, pivot.right, right.right));
+        }
+        return new Node<>(key, value, left, right);
+    }
+
+    private Node<K, V> insert(Node<K, V> node, K key, V value) {
+        if (node == null) {
+            return new Node<>(key, value, null, null);
+        }
+        int cmp = compare(key, node.key);
+        if (cmp < 0) {
+            return balance(node.key, node.value, insert(node.left, key, value), node.right);
+        } else if (cmp > 0) {
+            return balance(node.key, node.value, node.left, insert(node.right, key, value));
+        }
+        return new Node<>(key, value, node.left, node.right);
+    }
+
+    /**
+     * @return copy of the subtree without the key, which must be present
+     */
+    private Node<K, V> delete(Node<K, V> node, K key) {
+        int cmp = compare(key, node.key);
+        if (cmp < 0) {
+            return balance(node.key, node.value, delete(node.left, key), node.right);
+        } else if (cmp > 0) {
+            return balance(node.key, node.value, node.left, delete(node.right, key));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node<K, V> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.key, successor.value, node.left, deleteFirst(node.right));
+    }
+
+    private static <K, V> Node<K, V> deleteFirst(Node<K, V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.key, node.value, deleteFirst(node.left), node.right);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("Null keys are not supported.");
+        }
+        Snapshot<K, V> snapshot = current;
+        if (snapshot.root == null) {
+            compare(key, key); // type check of the first key
+        }
+        Node<K, V> node = snapshot.getNode(key);
+        if (node != null && node.value == value) {
+            return value;
+        }
+        int size = node == null ? snapshot.size + 1 : snapshot.size;
+        current = new Snapshot<K, V>(insert(snapshot.root, key, value), size, comparator);
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        Snapshot<K, V> snapshot = current;
+        Node<K, V> node = snapshot.getNode(key);
+        if (node == null) {
+            return null;
+        }
+        current = new Snapshot<K, V>(delete(snapshot.root, key), snapshot.size - 1, comparator);
+        return node.value;
+    }
+
+    @Override
+    public V get(K key) {
+        return current.get(key);
+    }
+
+    @Override
+    public V getOrDefault(K key, V defaultValue) {
+        return current.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return current.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        return current.containsValue(value);
+    }
+
+    @Override
+    public int size() {
+        return current.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return current.size == 0;
+    }
+
+    @Override
+    public IEntry<K, V> lowerEntry(K key) {
+        return liveEntry(current.lowerEntry(key));
+    }
+
+    @Override
+    public K lowerKey(K key) {
+        return current.lowerKey(key);
+    }
+
+    @Override
+    public IEntry<K, V> floorEntry(K key) {
+        return liveEntry(current.floorEntry(key));
+    }
+
+    @Override
+    public K floorKey(K key) {
+        return current.floorKey(key);
+    }
+
+    @Override
+    public IEntry<K, V> ceilingEntry(K key) {
+        return liveEntry(current.ceilingEntry(key));
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+        return current.ceilingKey(key);
+    }
+
+    @Override
+    public IEntry<K, V> higherEntry(K key) {
+        return liveEntry(current.higherEntry(key));
+    }
+
+    @Override
+    public K higherKey(K key) {
+        return current.higherKey(key);
+    }
+
+    private IEntry<K, V> liveEntry(IEntry<K, V> entry) {
+        return entry == null ? null : new LiveEntry(entry.getKey(), entry.getValue());
+    }
+
+    @Override
+    protected Iterator<IEntry<K, V>> entryIterator() {
+        return rangeIterator(null, false, null, false, false);
+    }
+
+    /**
+     * Iterates the version current at the call, removal through the iterator
+     * updates the dictionary and leaves that version untouched.
+     */
+    @Override
+    protected Iterator<IEntry<K, V>> rangeIterator(K lo, boolean loInclusive,
+                                                   K hi, boolean hiInclusive,
+                                                   boolean descending) {
+        Iterator<IEntry<K, V>> i = current.rangeIterator(lo, loInclusive, hi, hiInclusive, descending);
+        return new Iterator<>() {
+            private K lastReturned;
+
+            @Override
+            public boolean hasNext() {
+                return i.hasNext();
+            }
+
+            @Override
+            public IEntry<K, V> next() {
+                IEntry<K, V> entry = i.next();
+                lastReturned = entry.getKey();
+                return new LiveEntry(entry.getKey(), entry.getValue());
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+                PersistentTreeDictionary.this.remove(lastReturned);
+                lastReturned = null;
+            }
+        };
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        current.forEach(action);
+    }
+
+    /**
+     * One version of the tree, immutable.
+     */
+    private static final class Snapshot<K extends Comparable<K>, V> extends AbstractNavigableDictionary<K, V> {
+        private final Node<K, V> root;
+        private final int size;
+        private final Comparator<? super K> comparator;
+
+        Snapshot(Node<K, V> root, int size, Comparator<? super K> comparator) {
+            this.root = root;
+            this.size = size;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected int compare(K key1, K key2) {
+            if (comparator != null) {
+                return comparator.compare(key1, key2);
+            } else {
+                return key1.compareTo(key2);
+            }
+        }
+
+        private Node<K, V> getNode(K key) {
+            Node<K, V> node = root;
+            while (node != null) {
+                int cmp = compare(key, node.key);
+                if (cmp < 0) {
+                    node = node.left;
+                } else if (cmp > 0) {
+                    node = node.right;
+                } else {
+                    return node;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return node with the least key greater than key, or equal to it if inclusive
+         */
+        private Node<K, V> ceilingNode(K key, boolean inclusive) {
+            Node<K, V> best = null;
+            Node<K, V> node = root;
+            while (node != null) {
+                int cmp = compare(key, node.key);
+                if (cmp < 0 || (cmp == 0 && inclusive)) {
+                    best = node;
+                    node = cmp == 0 ? null : node.left;
+                } else {
+                    node = node.right;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * @return node with the greatest key less than key, or equal to it if inclusive
+         */
+        private Node<K, V> floorNode(K key, boolean inclusive) {
+            Node<K, V> best = null;
+            Node<K, V> node = root;
+            while (node != null) {
+                int cmp = compare(key, node.key);
+                if (cmp > 0 || (cmp == 0 && inclusive)) {
+                    best = node;
+                    node = cmp == 0 ? null : node.right;
+                } else {
+                    node = node.left;
+                }
+            }
+            return best;
+        }
+
+        private static <K, V> K keyOf(Node<K, V> node) {
+            return node == null ? null : node.key;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public boolean containsKey(K key) {
+            return key != null && getNode(key) != null;
+        }
+
+        @Override
+        public V get(K key) {
+            Node<K, V> node = key == null ? null : getNode(key);
+            return node == null ? null : node.value;
+        }
+
+        @Override
+        public V getOrDefault(K key, V defaultValue) {
+            Node<K, V> node = key == null ? null : getNode(key);
+            return node == null ? defaultValue : node.value;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+
+        @Override
+        public V remove(K key) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+
+        @Override
+        public boolean remove(K key, V value) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+
+        @Override
+        public V replace(K key, V value) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+
+        @Override
+        public V putIfAbsent(K key, V value) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+
+        @Override
+        public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+
+        @Override
+        public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+
+        @Override
+        public IEntry<K, V> lowerEntry(K key) {
+            return floorNode(key, false);
+        }
+
+        @Override
+        public K lowerKey(K key) {
+            return keyOf(floorNode(key, false));
+        }
+
+        @Override
+        public IEntry<K, V> floorEntry(K key) {
+            return floorNode(key, true);
+        }
+
+        @Override
+        public K floorKey(K key) {
+            return keyOf(floorNode(key, true));
+        }
+
+        @Override
+        public IEntry<K, V> ceilingEntry(K key) {
+            return ceilingNode(key, true);
+        }
+
+        @Override
+        public K ceilingKey(K key) {
+            return keyOf(ceilingNode(key, true));
+        }
+
+        @Override
+        public IEntry<K, V> higherEntry(K key) {
+            return ceilingNode(key, false);
+        }
+
+        @Override
+        public K higherKey(K key) {
+            return keyOf(ceilingNode(key, false));
+        }
+
+        @Override
+        protected Iterator<IEntry<K, V>> entryIterator() {
+            return rangeIterator(null, false, null, false, false);
+        }
+
+        @Override
+        protected Iterator<IEntry<K, V>> rangeIterator(K lo, boolean loInclusive,
+                                                       K hi, boolean hiInclusive,
+                                                       boolean descending) {
+            return descending
+                    ? new PathIterator(hi, hiInclusive, lo, loInclusive, true)
+                    : new PathIterator(lo, loInclusive, hi, hiInclusive, false);
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            Objects.requireNonNull(action);
+            forEach(root, action);
+        }
+
+        private static <K, V> void forEach(Node<K, V> node, BiConsumer<? super K, ? super V> action) {
+            while (node != null) {
+                forEach(node.left, action);
+                action.accept(node.key, node.value);
+                node = node.right;
+            }
+        }
+
+        /**
+         * In-order walk that keeps the unvisited ancestors on a stack as deep as the tree,
+         * so a step allocates nothing.
+         */
+        private final class PathIterator implements Iterator<IEntry<K, V>> {
+            private final Object[] stack;
+            private final K fence;
+            private final boolean fenceInclusive;
+            private final boolean descending;
+            private int depth;
+
+            /**
+             * Starts at start in the direction of the iteration and stops before passing fence,
+             * null bounds are open.
+             */
+            PathIterator(K start, boolean startInclusive, K fence, boolean fenceInclusive, boolean descending) {
+                this.stack = new Object[height(root)];
+                this.fence = fence;
+                this.fenceInclusive = fenceInclusive;
+                this.descending = descending;
+                Node<K, V> node = root;
+                while (node != null) {
+                    int cmp = start == null ? 1
+                            : descending ? compare(start, node.key) : compare(node.key, start);
+                    if (cmp > 0 || (cmp == 0 && startInclusive)) {
+                        stack[depth++] = node;
+                        node = descending ? node.right : node.left;
+                    } else {
+                        node = descending ? node.left : node.right;
+                    }
+                }
+            }
+
+            @SuppressWarnings("unchecked")
+            private Node<K, V> top() {
+                return (Node<K, V>) stack[depth - 1];
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (depth == 0) {
+                    return false;
+                }
+                if (fence == null) {
+                    return true;
+                }
+                int cmp = descending ? compare(fence, top().key) : compare(top().key, fence);
+                return cmp < 0 || (cmp == 0 && fenceInclusive);
+            }
+
+            @Override
+            public IEntry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Node<K, V> node = top();
+                stack[--depth] = null;
+                for (Node<K, V> n = descending ? node.left : node.right; n != null; n = descending ? n.right : n.left) {
+                    stack[depth++] = n;
+                }
+                return node;
+            }
+        }
+    }
+
+    /**
+     * Copy of a mapping handed out by navigation and iteration, {@link #setValue} writes through.
+     */
+    private final class LiveEntry implements IEntry<K, V> {
+        private final K key;
+        private V value;
+
+        LiveEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V oldValue = this.value;
+            this.value = value;
+            put(key, value);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof IEntry<?, ?> that)) return false;
+            return Objects.equals(key, that.getKey()) && Objects.equals(value, that.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
@@ -1,75 +1,181 @@
 package org.example.dictionaries;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
-public class SortedArrayNavigableDictionary<K extends Comparable<K>, V> extends AbstractDictionary<K, V>
-        implements INavigableDictionary<K, V> {
-    private final List<IEntry<K, V>> entries;
+/**
+ * Navigable dictionary backed by parallel arrays of keys and values sorted by key.
+ * Numeric keys can be stored unboxed, see {@link #withIntKeys}, {@link #withLongKeys}
+ * and {@link #withDoubleKeys}, then binary search compares primitives.
+ */
+public class SortedArrayNavigableDictionary<K extends Comparable<K>, V> extends AbstractNavigableDictionary<K, V>
+        implements IOrderStatisticDictionary<K, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MIN_BUFFER_CAPACITY = 64;
+
+    /**
+     * How new keys reach the sorted array, chosen at construction.
+     */
+    public enum Layout {
+        /**
+         * Every new key is inserted at its position in the array, O(n) moves per insert.
+         */
+        PACKED,
+        /**
+         * New keys go to a small sorted side buffer of about sqrt(n) entries that is merged
+         * into the array in one pass when full, O(sqrt(n)) amortized moves per insert.
+         * Lookups and navigation search both parts, positional operations and iteration
+         * merge the buffer first.
+         */
+        BUFFERED
+    }
+
+    private final SortedRun<K, V> main;
+    private final SortedRun<K, V> buffer;
+    private final boolean buffered;
 
     public SortedArrayNavigableDictionary() {
-        this.entries = new ArrayList<>();
+        this(Layout.PACKED);
+    }
+
+    public SortedArrayNavigableDictionary(Layout layout) {
+        this(new ObjectKeys<>(DEFAULT_CAPACITY), layout);
+    }
+
+    private SortedArrayNavigableDictionary(KeyArray<K> keys, Layout layout) {
+        Objects.requireNonNull(layout);
+        this.buffered = layout == Layout.BUFFERED;
+        this.main = new SortedRun<>(keys);
+        this.buffer = new SortedRun<>(keys.newArray(buffered ? MIN_BUFFER_CAPACITY + 1 : 0));
+    }
+
+    /**
+     * @return dictionary that stores its keys in an int[]
+     */
+    public static <V> SortedArrayNavigableDictionary<Integer, V> withIntKeys(Layout layout) {
+        return new SortedArrayNavigableDictionary<>(new IntKeys(DEFAULT_CAPACITY), layout);
+    }
+
+    /**
+     * @return dictionary that stores its keys in a long[]
+     */
+    public static <V> SortedArrayNavigableDictionary<Long, V> withLongKeys(Layout layout) {
+        return new SortedArrayNavigableDictionary<>(new LongKeys(DEFAULT_CAPACITY), layout);
+    }
+
+    /**
+     * @return dictionary that stores its keys in a double[], ordered like {@link Double#compareTo}
+     */
+    public static <V> SortedArrayNavigableDictionary<Double, V> withDoubleKeys(Layout layout) {
+        return new SortedArrayNavigableDictionary<>(new DoubleKeys(DEFAULT_CAPACITY), layout);
+    }
+
+    /**
+     * Fills the backing array in O(n) from entries in strictly ascending key order.
+     *
+     * @throws IllegalArgumentException if the keys are not strictly ascending
+     */
+    public static <K extends Comparable<K>, V> SortedArrayNavigableDictionary<K, V> fromSorted(
+            Iterator<? extends IEntry<K, V>> entries) {
+        SortedArrayNavigableDictionary<K, V> dictionary = new SortedArrayNavigableDictionary<>();
+        while (entries.hasNext()) {
+            IEntry<K, V> entry = entries.next();
+            dictionary.append(entry.getKey(), entry.getValue());
+        }
+        return dictionary;
+    }
+
+    /**
+     * Fills the backing array in O(n) from keys in strictly ascending order,
+     * values[i] is mapped to keys[i].
+     *
+     * @throws IllegalArgumentException if the keys are not strictly ascending
+     */
+    public static <K extends Comparable<K>, V> SortedArrayNavigableDictionary<K, V> fromSortedArrays(
+            K[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("Keys and values must have the same length.");
+        }
+        SortedArrayNavigableDictionary<K, V> dictionary =
+                new SortedArrayNavigableDictionary<K, V>(new ObjectKeys<>(keys.length), Layout.PACKED);
+        for (int i = 0; i < keys.length; i++) {
+            dictionary.append(keys[i], values[i]);
+        }
+        return dictionary;
+    }
+
+    private void append(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("Null keys are not supported.");
+        }
+        if (main.size > 0 && compare(main.key(main.size - 1), key) >= 0) {
+            throw new IllegalArgumentException("Keys must be in strictly ascending order.");
+        }
+        main.insert(main.size, key, value);
     }
 
     @Override
     public boolean isEmpty() {
-        return entries.isEmpty();
+        return main.size == 0 && buffer.size == 0;
     }
 
     @Override
     public boolean containsKey(K key) {
-        return binarySearch(key) >= 0;
+        return main.search(key) >= 0 || buffer.size > 0 && buffer.search(key) >= 0;
     }
 
     @Override
     public boolean containsValue(V value) {
-        for (IEntry<K, V> entry : entries) {
-            if (Objects.equals(entry.getValue(), value)) {
-                return true;
-            }
-        }
-        return false;
+        return main.containsValue(value) || buffer.containsValue(value);
     }
 
     @Override
-    public Collection<V> values() {
-        List<V> values = new ArrayList<>();
-        for (IEntry<K, V> entry : entries) {
-            values.add(entry.getValue());
-        }
-        return values;
+    public V put(K key, V value) {
+        return putVal(key, value, false);
     }
 
-    @Override
-    public Collection<K> keys() {
-        List<K> keys = new ArrayList<>();
-        for (IEntry<K, V> entry : entries) {
-            keys.add(entry.getKey());
+    private V putVal(K key, V value, boolean onlyIfAbsent) {
+        if (key == null) {
+            throw new NullPointerException("Null keys are not supported.");
         }
-        return keys;
+        SortedRun<K, V> run = main;
+        int index = main.search(key);
+        if (index < 0 && buffered) {
+            run = buffer;
+            index = buffer.search(key);
+        }
+        if (index >= 0) {
+            return onlyIfAbsent ? run.value(index) : run.setValue(index, value);
+        }
+        run.insert(-(index + 1), key, value);
+        if (run == buffer && buffer.size > Math.max(MIN_BUFFER_CAPACITY, (int) Math.sqrt(main.size))) {
+            flush();
+        }
+        return null;
     }
 
-    @Override
-    public V put(K key, V value) {
-        int index = binarySearch(key);
-        if (index >= 0) {
-            IEntry<K, V> entry = entries.get(index);
-            V oldValue = entry.getValue();
-            entry.setValue(value);
-            return oldValue;
-        } else {
-            int insertIndex = -(index + 1);
-            entries.add(insertIndex, new SimpleEntry<>(key, value));
-            return null;
+    /**
+     * Merges the side buffer into the main array.
+     */
+    private void flush() {
+        if (buffer.size > 0) {
+            main.merge(buffer);
         }
     }
 
     @Override
     public V get(K key) {
-        int index = binarySearch(key);
+        int index = main.search(key);
         if (index >= 0) {
-            return entries.get(index).getValue();
+            return main.value(index);
+        }
+        if (buffer.size > 0) {
+            index = buffer.search(key);
+            if (index >= 0) {
+                return buffer.value(index);
+            }
         }
         return null;
     }
@@ -82,56 +188,178 @@ public class SortedArrayNavigableDictionary<K extends Comparable<K>, V> extends
 
     @Override
     public int size() {
-        return entries.size();
+        return main.size + buffer.size;
     }
 
     @Override
     public V remove(K key) {
-        int index = binarySearch(key);
+        int index = main.search(key);
         if (index >= 0) {
-            IEntry<K, V> entry = entries.remove(index);
-            return entry.getValue();
+            return main.remove(index);
+        }
+        if (buffer.size > 0) {
+            index = buffer.search(key);
+            if (index >= 0) {
+                return buffer.remove(index);
+            }
         }
         return null;
     }
 
     @Override
     public boolean remove(K key, V value) {
-        int index = binarySearch(key);
-        if (index >= 0 && Objects.equals(entries.get(index).getValue(), value)) {
-            entries.remove(index);
+        SortedRun<K, V> run = main;
+        int index = main.search(key);
+        if (index < 0 && buffer.size > 0) {
+            run = buffer;
+            index = buffer.search(key);
+        }
+        if (index >= 0 && Objects.equals(run.value(index), value)) {
+            run.remove(index);
             return true;
         }
         return false;
     }
 
+    /**
+     * @return iterator over the entries in ascending key order
+     */
+    @Override
+    protected Iterator<IEntry<K, V>> entryIterator() {
+        return rangeIterator(null, false, null, false, false);
+    }
+
+    /**
+     * Walks the index range between the positions of the bounds.
+     */
     @Override
-    public Set<IEntry<K, V>> entrySet() {
-        return new HashSet<>(entries);
+    protected Iterator<IEntry<K, V>> rangeIterator(K lo, boolean loInclusive,
+                                                   K hi, boolean hiInclusive,
+                                                   boolean descending) {
+        flush();
+        int from = lo == null ? 0 : main.ceilingIndex(lo, loInclusive);
+        int to = hi == null ? main.size : main.floorIndex(hi, hiInclusive) + 1;
+        return new Iterator<>() {
+            // unvisited positions are [start, end)
+            private int start = from;
+            private int end = Math.max(from, to);
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return start < end;
+            }
+
+            @Override
+            public IEntry<K, V> next() {
+                if (start >= end) {
+                    throw new NoSuchElementException();
+                }
+                last = descending ? --end : start++;
+                return entry(main, last);
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                main.remove(last);
+                if (!descending) {
+                    start--;
+                    end--;
+                }
+                last = -1;
+            }
+        };
+    }
+
+    @Override
+    protected int compare(K key1, K key2) {
+        return key1.compareTo(key2);
+    }
+
+    /**
+     * @return cursor over the entries in ascending key order
+     */
+    @Override
+    public ICursor<K, V> cursor() {
+        return rangeCursor(null, false, null, false, false);
+    }
+
+    /**
+     * Walks the same index range as {@link #rangeIterator} but reads the key and value
+     * arrays in place, so a step allocates nothing.
+     */
+    @Override
+    protected ICursor<K, V> rangeCursor(K lo, boolean loInclusive, K hi, boolean hiInclusive,
+                                        boolean descending) {
+        flush();
+        int from = lo == null ? 0 : main.ceilingIndex(lo, loInclusive);
+        int to = hi == null ? main.size : main.floorIndex(hi, hiInclusive) + 1;
+        return new ICursor<>() {
+            // unvisited positions are [start, end)
+            private int start = from;
+            private int end = Math.max(from, to);
+            private int index = -1;
+
+            @Override
+            public boolean advance() {
+                index = start >= end ? -1 : descending ? --end : start++;
+                return index >= 0;
+            }
+
+            private int index() {
+                if (index < 0) {
+                    throw noCursorEntry();
+                }
+                return index;
+            }
+
+            @Override
+            public K key() {
+                return main.key(index());
+            }
+
+            @Override
+            public V value() {
+                return main.value(index());
+            }
+
+            @Override
+            public V setValue(V value) {
+                return main.setValue(index(), value);
+            }
+        };
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        flush();
+        for (int i = 0; i < main.size; i++) {
+            action.accept(main.key(i), main.value(i));
+        }
     }
 
     @Override
     public V replace(K key, V value) {
-        int index = binarySearch(key);
+        int index = main.search(key);
         if (index >= 0) {
-            IEntry<K, V> entry = entries.get(index);
-            V oldValue = entry.getValue();
-            entry.setValue(value);
-            return oldValue;
+            return main.setValue(index, value);
+        }
+        if (buffer.size > 0) {
+            index = buffer.search(key);
+            if (index >= 0) {
+                return buffer.setValue(index, value);
+            }
         }
         return null;
     }
 
     @Override
     public V putIfAbsent(K key, V value) {
-        int index = binarySearch(key);
-        if (index < 0) {
-            int insertIndex = -(index + 1);
-            entries.add(insertIndex, new SimpleEntry<>(key, value));
-            return null;
-        } else {
-            return entries.get(index).getValue();
-        }
+        return putVal(key, value, true);
     }
 
     @Override
@@ -146,32 +374,62 @@ public class SortedArrayNavigableDictionary<K extends Comparable<K>, V> extends
 
     @Override
     public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
-        int index = binarySearch(key);
+        SortedRun<K, V> run = main;
+        int index = main.search(key);
+        if (index < 0 && buffer.size > 0) {
+            run = buffer;
+            index = buffer.search(key);
+        }
         if (index >= 0) {
-            IEntry<K, V> entry = entries.get(index);
-            V oldValue = entry.getValue();
+            V oldValue = run.value(index);
             V newValue = remappingFunction.apply(key, oldValue);
             if (newValue != null) {
-                entry.setValue(newValue);
+                run.setValue(index, newValue);
                 return newValue;
             } else {
-                entries.remove(index);
+                run.remove(index);
                 return null;
             }
         }
         return null;
     }
 
-    @Override
-    public IEntry<K, V> lowerEntry(K key) {
-        int index = binarySearch(key);
-        if (index < 0) {
-            index = -(index + 1);
+    private IEntry<K, V> entry(SortedRun<K, V> run, int index) {
+        return new ArrayEntry(run.key(index), run.value(index));
+    }
+
+    /**
+     * @return entry with the greatest key less than key, or equal to it if inclusive
+     */
+    private IEntry<K, V> floorOrLower(K key, boolean inclusive) {
+        int index = main.floorIndex(key, inclusive);
+        if (buffer.size > 0) {
+            int bufferIndex = buffer.floorIndex(key, inclusive);
+            if (bufferIndex >= 0 && (index < 0 || buffer.keys.compare(bufferIndex, main.keys, index) > 0)) {
+                return entry(buffer, bufferIndex);
+            }
         }
-        if (index > 0) {
-            return entries.get(index - 1);
+        return index >= 0 ? entry(main, index) : null;
+    }
+
+    /**
+     * @return entry with the least key greater than key, or equal to it if inclusive
+     */
+    private IEntry<K, V> ceilingOrHigher(K key, boolean inclusive) {
+        int index = main.ceilingIndex(key, inclusive);
+        if (buffer.size > 0) {
+            int bufferIndex = buffer.ceilingIndex(key, inclusive);
+            if (bufferIndex < buffer.size
+                && (index >= main.size || buffer.keys.compare(bufferIndex, main.keys, index) < 0)) {
+                return entry(buffer, bufferIndex);
+            }
         }
-        return null;
+        return index < main.size ? entry(main, index) : null;
+    }
+
+    @Override
+    public IEntry<K, V> lowerEntry(K key) {
+        return floorOrLower(key, false);
     }
 
     @Override
@@ -182,16 +440,7 @@ public class SortedArrayNavigableDictionary<K extends Comparable<K>, V> extends
 
     @Override
     public IEntry<K, V> floorEntry(K key) {
-        int index = binarySearch(key);
-        if (index >= 0) {
-            return entries.get(index);
-        } else {
-            index = -(index + 1);
-            if (index > 0) {
-                return entries.get(index - 1);
-            }
-        }
-        return null;
+        return floorOrLower(key, true);
     }
 
     @Override
@@ -202,16 +451,7 @@ public class SortedArrayNavigableDictionary<K extends Comparable<K>, V> extends
 
     @Override
     public IEntry<K, V> ceilingEntry(K key) {
-        int index = binarySearch(key);
-        if (index >= 0) {
-            return entries.get(index);
-        } else {
-            index = -(index + 1);
-            if (index < entries.size()) {
-                return entries.get(index);
-            }
-        }
-        return null;
+        return ceilingOrHigher(key, true);
     }
 
     @Override
@@ -222,18 +462,7 @@ public class SortedArrayNavigableDictionary<K extends Comparable<K>, V> extends
 
     @Override
     public IEntry<K, V> higherEntry(K key) {
-        int index = binarySearch(key);
-        if (index >= 0) {
-            if (index < entries.size() - 1) {
-                return entries.get(index + 1);
-            }
-        } else {
-            index = -(index + 1);
-            if (index < entries.size()) {
-                return entries.get(index);
-            }
-        }
-        return null;
+        return ceilingOrHigher(key, false);
     }
 
     @Override
@@ -242,16 +471,895 @@ public class SortedArrayNavigableDictionary<K extends Comparable<K>, V> extends
         return entry != null ? entry.getKey() : null;
     }
 
-    private int binarySearch(K key) {
-        return Collections.binarySearch(entries, new SimpleEntry<>(key, null),
-                Comparator.comparing(IEntry::getKey));
+    @Override
+    public int rank(K key) {
+        flush();
+        return main.ceilingIndex(key, true);
+    }
+
+    @Override
+    public K select(int index) {
+        flush();
+        return main.key(Objects.checkIndex(index, main.size));
+    }
+
+    @Override
+    public IEntry<K, V> kthEntry(int index) {
+        flush();
+        return entry(main, Objects.checkIndex(index, main.size));
+    }
+
+    @Override
+    public int countRange(K lo, K hi) {
+        if (lo.compareTo(hi) > 0) {
+            return 0;
+        }
+        flush();
+        return main.floorIndex(hi, true) + 1 - main.ceilingIndex(lo, true);
+    }
+
+    /**
+     * Copies the entries into an immutable dictionary laid out in Eytzinger order, the
+     * implicit search tree stored breadth first. The top levels of the tree share a few
+     * cache lines, so floor/ceiling lookups on a large dictionary miss the cache less often
+     * than a binary search over the sorted array. Later changes to this dictionary are not
+     * reflected in the frozen copy.
+     */
+    public INavigableDictionary<K, V> freeze() {
+        flush();
+        int n = main.size;
+        KeyArray<K> keys = main.keys.newArray(n + 1);
+        Object[] values = new Object[n + 1];
+        for (int k = 0, i = FrozenDictionary.first(n); k < n; k++, i = FrozenDictionary.successor(i, n)) {
+            keys.copy(i, main.keys, k);
+            values[i] = main.values[k];
+        }
+        return new FrozenDictionary<>(keys, values, n);
+    }
+
+    /**
+     * Keys in ascending order in one array with the values in a parallel array.
+     */
+    private static final class SortedRun<K, V> {
+        private final KeyArray<K> keys;
+        private Object[] values;
+        private int size;
+
+        SortedRun(KeyArray<K> keys) {
+            this.keys = keys;
+            this.values = new Object[keys.capacity()];
+        }
+
+        /**
+         * @return index of the key, or -(insertion point + 1) if absent
+         */
+        int search(K key) {
+            return keys.search(size, key);
+        }
+
+        /**
+         * @return index of the greatest key less than key, or equal to it if inclusive, -1 if none
+         */
+        int floorIndex(K key, boolean inclusive) {
+            int index = search(key);
+            if (index >= 0) {
+                return inclusive ? index : index - 1;
+            }
+            return -(index + 1) - 1;
+        }
+
+        /**
+         * @return index of the least key greater than key, or equal to it if inclusive, size if none
+         */
+        int ceilingIndex(K key, boolean inclusive) {
+            int index = search(key);
+            if (index >= 0) {
+                return inclusive ? index : index + 1;
+            }
+            return -(index + 1);
+        }
+
+        K key(int index) {
+            return keys.get(index);
+        }
+
+        @SuppressWarnings("unchecked")
+        V value(int index) {
+            return (V) values[index];
+        }
+
+        V setValue(int index, V value) {
+            V oldValue = value(index);
+            values[index] = value;
+            return oldValue;
+        }
+
+        boolean containsValue(V value) {
+            for (int i = 0; i < size; i++) {
+                if (Objects.equals(values[i], value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > values.length) {
+                int newCapacity = Math.max(capacity, values.length + (values.length >> 1));
+                keys.resize(newCapacity);
+                values = Arrays.copyOf(values, newCapacity);
+            }
+        }
+
+        void insert(int index, K key, V value) {
+            ensureCapacity(size + 1);
+            keys.move(index, index + 1, size - index);
+            System.arraycopy(values, index, values, index + 1, size - index);
+            keys.set(index, key);
+            values[index] = value;
+            size++;
+        }
+
+        V remove(int index) {
+            V oldValue = value(index);
+            keys.move(index + 1, index, size - index - 1);
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            keys.clear(size, size + 1);
+            values[size] = null;
+            return oldValue;
+        }
+
+        /**
+         * Merges the other run, whose keys are all absent here, from the back
+         * in place and in one pass, then empties it.
+         */
+        void merge(SortedRun<K, V> other) {
+            int i = size - 1;
+            int j = other.size - 1;
+            ensureCapacity(size + other.size);
+            for (int k = size + other.size - 1; j >= 0; k--) {
+                if (i >= 0 && keys.compare(i, other.keys, j) > 0) {
+                    keys.copy(k, keys, i);
+                    values[k] = values[i--];
+                } else {
+                    keys.copy(k, other.keys, j);
+                    values[k] = other.values[j--];
+                }
+            }
+            size += other.size;
+            other.keys.clear(0, other.size);
+            Arrays.fill(other.values, 0, other.size, null);
+            other.size = 0;
+        }
+    }
+
+    /**
+     * Growable array of keys, the primitive subclasses search and compare unboxed values.
+     */
+    private abstract static class KeyArray<K> {
+        abstract K get(int index);
+
+        abstract void set(int index, K key);
+
+        /**
+         * @return index of the key among the first size keys, or -(insertion point + 1) if absent
+         */
+        abstract int search(int size, K key);
+
+        /**
+         * @return comparison of the key at index with the key at otherIndex of other
+         */
+        abstract int compare(int index, KeyArray<K> other, int otherIndex);
+
+        /**
+         * Copies the key at otherIndex of other to index.
+         */
+        abstract void copy(int index, KeyArray<K> other, int otherIndex);
+
+        /**
+         * Moves length keys from position from to position to, the ranges may overlap.
+         */
+        abstract void move(int from, int to, int length);
+
+        /**
+         * Drops the references held in [from, to).
+         */
+        void clear(int from, int to) {
+        }
+
+        abstract int capacity();
+
+        abstract void resize(int capacity);
+
+        abstract KeyArray<K> newArray(int capacity);
+
+        /**
+         * @return comparison of the key at index with key
+         */
+        abstract int compareKey(int index, K key);
+
+        /**
+         * Lower bound over keys 1..n stored in Eytzinger (breadth first) order, the children
+         * of i are 2i and 2i + 1. The loop has no data dependent branch, the comparison only
+         * selects the child.
+         *
+         * @return index of the least key greater than key, or equal to it if inclusive, 0 if none
+         */
+        abstract int eytzingerSearch(int n, K key, boolean inclusive);
+    }
+
+    private static final class ObjectKeys<K extends Comparable<K>> extends KeyArray<K> {
+        private Object[] keys;
+
+        ObjectKeys(int capacity) {
+            this.keys = new Object[capacity];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        K get(int index) {
+            return (K) keys[index];
+        }
+
+        @Override
+        void set(int index, K key) {
+            keys[index] = key;
+        }
+
+        @Override
+        int search(int size, K key) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = get(mid).compareTo(key);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        @Override
+        int compare(int index, KeyArray<K> other, int otherIndex) {
+            return get(index).compareTo(other.get(otherIndex));
+        }
+
+        @Override
+        void copy(int index, KeyArray<K> other, int otherIndex) {
+            keys[index] = ((ObjectKeys<K>) other).keys[otherIndex];
+        }
+
+        @Override
+        void move(int from, int to, int length) {
+            System.arraycopy(keys, from, keys, to, length);
+        }
+
+        @Override
+        void clear(int from, int to) {
+            Arrays.fill(keys, from, to, null);
+        }
+
+        @Override
+        int capacity() {
+            return keys.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            keys = Arrays.copyOf(keys, capacity);
+        }
+
+        @Override
+        KeyArray<K> newArray(int capacity) {
+            return new ObjectKeys<>(capacity);
+        }
+
+        @Override
+        int compareKey(int index, K key) {
+            return get(index).compareTo(key);
+        }
+
+        @Override
+        int eytzingerSearch(int n, K key, boolean inclusive) {
+            int limit = inclusive ? 0 : 1;
+            int i = 1;
+            while (i <= n) {
+                i = 2 * i + (get(i).compareTo(key) < limit ? 1 : 0);
+            }
+            return i >>> (Integer.numberOfTrailingZeros(~i) + 1);
+        }
+    }
+
+    private static final class IntKeys extends KeyArray<Integer> {
+        private int[] keys;
+
+        IntKeys(int capacity) {
+            this.keys = new int[capacity];
+        }
+
+        @Override
+        Integer get(int index) {
+            return keys[index];
+        }
+
+        @Override
+        void set(int index, Integer key) {
+            keys[index] = key;
+        }
+
+        @Override
+        int search(int size, Integer key) {
+            int k = key;
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int midKey = keys[mid];
+                if (midKey < k) {
+                    low = mid + 1;
+                } else if (midKey > k) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        @Override
+        int compare(int index, KeyArray<Integer> other, int otherIndex) {
+            return Integer.compare(keys[index], ((IntKeys) other).keys[otherIndex]);
+        }
+
+        @Override
+        void copy(int index, KeyArray<Integer> other, int otherIndex) {
+            keys[index] = ((IntKeys) other).keys[otherIndex];
+        }
+
+        @Override
+        void move(int from, int to, int length) {
+            System.arraycopy(keys, from, keys, to, length);
+        }
+
+        @Override
+        int capacity() {
+            return keys.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            keys = Arrays.copyOf(keys, capacity);
+        }
+
+        @Override
+        KeyArray<Integer> newArray(int capacity) {
+            return new IntKeys(capacity);
+        }
+
+        @Override
+        int compareKey(int index, Integer key) {
+            return Integer.compare(keys[index], key);
+        }
+
+        @Override
+        int eytzingerSearch(int n, Integer key, boolean inclusive) {
+            int k = key;
+            int limit = inclusive ? 0 : 1;
+            int i = 1;
+            while (i <= n) {
+                i = 2 * i + (Integer.compare(keys[i], k) < limit ? 1 : 0);
+            }
+            return i >>> (Integer.numberOfTrailingZeros(~i) + 1);
+        }
+    }
+
+    private static final class LongKeys extends KeyArray<Long> {
+        private long[] keys;
+
+        LongKeys(int capacity) {
+            this.keys = new long[capacity];
+        }
+
+        @Override
+        Long get(int index) {
+            return keys[index];
+        }
+
+        @Override
+        void set(int index, Long key) {
+            keys[index] = key;
+        }
+
+        @Override
+        int search(int size, Long key) {
+            long k = key;
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midKey = keys[mid];
+                if (midKey < k) {
+                    low = mid + 1;
+                } else if (midKey > k) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        @Override
+        int compare(int index, KeyArray<Long> other, int otherIndex) {
+            return Long.compare(keys[index], ((LongKeys) other).keys[otherIndex]);
+        }
+
+        @Override
+        void copy(int index, KeyArray<Long> other, int otherIndex) {
+            keys[index] = ((LongKeys) other).keys[otherIndex];
+        }
+
+        @Override
+        void move(int from, int to, int length) {
+            System.arraycopy(keys, from, keys, to, length);
+        }
+
+        @Override
+        int capacity() {
+            return keys.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            keys = Arrays.copyOf(keys, capacity);
+        }
+
+        @Override
+        KeyArray<Long> newArray(int capacity) {
+            return new LongKeys(capacity);
+        }
+
+        @Override
+        int compareKey(int index, Long key) {
+            return Long.compare(keys[index], key);
+        }
+
+        @Override
+        int eytzingerSearch(int n, Long key, boolean inclusive) {
+            long k = key;
+            int limit = inclusive ? 0 : 1;
+            int i = 1;
+            while (i <= n) {
+                i = 2 * i + (Long.compare(keys[i], k) < limit ? 1 : 0);
+            }
+            return i >>> (Integer.numberOfTrailingZeros(~i) + 1);
+        }
+    }
+
+    /**
+     * Double keys compared with {@link Double#compare}, so -0.0 is below 0.0 and NaN above everything.
+     */
+    private static final class DoubleKeys extends KeyArray<Double> {
+        private double[] keys;
+
+        DoubleKeys(int capacity) {
+            this.keys = new double[capacity];
+        }
+
+        @Override
+        Double get(int index) {
+            return keys[index];
+        }
+
+        @Override
+        void set(int index, Double key) {
+            keys[index] = key;
+        }
+
+        @Override
+        int search(int size, Double key) {
+            double k = key;
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = Double.compare(keys[mid], k);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        @Override
+        int compare(int index, KeyArray<Double> other, int otherIndex) {
+            return Double.compare(keys[index], ((DoubleKeys) other).keys[otherIndex]);
+        }
+
+        @Override
+        void copy(int index, KeyArray<Double> other, int otherIndex) {
+            keys[index] = ((DoubleKeys) other).keys[otherIndex];
+        }
+
+        @Override
+        void move(int from, int to, int length) {
+            System.arraycopy(keys, from, keys, to, length);
+        }
+
+        @Override
+        int capacity() {
+            return keys.length;
+        }
+
+        @Override
+        void resize(int capacity) {
+            keys = Arrays.copyOf(keys, capacity);
+        }
+
+        @Override
+        KeyArray<Double> newArray(int capacity) {
+            return new DoubleKeys(capacity);
+        }
+
+        @Override
+        int compareKey(int index, Double key) {
+            return Double.compare(keys[index], key);
+        }
+
+        @Override
+        int eytzingerSearch(int n, Double key, boolean inclusive) {
+            double k = key;
+            int limit = inclusive ? 0 : 1;
+            int i = 1;
+            while (i <= n) {
+                i = 2 * i + (Double.compare(keys[i], k) < limit ? 1 : 0);
+            }
+            return i >>> (Integer.numberOfTrailingZeros(~i) + 1);
+        }
+    }
+
+    /**
+     * Immutable dictionary over keys and values stored at 1..n in Eytzinger order,
+     * in-order neighbours are found by walking the implicit tree.
+     */
+    private static final class FrozenDictionary<K extends Comparable<K>, V> extends AbstractNavigableDictionary<K, V> {
+        private final KeyArray<K> keys;
+        private final Object[] values;
+        private final int n;
+
+        FrozenDictionary(KeyArray<K> keys, Object[] values, int n) {
+            this.keys = keys;
+            this.values = values;
+            this.n = n;
+        }
+
+        /**
+         * @return index of the least key, 0 if empty
+         */
+        static int first(int n) {
+            if (n == 0) {
+                return 0;
+            }
+            int i = 1;
+            while (2 * i <= n) {
+                i = 2 * i;
+            }
+            return i;
+        }
+
+        /**
+         * @return index of the greatest key, 0 if empty
+         */
+        static int last(int n) {
+            if (n == 0) {
+                return 0;
+            }
+            int i = 1;
+            while (2 * i + 1 <= n) {
+                i = 2 * i + 1;
+            }
+            return i;
+        }
+
+        /**
+         * @return index of the next key in order, 0 if i holds the greatest key
+         */
+        static int successor(int i, int n) {
+            if (2 * i + 1 <= n) {
+                i = 2 * i + 1;
+                while (2 * i <= n) {
+                    i = 2 * i;
+                }
+                return i;
+            }
+            // climb while i is a right child
+            while ((i & 1) == 1) {
+                i >>>= 1;
+            }
+            return i >>> 1;
+        }
+
+        /**
+         * @return index of the previous key in order, 0 if i holds the least key
+         */
+        static int predecessor(int i, int n) {
+            if (2 * i <= n) {
+                i = 2 * i;
+                while (2 * i + 1 <= n) {
+                    i = 2 * i + 1;
+                }
+                return i;
+            }
+            // climb while i is a left child
+            while (i > 1 && (i & 1) == 0) {
+                i >>>= 1;
+            }
+            return i >>> 1;
+        }
+
+        private int indexOf(K key) {
+            int i = keys.eytzingerSearch(n, key, true);
+            return i != 0 && keys.compareKey(i, key) == 0 ? i : 0;
+        }
+
+        private int ceilingIndex(K key, boolean inclusive) {
+            return keys.eytzingerSearch(n, key, inclusive);
+        }
+
+        private int floorIndex(K key, boolean inclusive) {
+            int i = keys.eytzingerSearch(n, key, !inclusive);
+            return i == 0 ? last(n) : predecessor(i, n);
+        }
+
+        @SuppressWarnings("unchecked")
+        private V value(int i) {
+            return (V) values[i];
+        }
+
+        private IEntry<K, V> entry(int i) {
+            return i == 0 ? null : new FrozenEntry<>(keys.get(i), value(i));
+        }
+
+        private K key(int i) {
+            return i == 0 ? null : keys.get(i);
+        }
+
+        @Override
+        public int size() {
+            return n;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return n == 0;
+        }
+
+        @Override
+        public boolean containsKey(K key) {
+            return indexOf(key) != 0;
+        }
+
+        @Override
+        public boolean containsValue(V value) {
+            for (int i = 1; i <= n; i++) {
+                if (Objects.equals(values[i], value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public V get(K key) {
+            return value(indexOf(key));
+        }
+
+        @Override
+        public V getOrDefault(K key, V defaultValue) {
+            int i = indexOf(key);
+            return i != 0 ? value(i) : defaultValue;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+
+        @Override
+        public V remove(K key) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+
+        @Override
+        public boolean remove(K key, V value) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+
+        @Override
+        public V replace(K key, V value) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+
+        @Override
+        public V putIfAbsent(K key, V value) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+
+        @Override
+        public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+
+        @Override
+        public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+
+        @Override
+        public IEntry<K, V> lowerEntry(K key) {
+            return entry(floorIndex(key, false));
+        }
+
+        @Override
+        public K lowerKey(K key) {
+            return key(floorIndex(key, false));
+        }
+
+        @Override
+        public IEntry<K, V> floorEntry(K key) {
+            return entry(floorIndex(key, true));
+        }
+
+        @Override
+        public K floorKey(K key) {
+            return key(floorIndex(key, true));
+        }
+
+        @Override
+        public IEntry<K, V> ceilingEntry(K key) {
+            return entry(ceilingIndex(key, true));
+        }
+
+        @Override
+        public K ceilingKey(K key) {
+            return key(ceilingIndex(key, true));
+        }
+
+        @Override
+        public IEntry<K, V> higherEntry(K key) {
+            return entry(ceilingIndex(key, false));
+        }
+
+        @Override
+        public K higherKey(K key) {
+            return key(ceilingIndex(key, false));
+        }
+
+        @Override
+        protected int compare(K key1, K key2) {
+            return key1.compareTo(key2);
+        }
+
+        @Override
+        protected Iterator<IEntry<K, V>> entryIterator() {
+            return rangeIterator(null, false, null, false, false);
+        }
+
+        @Override
+        protected Iterator<IEntry<K, V>> rangeIterator(K lo, boolean loInclusive,
+                                                       K hi, boolean hiInclusive,
+                                                       boolean descending) {
+            int start;
+            if (descending) {
+                start = hi == null ? last(n) : floorIndex(hi, hiInclusive);
+            } else {
+                start = lo == null ? first(n) : ceilingIndex(lo, loInclusive);
+            }
+            return new Iterator<>() {
+                private int next = fenced(start);
+
+                private int fenced(int i) {
+                    if (i == 0) {
+                        return 0;
+                    }
+                    if (descending) {
+                        int c = lo == null ? 1 : keys.compareKey(i, lo);
+                        return c > 0 || (c == 0 && loInclusive) ? i : 0;
+                    }
+                    int c = hi == null ? -1 : keys.compareKey(i, hi);
+                    return c < 0 || (c == 0 && hiInclusive) ? i : 0;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != 0;
+                }
+
+                @Override
+                public IEntry<K, V> next() {
+                    if (next == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    int i = next;
+                    next = fenced(descending ? predecessor(i, n) : successor(i, n));
+                    return entry(i);
+                }
+            };
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            Objects.requireNonNull(action);
+            for (int i = first(n); i != 0; i = successor(i, n)) {
+                action.accept(keys.get(i), value(i));
+            }
+        }
+    }
+
+    /**
+     * Mapping of a {@link FrozenDictionary}. Unlike {@link IDictionary#entry} it accepts
+     * the null values the source dictionary may hold.
+     */
+    private static final class FrozenEntry<K, V> implements IEntry<K, V> {
+        private final K key;
+        private final V value;
+
+        FrozenEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            throw AbstractImmutableDictionary.uoe();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof IEntry<?, ?> that)) return false;
+            return Objects.equals(key, that.getKey()) && Objects.equals(value, that.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
     }
 
-    private static class SimpleEntry<K, V> implements IEntry<K, V> {
+    /**
+     * Copy of a mapping handed out by navigation and iteration, {@link #setValue} writes through.
+     */
+    private final class ArrayEntry implements IEntry<K, V> {
         private final K key;
         private V value;
 
-        public SimpleEntry(K key, V value) {
+        ArrayEntry(K key, V value) {
             this.key = key;
             this.value = value;
         }
@@ -270,20 +1378,20 @@ public class SortedArrayNavigableDictionary<K extends Comparable<K>, V> extends
         public V setValue(V value) {
             V oldValue = this.value;
             this.value = value;
+            replace(key, value);
             return oldValue;
         }
 
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            SimpleEntry<?, ?> that = (SimpleEntry<?, ?>) o;
-            return Objects.equals(key, that.key) && Objects.equals(value, that.value);
+            if (!(o instanceof IEntry<?, ?> that)) return false;
+            return Objects.equals(key, that.getKey()) && Objects.equals(value, that.getValue());
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(key, value);
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
         }
 
         @Override
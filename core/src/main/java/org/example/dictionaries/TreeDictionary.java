@@ -1,40 +1,41 @@
 package org.example.dictionaries;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Set;
-
-public class TreeDictionary<K extends Comparable<K>, V> extends AbstractDictionary<K,V>
-        implements INavigableDictionary<K, V> {
+import java.util.function.BiConsumer;
+
+/**
+ * Red-black tree ordered by the natural order of the keys or by a comparator.
+ * Insert and delete descend once without recursion and rebalance bottom up
+ * along parent pointers, every node also stores the size of its subtree.
+ */
+public class TreeDictionary<K extends Comparable<K>, V> extends AbstractNavigableDictionary<K,V>
+        implements IOrderStatisticDictionary<K, V> {
     private Node<K, V> root;
     private final Comparator<? super K> comparator;
     private int size;
 
     private static final boolean RED = true;
     private static final boolean BLACK = false;
-    private V prevPut = null;
 
     private static class Node<K, V> implements IEntry<K, V> {
         private K key;
         private V value;
         private Node<K, V> left;
         private Node<K, V> right;
-        private boolean color;
-        private int count;
-
-        Node(K key, V value, boolean color) {
-            this.key = key;
-            this.value = value;
-            this.color = color;
-            this.count = 1;
-        }
+        private Node<K, V> parent;
+        private boolean color = BLACK;
+        private int count = 1;
 
-        Node(K key, V value, int count, boolean color) {
+        Node(K key, V value, Node<K, V> parent) {
             this.key = key;
             this.value = value;
-            this.count = count;
-            this.color = color;
+            this.parent = parent;
         }
 
         @Override
@@ -68,6 +69,97 @@ public class TreeDictionary<K extends Comparable<K>, V> extends AbstractDictiona
         this.comparator = comparator;
     }
 
+    /**
+     * Builds a perfectly balanced tree in O(n) from entries in strictly ascending key order.
+     *
+     * @throws IllegalArgumentException if the keys are not strictly ascending
+     */
+    public static <K extends Comparable<K>, V> TreeDictionary<K, V> fromSorted(
+            Iterator<? extends IEntry<K, V>> entries) {
+        List<K> keys = new ArrayList<>();
+        List<V> values = new ArrayList<>();
+        while (entries.hasNext()) {
+            IEntry<K, V> entry = entries.next();
+            keys.add(entry.getKey());
+            values.add(entry.getValue());
+        }
+        TreeDictionary<K, V> dictionary = new TreeDictionary<>();
+        dictionary.buildFromSorted(keys, values);
+        return dictionary;
+    }
+
+    /**
+     * Builds a perfectly balanced tree in O(n) from keys in strictly ascending natural order,
+     * values[i] is mapped to keys[i].
+     *
+     * @throws IllegalArgumentException if the keys are not strictly ascending
+     */
+    public static <K extends Comparable<K>, V> TreeDictionary<K, V> fromSortedArrays(K[] keys, V[] values) {
+        return fromSortedArrays(keys, values, null);
+    }
+
+    /**
+     * Same as {@link #fromSortedArrays(Comparable[], Object[])} with keys in strictly
+     * ascending order of the comparator.
+     */
+    public static <K extends Comparable<K>, V> TreeDictionary<K, V> fromSortedArrays(
+            K[] keys, V[] values, Comparator<? super K> comparator) {
+        TreeDictionary<K, V> dictionary = new TreeDictionary<K, V>(comparator);
+        dictionary.buildFromSorted(Arrays.asList(keys), Arrays.asList(values));
+        return dictionary;
+    }
+
+    private void buildFromSorted(List<K> keys, List<V> values) {
+        if (keys.size() != values.size()) {
+            throw new IllegalArgumentException("Keys and values must have the same length.");
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            K key = keys.get(i);
+            if (key == null) {
+                throw new NullPointerException("Null keys are not supported.");
+            }
+            if (i > 0 && compare(keys.get(i - 1), key) >= 0) {
+                throw new IllegalArgumentException("Keys must be in strictly ascending order.");
+            }
+        }
+        size = keys.size();
+        root = size == 0 ? null : buildFromSorted(0, 0, size - 1, redLevel(size), keys, values, null);
+    }
+
+    /**
+     * Links keys[lo..hi] into a subtree around the middle key. Every level is full
+     * except possibly the deepest, whose nodes are colored red so that all paths
+     * hold the same number of black nodes.
+     */
+    private static <K, V> Node<K, V> buildFromSorted(int level, int lo, int hi, int redLevel,
+                                                     List<K> keys, List<V> values, Node<K, V> parent) {
+        int mid = (lo + hi) >>> 1;
+        Node<K, V> node = new Node<>(keys.get(mid), values.get(mid), parent);
+        if (level == redLevel) {
+            node.color = RED;
+        }
+        if (lo < mid) {
+            node.left = buildFromSorted(level + 1, lo, mid - 1, redLevel, keys, values, node);
+        }
+        if (mid < hi) {
+            node.right = buildFromSorted(level + 1, mid + 1, hi, redLevel, keys, values, node);
+        }
+        node.count = hi - lo + 1;
+        return node;
+    }
+
+    /**
+     * @return depth of the deepest level of a balanced tree of the given size if that
+     * level is not full, otherwise a depth below the tree
+     */
+    private static int redLevel(int size) {
+        int level = 0;
+        for (int m = size - 1; m >= 0; m = m / 2 - 1) {
+            level++;
+        }
+        return level;
+    }
+
     @Override
     public boolean isEmpty() {
         return size == 0;
@@ -75,7 +167,7 @@ public class TreeDictionary<K extends Comparable<K>, V> extends AbstractDictiona
 
     @Override
     public boolean containsKey(K key) {
-        return get(key) != null;
+        return key != null && getNode(key) != null;
     }
 
     @Override
@@ -94,53 +186,52 @@ public class TreeDictionary<K extends Comparable<K>, V> extends AbstractDictiona
         if (key == null) {
             throw new NullPointerException("Null keys are not supported.");
         }
-        prevPut = null; // Clear previous value
-
-        root = put(root, key, value);
-        root.color = BLACK;
-        size++;
-        return prevPut;
-    }
-
-    private Node<K, V> put(Node<K, V> node, K key, V value) {
+        Node<K, V> node = root;
         if (node == null) {
-            return new Node<>(key, value, RED);
+            compare(key, key); // type check of the first key
+            root = new Node<>(key, value, null);
+            size = 1;
+            return null;
         }
+        Node<K, V> parent;
+        int cmp;
+        do {
+            parent = node;
+            cmp = compare(key, node.key);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                node = node.right;
+            } else {
+                return node.setValue(value);
+            }
+        } while (node != null);
 
-        int cmp = compare(key, node.key);
+        Node<K, V> inserted = new Node<>(key, value, parent);
         if (cmp < 0) {
-            node.left = put(node.left, key, value);
-        } else if (cmp > 0) {
-            node.right = put(node.right, key, value);
+            parent.left = inserted;
         } else {
-            // Key already exists, update the value and return the previous value
-            prevPut = node.value; //Set previous value
-            node.value = value;
-            return node;
-        }
-
-        //balancing magic
-        if (isRed(node.right) && !isRed(node.left)) {
-            node = rotateLeft(node);
+            parent.right = inserted;
         }
-        if (isRed(node.left) && isRed(node.left.left)) {
-            node = rotateRight(node);
+        for (Node<K, V> p = parent; p != null; p = p.parent) {
+            p.count++;
         }
-        if (isRed(node.left) && isRed(node.right)) {
-            flipColors(node);
-        }
-
-        node.count = size(node.left) + size(node.right) + 1;
-        return node;
+        fixAfterInsertion(inserted);
+        size++;
+        return null;
     }
 
     @Override
     public V get(K key) {
-        Node<K, V> node = get(root, key);
+        if (key == null) {
+            return null;
+        }
+        Node<K, V> node = getNode(key);
         return node == null ? null : node.value;
     }
 
-    private Node<K, V> get(Node<K, V> node, K key) {
+    private Node<K, V> getNode(K key) {
+        Node<K, V> node = root;
         while (node != null) {
             int cmp = compare(key, node.key);
             if (cmp < 0) {
@@ -156,8 +247,8 @@ public class TreeDictionary<K extends Comparable<K>, V> extends AbstractDictiona
 
     @Override
     public V getOrDefault(K key, V defaultValue) {
-        V value = get(key);
-        return value != null ? value : defaultValue;
+        Node<K, V> node = key == null ? null : getNode(key);
+        return node != null ? node.value : defaultValue;
     }
 
     @Override
@@ -167,120 +258,282 @@ public class TreeDictionary<K extends Comparable<K>, V> extends AbstractDictiona
 
     @Override
     public V remove(K key) {
-        if (!containsKey(key))
+        if (key == null) {
+            return null;
+        }
+        Node<K, V> node = getNode(key);
+        if (node == null) {
             return null;
+        }
+        V oldValue = node.value;
+        deleteNode(node);
+        return oldValue;
+    }
 
-        // Copy the current root to ensure immutability during delete
-        Node<K, V> deletedRoot = root;
-        root = remove(root, key);
-        if (root != null)
-            root.color = BLACK;
+    /**
+     * Unlinks node from the tree. A node with two children takes over key and value
+     * of its successor, which is unlinked instead.
+     */
+    private void deleteNode(Node<K, V> node) {
         size--;
-        return deletedRoot.value;
-    }
+        if (node.left != null && node.right != null) {
+            Node<K, V> successor = successor(node);
+            node.key = successor.key;
+            node.value = successor.value;
+            node = successor;
+        }
+        for (Node<K, V> p = node.parent; p != null; p = p.parent) {
+            p.count--;
+        }
 
-    private Node<K, V> remove(Node<K, V> node, K key) {
-        int cmp = compare(key, node.key);
-        if (cmp < 0) {
-            if (!isRed(node.left) && !isRed(node.left.left))
-                node = moveRedLeft(node);
-            node.left = remove(node.left, key);
-        } else {
-            if (isRed(node.left))
-                node = rotateRight(node);
-            if (compare(key, node.key) == 0 && (node.right == null))
-                return null;
-            if (!isRed(node.right) && !isRed(node.right.left))
-                node = moveRedRight(node);
-            if (compare(key, node.key) == 0) {
-                Node<K, V> min = minimum(node.right);
-                node.key = min.key;
-                node.value = min.value;
-                node.right = deleteMin(node.right);
+        Node<K, V> replacement = node.left != null ? node.left : node.right;
+        if (replacement != null) {
+            replacement.parent = node.parent;
+            if (node.parent == null) {
+                root = replacement;
+            } else if (node == node.parent.left) {
+                node.parent.left = replacement;
             } else {
-                node.right = remove(node.right, key);
+                node.parent.right = replacement;
+            }
+            node.left = node.right = node.parent = null;
+            if (node.color == BLACK) {
+                fixAfterDeletion(replacement);
+            }
+        } else if (node.parent == null) {
+            root = null;
+        } else {
+            // the leaf stays linked as a phantom while rebalancing, it no longer counts
+            node.count = 0;
+            if (node.color == BLACK) {
+                fixAfterDeletion(node);
+            }
+            if (node.parent != null) {
+                if (node == node.parent.left) {
+                    node.parent.left = null;
+                } else if (node == node.parent.right) {
+                    node.parent.right = null;
+                }
+                node.parent = null;
             }
         }
-        return balance(node);
     }
 
-    private Node<K, V> minimum(Node<K, V> node) {
-        if (node.left == null)
-            return node;
-        return minimum(node.left);
+    private Node<K, V> successor(Node<K, V> node) {
+        if (node.right != null) {
+            Node<K, V> p = node.right;
+            while (p.left != null) {
+                p = p.left;
+            }
+            return p;
+        }
+        Node<K, V> p = node.parent;
+        Node<K, V> child = node;
+        while (p != null && child == p.right) {
+            child = p;
+            p = p.parent;
+        }
+        return p;
     }
 
-    private Node<K, V> deleteMin(Node<K, V> node) {
-        if (node.left == null)
-            return null;
+    private Node<K, V> predecessor(Node<K, V> node) {
+        if (node.left != null) {
+            Node<K, V> p = node.left;
+            while (p.right != null) {
+                p = p.right;
+            }
+            return p;
+        }
+        Node<K, V> p = node.parent;
+        Node<K, V> child = node;
+        while (p != null && child == p.left) {
+            child = p;
+            p = p.parent;
+        }
+        return p;
+    }
 
-        if (!isRed(node.left) && !isRed(node.left.left))
-            node = moveRedLeft(node);
+    private Node<K, V> lastNode() {
+        Node<K, V> p = root;
+        if (p != null) {
+            while (p.right != null) {
+                p = p.right;
+            }
+        }
+        return p;
+    }
 
-        node.left = deleteMin(node.left);
-        return balance(node);
+    private Node<K, V> firstNode() {
+        Node<K, V> p = root;
+        if (p != null) {
+            while (p.left != null) {
+                p = p.left;
+            }
+        }
+        return p;
+    }
+
+    private void fixAfterInsertion(Node<K, V> x) {
+        x.color = RED;
+        while (x != null && x != root && x.parent.color == RED) {
+            if (parentOf(x) == leftOf(parentOf(parentOf(x)))) {
+                Node<K, V> y = rightOf(parentOf(parentOf(x)));
+                if (colorOf(y) == RED) {
+                    setColor(parentOf(x), BLACK);
+                    setColor(y, BLACK);
+                    setColor(parentOf(parentOf(x)), RED);
+                    x = parentOf(parentOf(x));
+                } else {
+                    if (x == rightOf(parentOf(x))) {
+                        x = parentOf(x);
+                        rotateLeft(x);
+                    }
+                    setColor(parentOf(x), BLACK);
+                    setColor(parentOf(parentOf(x)), RED);
+                    rotateRight(parentOf(parentOf(x)));
+                }
+            } else {
+                Node<K, V> y = leftOf(parentOf(parentOf(x)));
+                if (colorOf(y) == RED) {
+                    setColor(parentOf(x), BLACK);
+                    setColor(y, BLACK);
+                    setColor(parentOf(parentOf(x)), RED);
+                    x = parentOf(parentOf(x));
+                } else {
+                    if (x == leftOf(parentOf(x))) {
+                        x = parentOf(x);
+                        rotateRight(x);
+                    }
+                    setColor(parentOf(x), BLACK);
+                    setColor(parentOf(parentOf(x)), RED);
+                    rotateLeft(parentOf(parentOf(x)));
+                }
+            }
+        }
+        root.color = BLACK;
     }
 
-    private Node<K, V> moveRedLeft(Node<K, V> node) {
-        flipColors(node);
-        if (isRed(node.right.left)) {
-            node.right = rotateRight(node.right);
-            node = rotateLeft(node);
-            flipColors(node);
+    private void fixAfterDeletion(Node<K, V> x) {
+        while (x != root && colorOf(x) == BLACK) {
+            if (x == leftOf(parentOf(x))) {
+                Node<K, V> sib = rightOf(parentOf(x));
+                if (colorOf(sib) == RED) {
+                    setColor(sib, BLACK);
+                    setColor(parentOf(x), RED);
+                    rotateLeft(parentOf(x));
+                    sib = rightOf(parentOf(x));
+                }
+                if (colorOf(leftOf(sib)) == BLACK && colorOf(rightOf(sib)) == BLACK) {
+                    setColor(sib, RED);
+                    x = parentOf(x);
+                } else {
+                    if (colorOf(rightOf(sib)) == BLACK) {
+                        setColor(leftOf(sib), BLACK);
+                        setColor(sib, RED);
+                        rotateRight(sib);
+                        sib = rightOf(parentOf(x));
+                    }
+                    setColor(sib, colorOf(parentOf(x)));
+                    setColor(parentOf(x), BLACK);
+                    setColor(rightOf(sib), BLACK);
+                    rotateLeft(parentOf(x));
+                    x = root;
+                }
+            } else {
+                Node<K, V> sib = leftOf(parentOf(x));
+                if (colorOf(sib) == RED) {
+                    setColor(sib, BLACK);
+                    setColor(parentOf(x), RED);
+                    rotateRight(parentOf(x));
+                    sib = leftOf(parentOf(x));
+                }
+                if (colorOf(rightOf(sib)) == BLACK && colorOf(leftOf(sib)) == BLACK) {
+                    setColor(sib, RED);
+                    x = parentOf(x);
+                } else {
+                    if (colorOf(leftOf(sib)) == BLACK) {
+                        setColor(rightOf(sib), BLACK);
+                        setColor(sib, RED);
+                        rotateLeft(sib);
+                        sib = leftOf(parentOf(x));
+                    }
+                    setColor(sib, colorOf(parentOf(x)));
+                    setColor(parentOf(x), BLACK);
+                    setColor(leftOf(sib), BLACK);
+                    rotateRight(parentOf(x));
+                    x = root;
+                }
+            }
         }
-        return node;
+        setColor(x, BLACK);
     }
 
-    private Node<K, V> moveRedRight(Node<K, V> node) {
-        flipColors(node);
-        if (!isRed(node.left.left))
-            node = rotateRight(node);
-        return node;
+    /*
+     * Null tolerant accessors keep the rebalancing code free of null checks,
+     * null nodes are black leaves.
+     */
+    private static <K, V> boolean colorOf(Node<K, V> node) {
+        return node == null ? BLACK : node.color;
     }
 
-    private Node<K, V> balance(Node<K, V> node) {
-        if (isRed(node.right))
-            node = rotateLeft(node);
-        if (isRed(node.left) && isRed(node.left.left))
-            node = rotateRight(node);
-        if (isRed(node.left) && isRed(node.right))
-            flipColors(node);
+    private static <K, V> Node<K, V> parentOf(Node<K, V> node) {
+        return node == null ? null : node.parent;
+    }
 
-        node.count = size(node.left) + size(node.right) + 1;
-        return node;
+    private static <K, V> void setColor(Node<K, V> node, boolean color) {
+        if (node != null) {
+            node.color = color;
+        }
     }
 
-    private boolean isRed(Node<K, V> node) {
-        if (node == null) return false;
-        return node.color == RED;
+    private static <K, V> Node<K, V> leftOf(Node<K, V> node) {
+        return node == null ? null : node.left;
+    }
+
+    private static <K, V> Node<K, V> rightOf(Node<K, V> node) {
+        return node == null ? null : node.right;
     }
 
-    private Node<K, V> rotateLeft(Node<K, V> node) {
+    private void rotateLeft(Node<K, V> node) {
+        if (node == null) return;
         Node<K, V> temp = node.right;
         node.right = temp.left;
+        if (temp.left != null) {
+            temp.left.parent = node;
+        }
+        temp.parent = node.parent;
+        if (node.parent == null) {
+            root = temp;
+        } else if (node.parent.left == node) {
+            node.parent.left = temp;
+        } else {
+            node.parent.right = temp;
+        }
         temp.left = node;
-        temp.color = node.color;
-        node.color = RED;
+        node.parent = temp;
         temp.count = node.count;
         node.count = 1 + size(node.left) + size(node.right);
-        return temp;
     }
 
-    private Node<K, V> rotateRight(Node<K, V> node) {
+    private void rotateRight(Node<K, V> node) {
+        if (node == null) return;
         Node<K, V> temp = node.left;
         node.left = temp.right;
+        if (temp.right != null) {
+            temp.right.parent = node;
+        }
+        temp.parent = node.parent;
+        if (node.parent == null) {
+            root = temp;
+        } else if (node.parent.right == node) {
+            node.parent.right = temp;
+        } else {
+            node.parent.left = temp;
+        }
         temp.right = node;
-        temp.color = node.color;
-        node.color = RED;
+        node.parent = temp;
         temp.count = node.count;
         node.count = 1 + size(node.left) + size(node.right);
-        return temp;
-    }
-
-    private void flipColors(Node<K, V> node) {
-        node.color = !node.color;
-        node.left.color = !node.left.color;
-        node.right.color = !node.right.color;
     }
 
     private int size(Node<K, V> node) {
@@ -288,7 +541,8 @@ public class TreeDictionary<K extends Comparable<K>, V> extends AbstractDictiona
         return node.count;
     }
 
-    private int compare(K key1, K key2) {
+    @Override
+    protected int compare(K key1, K key2) {
         if (comparator != null) {
             return comparator.compare(key1, key2);
         } else {
@@ -375,18 +629,141 @@ public class TreeDictionary<K extends Comparable<K>, V> extends AbstractDictiona
         return entry != null ? entry.getKey() : null;
     }
 
+    /**
+     * @return iterator over the nodes in ascending key order
+     */
     @Override
-    public Set<IEntry<K, V>> entrySet() {
-        Set<IEntry<K, V>> entrySet = new HashSet<>();
-        buildEntrySet(root, entrySet);
-        return entrySet;
+    protected Iterator<IEntry<K, V>> entryIterator() {
+        return new NodeIterator(firstNode(), null, false, false);
     }
 
-    private void buildEntrySet(Node<K, V> node, Set<IEntry<K, V>> entrySet) {
-        if (node != null) {
-            buildEntrySet(node.left, entrySet);
-            entrySet.add(node);
-            buildEntrySet(node.right, entrySet);
+    @Override
+    protected Iterator<IEntry<K, V>> rangeIterator(K lo, boolean loInclusive,
+                                                   K hi, boolean hiInclusive,
+                                                   boolean descending) {
+        if (descending) {
+            Node<K, V> first = hi == null ? lastNode()
+                    : hiInclusive ? floorNode(root, hi) : lowerNode(root, hi);
+            return new NodeIterator(first, lo, loInclusive, true);
+        }
+        Node<K, V> first = lo == null ? firstNode()
+                : loInclusive ? ceilingNode(root, lo) : higherNode(root, lo);
+        return new NodeIterator(first, hi, hiInclusive, false);
+    }
+
+    /**
+     * Follows successor or predecessor links until the fence key, the nodes are
+     * returned as entries so no step allocates.
+     */
+    private final class NodeIterator implements Iterator<IEntry<K, V>> {
+        private final K fence;
+        private final boolean fenceInclusive;
+        private final boolean descending;
+        private Node<K, V> next;
+        private Node<K, V> lastReturned;
+
+        NodeIterator(Node<K, V> first, K fence, boolean fenceInclusive, boolean descending) {
+            this.fence = fence;
+            this.fenceInclusive = fenceInclusive;
+            this.descending = descending;
+            this.next = fenced(first);
+        }
+
+        /**
+         * @return node or null if it is past the fence
+         */
+        private Node<K, V> fenced(Node<K, V> node) {
+            if (node == null || fence == null) {
+                return node;
+            }
+            int c = descending ? compare(fence, node.key) : compare(node.key, fence);
+            return c > 0 || (c == 0 && !fenceInclusive) ? null : node;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public IEntry<K, V> next() {
+            Node<K, V> node = next;
+            if (node == null) {
+                throw new NoSuchElementException();
+            }
+            next = fenced(descending ? predecessor(node) : successor(node));
+            lastReturned = node;
+            return node;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            // a node with two children takes over the entry of its successor
+            if (!descending && next != null && lastReturned.left != null && lastReturned.right != null) {
+                next = lastReturned;
+            }
+            deleteNode(lastReturned);
+            lastReturned = null;
+        }
+    }
+
+    /**
+     * @return cursor over the nodes in ascending key order
+     */
+    @Override
+    public ICursor<K, V> cursor() {
+        return new ICursor<>() {
+            private Node<K, V> next = firstNode();
+            private Node<K, V> current;
+
+            @Override
+            public boolean advance() {
+                current = next;
+                if (current == null) {
+                    return false;
+                }
+                next = successor(current);
+                return true;
+            }
+
+            private Node<K, V> current() {
+                if (current == null) {
+                    throw noCursorEntry();
+                }
+                return current;
+            }
+
+            @Override
+            public K key() {
+                return current().key;
+            }
+
+            @Override
+            public V value() {
+                return current().value;
+            }
+
+            @Override
+            public V setValue(V value) {
+                return current().setValue(value);
+            }
+        };
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        forEach(root, action);
+    }
+
+    private void forEach(Node<K, V> node, BiConsumer<? super K, ? super V> action) {
+        while (node != null) {
+            forEach(node.left, action);
+            action.accept(node.key, node.value);
+            node = node.right;
         }
     }
 
@@ -415,6 +792,68 @@ public class TreeDictionary<K extends Comparable<K>, V> extends AbstractDictiona
         return entry != null ? entry.getKey() : null;
     }
 
+    @Override
+    public int rank(K key) {
+        return rank(key, false);
+    }
+
+    /**
+     * @return number of keys less than key, or less than or equal to it if inclusive
+     */
+    private int rank(K key, boolean inclusive) {
+        if (key == null) {
+            throw new NullPointerException("Null keys are not supported.");
+        }
+        int rank = 0;
+        Node<K, V> node = root;
+        while (node != null) {
+            int cmp = compare(key, node.key);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                rank += 1 + size(node.left);
+                node = node.right;
+            } else {
+                return rank + size(node.left) + (inclusive ? 1 : 0);
+            }
+        }
+        return rank;
+    }
+
+    @Override
+    public K select(int index) {
+        return selectNode(index).key;
+    }
+
+    @Override
+    public IEntry<K, V> kthEntry(int index) {
+        return selectNode(index);
+    }
+
+    private Node<K, V> selectNode(int index) {
+        Objects.checkIndex(index, size);
+        Node<K, V> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node;
+            }
+        }
+    }
+
+    @Override
+    public int countRange(K lo, K hi) {
+        if (compare(lo, hi) > 0) {
+            return 0;
+        }
+        return rank(hi, true) - rank(lo, false);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -1,33 +1,86 @@
 package org.example.dictionaries;
 
-import java.util.HashSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.Set;
+import java.util.PriorityQueue;
 
 public class TrieDictionary<K, V> extends AbstractDictionary<K, V>
-        implements IDictionary<K, V> {
-    private final TrieNode root;
+        implements IPrefixDictionary<K, V> {
+    /**
+     * Node structure of the trie, chosen at construction. Keys are the {@code toString()} of the put keys.
+     */
+    public enum Layout {
+        /**
+         * One node per character, children kept in a hash dictionary of boxed characters.
+         */
+        CHARACTER,
+        /**
+         * Compressed radix tree: chains of single child nodes are collapsed into one edge.
+         * An edge label is a char range of an inserted key, so labels are never copied,
+         * and the children of a node are looked up by binary search in a sorted char array.
+         * Iteration returns the keys in {@code String} order.
+         */
+        RADIX
+    }
+
+    private final Trie trie;
+    private int size;
 
     public TrieDictionary() {
-        this.root = new TrieNode();
+        this(Layout.CHARACTER);
+    }
+
+    public TrieDictionary(Layout layout) {
+        Objects.requireNonNull(layout);
+        this.trie = layout == Layout.CHARACTER ? new CharacterTrie() : new RadixTrie();
     }
 
     @Override
     public V put(K key, V value) {
         validateKey(key);
-        return root.put(key.toString(), value);
+        V oldValue = trie.put(key.toString(), value);
+        if (oldValue == null) {
+            if (value != null) {
+                size++;
+            }
+        } else if (value == null) {
+            size--;
+        }
+        return oldValue;
     }
 
     @Override
     public V get(K key) {
         validateKey(key);
-        return root.get(key.toString());
+        return trie.get(key.toString());
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
     }
 
     @Override
     public V remove(K key) {
         validateKey(key);
-        return root.remove(key.toString());
+        V removedValue = trie.remove(key.toString());
+        if (removedValue != null) {
+            size--;
+        }
+        return removedValue;
     }
 
     @Override
@@ -55,10 +108,88 @@ public class TrieDictionary<K, V> extends AbstractDictionary<K, V>
     }
 
     @Override
-    public Set<IEntry<K, V>> entrySet() {
-        Set<IEntry<K, V>> entrySet = new HashSet<>();
-        root.collectEntries("", entrySet);
-        return entrySet;
+    protected Iterator<IEntry<K, V>> entryIterator() {
+        return trie.entryIterator();
+    }
+
+    @Override
+    public ICursor<K, V> cursor() {
+        return trie.cursor();
+    }
+
+    /**
+     * @return lazy iterator over the entries whose keys start with the prefix, supports removal
+     */
+    @Override
+    public Iterator<IEntry<K, V>> prefixEntries(String prefix) {
+        Objects.requireNonNull(prefix);
+        return trie.prefixIterator(prefix);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public K longestPrefixOf(String query) {
+        Objects.requireNonNull(query);
+        return (K) trie.longestPrefixOf(query);
+    }
+
+    /**
+     * @return number of keys that start with the prefix, O(prefix) in the {@link Layout#RADIX} layout
+     */
+    @Override
+    public int countWithPrefix(String prefix) {
+        Objects.requireNonNull(prefix);
+        return trie.countWithPrefix(prefix);
+    }
+
+    /**
+     * The {@link Layout#RADIX} layout caches the best node of every subtree
+     * for the last comparator, pass the same instance again to reuse the cache.
+     */
+    @Override
+    public List<IEntry<K, V>> topK(String prefix, int k, Comparator<? super V> comparator) {
+        Objects.requireNonNull(prefix);
+        Objects.requireNonNull(comparator);
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative.");
+        }
+        return trie.topK(prefix, k, comparator);
+    }
+
+    /**
+     * "Did you mean" query. The walk keeps one row of the Levenshtein table per char of the path
+     * and skips every subtree whose row is already over {@code maxEdits}, so it only visits
+     * the neighbourhood of the query instead of every key.
+     *
+     * @return entries whose keys are at most {@code maxEdits} insertions, deletions or
+     * substitutions of a char away from the query, in iteration order
+     */
+    public List<IEntry<K, V>> fuzzyEntries(String query, int maxEdits) {
+        Objects.requireNonNull(query);
+        if (maxEdits < 0) {
+            throw new IllegalArgumentException("maxEdits must not be negative.");
+        }
+        List<IEntry<K, V>> result = new ArrayList<>();
+        trie.fuzzyEntries(new EditRows(query, maxEdits), result);
+        return result;
+    }
+
+    /**
+     * @return immutable copy of this trie packed into a double-array trie, no object is kept per node
+     * and a lookup is one array probe per char
+     */
+    public IPrefixDictionary<String, V> compile() {
+        String[] keys = new String[size];
+        int i = 0;
+        for (ICursor<K, V> cursor = cursor(); cursor.advance(); ) {
+            keys[i++] = cursor.key().toString();
+        }
+        Arrays.sort(keys);
+        Object[] values = new Object[size];
+        for (i = 0; i < keys.length; i++) {
+            values[i] = trie.get(keys[i]);
+        }
+        return new DoubleArrayTrieDictionary<>(keys, values);
     }
 
     private void validateKey(K key) {
@@ -67,6 +198,868 @@ public class TrieDictionary<K, V> extends AbstractDictionary<K, V>
         }
     }
 
+    /**
+     * Storage of the keys as strings, {@link #put} and {@link #remove} return the previous value.
+     */
+    private abstract class Trie {
+        abstract V put(String key, V value);
+
+        abstract V get(String key);
+
+        abstract V remove(String key);
+
+        abstract Iterator<IEntry<K, V>> entryIterator();
+
+        abstract ICursor<K, V> cursor();
+
+        abstract Iterator<IEntry<K, V>> prefixIterator(String prefix);
+
+        /**
+         * @return longest key that is a prefix of the query, null if there is none
+         */
+        abstract String longestPrefixOf(String query);
+
+        /**
+         * Adds the entries within the edit distance of the rows to the result.
+         */
+        abstract void fuzzyEntries(EditRows rows, List<IEntry<K, V>> result);
+
+        int countWithPrefix(String prefix) {
+            int count = 0;
+            for (Iterator<IEntry<K, V>> i = prefixIterator(prefix); i.hasNext(); i.next()) {
+                count++;
+            }
+            return count;
+        }
+
+        /**
+         * @return the k entries under the prefix with the largest values, largest first,
+         * found by keeping the k best of all of them in a heap
+         */
+        List<IEntry<K, V>> topK(String prefix, int k, Comparator<? super V> comparator) {
+            Comparator<IEntry<K, V>> byValue = (a, b) -> comparator.compare(a.getValue(), b.getValue());
+            PriorityQueue<IEntry<K, V>> best = new PriorityQueue<>(byValue);
+            for (Iterator<IEntry<K, V>> i = prefixIterator(prefix); i.hasNext() && k > 0; ) {
+                IEntry<K, V> entry = i.next();
+                if (best.size() < k) {
+                    best.add(entry);
+                } else if (byValue.compare(entry, best.peek()) > 0) {
+                    best.poll();
+                    best.add(entry);
+                }
+            }
+            List<IEntry<K, V>> result = new ArrayList<>(best);
+            result.sort(byValue.reversed());
+            return result;
+        }
+    }
+
+    private final class CharacterTrie extends Trie {
+        private final TrieNode root = new TrieNode();
+
+        @Override
+        V put(String key, V value) {
+            return root.put(key, 0, value);
+        }
+
+        @Override
+        V get(String key) {
+            TrieNode node = root.find(key);
+            return node != null ? node.value : null;
+        }
+
+        @Override
+        V remove(String key) {
+            return root.remove(key, 0);
+        }
+
+        @Override
+        Iterator<IEntry<K, V>> entryIterator() {
+            return iterator(root, "");
+        }
+
+        @Override
+        Iterator<IEntry<K, V>> prefixIterator(String prefix) {
+            TrieNode start = root.find(prefix);
+            return start != null ? iterator(start, prefix) : Collections.emptyIterator();
+        }
+
+        @Override
+        String longestPrefixOf(String query) {
+            TrieNode node = root;
+            int longest = root.value != null ? 0 : -1;
+            for (int i = 0; i < query.length() && (node = node.children.get(query.charAt(i))) != null; i++) {
+                if (node.value != null) {
+                    longest = i + 1;
+                }
+            }
+            return longest >= 0 ? query.substring(0, longest) : null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void fuzzyEntries(EditRows rows, List<IEntry<K, V>> result) {
+            if (root.value != null && rows.matches(0)) {
+                result.add(new TrieEntry((K) "", root.value));
+            }
+            fuzzyEntries(root, new StringBuilder(), rows, result);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void fuzzyEntries(TrieNode node, StringBuilder path, EditRows rows, List<IEntry<K, V>> result) {
+            for (ICursor<Character, TrieNode> children = node.children.cursor(); children.advance(); ) {
+                char c = children.key();
+                if (!rows.push(path.length() + 1, c)) {
+                    continue;
+                }
+                path.append(c);
+                TrieNode child = children.value();
+                if (child.value != null && rows.matches(path.length())) {
+                    result.add(new TrieEntry((K) path.toString(), child.value));
+                }
+                fuzzyEntries(child, path, rows, result);
+                path.setLength(path.length() - 1);
+            }
+        }
+
+        /**
+         * @return depth-first iterator over the nodes holding a value, the key of each
+         * entry is built from the path of the walk instead of being stored in the trie
+         */
+        @SuppressWarnings("unchecked")
+        private Iterator<IEntry<K, V>> iterator(TrieNode start, String prefix) {
+            return new Iterator<>() {
+                // children iterators of the nodes on the path from the start to the current node
+                private final Deque<Iterator<IEntry<Character, TrieNode>>> stack = new ArrayDeque<>();
+                private final StringBuilder path = new StringBuilder(prefix);
+                private TrieNode next;
+                private K lastKey;
+
+                {
+                    stack.push(start.children.entrySet().iterator());
+                    next = start.value != null ? start : null;
+                }
+
+                private TrieNode advance() {
+                    while (!stack.isEmpty()) {
+                        Iterator<IEntry<Character, TrieNode>> children = stack.peek();
+                        if (children.hasNext()) {
+                            IEntry<Character, TrieNode> child = children.next();
+                            path.append(child.getKey().charValue());
+                            stack.push(child.getValue().children.entrySet().iterator());
+                            if (child.getValue().value != null) {
+                                return child.getValue();
+                            }
+                        } else {
+                            stack.pop();
+                            if (!path.isEmpty()) {
+                                path.setLength(path.length() - 1);
+                            }
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    if (next == null) {
+                        next = advance();
+                    }
+                    return next != null;
+                }
+
+                @Override
+                public IEntry<K, V> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    lastKey = (K) path.toString();
+                    IEntry<K, V> entry = new TrieEntry(lastKey, next.value);
+                    next = null;
+                    return entry;
+                }
+
+                @Override
+                public void remove() {
+                    if (lastKey == null) {
+                        throw new IllegalStateException();
+                    }
+                    // children are chained hash dictionaries, unlinking pruned nodes
+                    // does not disturb the iterators on the stack
+                    TrieDictionary.this.remove(lastKey);
+                    lastKey = null;
+                }
+            };
+        }
+
+        /**
+         * @return depth-first cursor, the key string is only built when {@link ICursor#key()}
+         * is called, so scans over values allocate nothing per entry
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        ICursor<K, V> cursor() {
+            return new ICursor<>() {
+                // children cursors of the nodes on the path from the root to the current node
+                private final Deque<ICursor<Character, TrieNode>> stack = new ArrayDeque<>();
+                private final StringBuilder path = new StringBuilder();
+                private TrieNode current;
+                private K key;
+                private boolean started;
+
+                @Override
+                public boolean advance() {
+                    key = null;
+                    if (!started) {
+                        started = true;
+                        stack.push(root.children.cursor());
+                        if (root.value != null) {
+                            current = root;
+                            return true;
+                        }
+                    }
+                    while (!stack.isEmpty()) {
+                        ICursor<Character, TrieNode> children = stack.peek();
+                        if (children.advance()) {
+                            TrieNode child = children.value();
+                            path.append(children.key().charValue());
+                            stack.push(child.children.cursor());
+                            if (child.value != null) {
+                                current = child;
+                                return true;
+                            }
+                        } else {
+                            stack.pop();
+                            if (!stack.isEmpty()) {
+                                path.setLength(path.length() - 1);
+                            }
+                        }
+                    }
+                    current = null;
+                    return false;
+                }
+
+                private TrieNode current() {
+                    if (current == null) {
+                        throw noCursorEntry();
+                    }
+                    return current;
+                }
+
+                @Override
+                public K key() {
+                    current();
+                    if (key == null) {
+                        key = (K) path.toString();
+                    }
+                    return key;
+                }
+
+                @Override
+                public V value() {
+                    return current().value;
+                }
+
+                @Override
+                public V setValue(V value) {
+                    // null would turn the entry into an absent one behind the size counter
+                    Objects.requireNonNull(value);
+                    return current().setValue(value);
+                }
+            };
+        }
+    }
+
+    private final class RadixTrie extends Trie {
+        private final RadixNode<V> root = new RadixNode<>("", 0, 0, null);
+        /**
+         * Nodes from the root to the node of the last put or remove.
+         */
+        @SuppressWarnings("unchecked")
+        private RadixNode<V>[] path = new RadixNode[16];
+        private Comparator<? super V> rankedBy;
+        /**
+         * Cached best nodes from an older epoch are stale, bumped when the ranking
+         * comparator changes or a value is replaced without a walk from the root.
+         */
+        private int rankEpoch;
+
+        private int push(int depth, RadixNode<V> node) {
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, 2 * depth);
+            }
+            path[depth] = node;
+            return depth + 1;
+        }
+
+        /**
+         * Adds the delta to the counts of the nodes on the path and drops their cached best nodes.
+         */
+        private void updatePath(int depth, int delta) {
+            for (int i = 0; i < depth; i++) {
+                path[i].count += delta;
+                path[i].best = null;
+                path[i] = null;
+            }
+        }
+
+        @Override
+        V put(String key, V value) {
+            if (value == null) {
+                // a null value is an absent entry, prune it like a removal
+                return remove(key);
+            }
+            RadixNode<V> node = root;
+            int depth = 0;
+            int index = 0;
+            while (index < key.length()) {
+                depth = push(depth, node);
+                int i = node.indexOf(key.charAt(index));
+                if (i < 0) {
+                    node.insertChild(-(i + 1), new RadixNode<>(key, index, key.length(), value));
+                    updatePath(depth, 1);
+                    return null;
+                }
+                RadixNode<V> child = node.children[i];
+                int common = child.commonPrefix(key, index);
+                if (common < child.end - child.start) {
+                    node.children[i] = child = child.split(common);
+                }
+                node = child;
+                index += common;
+            }
+            depth = push(depth, node);
+            V oldValue = node.value;
+            node.value = value;
+            updatePath(depth, oldValue == null ? 1 : 0);
+            return oldValue;
+        }
+
+        @Override
+        V get(String key) {
+            RadixNode<V> node = root;
+            int index = 0;
+            while (index < key.length()) {
+                int i = node.indexOf(key.charAt(index));
+                if (i < 0) {
+                    return null;
+                }
+                node = node.children[i];
+                int length = node.end - node.start;
+                if (!key.regionMatches(index, node.source, node.start, length)) {
+                    return null;
+                }
+                index += length;
+            }
+            return node.value;
+        }
+
+        @Override
+        V remove(String key) {
+            RadixNode<V> node = root;
+            int parentIndex = -1;
+            int nodeIndex = -1;
+            int depth = 0;
+            int index = 0;
+            while (index < key.length()) {
+                int i = node.indexOf(key.charAt(index));
+                if (i < 0) {
+                    Arrays.fill(path, 0, depth, null);
+                    return null;
+                }
+                RadixNode<V> child = node.children[i];
+                int length = child.end - child.start;
+                if (!key.regionMatches(index, child.source, child.start, length)) {
+                    Arrays.fill(path, 0, depth, null);
+                    return null;
+                }
+                depth = push(depth, node);
+                parentIndex = nodeIndex;
+                node = child;
+                nodeIndex = i;
+                index += length;
+            }
+            V oldValue = node.value;
+            if (oldValue == null) {
+                Arrays.fill(path, 0, depth, null);
+                return null;
+            }
+            node.value = null;
+            RadixNode<V> parent = depth > 0 ? path[depth - 1] : null;
+            RadixNode<V> grandparent = depth > 1 ? path[depth - 2] : null;
+            depth = push(depth, node);
+            updatePath(depth, -1);
+            if (node == root) {
+                return oldValue;
+            }
+            if (node.children.length == 1) {
+                parent.children[nodeIndex] = node.children[0].mergeUp(node);
+            } else if (node.children.length == 0) {
+                parent.removeChild(nodeIndex);
+                if (parent != root && parent.value == null && parent.children.length == 1) {
+                    // the parent was only a branching point, its last child takes over its edge
+                    grandparent.children[parentIndex] = parent.children[0].mergeUp(parent);
+                }
+            }
+            return oldValue;
+        }
+
+        /**
+         * @return first node whose path starts with the prefix, null if no key does
+         */
+        private RadixNode<V> locate(String prefix) {
+            RadixNode<V> node = root;
+            int index = 0;
+            while (index < prefix.length()) {
+                int i = node.indexOf(prefix.charAt(index));
+                if (i < 0) {
+                    return null;
+                }
+                node = node.children[i];
+                int length = Math.min(node.end - node.start, prefix.length() - index);
+                if (!prefix.regionMatches(index, node.source, node.start, length)) {
+                    return null;
+                }
+                index += length;
+            }
+            return node.count > 0 ? node : null;
+        }
+
+        @Override
+        Iterator<IEntry<K, V>> entryIterator() {
+            return iterator(root);
+        }
+
+        @Override
+        Iterator<IEntry<K, V>> prefixIterator(String prefix) {
+            RadixNode<V> start = locate(prefix);
+            return start != null ? iterator(start) : Collections.emptyIterator();
+        }
+
+        /**
+         * @return O(prefix), from the count of the subtree
+         */
+        @Override
+        int countWithPrefix(String prefix) {
+            RadixNode<V> start = locate(prefix);
+            return start != null ? start.count : 0;
+        }
+
+        @Override
+        String longestPrefixOf(String query) {
+            RadixNode<V> node = root;
+            RadixNode<V> longest = root.value != null ? root : null;
+            int index = 0;
+            while (index < query.length()) {
+                int i = node.indexOf(query.charAt(index));
+                if (i < 0) {
+                    break;
+                }
+                node = node.children[i];
+                int length = node.end - node.start;
+                if (!query.regionMatches(index, node.source, node.start, length)) {
+                    break;
+                }
+                index += length;
+                if (node.value != null) {
+                    longest = node;
+                }
+            }
+            return longest != null ? longest.key() : null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void fuzzyEntries(EditRows rows, List<IEntry<K, V>> result) {
+            if (root.value != null && rows.matches(0)) {
+                result.add(new TrieEntry((K) "", root.value));
+            }
+            fuzzyEntries(root, rows, result);
+        }
+
+        /**
+         * The path to a child is {@code source[0, end)}, so its rows are indexed by the
+         * positions in its source and an edge can be cut off in the middle of its label.
+         * Most edges are cut off at their first char, which is read from {@code firstChars}
+         * without loading the child.
+         */
+        @SuppressWarnings("unchecked")
+        private void fuzzyEntries(RadixNode<V> node, EditRows rows, List<IEntry<K, V>> result) {
+            for (int k = 0; k < node.children.length; k++) {
+                if (!rows.push(node.end + 1, node.firstChars[k])) {
+                    continue;
+                }
+                RadixNode<V> child = node.children[k];
+                int i = child.start + 1;
+                while (i < child.end && rows.push(i + 1, child.source.charAt(i))) {
+                    i++;
+                }
+                if (i < child.end) {
+                    continue;
+                }
+                if (child.value != null && rows.matches(child.end)) {
+                    result.add(new TrieEntry((K) child.key(), child.value));
+                }
+                fuzzyEntries(child, rows, result);
+            }
+        }
+
+        /**
+         * Best-first search: the queue holds whole subtrees ranked by their cached best value
+         * and single nodes ranked by their own value, a popped subtree is split into its node
+         * and its children. Once the cache is warm this is O(prefix + k * fanout * log).
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        List<IEntry<K, V>> topK(String prefix, int k, Comparator<? super V> comparator) {
+            List<IEntry<K, V>> result = new ArrayList<>(Math.min(k, 64));
+            RadixNode<V> start = locate(prefix);
+            if (start == null || k == 0) {
+                return result;
+            }
+            if (comparator != rankedBy) {
+                rankedBy = comparator;
+                rankEpoch++;
+            }
+            PriorityQueue<Ranked<V>> queue = new PriorityQueue<>(
+                    (a, b) -> comparator.compare(b.value(), a.value()));
+            queue.add(new Ranked<>(start, true, best(start).value));
+            while (!queue.isEmpty() && result.size() < k) {
+                Ranked<V> ranked = queue.poll();
+                RadixNode<V> node = ranked.node();
+                if (!ranked.subtree()) {
+                    result.add(new TrieEntry((K) node.key(), node.value));
+                    continue;
+                }
+                if (node.value != null) {
+                    queue.add(new Ranked<>(node, false, node.value));
+                }
+                for (RadixNode<V> child : node.children) {
+                    queue.add(new Ranked<>(child, true, best(child).value));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * @return node with the largest value in the subtree by {@link #rankedBy}, computed on first use
+         */
+        private RadixNode<V> best(RadixNode<V> node) {
+            if (node.best != null && node.rankEpoch == rankEpoch) {
+                return node.best;
+            }
+            RadixNode<V> best = node.value != null ? node : null;
+            for (RadixNode<V> child : node.children) {
+                RadixNode<V> candidate = best(child);
+                if (best == null || rankedBy.compare(candidate.value, best.value) > 0) {
+                    best = candidate;
+                }
+            }
+            node.best = best;
+            node.rankEpoch = rankEpoch;
+            return best;
+        }
+
+        /**
+         * @return pre-order iterator, siblings in char order give the keys in {@code String} order
+         */
+        private Iterator<IEntry<K, V>> iterator(RadixNode<V> start) {
+            return new Iterator<>() {
+                private final RadixWalk<V> walk = new RadixWalk<>(start);
+                private RadixNode<V> next;
+                private K lastKey;
+
+                @Override
+                public boolean hasNext() {
+                    if (next == null) {
+                        next = walk.advance();
+                    }
+                    return next != null;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public IEntry<K, V> next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    lastKey = (K) next.key();
+                    IEntry<K, V> entry = new TrieEntry(lastKey, next.value);
+                    next = null;
+                    return entry;
+                }
+
+                @Override
+                public void remove() {
+                    if (lastKey == null) {
+                        throw new IllegalStateException();
+                    }
+                    // pending nodes keep their keys when a removal merges them into their parent's edge
+                    TrieDictionary.this.remove(lastKey);
+                    lastKey = null;
+                }
+            };
+        }
+
+        @Override
+        ICursor<K, V> cursor() {
+            return new ICursor<>() {
+                private final RadixWalk<V> walk = new RadixWalk<>(root);
+                private RadixNode<V> current;
+                private K key;
+
+                @Override
+                public boolean advance() {
+                    key = null;
+                    current = walk.advance();
+                    return current != null;
+                }
+
+                private RadixNode<V> current() {
+                    if (current == null) {
+                        throw noCursorEntry();
+                    }
+                    return current;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public K key() {
+                    if (key == null) {
+                        key = (K) current().key();
+                    }
+                    return key;
+                }
+
+                @Override
+                public V value() {
+                    return current().value;
+                }
+
+                @Override
+                public V setValue(V value) {
+                    // null would turn the entry into an absent one behind the size counter
+                    Objects.requireNonNull(value);
+                    RadixNode<V> node = current();
+                    V oldValue = node.value;
+                    node.value = value;
+                    // the cursor has no path to the root to invalidate
+                    rankEpoch++;
+                    return oldValue;
+                }
+            };
+        }
+    }
+
+    private record Ranked<V>(RadixNode<V> node, boolean subtree, V value) {
+    }
+
+    /**
+     * Rows of the Levenshtein table of the query against the path of a walk, row i is for the
+     * first i chars of the path. Only the band of cells at most maxEdits off the diagonal is
+     * computed, the cells on both sides of the band hold maxEdits + 1 for the next row to read.
+     */
+    private static final class EditRows {
+        private final String query;
+        private final int maxEdits;
+        private final int[][] rows;
+
+        EditRows(String query, int maxEdits) {
+            this.query = query;
+            this.maxEdits = maxEdits;
+            // a path longer than query + maxEdits is out of the band entirely
+            this.rows = new int[query.length() + maxEdits + 1][];
+            rows[0] = new int[query.length() + 1];
+            for (int j = 0; j <= query.length(); j++) {
+                rows[0][j] = Math.min(j, maxEdits + 1);
+            }
+        }
+
+        /**
+         * Computes row i from row i - 1 for the i-th char of the path.
+         *
+         * @return whether a key that continues the path can still be within maxEdits of the query
+         */
+        boolean push(int i, char c) {
+            int n = query.length();
+            int lo = Math.max(0, i - maxEdits);
+            int hi = Math.min(n, i + maxEdits);
+            if (lo > hi) {
+                return false;
+            }
+            int limit = maxEdits + 1;
+            int[] previous = rows[i - 1];
+            int[] row = rows[i];
+            if (row == null) {
+                row = rows[i] = new int[n + 1];
+            }
+            if (lo > 0) {
+                row[lo - 1] = limit;
+            }
+            if (hi < n) {
+                row[hi + 1] = limit;
+            }
+            int min = limit;
+            for (int j = lo; j <= hi; j++) {
+                int distance = i;
+                if (j > 0) {
+                    distance = previous[j - 1] + (query.charAt(j - 1) == c ? 0 : 1);
+                    distance = Math.min(distance, Math.min(previous[j], row[j - 1]) + 1);
+                }
+                row[j] = Math.min(distance, limit);
+                min = Math.min(min, row[j]);
+            }
+            return min <= maxEdits;
+        }
+
+        /**
+         * @return whether the first i chars of the path are within maxEdits of the query
+         */
+        boolean matches(int i) {
+            int n = query.length();
+            return i + maxEdits >= n && rows[i][n] <= maxEdits;
+        }
+    }
+
+    /**
+     * Node of the radix tree. Its edge label is {@code source[start, end)}, where the source is a key
+     * that goes through this node, so {@code source[0, end)} is the whole path from the root.
+     */
+    private static final class RadixNode<V> {
+        @SuppressWarnings("rawtypes")
+        private static final RadixNode[] NO_CHILDREN = new RadixNode[0];
+        private static final char[] NO_CHARS = new char[0];
+
+        private final String source;
+        private int start;
+        private final int end;
+        /**
+         * First chars of the children labels, sorted, parallel to {@link #children}.
+         */
+        private char[] firstChars = NO_CHARS;
+        private RadixNode<V>[] children;
+        private V value;
+        /**
+         * Number of values in the subtree.
+         */
+        private int count;
+        /**
+         * Node with the best value in the subtree, valid in {@link #rankEpoch} unless null.
+         */
+        private RadixNode<V> best;
+        private int rankEpoch;
+
+        @SuppressWarnings("unchecked")
+        RadixNode(String source, int start, int end, V value) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+            this.value = value;
+            this.count = value != null ? 1 : 0;
+            this.children = NO_CHILDREN;
+        }
+
+        int indexOf(char c) {
+            return Arrays.binarySearch(firstChars, c);
+        }
+
+        /**
+         * @return length of the common prefix of the label and the key from the index
+         */
+        int commonPrefix(String key, int index) {
+            int length = Math.min(end - start, key.length() - index);
+            int i = 0;
+            while (i < length && source.charAt(start + i) == key.charAt(index + i)) {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * @return new node with the first {@code length} chars of the label, this node becomes its child
+         */
+        RadixNode<V> split(int length) {
+            RadixNode<V> head = new RadixNode<>(source, start, start + length, null);
+            head.count = count;
+            start += length;
+            head.insertChild(0, this);
+            return head;
+        }
+
+        /**
+         * @return this node with the label of the removed parent prepended
+         */
+        RadixNode<V> mergeUp(RadixNode<V> parent) {
+            // source[0, start) is the path to this node, so it already holds the parent label
+            start = parent.start;
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        void insertChild(int i, RadixNode<V> child) {
+            int n = children.length;
+            char[] chars = new char[n + 1];
+            RadixNode<V>[] nodes = new RadixNode[n + 1];
+            System.arraycopy(firstChars, 0, chars, 0, i);
+            System.arraycopy(children, 0, nodes, 0, i);
+            chars[i] = child.source.charAt(child.start);
+            nodes[i] = child;
+            System.arraycopy(firstChars, i, chars, i + 1, n - i);
+            System.arraycopy(children, i, nodes, i + 1, n - i);
+            firstChars = chars;
+            children = nodes;
+        }
+
+        @SuppressWarnings("unchecked")
+        void removeChild(int i) {
+            int n = children.length - 1;
+            if (n == 0) {
+                firstChars = NO_CHARS;
+                children = NO_CHILDREN;
+                return;
+            }
+            char[] chars = new char[n];
+            RadixNode<V>[] nodes = new RadixNode[n];
+            System.arraycopy(firstChars, 0, chars, 0, i);
+            System.arraycopy(children, 0, nodes, 0, i);
+            System.arraycopy(firstChars, i + 1, chars, i, n - i);
+            System.arraycopy(children, i + 1, nodes, i, n - i);
+            firstChars = chars;
+            children = nodes;
+        }
+
+        /**
+         * @return key of the node, the source itself when the node ends it
+         */
+        String key() {
+            return end == source.length() ? source : source.substring(0, end);
+        }
+    }
+
+    /**
+     * Pre-order walk over the nodes holding a value.
+     */
+    private static final class RadixWalk<V> {
+        private final Deque<RadixNode<V>> stack = new ArrayDeque<>();
+
+        RadixWalk(RadixNode<V> root) {
+            stack.push(root);
+        }
+
+        RadixNode<V> advance() {
+            while (!stack.isEmpty()) {
+                RadixNode<V> node = stack.pop();
+                for (int i = node.children.length - 1; i >= 0; i--) {
+                    stack.push(node.children[i]);
+                }
+                if (node.value != null) {
+                    return node;
+                }
+            }
+            return null;
+        }
+    }
+
     private class TrieNode implements IEntry<String, V> {
         private final IDictionary<Character, TrieNode> children;
         private V value;
@@ -76,53 +1069,50 @@ public class TrieDictionary<K, V> extends AbstractDictionary<K, V>
             this.value = null;
         }
 
-        public V put(String key, V value) {
-            if (key.isEmpty()) {
+        public V put(String key, int index, V value) {
+            if (index == key.length()) {
                 V oldValue = this.value;
                 this.value = value;
                 return oldValue;
             }
 
-            char firstChar = key.charAt(0);
-            TrieNode child = children.get(firstChar);
+            char nextChar = key.charAt(index);
+            TrieNode child = children.get(nextChar);
             if (child == null) {
                 child = new TrieNode();
-                children.put(firstChar, child);
+                children.put(nextChar, child);
             }
 
-            return child.put(key.substring(1), value);
+            return child.put(key, index + 1, value);
         }
 
-        public V get(String key) {
-            if (key.isEmpty()) {
-                return this.value;
-            }
-
-            char firstChar = key.charAt(0);
-            TrieNode child = children.get(firstChar);
-            if (child == null) {
-                return null;
+        /**
+         * @return node of the key below this one, null if there is no such path
+         */
+        public TrieNode find(String key) {
+            TrieNode node = this;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
             }
-
-            return child.get(key.substring(1));
+            return node;
         }
 
-        public V remove(String key) {
-            if (key.isEmpty()) {
+        public V remove(String key, int index) {
+            if (index == key.length()) {
                 V oldValue = this.value;
                 this.value = null;
                 return oldValue;
             }
 
-            char firstChar = key.charAt(0);
-            TrieNode child = children.get(firstChar);
+            char nextChar = key.charAt(index);
+            TrieNode child = children.get(nextChar);
             if (child == null) {
                 return null;
             }
 
-            V removedValue = child.remove(key.substring(1));
+            V removedValue = child.remove(key, index + 1);
             if (child.isEmpty()) {
-                children.remove(firstChar);
+                children.remove(nextChar);
             }
 
             return removedValue;
@@ -132,20 +1122,47 @@ public class TrieDictionary<K, V> extends AbstractDictionary<K, V>
             return children.isEmpty() && value == null;
         }
 
-        public void collectEntries(String prefix, Set<IEntry<K, V>> entrySet) {
-            if (value != null) {
-                entrySet.add(IDictionary.entry((K) prefix, value));
-            }
+        /**
+         * Nodes do not store their key, iteration rebuilds it from the path.
+         */
+        @Override
+        public String getKey() {
+            throw new UnsupportedOperationException();
+        }
 
-            for (IEntry<Character, TrieNode> entry : children.entrySet()) {
-                entry.getValue().collectEntries(prefix + entry.getKey(), entrySet);
-            }
+        @Override
+        public V getValue() {
+            return value;
         }
 
+        @Override
+        public V setValue(V value) {
+            V oldValue = this.value;
+            this.value = value;
+            return oldValue;
+        }
 
         @Override
-        public String getKey() {
-            return root.toString();
+        public String toString() {
+            return String.valueOf(value);
+        }
+    }
+
+    /**
+     * {@link #setValue} writes through to the dictionary.
+     */
+    private class TrieEntry implements IEntry<K, V> {
+        private final K key;
+        private V value;
+
+        TrieEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
         }
 
         @Override
@@ -157,12 +1174,26 @@ public class TrieDictionary<K, V> extends AbstractDictionary<K, V>
         public V setValue(V value) {
             V oldValue = this.value;
             this.value = value;
+            put(key, value);
             return oldValue;
         }
 
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof IEntry<?, ?> entry)) return false;
+            return Objects.equals(key, entry.getKey()) &&
+                   Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
         @Override
         public String toString() {
-            return getKey() + "=" + getValue();
+            return key + "=" + value;
         }
     }
 }
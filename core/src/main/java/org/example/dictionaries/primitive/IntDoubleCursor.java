@@ -0,0 +1,32 @@
+package org.example.dictionaries.primitive;
+
+import org.example.dictionaries.IDictionary;
+
+/**
+ * Cursor that also exposes the current key and value unboxed.
+ */
+public interface IntDoubleCursor extends IDictionary.ICursor<Integer, Double> {
+    int intKey();
+
+    double doubleValue();
+
+    /**
+     * @return previous value of the current entry
+     */
+    double setDoubleValue(double value);
+
+    @Override
+    default Integer key() {
+        return intKey();
+    }
+
+    @Override
+    default Double value() {
+        return doubleValue();
+    }
+
+    @Override
+    default Double setValue(Double value) {
+        return setDoubleValue(value);
+    }
+}
@@ -0,0 +1,502 @@
+package org.example.dictionaries.primitive;
+
+import org.example.dictionaries.AbstractDictionary;
+import org.example.dictionaries.IDictionary;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+import static org.example.dictionaries.primitive.PrimitiveHashing.MAXIMUM_CAPACITY;
+import static org.example.dictionaries.primitive.PrimitiveHashing.mix;
+import static org.example.dictionaries.primitive.PrimitiveHashing.tableSizeFor;
+import static org.example.dictionaries.primitive.PrimitiveHashing.threshold;
+
+/**
+ * Open addressing hash dictionary with keys and values stored unboxed in parallel
+ * {@code int[]} and {@code double[]} arrays, collisions are resolved by linear probing with
+ * backward shift deletion. Key {@code 0} is the sentinel of a free slot, so the mapping
+ * for {@code 0} is kept aside.
+ * <p>
+ * The {@code int} overloads never box and return {@code 0} for absent keys,
+ * use {@link #getOrDefault(int, double)} or {@link #containsKey(int)} to tell them apart.
+ * The {@link IDictionary}{@code <Integer, Double>} methods unbox and delegate to them,
+ * they return {@code null} for absent keys. Null keys and null values are not supported.
+ */
+public class IntDoubleHashDictionary extends AbstractDictionary<Integer, Double>
+        implements IDictionary<Integer, Double> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private int[] keys;
+    private double[] values;
+    private int mask;
+    private int threshold;
+    private int size;
+    private boolean hasZeroKey;
+    private double zeroValue;
+
+    public IntDoubleHashDictionary() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity initial number of slots, rounded up to a power of two
+     */
+    public IntDoubleHashDictionary(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be a positive integer.");
+        }
+        allocate(tableSizeFor(capacity));
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new double[capacity];
+        mask = capacity - 1;
+        threshold = threshold(capacity, LOAD_FACTOR);
+    }
+
+    /**
+     * @return slot of the non-zero key or {@code -(insertion slot) - 1} if it is absent
+     */
+    private int probe(int key) {
+        int[] ks = keys;
+        int m = mask;
+        int index = mix(key) & m;
+        int k;
+        while ((k = ks[index]) != 0) {
+            if (k == key) {
+                return index;
+            }
+            index = (index + 1) & m;
+        }
+        return -index - 1;
+    }
+
+    /**
+     * Stores the non-zero key in the free slot returned by {@link #probe}.
+     */
+    private void insert(int index, int key, double value) {
+        keys[index] = key;
+        values[index] = value;
+        if (++size > threshold) {
+            rehash();
+        }
+    }
+
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : probe(key) >= 0;
+    }
+
+    /**
+     * @return value associated to key or {@code 0} if there is no mapping for key
+     */
+    public double get(int key) {
+        return getOrDefault(key, 0.0);
+    }
+
+    public double getOrDefault(int key, double defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int index = probe(key);
+        return index >= 0 ? values[index] : defaultValue;
+    }
+
+    /**
+     * @return previous value associated to key or {@code 0} if there was no mapping for key
+     */
+    public double put(int key, double value) {
+        if (key == 0) {
+            double oldValue = zeroValue;
+            zeroValue = value;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            return oldValue;
+        }
+        int index = probe(key);
+        if (index >= 0) {
+            double oldValue = values[index];
+            values[index] = value;
+            return oldValue;
+        }
+        insert(-index - 1, key, value);
+        return 0.0;
+    }
+
+    /**
+     * Adds delta to the value associated to key, an absent key starts from {@code 0}.
+     *
+     * @return previous value associated to key or {@code 0} if there was no mapping for key
+     */
+    public double addTo(int key, double delta) {
+        if (key == 0) {
+            double oldValue = zeroValue;
+            zeroValue += delta;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            return oldValue;
+        }
+        int index = probe(key);
+        if (index >= 0) {
+            double oldValue = values[index];
+            values[index] += delta;
+            return oldValue;
+        }
+        insert(-index - 1, key, delta);
+        return 0.0;
+    }
+
+    /**
+     * @return removed value or {@code 0} if there was no mapping for key
+     */
+    public double remove(int key) {
+        if (key == 0) {
+            double oldValue = zeroValue;
+            if (hasZeroKey) {
+                hasZeroKey = false;
+                zeroValue = 0.0;
+                size--;
+            }
+            return oldValue;
+        }
+        int index = probe(key);
+        if (index < 0) {
+            return 0.0;
+        }
+        double oldValue = values[index];
+        size--;
+        shiftKeys(index);
+        return oldValue;
+    }
+
+    public boolean containsValue(double value) {
+        if (hasZeroKey && Double.doubleToLongBits(zeroValue) == Double.doubleToLongBits(value)) {
+            return true;
+        }
+        int[] ks = keys;
+        double[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != 0 && Double.doubleToLongBits(vs[i]) == Double.doubleToLongBits(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Backward shift deletion: moves later keys of the same probe run into the freed slot.
+     */
+    private void shiftKeys(int pos) {
+        int[] ks = keys;
+        double[] vs = values;
+        int m = mask;
+        int last;
+        int current;
+        while (true) {
+            pos = ((last = pos) + 1) & m;
+            while (true) {
+                if ((current = ks[pos]) == 0) {
+                    ks[last] = 0;
+                    return;
+                }
+                int slot = mix(current) & m;
+                // the key at pos may move to last only if its home slot is not in (last, pos]
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & m;
+            }
+            ks[last] = current;
+            vs[last] = vs[pos];
+        }
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        double[] oldValues = values;
+        if (oldKeys.length >= MAXIMUM_CAPACITY) {
+            if (size >= oldKeys.length - 1) {
+                throw new IllegalStateException("Capacity exhausted.");
+            }
+            return;
+        }
+        allocate(oldKeys.length << 1);
+        int[] ks = keys;
+        double[] vs = values;
+        int m = mask;
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != 0) {
+                int index = mix(key) & m;
+                while (ks[index] != 0) {
+                    index = (index + 1) & m;
+                }
+                ks[index] = key;
+                vs[index] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    public boolean containsKey(Integer key) {
+        return key != null && containsKey(key.intValue());
+    }
+
+    @Override
+    public boolean containsValue(Double value) {
+        return value != null && containsValue(value.doubleValue());
+    }
+
+    @Override
+    public Double get(Integer key) {
+        return getOrDefault(key, null);
+    }
+
+    @Override
+    public Double getOrDefault(Integer key, Double defaultValue) {
+        if (key == null) {
+            return defaultValue;
+        }
+        int k = key;
+        // no conditional expressions here, they would unbox a null defaultValue
+        if (k == 0) {
+            if (hasZeroKey) {
+                return zeroValue;
+            }
+            return defaultValue;
+        }
+        int index = probe(k);
+        if (index >= 0) {
+            return values[index];
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public Double put(Integer key, Double value) {
+        Objects.requireNonNull(value, "Null values are not supported.");
+        int k = key;
+        boolean present = containsKey(k);
+        double oldValue = put(k, value.doubleValue());
+        return present ? oldValue : null;
+    }
+
+    @Override
+    public Double remove(Integer key) {
+        if (key == null || !containsKey(key.intValue())) {
+            return null;
+        }
+        return remove(key.intValue());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return cursor over the mapping of {@code 0} first and then the slots in table order
+     */
+    @Override
+    public IntDoubleCursor cursor() {
+        return new IntDoubleCursor() {
+            private final int[] ks = keys;
+            private final double[] vs = values;
+            private boolean zeroPending = hasZeroKey;
+            private boolean zero;
+            private int index = -1;
+
+            @Override
+            public boolean advance() {
+                if (zeroPending) {
+                    zeroPending = false;
+                    zero = true;
+                    return true;
+                }
+                zero = false;
+                while (++index < ks.length) {
+                    if (ks[index] != 0) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            private int index() {
+                if (index < 0 || index >= ks.length) {
+                    throw noCursorEntry();
+                }
+                return index;
+            }
+
+            @Override
+            public int intKey() {
+                return zero ? 0 : ks[index()];
+            }
+
+            @Override
+            public double doubleValue() {
+                return zero ? zeroValue : vs[index()];
+            }
+
+            @Override
+            public double setDoubleValue(double value) {
+                double oldValue;
+                if (zero) {
+                    oldValue = zeroValue;
+                    zeroValue = value;
+                } else {
+                    int i = index();
+                    oldValue = vs[i];
+                    vs[i] = value;
+                }
+                return oldValue;
+            }
+        };
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super Integer, ? super Double> action) {
+        Objects.requireNonNull(action);
+        if (hasZeroKey) {
+            action.accept(0, zeroValue);
+        }
+        int[] ks = keys;
+        double[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != 0) {
+                action.accept(ks[i], vs[i]);
+            }
+        }
+    }
+
+    /**
+     * Walks the slots downwards, starting right below a free slot, so backward shift
+     * deletion on {@link Iterator#remove()} only moves keys that were already visited.
+     */
+    @Override
+    protected Iterator<IEntry<Integer, Double>> entryIterator() {
+        return new Iterator<>() {
+            private final int[] ks = keys;
+            private final double[] vs = values;
+            private final int start;
+            private int index;
+            private boolean zeroPending = hasZeroKey;
+            private boolean zero;
+            private int current = -1;
+
+            {
+                int free = 0;
+                while (ks[free] != 0) {
+                    free++;
+                }
+                start = free;
+                index = free;
+                advance();
+            }
+
+            private void advance() {
+                int m = ks.length - 1;
+                do {
+                    index = (index - 1) & m;
+                } while (index != start && ks[index] == 0);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return zeroPending || index != start;
+            }
+
+            @Override
+            public IEntry<Integer, Double> next() {
+                if (zeroPending) {
+                    zeroPending = false;
+                    zero = true;
+                    return new SlotEntry(0, zeroValue);
+                }
+                if (index == start) {
+                    throw new NoSuchElementException();
+                }
+                zero = false;
+                current = index;
+                advance();
+                return new SlotEntry(ks[current], vs[current]);
+            }
+
+            @Override
+            public void remove() {
+                if (zero) {
+                    IntDoubleHashDictionary.this.remove(0);
+                    zero = false;
+                } else if (current >= 0) {
+                    size--;
+                    shiftKeys(current);
+                    current = -1;
+                } else {
+                    throw new IllegalStateException();
+                }
+            }
+        };
+    }
+
+    /**
+     * {@link #setValue} writes through to the dictionary.
+     */
+    private class SlotEntry implements IEntry<Integer, Double> {
+        private final int key;
+        private double value;
+
+        SlotEntry(int key, double value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Integer getKey() {
+            return key;
+        }
+
+        @Override
+        public Double getValue() {
+            return value;
+        }
+
+        @Override
+        public Double setValue(Double value) {
+            double oldValue = this.value;
+            this.value = value;
+            put(key, this.value);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof IEntry<?, ?> entry)) return false;
+            return entry.getKey() instanceof Integer k && k == key
+                   && entry.getValue() instanceof Double v && Double.doubleToLongBits(v) == Double.doubleToLongBits(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Integer.hashCode(key) ^ Double.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.dictionaries.primitive;
+
+import org.example.dictionaries.IDictionary;
+
+/**
+ * Cursor that also exposes the current key and value unboxed.
+ */
+public interface IntIntCursor extends IDictionary.ICursor<Integer, Integer> {
+    int intKey();
+
+    int intValue();
+
+    /**
+     * @return previous value of the current entry
+     */
+    int setIntValue(int value);
+
+    @Override
+    default Integer key() {
+        return intKey();
+    }
+
+    @Override
+    default Integer value() {
+        return intValue();
+    }
+
+    @Override
+    default Integer setValue(Integer value) {
+        return setIntValue(value);
+    }
+}
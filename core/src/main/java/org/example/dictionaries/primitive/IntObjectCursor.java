@@ -0,0 +1,15 @@
+package org.example.dictionaries.primitive;
+
+import org.example.dictionaries.IDictionary;
+
+/**
+ * Cursor that also exposes the current key unboxed.
+ */
+public interface IntObjectCursor<V> extends IDictionary.ICursor<Integer, V> {
+    int intKey();
+
+    @Override
+    default Integer key() {
+        return intKey();
+    }
+}
@@ -0,0 +1,450 @@
+package org.example.dictionaries.primitive;
+
+import org.example.dictionaries.AbstractDictionary;
+import org.example.dictionaries.IDictionary;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+import static org.example.dictionaries.primitive.PrimitiveHashing.MAXIMUM_CAPACITY;
+import static org.example.dictionaries.primitive.PrimitiveHashing.mix;
+import static org.example.dictionaries.primitive.PrimitiveHashing.tableSizeFor;
+import static org.example.dictionaries.primitive.PrimitiveHashing.threshold;
+
+/**
+ * Open addressing hash dictionary with keys stored unboxed in an {@code int[]} and values
+ * in a parallel array, collisions are resolved by linear probing with backward shift deletion.
+ * Key {@code 0} marks a free slot, so the mapping for {@code 0} is kept aside.
+ * <p>
+ * {@link #get(int)}, {@link #put(int, Object)} and the other {@code int} overloads never box,
+ * the {@link IDictionary}{@code <Integer, V>} methods unbox and delegate to them.
+ * Null keys are not supported.
+ */
+public class IntObjectHashDictionary<V> extends AbstractDictionary<Integer, V>
+        implements IDictionary<Integer, V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int threshold;
+    private int size;
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    public IntObjectHashDictionary() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity initial number of slots, rounded up to a power of two
+     */
+    public IntObjectHashDictionary(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be a positive integer.");
+        }
+        allocate(tableSizeFor(capacity));
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        threshold = threshold(capacity, LOAD_FACTOR);
+    }
+
+    /**
+     * @return slot of the non-zero key or {@code -(insertion slot) - 1} if it is absent
+     */
+    private int probe(int key) {
+        int[] ks = keys;
+        int m = mask;
+        int index = mix(key) & m;
+        int k;
+        while ((k = ks[index]) != 0) {
+            if (k == key) {
+                return index;
+            }
+            index = (index + 1) & m;
+        }
+        return -index - 1;
+    }
+
+    public boolean containsKey(int key) {
+        return key == 0 ? hasZeroKey : probe(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int index = probe(key);
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(int key, V defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int index = probe(key);
+        return index >= 0 ? (V) values[index] : defaultValue;
+    }
+
+    /**
+     * @return previous value associated to key or null if there was no mapping for key
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (key == 0) {
+            V oldValue = zeroValue;
+            zeroValue = value;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            return oldValue;
+        }
+        int index = probe(key);
+        if (index >= 0) {
+            V oldValue = (V) values[index];
+            values[index] = value;
+            return oldValue;
+        }
+        index = -index - 1;
+        keys[index] = key;
+        values[index] = value;
+        if (++size > threshold) {
+            rehash();
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        if (key == 0) {
+            V oldValue = zeroValue;
+            if (hasZeroKey) {
+                hasZeroKey = false;
+                zeroValue = null;
+                size--;
+            }
+            return oldValue;
+        }
+        int index = probe(key);
+        if (index < 0) {
+            return null;
+        }
+        V oldValue = (V) values[index];
+        size--;
+        shiftKeys(index);
+        return oldValue;
+    }
+
+    /**
+     * Backward shift deletion: moves later keys of the same probe run into the freed slot.
+     */
+    private void shiftKeys(int pos) {
+        int[] ks = keys;
+        Object[] vs = values;
+        int m = mask;
+        int last;
+        int current;
+        while (true) {
+            pos = ((last = pos) + 1) & m;
+            while (true) {
+                if ((current = ks[pos]) == 0) {
+                    ks[last] = 0;
+                    vs[last] = null;
+                    return;
+                }
+                int slot = mix(current) & m;
+                // the key at pos may move to last only if its home slot is not in (last, pos]
+                if (last <= pos ? last >= slot || slot > pos : last >= slot && slot > pos) {
+                    break;
+                }
+                pos = (pos + 1) & m;
+            }
+            ks[last] = current;
+            vs[last] = vs[pos];
+        }
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        if (oldKeys.length >= MAXIMUM_CAPACITY) {
+            if (size >= oldKeys.length - 1) {
+                throw new IllegalStateException("Capacity exhausted.");
+            }
+            return;
+        }
+        allocate(oldKeys.length << 1);
+        int[] ks = keys;
+        Object[] vs = values;
+        int m = mask;
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != 0) {
+                int index = mix(key) & m;
+                while (ks[index] != 0) {
+                    index = (index + 1) & m;
+                }
+                ks[index] = key;
+                vs[index] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    public boolean containsKey(Integer key) {
+        return key != null && containsKey(key.intValue());
+    }
+
+    @Override
+    public boolean containsValue(V value) {
+        if (hasZeroKey && Objects.equals(zeroValue, value)) {
+            return true;
+        }
+        int[] ks = keys;
+        Object[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != 0 && Objects.equals(vs[i], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Integer key) {
+        return key == null ? null : get(key.intValue());
+    }
+
+    @Override
+    public V getOrDefault(Integer key, V defaultValue) {
+        return key == null ? defaultValue : getOrDefault(key.intValue(), defaultValue);
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        return put(key.intValue(), value);
+    }
+
+    @Override
+    public V remove(Integer key) {
+        return key == null ? null : remove(key.intValue());
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return cursor over the mapping of {@code 0} first and then the slots in table order
+     */
+    @Override
+    public IntObjectCursor<V> cursor() {
+        return new IntObjectCursor<>() {
+            private final int[] ks = keys;
+            private final Object[] vs = values;
+            private boolean zeroPending = hasZeroKey;
+            private boolean zero;
+            private int index = -1;
+
+            @Override
+            public boolean advance() {
+                if (zeroPending) {
+                    zeroPending = false;
+                    zero = true;
+                    return true;
+                }
+                zero = false;
+                while (++index < ks.length) {
+                    if (ks[index] != 0) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            private int index() {
+                if (index < 0 || index >= ks.length) {
+                    throw noCursorEntry();
+                }
+                return index;
+            }
+
+            @Override
+            public int intKey() {
+                return zero ? 0 : ks[index()];
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V value() {
+                return zero ? zeroValue : (V) vs[index()];
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public V setValue(V value) {
+                V oldValue;
+                if (zero) {
+                    oldValue = zeroValue;
+                    zeroValue = value;
+                } else {
+                    int i = index();
+                    oldValue = (V) vs[i];
+                    vs[i] = value;
+                }
+                return oldValue;
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super Integer, ? super V> action) {
+        Objects.requireNonNull(action);
+        if (hasZeroKey) {
+            action.accept(0, zeroValue);
+        }
+        int[] ks = keys;
+        Object[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != 0) {
+                action.accept(ks[i], (V) vs[i]);
+            }
+        }
+    }
+
+    /**
+     * Walks the slots downwards, starting right below a free slot, so backward shift
+     * deletion on {@link Iterator#remove()} only moves keys that were already visited.
+     */
+    @Override
+    protected Iterator<IEntry<Integer, V>> entryIterator() {
+        return new Iterator<>() {
+            private final int[] ks = keys;
+            private final Object[] vs = values;
+            private final int start;
+            private int index;
+            private boolean zeroPending = hasZeroKey;
+            private boolean zero;
+            private int current = -1;
+
+            {
+                int free = 0;
+                while (ks[free] != 0) {
+                    free++;
+                }
+                start = free;
+                index = free;
+                advance();
+            }
+
+            private void advance() {
+                int m = ks.length - 1;
+                do {
+                    index = (index - 1) & m;
+                } while (index != start && ks[index] == 0);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return zeroPending || index != start;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public IEntry<Integer, V> next() {
+                if (zeroPending) {
+                    zeroPending = false;
+                    zero = true;
+                    return new SlotEntry(0, zeroValue);
+                }
+                if (index == start) {
+                    throw new NoSuchElementException();
+                }
+                zero = false;
+                current = index;
+                advance();
+                return new SlotEntry(ks[current], (V) vs[current]);
+            }
+
+            @Override
+            public void remove() {
+                if (zero) {
+                    IntObjectHashDictionary.this.remove(0);
+                    zero = false;
+                } else if (current >= 0) {
+                    size--;
+                    shiftKeys(current);
+                    current = -1;
+                } else {
+                    throw new IllegalStateException();
+                }
+            }
+        };
+    }
+
+    /**
+     * {@link #setValue} writes through to the dictionary.
+     */
+    private class SlotEntry implements IEntry<Integer, V> {
+        private final int key;
+        private V value;
+
+        SlotEntry(int key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Integer getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V oldValue = this.value;
+            this.value = value;
+            put(key, value);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof IEntry<?, ?> entry)) return false;
+            return entry.getKey() instanceof Integer k && k == key
+                   && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Integer.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.dictionaries.primitive;
+
+import org.example.dictionaries.IDictionary;
+
+/**
+ * Cursor that also exposes the current key and value unboxed.
+ */
+public interface LongLongCursor extends IDictionary.ICursor<Long, Long> {
+    long longKey();
+
+    long longValue();
+
+    /**
+     * @return previous value of the current entry
+     */
+    long setLongValue(long value);
+
+    @Override
+    default Long key() {
+        return longKey();
+    }
+
+    @Override
+    default Long value() {
+        return longValue();
+    }
+
+    @Override
+    default Long setValue(Long value) {
+        return setLongValue(value);
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.dictionaries.primitive;
+
+import org.example.dictionaries.IDictionary;
+
+/**
+ * Cursor that also exposes the current key unboxed.
+ */
+public interface LongObjectCursor<V> extends IDictionary.ICursor<Long, V> {
+    long longKey();
+
+    @Override
+    default Long key() {
+        return longKey();
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.dictionaries.primitive;
+
+final class PrimitiveHashing {
+    private PrimitiveHashing() {
+
+    }
+
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * Fibonacci hashing: multiplication by 2^32 / golden ratio moves the entropy of the key
+     * into the higher bits, the shift brings it back into the lower bits used by the mask.
+     * Sequential ids then spread over the whole table instead of forming one long probe run.
+     */
+    static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16));
+    }
+
+    static int tableSizeFor(int capacity) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(capacity - 1);
+        return (n < 1) ? 2 : (n >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY : n + 1;
+    }
+
+    /**
+     * @return maximum number of keys before resize, always leaves a free slot
+     */
+    static int threshold(int capacity, float loadFactor) {
+        return Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+}
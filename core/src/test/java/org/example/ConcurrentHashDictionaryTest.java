@@ -0,0 +1,113 @@
+package org.example;
+
+import org.example.dictionaries.ConcurrentHashDictionary;
+import org.example.dictionaries.IDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+class ConcurrentHashDictionaryTest {
+    static final int THREADS = 8;
+
+    static void runConcurrently(int threads, IntConsumer task)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    task.accept(id);
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assert failures.isEmpty() : failures;
+    }
+
+    @Test
+    void concurrent_puts_and_removes_should_survive_resizes() throws InterruptedException {
+        IDictionary<Integer, Integer> dictionary = new ConcurrentHashDictionary<>(2);
+        int perThread = 50_000;
+
+        runConcurrently(THREADS, id -> {
+            for (int i = 0; i < perThread; i++) {
+                int key = i * THREADS + id;
+                assert dictionary.put(key, key) == null;
+                assert dictionary.get(key) == key;
+            }
+            for (int i = 0; i < perThread; i += 2) {
+                int key = i * THREADS + id;
+                assert dictionary.remove(key) == key;
+            }
+        });
+
+        assert dictionary.size() == THREADS * perThread / 2;
+        for (int key = 0; key < THREADS * perThread; key++) {
+            assert dictionary.containsKey(key) == ((key / THREADS) % 2 == 1);
+        }
+        Set<Integer> seen = new HashSet<>();
+        dictionary.forEach((key, value) -> {
+            assert key.equals(value);
+            assert seen.add(key);
+        });
+        assert seen.size() == dictionary.size();
+    }
+
+    @Test
+    void compute_operations_should_be_atomic() throws InterruptedException {
+        ConcurrentHashDictionary<Integer, Integer> dictionary = new ConcurrentHashDictionary<>(2);
+        AtomicInteger calls = new AtomicInteger();
+        int keys = 1_000;
+        int rounds = 200;
+
+        runConcurrently(THREADS, id -> {
+            for (int round = 0; round < rounds; round++) {
+                for (int key = 0; key < keys; key++) {
+                    dictionary.computeIfAbsent(key, k -> {
+                        calls.incrementAndGet();
+                        return 0;
+                    });
+                    dictionary.computeIfPresent(key, (k, v) -> v + 1);
+                }
+            }
+        });
+
+        assert calls.get() == keys;
+        for (int key = 0; key < keys; key++) {
+            assert dictionary.get(key) == THREADS * rounds;
+        }
+    }
+
+    @Test
+    void put_if_absent_should_have_a_single_winner() throws InterruptedException {
+        ConcurrentHashDictionary<Integer, Integer> dictionary = new ConcurrentHashDictionary<>();
+        AtomicInteger wins = new AtomicInteger();
+
+        runConcurrently(THREADS, id -> {
+            for (int key = 0; key < 10_000; key++) {
+                if (dictionary.putIfAbsent(key, id) == null) {
+                    wins.incrementAndGet();
+                }
+            }
+        });
+
+        assert wins.get() == 10_000;
+        assert dictionary.size() == 10_000;
+        assert !dictionary.remove(0, -1);
+        assert dictionary.remove(0, dictionary.get(0));
+        assert dictionary.replace(0, 1) == null;
+    }
+}
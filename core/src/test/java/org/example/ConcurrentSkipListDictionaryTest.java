@@ -0,0 +1,77 @@
+package org.example;
+
+import org.example.dictionaries.ConcurrentSkipListDictionary;
+import org.example.dictionaries.IDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.example.ConcurrentHashDictionaryTest.THREADS;
+import static org.example.ConcurrentHashDictionaryTest.runConcurrently;
+
+class ConcurrentSkipListDictionaryTest {
+    @Test
+    void readers_should_see_consistent_floor_and_ceiling_while_writers_append()
+            throws InterruptedException {
+        ConcurrentSkipListDictionary<Long, Long> dictionary = new ConcurrentSkipListDictionary<>();
+        int writers = THREADS / 2;
+        int perWriter = 20_000;
+        AtomicInteger finishedWriters = new AtomicInteger();
+
+        runConcurrently(THREADS, id -> {
+            if (id < writers) {
+                // even keys are appended, odd keys are inserted and removed again
+                for (long i = 0; i < perWriter; i++) {
+                    long key = (i * writers + id) * 2;
+                    assert dictionary.put(key, key) == null;
+                    assert dictionary.put(key + 1, key) == null;
+                    assert dictionary.remove(key + 1) == key;
+                }
+                finishedWriters.incrementAndGet();
+            } else {
+                while (finishedWriters.get() < writers) {
+                    long probe = (long) (Math.random() * perWriter * writers * 2);
+                    IDictionary.IEntry<Long, Long> floor = dictionary.floorEntry(probe);
+                    IDictionary.IEntry<Long, Long> ceiling = dictionary.ceilingEntry(probe);
+                    assert floor == null || floor.getKey() <= probe;
+                    assert ceiling == null || ceiling.getKey() >= probe;
+                    Long higher = dictionary.higherKey(probe);
+                    assert higher == null || higher > probe;
+                }
+            }
+        });
+
+        assert dictionary.size() == writers * perWriter;
+        long previous = -1;
+        for (IDictionary.ICursor<Long, Long> cursor = dictionary.cursor(); cursor.advance(); ) {
+            assert cursor.key() > previous && cursor.key() % 2 == 0;
+            previous = cursor.key();
+        }
+        assert dictionary.floorKey(previous + 5) == previous;
+        assert dictionary.higherKey(previous) == null;
+    }
+
+    @Test
+    void conditional_updates_should_be_atomic() throws InterruptedException {
+        ConcurrentSkipListDictionary<Integer, Integer> dictionary = new ConcurrentSkipListDictionary<>();
+        int keys = 500;
+        int rounds = 200;
+
+        runConcurrently(THREADS, id -> {
+            for (int round = 0; round < rounds; round++) {
+                for (int key = 0; key < keys; key++) {
+                    dictionary.computeIfAbsent(key, k -> 0);
+                    dictionary.computeIfPresent(key, (k, v) -> v + 1);
+                }
+            }
+        });
+
+        for (int key = 0; key < keys; key++) {
+            assert dictionary.get(key) == THREADS * rounds;
+        }
+        assert dictionary.replace(0, 1) == THREADS * rounds;
+        assert !dictionary.remove(0, 2);
+        assert dictionary.remove(0, 1);
+        assert dictionary.size() == keys - 1;
+    }
+}
@@ -0,0 +1,178 @@
+package org.example;
+
+import org.example.dictionaries.ConcurrentTrieDictionary;
+import org.example.dictionaries.IDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.example.ConcurrentHashDictionaryTest.THREADS;
+import static org.example.ConcurrentHashDictionaryTest.runConcurrently;
+
+class ConcurrentTrieDictionaryTest {
+    @Test
+    void concurrent_puts_and_removes_should_keep_every_other_key() throws InterruptedException {
+        ConcurrentTrieDictionary<Integer, Integer> dictionary = new ConcurrentTrieDictionary<>();
+        int perThread = 50_000;
+
+        runConcurrently(THREADS, id -> {
+            for (int i = 0; i < perThread; i++) {
+                int key = i * THREADS + id;
+                assert dictionary.put(key, key) == null;
+            }
+            for (int i = 0; i < perThread; i += 2) {
+                int key = i * THREADS + id;
+                assert dictionary.remove(key) == key;
+            }
+        });
+
+        assert dictionary.size() == THREADS * perThread / 2;
+        for (int key = 0; key < THREADS * perThread; key++) {
+            int i = key / THREADS;
+            assert dictionary.containsKey(key) == (i % 2 == 1);
+        }
+        int visited = 0;
+        for (IDictionary.ICursor<Integer, Integer> cursor = dictionary.cursor(); cursor.advance(); ) {
+            assert cursor.key().equals(cursor.value());
+            visited++;
+        }
+        assert visited == dictionary.size();
+    }
+
+    @Test
+    void snapshots_should_see_the_updates_of_a_single_instant() throws InterruptedException {
+        ConcurrentTrieDictionary<Integer, Integer> dictionary = new ConcurrentTrieDictionary<>();
+        int writers = THREADS / 2;
+        int keysPerWriter = 200;
+        int rounds = 300;
+        for (int key = 0; key < writers * keysPerWriter; key++) {
+            dictionary.put(key, 0);
+        }
+        AtomicInteger finishedWriters = new AtomicInteger();
+
+        runConcurrently(THREADS, id -> {
+            if (id < writers) {
+                // every round sets the keys of the writer to the round number in key order
+                for (int round = 1; round <= rounds; round++) {
+                    for (int i = 0; i < keysPerWriter; i++) {
+                        dictionary.put(id * keysPerWriter + i, round);
+                    }
+                }
+                finishedWriters.incrementAndGet();
+            } else {
+                while (finishedWriters.get() < writers) {
+                    IDictionary<Integer, Integer> snapshot = dictionary.readOnlySnapshot();
+                    int[] values = new int[writers * keysPerWriter];
+                    snapshot.forEach((key, value) -> values[key] = value);
+                    // at one instant a round has updated a prefix of the keys of each writer
+                    for (int writer = 0; writer < writers; writer++) {
+                        int first = values[writer * keysPerWriter];
+                        for (int i = 1; i < keysPerWriter; i++) {
+                            int value = values[writer * keysPerWriter + i];
+                            assert value == first || value == first - 1 : "torn snapshot";
+                            first = value;
+                        }
+                    }
+                    assert snapshot.size() == writers * keysPerWriter;
+                }
+            }
+        });
+
+        assert dictionary.values().stream().allMatch(value -> value == rounds);
+    }
+
+    @Test
+    void snapshot_copies_should_diverge_from_the_original() {
+        ConcurrentTrieDictionary<String, Integer> dictionary = new ConcurrentTrieDictionary<>();
+        Map<String, Integer> hashMap = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            dictionary.put("key" + i, i);
+            hashMap.put("key" + i, i);
+        }
+
+        ConcurrentTrieDictionary<String, Integer> copy = dictionary.snapshot();
+        IDictionary<String, Integer> readOnly = dictionary.readOnlySnapshot();
+        for (int i = 0; i < 10_000; i += 3) {
+            dictionary.remove("key" + i);
+            copy.put("key" + i, -i);
+        }
+        dictionary.put("new", 1);
+
+        for (int i = 0; i < 10_000; i++) {
+            String key = "key" + i;
+            assert readOnly.get(key) == i;
+            assert copy.get(key) == (i % 3 == 0 ? -i : i);
+            assert dictionary.containsKey(key) == (i % 3 != 0);
+        }
+        assert readOnly.size() == 10_000 && copy.size() == 10_000;
+        assert dictionary.size() == 10_000 - 3_334 + 1;
+        assert readOnly.get("new") == null && copy.get("new") == null;
+
+        try {
+            readOnly.put("new", 2);
+            assert false;
+        } catch (UnsupportedOperationException expected) {
+        }
+        for (IDictionary.IEntry<String, Integer> entry : readOnly.entrySet()) {
+            assert entry.getValue().equals(hashMap.get(entry.getKey()));
+        }
+        assert new ConcurrentTrieDictionary<>().isEmpty() && !readOnly.isEmpty();
+    }
+
+    @Test
+    void conditional_updates_should_be_atomic() throws InterruptedException {
+        ConcurrentTrieDictionary<Integer, Integer> dictionary = new ConcurrentTrieDictionary<>();
+        int keys = 500;
+        int rounds = 200;
+
+        runConcurrently(THREADS, id -> {
+            for (int round = 0; round < rounds; round++) {
+                for (int key = 0; key < keys; key++) {
+                    dictionary.computeIfAbsent(key, k -> 0);
+                    dictionary.computeIfPresent(key, (k, v) -> v + 1);
+                }
+                // snapshots force the writers to copy the paths they update
+                if (id == 0 && round % 10 == 0) {
+                    dictionary.snapshot();
+                }
+            }
+        });
+
+        for (int key = 0; key < keys; key++) {
+            assert dictionary.get(key) == THREADS * rounds;
+        }
+        assert dictionary.replace(0, 1) == THREADS * rounds;
+        assert dictionary.putIfAbsent(0, 2) == 1;
+        assert !dictionary.remove(0, 2);
+        assert dictionary.remove(0, 1);
+        assert dictionary.size() == keys - 1;
+    }
+
+    @Test
+    void colliding_hashes_should_share_list_nodes() {
+        record Collider(int id) {
+            @Override
+            public int hashCode() {
+                return id % 3;
+            }
+        }
+        ConcurrentTrieDictionary<Collider, Integer> dictionary = new ConcurrentTrieDictionary<>();
+        for (int i = 0; i < 30; i++) {
+            assert dictionary.put(new Collider(i), i) == null;
+        }
+        IDictionary<Collider, Integer> snapshot = dictionary.readOnlySnapshot();
+        for (int i = 0; i < 30; i++) {
+            assert dictionary.get(new Collider(i)) == i;
+            assert dictionary.put(new Collider(i), -i) == i;
+        }
+        for (int i = 0; i < 29; i++) {
+            assert dictionary.remove(new Collider(i)) == -i;
+            assert dictionary.size() == 29 - i;
+        }
+        assert dictionary.get(new Collider(29)) == -29;
+        assert dictionary.remove(new Collider(29)) == -29 && dictionary.isEmpty();
+        assert snapshot.size() == 30 && snapshot.get(new Collider(7)) == 7;
+    }
+}
@@ -0,0 +1,160 @@
+package org.example;
+
+import org.example.dictionaries.*;
+import org.example.models.enums.Role;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+class DictionaryViewsTest {
+    Random random = new Random(7);
+
+    @Test
+    void views_should_remove_through_iterators_like_hash_map() {
+        List<Supplier<IDictionary<Integer, Integer>>> implementations = List.of(
+                HashDictionary::new,
+                () -> new HashDictionary<>(HashDictionary.Layout.OPEN_ADDRESSING),
+                IdentityHashDictionary::new,
+                TreeDictionary::new,
+                SortedArrayNavigableDictionary::new,
+                () -> new SortedArrayNavigableDictionary<>(SortedArrayNavigableDictionary.Layout.BUFFERED),
+                MultiDictionary::new,
+                ConcurrentHashDictionary::new,
+                ConcurrentSkipListDictionary::new,
+                () -> new BPlusTreeDictionary<>(4),
+                PersistentTreeDictionary::new
+        );
+
+        for (Supplier<IDictionary<Integer, Integer>> implementation : implementations) {
+            IDictionary<Integer, Integer> dictionary = implementation.get();
+            Map<Integer, Integer> hashMap = new HashMap<>();
+            List<Integer> shuffled = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                shuffled.add(i * 7);
+            }
+            Collections.shuffle(shuffled, random);
+            Integer[] keys = shuffled.toArray(new Integer[0]);
+            for (int i = 0; i < keys.length; i++) {
+                dictionary.put(keys[i], i);
+                hashMap.put(keys[i], i);
+            }
+            assert dictionary.entrySet().size() == hashMap.size();
+            assert dictionary.keys().size() == hashMap.size();
+
+            Set<Integer> seen = new HashSet<>();
+            for (Iterator<IDictionary.IEntry<Integer, Integer>> i = dictionary.entrySet().iterator(); i.hasNext(); ) {
+                IDictionary.IEntry<Integer, Integer> entry = i.next();
+                Integer key = entry.getKey();
+                assert seen.add(key);
+                assert hashMap.get(key).equals(entry.getValue());
+                if ((key & 1) == 0) {
+                    i.remove();
+                    hashMap.remove(key);
+                }
+            }
+            assert seen.size() == keys.length && dictionary.size() == hashMap.size();
+
+            for (Iterator<Integer> i = dictionary.values().iterator(); i.hasNext(); ) {
+                if (i.next() % 3 == 0) {
+                    i.remove();
+                }
+            }
+            hashMap.values().removeIf(value -> value % 3 == 0);
+
+            assert dictionary.size() == hashMap.size();
+            assert new HashSet<>(dictionary.keys()).equals(hashMap.keySet());
+            for (Integer key : keys) {
+                assert Objects.equals(hashMap.get(key), dictionary.get(key));
+            }
+        }
+    }
+
+    @Test
+    void cursor_and_for_each_should_visit_every_entry_once() {
+        List<IDictionary<String, Integer>> implementations = List.of(
+                new HashDictionary<>(),
+                new HashDictionary<>(HashDictionary.Layout.OPEN_ADDRESSING),
+                new IdentityHashDictionary<>(),
+                new TreeDictionary<>(),
+                new SortedArrayNavigableDictionary<>(),
+                new MultiDictionary<>(),
+                new TrieDictionary<>(),
+                new TrieDictionary<>(TrieDictionary.Layout.RADIX),
+                new ByteTrieDictionary<>(),
+                new ConcurrentHashDictionary<>(),
+                new ConcurrentSkipListDictionary<>(),
+                new BPlusTreeDictionary<>(),
+                new PersistentTreeDictionary<>()
+        );
+
+        for (IDictionary<String, Integer> dictionary : implementations) {
+            Map<String, Integer> hashMap = new HashMap<>();
+            for (int i = 0; i < 1_000; i++) {
+                String key = Integer.toString(i * 31);
+                dictionary.put(key, i);
+                hashMap.put(key, i);
+            }
+
+            Map<String, Integer> visited = new HashMap<>();
+            for (IDictionary.ICursor<String, Integer> cursor = dictionary.cursor(); cursor.advance(); ) {
+                assert visited.put(cursor.key(), cursor.value()) == null;
+            }
+            assert visited.equals(hashMap);
+
+            visited.clear();
+            dictionary.forEach((key, value) -> visited.put(key, value));
+            assert visited.equals(hashMap);
+
+            if (!(dictionary instanceof MultiDictionary)) {
+                for (IDictionary.ICursor<String, Integer> cursor = dictionary.cursor(); cursor.advance(); ) {
+                    cursor.setValue(cursor.value() + 1);
+                }
+                for (Map.Entry<String, Integer> entry : hashMap.entrySet()) {
+                    assert dictionary.get(entry.getKey()) == entry.getValue() + 1;
+                }
+            }
+        }
+
+        IDictionary.ICursor<Role, String> cursor = new EnumDictionary<Role, String>(Role.class).cursor();
+        assert !cursor.advance();
+    }
+
+    @Test
+    void trie_dictionary_views_should_rebuild_keys_and_prune_removed_nodes() {
+        for (TrieDictionary.Layout layout : TrieDictionary.Layout.values()) {
+            TrieDictionary<String, Integer> trieDictionary = new TrieDictionary<>(layout);
+            Map<String, Integer> hashMap = new HashMap<>();
+            String[] words = {"", "a", "ab", "abc", "abd", "b", "ba", "bad", "banana", "band", "c"};
+            for (int i = 0; i < words.length; i++) {
+                trieDictionary.put(words[i], i);
+                hashMap.put(words[i], i);
+            }
+            assert trieDictionary.size() == words.length;
+            assert new HashSet<>(trieDictionary.keys()).equals(hashMap.keySet());
+
+            for (Iterator<String> i = trieDictionary.keys().iterator(); i.hasNext(); ) {
+                String key = i.next();
+                if (key.startsWith("ab") || key.startsWith("ban")) {
+                    i.remove();
+                    hashMap.remove(key);
+                }
+            }
+            assert trieDictionary.size() == hashMap.size();
+            assert new HashSet<>(trieDictionary.keys()).equals(hashMap.keySet());
+            assert trieDictionary.get("a") == 1 && trieDictionary.get("abc") == null;
+        }
+    }
+
+    @Test
+    void enum_dictionary_views_should_track_size() {
+        EnumDictionary<Role, String> dictionary = new EnumDictionary<>(Role.class);
+        dictionary.put(Role.ADMIN, "admin");
+        dictionary.put(Role.GUEST, "guest");
+
+        assert dictionary.size() == 2 && dictionary.entrySet().size() == 2;
+        dictionary.keys().remove(Role.ADMIN);
+        assert dictionary.size() == 1;
+        assert dictionary.entrySet().iterator().next().getValue().equals("guest");
+    }
+}
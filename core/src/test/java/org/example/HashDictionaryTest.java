@@ -0,0 +1,188 @@
+package org.example;
+
+import org.example.dictionaries.HashDictionary;
+import org.example.dictionaries.IDictionary;
+import org.example.dictionaries.PersistentHashDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+class HashDictionaryTest {
+    Random random = new Random(42);
+
+    @Test
+    void hash_dictionary_layouts_should_behave_like_hash_map() {
+        for (HashDictionary.Layout layout : HashDictionary.Layout.values()) {
+            IDictionary<Integer, Integer> hashDictionary = new HashDictionary<>(2, layout);
+            Map<Integer, Integer> hashMap = new HashMap<>();
+
+            for (int i = 0; i < 200_000; i++) {
+                Integer key = random.nextInt(5_000) - 2_500;
+                if (random.nextInt(3) == 0) {
+                    assert Objects.equals(hashMap.remove(key), hashDictionary.remove(key));
+                } else {
+                    assert Objects.equals(hashMap.put(key, i), hashDictionary.put(key, i));
+                }
+                assert hashMap.size() == hashDictionary.size();
+            }
+
+            for (int key = -2_500; key < 2_500; key++) {
+                assert Objects.equals(hashMap.get(key), hashDictionary.get(key));
+                assert hashMap.containsKey(key) == hashDictionary.containsKey(key);
+            }
+            assert hashDictionary.entrySet().size() == hashMap.size();
+        }
+    }
+
+    @Test
+    void hash_dictionary_should_support_extreme_hash_codes_and_null_key() {
+        for (HashDictionary.Layout layout : HashDictionary.Layout.values()) {
+            IDictionary<Integer, String> hashDictionary = new HashDictionary<>(layout);
+
+            hashDictionary.put(Integer.MIN_VALUE, "min");
+            hashDictionary.put(Integer.MAX_VALUE, "max");
+            hashDictionary.put(null, "null");
+
+            assert "min".equals(hashDictionary.get(Integer.MIN_VALUE));
+            assert "max".equals(hashDictionary.get(Integer.MAX_VALUE));
+            assert "null".equals(hashDictionary.get(null));
+            assert "null".equals(hashDictionary.remove(null));
+            assert !hashDictionary.containsKey(null);
+            assert hashDictionary.size() == 2;
+        }
+    }
+
+    @Test
+    void entries_of_removed_keys_should_not_write_back() {
+        for (HashDictionary.Layout layout : HashDictionary.Layout.values()) {
+            IDictionary<String, Integer> hashDictionary = new HashDictionary<>(layout);
+            hashDictionary.put("a", 1);
+            hashDictionary.put("b", 2);
+            List<IDictionary.IEntry<String, Integer>> entries = new ArrayList<>(hashDictionary.entrySet());
+
+            hashDictionary.remove("a");
+            for (IDictionary.IEntry<String, Integer> entry : entries) {
+                entry.setValue(entry.getValue() * 10);
+            }
+            assert !hashDictionary.containsKey("a") && hashDictionary.size() == 1;
+            assert hashDictionary.get("b") == 20;
+        }
+    }
+
+    @Test
+    void persistent_hash_dictionary_versions_should_behave_like_hash_maps() {
+        PersistentHashDictionary<Integer, Integer> dictionary = PersistentHashDictionary.empty();
+        Map<Integer, Integer> hashMap = new HashMap<>();
+        List<PersistentHashDictionary<Integer, Integer>> versions = new ArrayList<>();
+        List<Map<Integer, Integer>> expected = new ArrayList<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            // multiples of 1 << 20 share their low hash bits and go deep into the trie
+            Integer key = random.nextBoolean() ? random.nextInt(2_000) : random.nextInt(8) << 20;
+            if (random.nextInt(3) == 0) {
+                hashMap.remove(key);
+                dictionary = dictionary.without(key);
+            } else {
+                hashMap.put(key, i);
+                dictionary = dictionary.with(key, i);
+            }
+            assert hashMap.size() == dictionary.size();
+            if (i % 5_000 == 0) {
+                versions.add(dictionary);
+                expected.add(new HashMap<>(hashMap));
+            }
+        }
+        versions.add(dictionary);
+        expected.add(hashMap);
+
+        for (int v = 0; v < versions.size(); v++) {
+            PersistentHashDictionary<Integer, Integer> version = versions.get(v);
+            Map<Integer, Integer> map = expected.get(v);
+            assert version.size() == map.size();
+            for (int key = 0; key < 2_000; key++) {
+                assert Objects.equals(map.get(key), version.get(key));
+            }
+            Map<Integer, Integer> iterated = new HashMap<>();
+            version.forEach(iterated::put);
+            assert iterated.equals(map);
+            assert version.entrySet().size() == map.size();
+        }
+
+        for (Integer key : new ArrayList<>(hashMap.keySet())) {
+            dictionary = dictionary.without(key);
+        }
+        assert dictionary.isEmpty();
+        assert versions.get(versions.size() - 1).size() == hashMap.size();
+    }
+
+    @Test
+    void persistent_hash_dictionary_should_handle_full_hash_collisions() {
+        record Collider(int id) {
+            @Override
+            public int hashCode() {
+                return 7;
+            }
+        }
+        PersistentHashDictionary<Collider, Integer> dictionary = PersistentHashDictionary.empty();
+        for (int i = 0; i < 10; i++) {
+            dictionary = dictionary.with(new Collider(i), i);
+        }
+        PersistentHashDictionary<Collider, Integer> full = dictionary;
+        for (int i = 0; i < 9; i++) {
+            dictionary = dictionary.without(new Collider(i));
+        }
+
+        assert full.size() == 10;
+        assert full.get(new Collider(3)) == 3;
+        assert dictionary.size() == 1;
+        assert dictionary.get(new Collider(9)) == 9;
+        assert dictionary.get(new Collider(3)) == null;
+        assert dictionary.without(new Collider(9)).isEmpty();
+        assert dictionary.with(new Collider(9), 9) == dictionary;
+    }
+
+    @Test
+    void persistent_hash_dictionaries_with_equal_contents_should_be_equal_whatever_the_order() {
+        record Collider(int id) {
+            @Override
+            public int hashCode() {
+                return id % 5;
+            }
+        }
+        List<Object> keys = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            keys.add(i * 31);
+        }
+        for (int i = 0; i < 20; i++) {
+            keys.add(new Collider(i));
+        }
+
+        PersistentHashDictionary<Object, Integer> expected = null;
+        for (int round = 0; round < 5; round++) {
+            Collections.shuffle(keys, random);
+            PersistentHashDictionary<Object, Integer> dictionary = PersistentHashDictionary.empty();
+            // extra keys force splits that the removals have to undo
+            for (int i = 0; i < 2_000; i++) {
+                dictionary = dictionary.with(-i - 1, i);
+            }
+            for (Object key : keys) {
+                dictionary = dictionary.with(key, key.hashCode());
+            }
+            for (int i = 0; i < 2_000; i++) {
+                dictionary = dictionary.without(-i - 1);
+            }
+            if (expected == null) {
+                expected = dictionary;
+                continue;
+            }
+            assert dictionary.equals(expected) && expected.equals(dictionary);
+            assert dictionary.hashCode() == expected.hashCode();
+        }
+
+        assert !expected.equals(expected.with(0, -1));
+        assert !expected.equals(expected.without(new Collider(3)));
+        assert expected.without(new Collider(3)).with(new Collider(3), 3).equals(expected);
+        assert !expected.equals(new HashDictionary<>());
+        assert PersistentHashDictionary.empty().equals(PersistentHashDictionary.empty().with(1, 1).without(1));
+    }
+}
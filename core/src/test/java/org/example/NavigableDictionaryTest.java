@@ -0,0 +1,498 @@
+package org.example;
+
+import org.example.dictionaries.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+class NavigableDictionaryTest {
+    @Test
+    void navigable_dictionary_implementations_should_return_correct_result() {
+        INavigableDictionary<Double, Integer> treeDictionary = new TreeDictionary<>();
+        INavigableDictionary<Double, Integer> sortedArrayDictionary = new SortedArrayNavigableDictionary<>();
+        NavigableMap<Double, Integer> treeMap = new TreeMap<>();
+
+        treeDictionary.put(-1.4, -14);
+        treeDictionary.put(1.4, 14);
+        treeDictionary.put(1.6, 16);
+        treeDictionary.put(2.0, 20);
+        treeDictionary.put(2.4, 24);
+        treeDictionary.put(2.7, 27);
+        treeDictionary.put(2.8, 28);
+
+        sortedArrayDictionary.put(-1.4, -14);
+        sortedArrayDictionary.put(1.4, 14);
+        sortedArrayDictionary.put(1.6, 16);
+        sortedArrayDictionary.put(2.0, 20);
+        sortedArrayDictionary.put(2.4, 24);
+        sortedArrayDictionary.put(2.7, 27);
+        sortedArrayDictionary.put(2.8, 28);
+
+        treeMap.put(-1.4, -14);
+        treeMap.put(1.4, 14);
+        treeMap.put(1.6, 16);
+        treeMap.put(2.0, 20);
+        treeMap.put(2.4, 24);
+        treeMap.put(2.7, 27);
+        treeMap.put(2.8, 28);
+
+        for (double i = 0.0; i < 2.8; i += 0.1) {
+            assert treeMap.ceilingKey(i).equals(treeDictionary.ceilingKey(i))
+                   && treeMap.ceilingKey(i).equals(sortedArrayDictionary.ceilingKey(i));
+
+            assert treeMap.higherKey(i).equals(treeDictionary.higherKey(i))
+                   && treeMap.higherKey(i).equals(sortedArrayDictionary.higherKey(i));
+
+            assert treeMap.lowerKey(i).equals(treeDictionary.lowerKey(i))
+                   && treeMap.lowerKey(i).equals(sortedArrayDictionary.lowerKey(i));
+
+            assert treeMap.floorKey(i).equals(treeDictionary.floorKey(i))
+                   && treeMap.floorKey(i).equals(sortedArrayDictionary.floorKey(i));
+        }
+    }
+
+    @Test
+    void navigable_dictionaries_should_match_tree_map_under_random_updates() {
+        List<INavigableDictionary<Integer, Integer>> implementations = List.of(
+                new TreeDictionary<>(),
+                new SortedArrayNavigableDictionary<>(),
+                new SortedArrayNavigableDictionary<>(SortedArrayNavigableDictionary.Layout.BUFFERED),
+                SortedArrayNavigableDictionary.withIntKeys(SortedArrayNavigableDictionary.Layout.PACKED),
+                SortedArrayNavigableDictionary.withIntKeys(SortedArrayNavigableDictionary.Layout.BUFFERED),
+                new ConcurrentSkipListDictionary<>(),
+                new BPlusTreeDictionary<>(),
+                new BPlusTreeDictionary<>(4),
+                new BPlusTreeDictionary<Integer, Integer>(5, Integer::compare),
+                new PersistentTreeDictionary<>(),
+                AdaptiveRadixTreeDictionary.withIntKeys()
+        );
+        Random random = new Random(11);
+
+        for (INavigableDictionary<Integer, Integer> dictionary : implementations) {
+            NavigableMap<Integer, Integer> treeMap = new TreeMap<>();
+            for (int i = 0; i < 20_000; i++) {
+                int key = random.nextInt(2_000);
+                if (random.nextInt(3) == 0) {
+                    assert Objects.equals(treeMap.remove(key), dictionary.remove(key));
+                } else {
+                    assert Objects.equals(treeMap.put(key, i), dictionary.put(key, i));
+                }
+            }
+            assert treeMap.size() == dictionary.size();
+
+            for (int key = -1; key <= 2_000; key++) {
+                assert Objects.equals(treeMap.lowerKey(key), dictionary.lowerKey(key));
+                assert Objects.equals(treeMap.floorKey(key), dictionary.floorKey(key));
+                assert Objects.equals(treeMap.ceilingKey(key), dictionary.ceilingKey(key));
+                assert Objects.equals(treeMap.higherKey(key), dictionary.higherKey(key));
+                IDictionary.IEntry<Integer, Integer> floor = dictionary.floorEntry(key);
+                assert floor == null
+                        ? treeMap.floorEntry(key) == null
+                        : floor.getValue().equals(treeMap.floorEntry(key).getValue());
+            }
+
+            List<Integer> keys = new ArrayList<>(dictionary.keys());
+            assert keys.equals(new ArrayList<>(treeMap.keySet()));
+        }
+    }
+
+    @Test
+    void order_statistics_should_match_sorted_keys() {
+        List<IOrderStatisticDictionary<Integer, Integer>> implementations = List.of(
+                new TreeDictionary<>(),
+                new SortedArrayNavigableDictionary<>(),
+                new SortedArrayNavigableDictionary<>(SortedArrayNavigableDictionary.Layout.BUFFERED),
+                SortedArrayNavigableDictionary.withIntKeys(SortedArrayNavigableDictionary.Layout.BUFFERED)
+        );
+        Random random = new Random(13);
+
+        for (IOrderStatisticDictionary<Integer, Integer> dictionary : implementations) {
+            NavigableMap<Integer, Integer> treeMap = new TreeMap<>();
+            for (int i = 0; i < 10_000; i++) {
+                int key = random.nextInt(3_000);
+                if (random.nextInt(4) == 0) {
+                    treeMap.remove(key);
+                    dictionary.remove(key);
+                } else {
+                    treeMap.put(key, i);
+                    dictionary.put(key, i);
+                }
+            }
+            List<Integer> keys = new ArrayList<>(treeMap.keySet());
+
+            for (int i = 0; i < keys.size(); i++) {
+                assert dictionary.select(i).equals(keys.get(i));
+                assert dictionary.kthEntry(i).getValue().equals(treeMap.get(keys.get(i)));
+                assert dictionary.rank(keys.get(i)) == i;
+            }
+            for (int key = -1; key <= 3_000; key += 7) {
+                assert dictionary.rank(key) == treeMap.headMap(key).size();
+                int hi = key + random.nextInt(500) - 100;
+                int expected = key > hi ? 0 : treeMap.subMap(key, true, hi, true).size();
+                assert dictionary.countRange(key, hi) == expected;
+            }
+
+            boolean thrown = false;
+            try {
+                dictionary.select(keys.size());
+            } catch (IndexOutOfBoundsException e) {
+                thrown = true;
+            }
+            assert thrown;
+        }
+    }
+
+    private static <K, V> List<K> keysOf(INavigableDictionary<K, V> dictionary) {
+        List<K> keys = new ArrayList<>();
+        dictionary.forEach((key, value) -> keys.add(key));
+        return keys;
+    }
+
+    private static void assertSameView(INavigableDictionary<Integer, Integer> view,
+                                       NavigableMap<Integer, Integer> expected) {
+        assert keysOf(view).equals(new ArrayList<>(expected.keySet()));
+        assert new ArrayList<>(view.keys()).equals(new ArrayList<>(expected.keySet()));
+        assert view.size() == expected.size() && view.isEmpty() == expected.isEmpty();
+        for (int key = -5; key <= 105; key++) {
+            assert Objects.equals(expected.lowerKey(key), view.lowerKey(key));
+            assert Objects.equals(expected.floorKey(key), view.floorKey(key));
+            assert Objects.equals(expected.ceilingKey(key), view.ceilingKey(key));
+            assert Objects.equals(expected.higherKey(key), view.higherKey(key));
+            assert Objects.equals(expected.get(key), view.get(key));
+        }
+    }
+
+    @Test
+    void range_views_should_match_tree_map_views() {
+        List<INavigableDictionary<Integer, Integer>> implementations = List.of(
+                new TreeDictionary<>(),
+                new SortedArrayNavigableDictionary<>(),
+                new ConcurrentSkipListDictionary<>(),
+                new BPlusTreeDictionary<>(4),
+                new PersistentTreeDictionary<>(),
+                AdaptiveRadixTreeDictionary.withIntKeys()
+        );
+
+        for (INavigableDictionary<Integer, Integer> dictionary : implementations) {
+            NavigableMap<Integer, Integer> treeMap = new TreeMap<>();
+            for (int key = 0; key <= 100; key += 3) {
+                dictionary.put(key, -key);
+                treeMap.put(key, -key);
+            }
+
+            for (boolean fromInclusive : new boolean[]{true, false}) {
+                for (boolean toInclusive : new boolean[]{true, false}) {
+                    assertSameView(dictionary.subDictionary(9, fromInclusive, 60, toInclusive),
+                            treeMap.subMap(9, fromInclusive, 60, toInclusive));
+                    assertSameView(dictionary.subDictionary(10, fromInclusive, 59, toInclusive),
+                            treeMap.subMap(10, fromInclusive, 59, toInclusive));
+                    assertSameView(dictionary.subDictionary(9, fromInclusive, 60, toInclusive)
+                                    .descendingDictionary(),
+                            treeMap.subMap(9, fromInclusive, 60, toInclusive).descendingMap());
+                }
+                assertSameView(dictionary.headDictionary(30, fromInclusive), treeMap.headMap(30, fromInclusive));
+                assertSameView(dictionary.tailDictionary(30, fromInclusive), treeMap.tailMap(30, fromInclusive));
+            }
+            assertSameView(dictionary.descendingDictionary(), treeMap.descendingMap());
+            assertSameView(dictionary.descendingDictionary().headDictionary(50, true).tailDictionary(80, false),
+                    treeMap.descendingMap().headMap(50, true).tailMap(80, false));
+            assertSameView(dictionary.subDictionary(200, true, 300, true), treeMap.subMap(200, true, 300, true));
+
+            INavigableDictionary<Integer, Integer> window = dictionary.subDictionary(20, true, 80, false);
+            boolean thrown = false;
+            try {
+                window.put(80, 0);
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assert thrown;
+            window.put(22, 22);
+            treeMap.put(22, 22);
+            for (IDictionary.ICursor<Integer, Integer> cursor = window.descendingDictionary().cursor(); cursor.advance(); ) {
+                assert cursor.setValue(cursor.value() * 2).equals(treeMap.put(cursor.key(), cursor.value()));
+            }
+            assertSameView(dictionary.tailDictionary(0, true), treeMap.tailMap(0, true));
+            for (Iterator<IDictionary.IEntry<Integer, Integer>> i =
+                 window.descendingDictionary().entrySet().iterator(); i.hasNext(); ) {
+                if (i.next().getKey() % 2 == 0) {
+                    i.remove();
+                }
+            }
+            treeMap.subMap(20, true, 80, false).keySet().removeIf(key -> key % 2 == 0);
+            assertSameView(dictionary.tailDictionary(0, true), treeMap.tailMap(0, true));
+            window.keys().removeIf(key -> key % 5 == 0);
+            treeMap.subMap(20, true, 80, false).keySet().removeIf(key -> key % 5 == 0);
+            assertSameView(dictionary.headDictionary(1000, true), treeMap.headMap(1000, true));
+        }
+    }
+
+    @Test
+    void bulk_load_should_match_incremental_puts() {
+        for (int n = 0; n <= 70; n++) {
+            Integer[] keys = new Integer[n];
+            String[] values = new String[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = i * 2;
+                values[i] = "v" + i;
+            }
+            List<IOrderStatisticDictionary<Integer, String>> loaded = List.of(
+                    TreeDictionary.fromSortedArrays(keys, values),
+                    TreeDictionary.fromSorted(SortedArrayNavigableDictionary.fromSortedArrays(keys, values)
+                            .entrySet().iterator()),
+                    SortedArrayNavigableDictionary.fromSortedArrays(keys, values)
+            );
+            for (IOrderStatisticDictionary<Integer, String> dictionary : loaded) {
+                assert dictionary.size() == n;
+                for (int i = 0; i < n; i++) {
+                    assert dictionary.get(i * 2).equals("v" + i);
+                    assert dictionary.rank(i * 2) == i;
+                    assert dictionary.select(i) == i * 2;
+                }
+                // the tree must stay balanced through later updates
+                for (int i = 0; i < n; i++) {
+                    dictionary.put(i * 2 + 1, "odd");
+                    dictionary.remove(i * 2);
+                }
+                assert new ArrayList<>(dictionary.keys()).equals(
+                        java.util.stream.IntStream.range(0, n).map(i -> i * 2 + 1).boxed().toList());
+            }
+        }
+
+        for (Integer[] keys : new Integer[][]{{1, 2, 2}, {3, 1}}) {
+            String[] values = new String[keys.length];
+            boolean treeThrown = false;
+            boolean arrayThrown = false;
+            try {
+                TreeDictionary.fromSortedArrays(keys, values);
+            } catch (IllegalArgumentException e) {
+                treeThrown = true;
+            }
+            try {
+                SortedArrayNavigableDictionary.fromSortedArrays(keys, values);
+            } catch (IllegalArgumentException e) {
+                arrayThrown = true;
+            }
+            assert treeThrown && arrayThrown;
+        }
+    }
+
+    @Test
+    void primitive_key_arrays_should_order_like_boxed_keys() {
+        INavigableDictionary<Long, String> longKeys =
+                SortedArrayNavigableDictionary.withLongKeys(SortedArrayNavigableDictionary.Layout.PACKED);
+        INavigableDictionary<Double, String> doubleKeys =
+                SortedArrayNavigableDictionary.withDoubleKeys(SortedArrayNavigableDictionary.Layout.BUFFERED);
+        NavigableMap<Long, String> longMap = new TreeMap<>();
+        NavigableMap<Double, String> doubleMap = new TreeMap<>();
+        long[] longs = {Long.MIN_VALUE, -1L, 0L, 1L, Long.MAX_VALUE, 42L, -42L};
+        double[] doubles = {Double.NaN, Double.NEGATIVE_INFINITY, -0.0, 0.0, Double.MIN_VALUE, 1.5, -1.5};
+        for (int i = 0; i < longs.length; i++) {
+            longKeys.put(longs[i], "l" + i);
+            longMap.put(longs[i], "l" + i);
+            doubleKeys.put(doubles[i], "d" + i);
+            doubleMap.put(doubles[i], "d" + i);
+        }
+
+        assert new ArrayList<>(longKeys.keys()).equals(new ArrayList<>(longMap.keySet()));
+        assert new ArrayList<>(doubleKeys.keys()).equals(new ArrayList<>(doubleMap.keySet()));
+        for (double key : doubles) {
+            assert Objects.equals(doubleMap.lowerKey(key), doubleKeys.lowerKey(key));
+            assert Objects.equals(doubleMap.higherKey(key), doubleKeys.higherKey(key));
+            assert doubleMap.get(key).equals(doubleKeys.get(key));
+        }
+        assert doubleKeys.floorKey(-0.5).equals(-1.5);
+        assert longKeys.ceilingKey(2L).equals(42L);
+        assert longKeys.remove(Long.MIN_VALUE).equals("l0");
+        assert longKeys.lowerKey(-42L) == null;
+    }
+
+    @Test
+    void adaptive_radix_tree_encoders_should_order_like_boxed_keys() {
+        INavigableDictionary<Long, String> longKeys = AdaptiveRadixTreeDictionary.withLongKeys();
+        INavigableDictionary<Double, String> doubleKeys = AdaptiveRadixTreeDictionary.withDoubleKeys();
+        NavigableMap<Long, String> longMap = new TreeMap<>();
+        NavigableMap<Double, String> doubleMap = new TreeMap<>();
+        long[] longs = {Long.MIN_VALUE, -1L, 0L, 1L, Long.MAX_VALUE, 42L, -42L, 256L, 255L};
+        double[] doubles = {Double.NaN, Double.NEGATIVE_INFINITY, -0.0, 0.0, Double.MIN_VALUE, 1.5, -1.5,
+                Double.POSITIVE_INFINITY, -Double.MAX_VALUE};
+        for (int i = 0; i < longs.length; i++) {
+            longKeys.put(longs[i], "l" + i);
+            longMap.put(longs[i], "l" + i);
+            doubleKeys.put(doubles[i], "d" + i);
+            doubleMap.put(doubles[i], "d" + i);
+        }
+        assert new ArrayList<>(longKeys.keys()).equals(new ArrayList<>(longMap.keySet()));
+        assert new ArrayList<>(doubleKeys.keys()).equals(new ArrayList<>(doubleMap.keySet()));
+        for (double key : doubles) {
+            assert Objects.equals(doubleMap.lowerKey(key), doubleKeys.lowerKey(key));
+            assert Objects.equals(doubleMap.higherKey(key), doubleKeys.higherKey(key));
+        }
+        assert longKeys.floorKey(254L).equals(42L) && longKeys.ceilingKey(-41L).equals(-1L);
+
+        // strings that are prefixes of each other end on inner nodes of the tree
+        INavigableDictionary<String, Integer> stringKeys = AdaptiveRadixTreeDictionary.withStringKeys();
+        NavigableMap<String, Integer> stringMap = new TreeMap<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            String key = Integer.toString(random.nextInt(5_000), 4 + random.nextInt(3));
+            if (random.nextInt(3) == 0) {
+                assert Objects.equals(stringMap.remove(key), stringKeys.remove(key));
+            } else {
+                assert Objects.equals(stringMap.put(key, i), stringKeys.put(key, i));
+            }
+        }
+        assert new ArrayList<>(stringKeys.keys()).equals(new ArrayList<>(stringMap.keySet()));
+        for (String key : List.of("", "1", "12", "123", "2", "3333", "4", "9")) {
+            assert Objects.equals(stringMap.lowerKey(key), stringKeys.lowerKey(key));
+            assert Objects.equals(stringMap.floorKey(key), stringKeys.floorKey(key));
+            assert Objects.equals(stringMap.ceilingKey(key), stringKeys.ceilingKey(key));
+            assert Objects.equals(stringMap.higherKey(key), stringKeys.higherKey(key));
+        }
+        assert new ArrayList<>(stringKeys.subDictionary("12", true, "3", false).descendingDictionary().keys())
+                .equals(new ArrayList<>(stringMap.subMap("12", true, "3", false).descendingMap().keySet()));
+
+        stringKeys.descendingDictionary().keys().removeIf(key -> key.length() > 3);
+        stringMap.keySet().removeIf(key -> key.length() > 3);
+        assert new ArrayList<>(stringKeys.keys()).equals(new ArrayList<>(stringMap.keySet()));
+    }
+
+    @Test
+    void adaptive_radix_tree_string_keys_should_reject_unpaired_surrogates() {
+        INavigableDictionary<String, Integer> stringKeys = AdaptiveRadixTreeDictionary.withStringKeys();
+        stringKeys.put("a?", 1);
+        stringKeys.put("a\uD83D\uDE00", 2);
+        for (String malformed : List.of("a\uD83D", "a\uDE00", "\uD83Da")) {
+            boolean thrown = false;
+            try {
+                stringKeys.put(malformed, 3);
+            } catch (IllegalArgumentException e) {
+                thrown = true;
+            }
+            assert thrown : malformed;
+        }
+        assert stringKeys.size() == 2 && stringKeys.get("a?") == 1;
+        assert stringKeys.higherKey("a?").equals("a\uD83D\uDE00");
+    }
+
+    @Test
+    void frozen_dictionary_should_match_tree_map() {
+        Random random = new Random(17);
+        for (int n = 0; n <= 40; n++) {
+            SortedArrayNavigableDictionary<Integer, Integer> objectKeys = new SortedArrayNavigableDictionary<>();
+            SortedArrayNavigableDictionary<Integer, Integer> intKeys =
+                    SortedArrayNavigableDictionary.withIntKeys(SortedArrayNavigableDictionary.Layout.BUFFERED);
+            NavigableMap<Integer, Integer> treeMap = new TreeMap<>();
+            while (treeMap.size() < n) {
+                int key = random.nextInt(100);
+                // null values are valid in the source and must survive the freeze
+                Integer value = key % 7 == 0 ? null : -key;
+                treeMap.put(key, value);
+                objectKeys.put(key, value);
+                intKeys.put(key, value);
+            }
+
+            for (INavigableDictionary<Integer, Integer> frozen : List.of(objectKeys.freeze(), intKeys.freeze())) {
+                assertSameView(frozen, treeMap);
+                assertSameView(frozen.descendingDictionary(), treeMap.descendingMap());
+                assertSameView(frozen.subDictionary(20, false, 70, true), treeMap.subMap(20, false, 70, true));
+                assert new ArrayList<>(frozen.keys()).equals(new ArrayList<>(treeMap.keySet()));
+                assert new ArrayList<>(frozen.values()).equals(new ArrayList<>(treeMap.values()));
+                for (IDictionary.IEntry<Integer, Integer> entry : frozen.entrySet()) {
+                    assert Objects.equals(treeMap.get(entry.getKey()), entry.getValue());
+                }
+                for (int key = -1; key <= 100; key++) {
+                    Map.Entry<Integer, Integer> expected = treeMap.floorEntry(key);
+                    IDictionary.IEntry<Integer, Integer> entry = frozen.floorEntry(key);
+                    assert expected == null ? entry == null
+                            : entry.getKey().equals(expected.getKey()) && Objects.equals(entry.getValue(), expected.getValue());
+                }
+
+                boolean thrown = false;
+                try {
+                    frozen.put(1, 1);
+                } catch (UnsupportedOperationException e) {
+                    thrown = true;
+                }
+                assert thrown;
+                if (n > 0) {
+                    thrown = false;
+                    try {
+                        frozen.ceilingEntry(0).setValue(1);
+                    } catch (UnsupportedOperationException e) {
+                        thrown = true;
+                    }
+                    assert thrown;
+                }
+            }
+        }
+    }
+
+    @Test
+    void b_plus_tree_bulk_load_should_accept_later_updates() {
+        Random random = new Random(19);
+        for (int n : new int[]{0, 1, 63, 64, 65, 4_097, 20_000}) {
+            Integer[] keys = new Integer[n];
+            Integer[] values = new Integer[n];
+            NavigableMap<Integer, Integer> treeMap = new TreeMap<>();
+            for (int i = 0; i < n; i++) {
+                keys[i] = i * 3;
+                values[i] = i;
+                treeMap.put(i * 3, i);
+            }
+            BPlusTreeDictionary<Integer, Integer> dictionary = BPlusTreeDictionary.fromSortedArrays(keys, values);
+            assert new ArrayList<>(dictionary.keys()).equals(new ArrayList<>(treeMap.keySet()));
+
+            for (int i = 0; i < 2 * n; i++) {
+                int key = random.nextInt(3 * n + 1);
+                if (random.nextBoolean()) {
+                    assert Objects.equals(treeMap.remove(key), dictionary.remove(key));
+                } else {
+                    assert Objects.equals(treeMap.put(key, i), dictionary.put(key, i));
+                }
+            }
+            assert dictionary.size() == treeMap.size();
+            assert keysOf(dictionary.descendingDictionary()).equals(new ArrayList<>(treeMap.descendingKeySet()));
+        }
+    }
+
+    @Test
+    void persistent_snapshots_should_keep_their_version() {
+        PersistentTreeDictionary<Integer, Integer> dictionary = new PersistentTreeDictionary<>();
+        NavigableMap<Integer, Integer> treeMap = new TreeMap<>();
+        List<INavigableDictionary<Integer, Integer>> snapshots = new ArrayList<>();
+        List<NavigableMap<Integer, Integer>> expected = new ArrayList<>();
+        Random random = new Random(23);
+        for (int i = 0; i < 5_000; i++) {
+            int key = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                assert Objects.equals(treeMap.remove(key), dictionary.remove(key));
+            } else {
+                assert Objects.equals(treeMap.put(key, i), dictionary.put(key, i));
+            }
+            if (i % 500 == 0) {
+                snapshots.add(dictionary.snapshot());
+                expected.add(new TreeMap<>(treeMap));
+            }
+        }
+
+        for (int i = 0; i < snapshots.size(); i++) {
+            INavigableDictionary<Integer, Integer> snapshot = snapshots.get(i);
+            NavigableMap<Integer, Integer> map = expected.get(i);
+            assert snapshot.size() == map.size();
+            assert keysOf(snapshot).equals(new ArrayList<>(map.keySet()));
+            assert new ArrayList<>(snapshot.descendingDictionary().keys()).equals(new ArrayList<>(map.descendingKeySet()));
+            for (int key = -1; key <= 500; key++) {
+                assert Objects.equals(map.get(key), snapshot.get(key));
+                assert Objects.equals(map.floorKey(key), snapshot.floorKey(key));
+                assert Objects.equals(map.higherKey(key), snapshot.higherKey(key));
+            }
+            boolean thrown = false;
+            try {
+                snapshot.put(1, 1);
+            } catch (UnsupportedOperationException e) {
+                thrown = true;
+            }
+            assert thrown;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.example;
+
+import org.example.dictionaries.IDictionary;
+import org.example.dictionaries.primitive.IntDoubleHashDictionary;
+import org.example.dictionaries.primitive.IntIntCursor;
+import org.example.dictionaries.primitive.IntIntHashDictionary;
+import org.example.dictionaries.primitive.IntObjectCursor;
+import org.example.dictionaries.primitive.IntObjectHashDictionary;
+import org.example.dictionaries.primitive.LongLongHashDictionary;
+import org.example.dictionaries.primitive.LongObjectHashDictionary;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+class PrimitiveHashDictionaryTest {
+    Random random = new Random(42);
+
+    @Test
+    void int_object_hash_dictionary_should_behave_like_hash_map() {
+        IntObjectHashDictionary<Integer> dictionary = new IntObjectHashDictionary<>(2);
+        Map<Integer, Integer> hashMap = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(5_000) - 2_500;
+            Integer value = i;
+            if (random.nextInt(3) == 0) {
+                assert Objects.equals(hashMap.remove(key), dictionary.remove(key));
+            } else {
+                assert Objects.equals(hashMap.put(key, value), dictionary.put(key, value));
+            }
+            assert hashMap.size() == dictionary.size();
+        }
+
+        Integer absent = -1;
+        for (int key = -2_500; key < 2_500; key++) {
+            assert Objects.equals(hashMap.get(key), dictionary.get(key));
+            assert hashMap.containsKey(key) == dictionary.containsKey(key);
+            assert Objects.equals(hashMap.getOrDefault(key, absent), dictionary.getOrDefault(key, absent));
+        }
+
+        Map<Integer, Integer> visited = new HashMap<>();
+        IntObjectCursor<Integer> cursor = dictionary.cursor();
+        while (cursor.advance()) {
+            visited.put(cursor.intKey(), cursor.value());
+        }
+        assert visited.equals(hashMap);
+    }
+
+    @Test
+    void long_object_hash_dictionary_should_support_zero_and_extreme_keys() {
+        IDictionary<Long, String> dictionary = new LongObjectHashDictionary<>();
+
+        dictionary.put(0L, "zero");
+        dictionary.put(Long.MIN_VALUE, "min");
+        dictionary.put(Long.MAX_VALUE, "max");
+
+        assert "zero".equals(dictionary.get(0L));
+        assert "min".equals(dictionary.get(Long.MIN_VALUE));
+        assert "max".equals(dictionary.get(Long.MAX_VALUE));
+        assert dictionary.get(null) == null;
+        assert !dictionary.containsKey(null);
+        assert dictionary.size() == 3;
+        assert "zero".equals(dictionary.remove(0L));
+        assert !dictionary.containsKey(0L);
+        assert dictionary.size() == 2;
+    }
+
+    @Test
+    void iterator_remove_should_visit_every_key_once() {
+        LongObjectHashDictionary<Long> dictionary = new LongObjectHashDictionary<>();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            Long key = random.nextLong() >> random.nextInt(64);
+            dictionary.put(key.longValue(), key);
+            expected.add(key);
+        }
+        dictionary.put(0L, Long.valueOf(0L));
+        expected.add(0L);
+
+        Set<Long> visited = new HashSet<>();
+        Iterator<IDictionary.IEntry<Long, Long>> iterator = dictionary.entrySet().iterator();
+        while (iterator.hasNext()) {
+            long key = iterator.next().getKey();
+            assert visited.add(key);
+            if ((key & 1) == 0) {
+                iterator.remove();
+            }
+        }
+        assert visited.equals(expected);
+        for (long key : expected) {
+            assert dictionary.containsKey(key) == ((key & 1) != 0);
+        }
+        assert dictionary.size() == expected.stream().filter(k -> (k & 1) != 0).count();
+    }
+
+    @Test
+    void int_int_hash_dictionary_counters_should_behave_like_hash_map_merge() {
+        IntIntHashDictionary dictionary = new IntIntHashDictionary(2);
+        Map<Integer, Integer> hashMap = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(5_000) - 2_500;
+            if (random.nextInt(4) == 0) {
+                assert hashMap.getOrDefault(key, 0) == dictionary.remove(key);
+                hashMap.remove(key);
+            } else {
+                int delta = random.nextInt(10);
+                assert hashMap.getOrDefault(key, 0) == dictionary.addTo(key, delta);
+                hashMap.merge(key, delta, Integer::sum);
+            }
+            assert hashMap.size() == dictionary.size();
+        }
+
+        for (int key = -2_500; key < 2_500; key++) {
+            assert hashMap.containsKey(key) == dictionary.containsKey(key);
+            assert Objects.equals(hashMap.get(key), dictionary.get(Integer.valueOf(key)));
+            assert hashMap.getOrDefault(key, -1) == dictionary.getOrDefault(key, -1);
+        }
+
+        Map<Integer, Integer> visited = new HashMap<>();
+        IntIntCursor cursor = dictionary.cursor();
+        while (cursor.advance()) {
+            visited.put(cursor.intKey(), cursor.intValue());
+            cursor.setIntValue(cursor.intValue() + 1);
+        }
+        assert visited.equals(hashMap);
+        dictionary.forEach((key, value) -> {
+            assert value == hashMap.get(key) + 1;
+        });
+    }
+
+    @Test
+    void fully_primitive_dictionaries_should_bridge_boxed_semantics() {
+        IDictionary<Long, Long> longs = new LongLongHashDictionary();
+        assert longs.put(0L, 5L) == null;
+        assert longs.put(0L, 6L) == 5L;
+        assert longs.put(Long.MIN_VALUE, 0L) == null;
+        assert longs.get(7L) == null;
+        assert longs.getOrDefault(7L, null) == null;
+        assert longs.containsValue(0L);
+        assert longs.remove(7L) == null;
+        assert longs.remove(0L) == 6L;
+        assert longs.size() == 1;
+
+        IntDoubleHashDictionary doubles = new IntDoubleHashDictionary();
+        doubles.addTo(3, 0.5);
+        doubles.addTo(3, 0.25);
+        doubles.put(0, -0.0);
+        assert doubles.get(3) == 0.75;
+        assert doubles.containsValue(-0.0) && !doubles.containsValue(0.0);
+        assert doubles.entrySet().contains(IDictionary.entry(3, 0.75));
+        assert doubles.size() == 2;
+    }
+}
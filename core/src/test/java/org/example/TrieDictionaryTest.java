@@ -0,0 +1,255 @@
+package org.example;
+
+import org.example.dictionaries.*;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+class TrieDictionaryTest {
+    Random random = new Random(7);
+
+    @Test
+    void radix_trie_should_iterate_in_string_order_through_splits_and_merges() {
+        TrieDictionary<String, Integer> trieDictionary = new TrieDictionary<>(TrieDictionary.Layout.RADIX);
+        TreeMap<String, Integer> treeMap = new TreeMap<>();
+        Random random = new Random(7);
+        String[] prefixes = {"", "/api/", "/api/v1/users/", "/api/v2/", "/static/img/"};
+
+        for (int i = 0; i < 50_000; i++) {
+            String key = prefixes[random.nextInt(prefixes.length)] + Integer.toString(random.nextInt(500), 7);
+            if (random.nextInt(3) == 0) {
+                assert Objects.equals(treeMap.remove(key), trieDictionary.remove(key));
+            } else {
+                assert Objects.equals(treeMap.put(key, i), trieDictionary.put(key, i));
+            }
+            assert treeMap.size() == trieDictionary.size();
+        }
+
+        assert new ArrayList<>(trieDictionary.keys()).equals(new ArrayList<>(treeMap.keySet()));
+        for (String key : treeMap.keySet()) {
+            assert treeMap.get(key).equals(trieDictionary.get(key));
+            assert trieDictionary.get(key + "x") == null || treeMap.containsKey(key + "x");
+        }
+        assert trieDictionary.get("/api") == null && trieDictionary.get("/api/v1/users") == null;
+    }
+
+    @Test
+    void trie_prefix_queries_should_match_a_scan_of_all_keys() {
+        for (TrieDictionary.Layout layout : TrieDictionary.Layout.values()) {
+            TrieDictionary<String, Integer> trieDictionary = new TrieDictionary<>(layout);
+            Map<String, Integer> hashMap = new HashMap<>();
+            Random random = new Random(11);
+            String[] prefixes = {"", "/api/", "/api/v1/", "/api/v1/users/", "/docs/"};
+            Comparator<Integer> byValue = Comparator.naturalOrder();
+
+            for (int round = 0; round < 20; round++) {
+                for (int i = 0; i < 500; i++) {
+                    String key = prefixes[random.nextInt(prefixes.length)] + Integer.toString(random.nextInt(300), 5);
+                    // distinct values keep the top k unambiguous
+                    int value = round * 1_000 + i;
+                    if (random.nextInt(4) == 0) {
+                        trieDictionary.remove(key);
+                        hashMap.remove(key);
+                    } else {
+                        trieDictionary.put(key, value);
+                        hashMap.put(key, value);
+                    }
+                }
+
+                IPrefixDictionary<String, Integer> compiled = trieDictionary.compile();
+                assert compiled.size() == hashMap.size();
+                for (Map.Entry<String, Integer> entry : hashMap.entrySet()) {
+                    assert entry.getValue().equals(compiled.get(entry.getKey()));
+                    assert compiled.get(entry.getKey() + "~") == null;
+                }
+                assert new ArrayList<>(compiled.keys()).equals(new ArrayList<>(new TreeMap<>(hashMap).keySet()));
+
+                for (IPrefixDictionary<String, Integer> dictionary : List.of(trieDictionary, compiled)) {
+                    for (String prefix : List.of("", "/", "/api/", "/api/v1/users/1", "/docs/4", "/missing")) {
+                        Map<String, Integer> expected = new HashMap<>();
+                        hashMap.forEach((key, value) -> {
+                            if (key.startsWith(prefix)) {
+                                expected.put(key, value);
+                            }
+                        });
+                        Map<String, Integer> actual = new HashMap<>();
+                        for (Iterator<IDictionary.IEntry<String, Integer>> i = dictionary.prefixEntries(prefix); i.hasNext(); ) {
+                            IDictionary.IEntry<String, Integer> entry = i.next();
+                            actual.put(entry.getKey(), entry.getValue());
+                        }
+                        assert actual.equals(expected);
+                        assert dictionary.countWithPrefix(prefix) == expected.size();
+
+                        List<Integer> topValues = expected.values().stream()
+                                .sorted(byValue.reversed()).limit(5).toList();
+                        List<IDictionary.IEntry<String, Integer>> topK = dictionary.topK(prefix, 5, byValue);
+                        assert topK.stream().map(IDictionary.IEntry::getValue).toList().equals(topValues);
+                        for (IDictionary.IEntry<String, Integer> entry : topK) {
+                            assert entry.getValue().equals(hashMap.get(entry.getKey()));
+                        }
+                    }
+                }
+            }
+
+            for (IDictionary.ICursor<String, Integer> cursor = trieDictionary.cursor(); cursor.advance(); ) {
+                cursor.setValue(-cursor.value());
+            }
+            int smallest = hashMap.values().stream().min(Integer::compare).orElseThrow();
+            assert trieDictionary.topK("", 1, byValue).get(0).getValue() == -smallest;
+
+            trieDictionary.put("/api", 1);
+            trieDictionary.put("/api/v1", 2);
+            assert "/api/v1".equals(trieDictionary.longestPrefixOf("/api/v1x/users"));
+            assert "/api".equals(trieDictionary.longestPrefixOf("/api/"));
+            assert trieDictionary.longestPrefixOf("/zzz") == null;
+            trieDictionary.put("", 0);
+            assert "".equals(trieDictionary.longestPrefixOf("/zzz"));
+
+            IPrefixDictionary<String, Integer> compiled = trieDictionary.compile();
+            assert "/api/v1".equals(compiled.longestPrefixOf("/api/v1x/users"));
+            assert "".equals(compiled.longestPrefixOf("/zzz"));
+            assert compiled.get("") == 0;
+            assert trieDictionary.remove("") == 0 && compiled.get("") == 0;
+            assert new TrieDictionary<String, Integer>().compile().isEmpty();
+        }
+    }
+
+    @Test
+    void compiled_trie_should_rebuild_keys_with_surrogate_pairs() {
+        TrieDictionary<String, Integer> trieDictionary = new TrieDictionary<>(TrieDictionary.Layout.RADIX);
+        List<String> keys = List.of("c", "c\u00e9", "c\u00e9\uD83D\uDE00", "c\u00e9\uD83D\uDE00\uD83D\uDE00", "\uD83D\uDE00a", "\uD834\uDD1E\uD834\uDD22");
+        for (int i = 0; i < keys.size(); i++) {
+            trieDictionary.put(keys.get(i), i);
+        }
+        IPrefixDictionary<String, Integer> compiled = trieDictionary.compile();
+
+        assert new ArrayList<>(compiled.keys()).equals(keys.stream().sorted().toList());
+        for (IDictionary.IEntry<String, Integer> entry : compiled.entrySet()) {
+            assert keys.get(entry.getValue()).equals(entry.getKey());
+        }
+        List<String> prefixed = new ArrayList<>();
+        compiled.prefixEntries("c\u00e9\uD83D\uDE00").forEachRemaining(entry -> prefixed.add(entry.getKey()));
+        assert prefixed.equals(List.of("c\u00e9\uD83D\uDE00", "c\u00e9\uD83D\uDE00\uD83D\uDE00"));
+        assert compiled.topK("", 1, Comparator.<Integer>naturalOrder()).get(0).getKey().equals("\uD834\uDD1E\uD834\uDD22");
+    }
+
+    @Test
+    void trie_fuzzy_entries_should_match_the_edit_distance_to_every_key() {
+        String[] words = {"", "a", "ab", "abc", "abd", "bac", "cat", "cart", "card", "care", "scar",
+                "scare", "scarce", "carpet", "carpets", "act", "tac", "kitten", "sitting", "mitten"};
+        for (TrieDictionary.Layout layout : TrieDictionary.Layout.values()) {
+            TrieDictionary<String, Integer> trieDictionary = new TrieDictionary<>(layout);
+            for (int i = 0; i < words.length; i++) {
+                trieDictionary.put(words[i], i);
+            }
+            for (int i = 0; i < 300; i++) {
+                trieDictionary.put(Integer.toString(random.nextInt(1_000), 3), i);
+            }
+
+            for (String query : List.of("", "car", "cta", "scarse", "kitten", "sittin", "1010", "zzzzzz")) {
+                for (int maxEdits = 0; maxEdits <= 3; maxEdits++) {
+                    Map<String, Integer> expected = new HashMap<>();
+                    for (IDictionary.IEntry<String, Integer> entry : trieDictionary.entrySet()) {
+                        if (editDistance(query, entry.getKey()) <= maxEdits) {
+                            expected.put(entry.getKey(), entry.getValue());
+                        }
+                    }
+                    Map<String, Integer> actual = new HashMap<>();
+                    for (IDictionary.IEntry<String, Integer> entry : trieDictionary.fuzzyEntries(query, maxEdits)) {
+                        assert actual.put(entry.getKey(), entry.getValue()) == null;
+                    }
+                    assert actual.equals(expected);
+                }
+            }
+            assert trieDictionary.fuzzyEntries("sitting", 3).stream()
+                    .map(IDictionary.IEntry::getKey).toList().containsAll(List.of("kitten", "sitting", "mitten"));
+        }
+    }
+
+    private static int editDistance(String a, String b) {
+        int[] row = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            row[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int diagonal = row[0];
+            row[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int above = row[j];
+                row[j] = Math.min(diagonal + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
+                        Math.min(above, row[j - 1]) + 1);
+                diagonal = above;
+            }
+        }
+        return row[b.length()];
+    }
+
+    @Test
+    void byte_trie_should_find_utf8_keys_by_bytes_and_grow_and_shrink_its_nodes() {
+        ByteTrieDictionary<Integer> byteTrie = new ByteTrieDictionary<>();
+        Map<String, Integer> hashMap = new HashMap<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 100_000; i++) {
+            // up to 300 distinct chars after a shared head fill every node size
+            String key = "k" + (char) ('a' + random.nextInt(3)) + (char) (0x20 + random.nextInt(300))
+                    + (random.nextBoolean() ? "" : Integer.toString(random.nextInt(40)));
+            if (random.nextInt(3) == 0) {
+                assert Objects.equals(hashMap.remove(key), byteTrie.remove(key));
+            } else {
+                assert Objects.equals(hashMap.put(key, i), byteTrie.put(key, i));
+            }
+            assert hashMap.size() == byteTrie.size();
+        }
+
+        for (Map.Entry<String, Integer> entry : hashMap.entrySet()) {
+            byte[] bytes = ("__" + entry.getKey() + "__").getBytes(StandardCharsets.UTF_8);
+            assert entry.getValue().equals(byteTrie.get(bytes, 2, bytes.length - 4));
+            ByteBuffer heap = ByteBuffer.wrap(bytes, 2, bytes.length - 4);
+            assert entry.getValue().equals(byteTrie.get(heap)) && heap.position() == 2;
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip().position(2).limit(bytes.length - 2);
+            assert entry.getValue().equals(byteTrie.get(direct));
+            assert byteTrie.get(direct.limit(bytes.length)) == null;
+        }
+
+        List<String> byCodePoint = new ArrayList<>(hashMap.keySet());
+        byCodePoint.sort(Comparator.comparing(key -> key.getBytes(StandardCharsets.UTF_8), Arrays::compareUnsigned));
+        assert new ArrayList<>(byteTrie.keys()).equals(byCodePoint);
+
+        for (Iterator<String> i = byteTrie.keys().iterator(); i.hasNext(); ) {
+            String key = i.next();
+            if (key.length() > 3) {
+                i.remove();
+                hashMap.remove(key);
+            }
+        }
+        assert byteTrie.size() == hashMap.size();
+        assert new HashSet<>(byteTrie.keys()).equals(hashMap.keySet());
+        for (String key : hashMap.keySet()) {
+            byteTrie.remove(key);
+        }
+        assert byteTrie.isEmpty() && !byteTrie.keys().iterator().hasNext();
+    }
+
+    @Test
+    void byte_trie_should_reject_unpaired_surrogates() {
+        ByteTrieDictionary<Integer> byteTrie = new ByteTrieDictionary<>();
+        byteTrie.put("a?", 1);
+        byteTrie.put("a\uD83D\uDE00", 2);
+        for (String malformed : List.of("a\uD83D", "a\uDE00", "a\uDE00\uD83D", "\uD83Da")) {
+            try {
+                byteTrie.put(malformed, 3);
+                assert false : malformed;
+            } catch (IllegalArgumentException expected) {
+            }
+            try {
+                byteTrie.get(malformed);
+                assert false : malformed;
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+        assert byteTrie.size() == 2 && byteTrie.get("a?") == 1;
+        assert new ArrayList<>(byteTrie.keys()).equals(List.of("a?", "a\uD83D\uDE00"));
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+
+/**
+ * Common parameters of the dictionary benchmarks. Operations are driven by
+ * pre-generated probe arrays, so the measured loop does no random number generation
+ * and no key allocation.
+ */
+@State(Scope.Thread)
+public abstract class AbstractDictionaryBenchmark {
+    static final int PROBES = 1 << 12;
+    static final int PROBES_MASK = PROBES - 1;
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"INTEGER", "STRING"})
+    KeyType keyType;
+
+    Object[] keys;
+    Object[] missingKeys;
+
+    private int cursor;
+
+    void generateKeys() {
+        keys = new Object[size];
+        missingKeys = new Object[PROBES];
+        keyType.generate(keys, missingKeys);
+    }
+
+    /**
+     * @return {@link #PROBES} keys where each one is present in {@link #keys}
+     * with probability {@code hitRatio}
+     */
+    Object[] probes(double hitRatio) {
+        SplittableRandom random = new SplittableRandom(size);
+        Object[] probes = new Object[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = random.nextDouble() < hitRatio
+                    ? keys[random.nextInt(keys.length)]
+                    : missingKeys[i];
+        }
+        return probes;
+    }
+
+    int next() {
+        return cursor++ & PROBES_MASK;
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.benchmarks;
+
+import org.example.dictionaries.ConcurrentHashDictionary;
+import org.example.dictionaries.ConcurrentTrieDictionary;
+import org.example.dictionaries.HashDictionary;
+import org.example.dictionaries.IDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lookups and updates of present keys on one dictionary shared by all benchmark threads,
+ * compares the concurrent dictionary with a {@link HashDictionary} behind a global lock.
+ */
+@State(Scope.Benchmark)
+@Threads(8)
+public class ConcurrentReadWriteBenchmark {
+    private static final int PROBES = 1 << 12;
+    private static final int PROBES_MASK = PROBES - 1;
+
+    public enum ConcurrentImplementation {
+        CONCURRENT_HASH_DICTIONARY,
+        CONCURRENT_TRIE_DICTIONARY,
+        SYNCHRONIZED_HASH_DICTIONARY,
+        JAVA_CONCURRENT_HASH_MAP
+    }
+
+    @Param
+    ConcurrentImplementation implementation;
+
+    @Param({"100000"})
+    int size;
+
+    @Param({"0.9", "0.5"})
+    double readRatio;
+
+    private IDictionary<Integer, Integer> dictionary;
+    private boolean synchronizedAccess;
+
+    @State(Scope.Thread)
+    public static class Probes {
+        private Integer[] keys;
+        private boolean[] reads;
+        private int cursor;
+
+        @Setup
+        public void setUp(ConcurrentReadWriteBenchmark benchmark) {
+            SplittableRandom random = new SplittableRandom(System.identityHashCode(this));
+            keys = new Integer[PROBES];
+            reads = new boolean[PROBES];
+            for (int i = 0; i < PROBES; i++) {
+                keys[i] = random.nextInt(benchmark.size);
+                reads[i] = random.nextDouble() < benchmark.readRatio;
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        dictionary = switch (implementation) {
+            case CONCURRENT_HASH_DICTIONARY -> new ConcurrentHashDictionary<>();
+            case CONCURRENT_TRIE_DICTIONARY -> new ConcurrentTrieDictionary<>();
+            case SYNCHRONIZED_HASH_DICTIONARY -> new HashDictionary<>();
+            case JAVA_CONCURRENT_HASH_MAP -> new MapDictionary<>(new ConcurrentHashMap<>());
+        };
+        synchronizedAccess = implementation == ConcurrentImplementation.SYNCHRONIZED_HASH_DICTIONARY;
+        for (int i = 0; i < size; i++) {
+            dictionary.put(i, i);
+        }
+    }
+
+    @Benchmark
+    public Integer readWrite(Probes probes) {
+        int i = probes.cursor++ & PROBES_MASK;
+        Integer key = probes.keys[i];
+        if (synchronizedAccess) {
+            synchronized (dictionary) {
+                return probes.reads[i] ? dictionary.get(key) : dictionary.put(key, key);
+            }
+        }
+        return probes.reads[i] ? dictionary.get(key) : dictionary.put(key, key);
+    }
+}
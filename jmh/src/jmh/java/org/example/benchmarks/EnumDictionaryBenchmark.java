@@ -0,0 +1,67 @@
+package org.example.benchmarks;
+
+import org.example.dictionaries.EnumDictionary;
+import org.example.dictionaries.HashDictionary;
+import org.example.dictionaries.IDictionary;
+import org.example.models.enums.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
+@State(Scope.Thread)
+public class EnumDictionaryBenchmark {
+    private static final int PROBES = 1 << 10;
+    private static final int PROBES_MASK = PROBES - 1;
+
+    public enum EnumImplementation {
+        ENUM_DICTIONARY,
+        HASH_DICTIONARY,
+        JAVA_ENUM_MAP,
+        JAVA_HASH_MAP
+    }
+
+    @Param
+    EnumImplementation implementation;
+
+    private IDictionary<Role, Integer> dictionary;
+    private Role[] probes;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        dictionary = switch (implementation) {
+            case ENUM_DICTIONARY -> new EnumDictionary<>(Role.class);
+            case HASH_DICTIONARY -> new HashDictionary<>();
+            case JAVA_ENUM_MAP -> new MapDictionary<>(new EnumMap<>(Role.class));
+            case JAVA_HASH_MAP -> new MapDictionary<>(new HashMap<>());
+        };
+        Role[] roles = Role.values();
+        for (Role role : roles) {
+            dictionary.put(role, role.ordinal());
+        }
+        SplittableRandom random = new SplittableRandom(PROBES);
+        probes = new Role[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = roles[random.nextInt(roles.length)];
+        }
+    }
+
+    @Benchmark
+    public Integer get() {
+        return dictionary.get(probes[cursor++ & PROBES_MASK]);
+    }
+
+    @Benchmark
+    public void putRemove(Blackhole blackhole) {
+        Role key = probes[cursor++ & PROBES_MASK];
+        blackhole.consume(dictionary.remove(key));
+        blackhole.consume(dictionary.put(key, key.ordinal()));
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.benchmarks;
+
+import org.example.dictionaries.AdaptiveRadixTreeDictionary;
+import org.example.dictionaries.BPlusTreeDictionary;
+import org.example.dictionaries.INavigableDictionary;
+import org.example.dictionaries.SortedArrayNavigableDictionary;
+import org.example.dictionaries.TreeDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+
+/**
+ * Floor lookups of random {@code double} keys in dictionaries that are built once and then only read.
+ */
+@State(Scope.Thread)
+public class FloorKeyBenchmark {
+    private static final int PROBES = 1 << 12;
+    private static final int PROBES_MASK = PROBES - 1;
+
+    public enum FloorImplementation {
+        TREE_DICTIONARY,
+        B_PLUS_TREE_DICTIONARY,
+        SORTED_ARRAY_DICTIONARY,
+        DOUBLE_KEY_SORTED_ARRAY_DICTIONARY,
+        FROZEN_DOUBLE_KEY_SORTED_ARRAY_DICTIONARY,
+        ADAPTIVE_RADIX_TREE_DICTIONARY
+    }
+
+    @Param
+    FloorImplementation implementation;
+
+    @Param({"1000", "1000000"})
+    int size;
+
+    private INavigableDictionary<Double, Object> dictionary;
+    private Double[] probes;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(size);
+        SortedArrayNavigableDictionary<Double, Object> doubleKeys =
+                SortedArrayNavigableDictionary.withDoubleKeys(SortedArrayNavigableDictionary.Layout.PACKED);
+        dictionary = switch (implementation) {
+            case TREE_DICTIONARY -> new TreeDictionary<>();
+            case B_PLUS_TREE_DICTIONARY -> new BPlusTreeDictionary<>();
+            case SORTED_ARRAY_DICTIONARY -> new SortedArrayNavigableDictionary<>();
+            case ADAPTIVE_RADIX_TREE_DICTIONARY -> AdaptiveRadixTreeDictionary.withDoubleKeys();
+            case DOUBLE_KEY_SORTED_ARRAY_DICTIONARY, FROZEN_DOUBLE_KEY_SORTED_ARRAY_DICTIONARY -> doubleKeys;
+        };
+        random.doubles(size).sorted().forEach(key -> dictionary.put(key, Boolean.TRUE));
+        if (implementation == FloorImplementation.FROZEN_DOUBLE_KEY_SORTED_ARRAY_DICTIONARY) {
+            dictionary = doubleKeys.freeze();
+        }
+        probes = new Double[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public Double floorKey() {
+        return dictionary.floorKey(probes[cursor++ & PROBES_MASK]);
+    }
+}
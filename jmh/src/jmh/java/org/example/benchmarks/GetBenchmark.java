@@ -0,0 +1,34 @@
+package org.example.benchmarks;
+
+import org.example.dictionaries.IDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+public class GetBenchmark extends AbstractDictionaryBenchmark {
+    @Param
+    Implementation implementation;
+
+    @Param({"1.0", "0.5"})
+    double hitRatio;
+
+    private IDictionary<Object, Object> dictionary;
+    private Object[] probes;
+
+    @Setup
+    public void setUp() {
+        generateKeys();
+        dictionary = implementation.newDictionary(keys);
+        probes = probes(hitRatio);
+    }
+
+    @Benchmark
+    public Object get() {
+        return dictionary.get(probes[next()]);
+    }
+
+    @Benchmark
+    public boolean containsKey() {
+        return dictionary.containsKey(probes[next()]);
+    }
+}
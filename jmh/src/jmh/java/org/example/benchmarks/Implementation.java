@@ -0,0 +1,189 @@
+package org.example.benchmarks;
+
+import org.example.dictionaries.AdaptiveRadixTreeDictionary;
+import org.example.dictionaries.BPlusTreeDictionary;
+import org.example.dictionaries.ByteTrieDictionary;
+import org.example.dictionaries.ConcurrentHashDictionary;
+import org.example.dictionaries.ConcurrentSkipListDictionary;
+import org.example.dictionaries.ConcurrentTrieDictionary;
+import org.example.dictionaries.HashDictionary;
+import org.example.dictionaries.IDictionary;
+import org.example.dictionaries.IdentityHashDictionary;
+import org.example.dictionaries.MultiDictionary;
+import org.example.dictionaries.PersistentHashDictionary;
+import org.example.dictionaries.PersistentTreeDictionary;
+import org.example.dictionaries.SortedArrayNavigableDictionary;
+import org.example.dictionaries.TreeDictionary;
+import org.example.dictionaries.TrieDictionary;
+
+import java.util.HashMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+@SuppressWarnings({"rawtypes", "unchecked"})
+public enum Implementation {
+    HASH_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new HashDictionary<>();
+        }
+    },
+    OPEN_ADDRESSING_HASH_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new HashDictionary<>(HashDictionary.Layout.OPEN_ADDRESSING);
+        }
+    },
+    IDENTITY_HASH_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new IdentityHashDictionary<>();
+        }
+    },
+    MULTI_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new MultiDictionary<>();
+        }
+    },
+    TRIE_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new TrieDictionary<>();
+        }
+    },
+    RADIX_TRIE_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new TrieDictionary<>(TrieDictionary.Layout.RADIX);
+        }
+    },
+    BYTE_TRIE_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new StringKeyDictionary<>(new ByteTrieDictionary<>());
+        }
+    },
+    TREE_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new TreeDictionary();
+        }
+    },
+    B_PLUS_TREE_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new BPlusTreeDictionary();
+        }
+    },
+    PERSISTENT_TREE_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new PersistentTreeDictionary();
+        }
+    },
+    ADAPTIVE_RADIX_TREE_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new AdaptiveRadixTreeDictionary<>(KeyTypeEncoder.INSTANCE);
+        }
+    },
+    SORTED_ARRAY_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new SortedArrayNavigableDictionary();
+        }
+    },
+    BUFFERED_SORTED_ARRAY_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new SortedArrayNavigableDictionary(SortedArrayNavigableDictionary.Layout.BUFFERED);
+        }
+    },
+    CONCURRENT_HASH_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new ConcurrentHashDictionary<>();
+        }
+    },
+    CONCURRENT_SKIP_LIST_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new ConcurrentSkipListDictionary();
+        }
+    },
+    CONCURRENT_TRIE_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new ConcurrentTrieDictionary<>();
+        }
+    },
+    IMMUTABLE_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            throw new UnsupportedOperationException("immutable dictionary can only be built from entries");
+        }
+
+        @Override
+        IDictionary<Object, Object> newDictionary(Object[] keys) {
+            IDictionary.IEntry<Object, Object>[] entries = new IDictionary.IEntry[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                entries[i] = IDictionary.entry(keys[i], keys[i]);
+            }
+            return IDictionary.ofEntries(entries);
+        }
+    },
+    PERSISTENT_HASH_DICTIONARY {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            throw new UnsupportedOperationException("persistent dictionary can only be built from entries");
+        }
+
+        @Override
+        IDictionary<Object, Object> newDictionary(Object[] keys) {
+            PersistentHashDictionary<Object, Object> dictionary = PersistentHashDictionary.empty();
+            for (Object key : keys) {
+                dictionary = dictionary.with(key, key);
+            }
+            return dictionary;
+        }
+    },
+    JAVA_HASH_MAP {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new MapDictionary<>(new HashMap<>());
+        }
+    },
+    JAVA_TREE_MAP {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new MapDictionary<>(new TreeMap<>());
+        }
+    },
+    JAVA_CONCURRENT_HASH_MAP {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new MapDictionary<>(new ConcurrentHashMap<>());
+        }
+    },
+    JAVA_CONCURRENT_SKIP_LIST_MAP {
+        @Override
+        IDictionary<Object, Object> newDictionary() {
+            return new MapDictionary<>(new ConcurrentSkipListMap<>());
+        }
+    };
+
+    abstract IDictionary<Object, Object> newDictionary();
+
+    /**
+     * @return dictionary that maps every key to itself
+     */
+    IDictionary<Object, Object> newDictionary(Object[] keys) {
+        IDictionary<Object, Object> dictionary = newDictionary();
+        for (Object key : keys) {
+            dictionary.put(key, key);
+        }
+        return dictionary;
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.benchmarks;
+
+import org.example.dictionaries.HashDictionary;
+import org.example.dictionaries.IDictionary;
+import org.example.dictionaries.primitive.IntObjectHashDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
+/**
+ * Lookups by {@code int} id, the boxed implementations pay for {@link Integer#valueOf(int)}
+ * at the call site just like callers holding primitive ids do.
+ */
+@State(Scope.Thread)
+public class IntKeyBenchmark {
+    private static final int PROBES = 1 << 12;
+    private static final int PROBES_MASK = PROBES - 1;
+
+    public enum IntKeyImplementation {
+        INT_OBJECT_HASH_DICTIONARY,
+        HASH_DICTIONARY,
+        JAVA_HASH_MAP
+    }
+
+    @Param
+    IntKeyImplementation implementation;
+
+    @Param({"1000", "100000"})
+    int size;
+
+    private IntObjectHashDictionary<Object> primitive;
+    private IDictionary<Integer, Object> boxed;
+    private int[] probes;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(size);
+        int[] ids = random.ints().distinct().limit(size).toArray();
+        primitive = new IntObjectHashDictionary<>();
+        boxed = switch (implementation) {
+            case INT_OBJECT_HASH_DICTIONARY -> primitive;
+            case HASH_DICTIONARY -> new HashDictionary<>();
+            case JAVA_HASH_MAP -> new MapDictionary<>(new HashMap<>());
+        };
+        for (int id : ids) {
+            boxed.put(id, Boolean.TRUE);
+        }
+        probes = new int[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = ids[random.nextInt(size)];
+        }
+    }
+
+    @Benchmark
+    public Object get() {
+        int id = probes[cursor++ & PROBES_MASK];
+        return implementation == IntKeyImplementation.INT_OBJECT_HASH_DICTIONARY
+                ? primitive.get(id)
+                : boxed.get(id);
+    }
+}
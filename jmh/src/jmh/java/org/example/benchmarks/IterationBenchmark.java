@@ -0,0 +1,48 @@
+package org.example.benchmarks;
+
+import org.example.dictionaries.IDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Full scans through the entry view, the cursor and forEach,
+ * one benchmark operation visits every entry.
+ */
+public class IterationBenchmark extends AbstractDictionaryBenchmark {
+    @Param
+    Implementation implementation;
+
+    private IDictionary<Object, Object> dictionary;
+
+    @Setup
+    public void setUp() {
+        generateKeys();
+        dictionary = implementation.newDictionary(keys);
+    }
+
+    @Benchmark
+    public void entrySet(Blackhole blackhole) {
+        for (IDictionary.IEntry<Object, Object> entry : dictionary.entrySet()) {
+            blackhole.consume(entry.getKey());
+            blackhole.consume(entry.getValue());
+        }
+    }
+
+    @Benchmark
+    public void cursor(Blackhole blackhole) {
+        for (IDictionary.ICursor<Object, Object> cursor = dictionary.cursor(); cursor.advance(); ) {
+            blackhole.consume(cursor.key());
+            blackhole.consume(cursor.value());
+        }
+    }
+
+    @Benchmark
+    public void forEach(Blackhole blackhole) {
+        dictionary.forEach((key, value) -> {
+            blackhole.consume(key);
+            blackhole.consume(value);
+        });
+    }
+}
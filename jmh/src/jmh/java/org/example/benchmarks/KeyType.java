@@ -0,0 +1,50 @@
+package org.example.benchmarks;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+public enum KeyType {
+    INTEGER {
+        @Override
+        Object randomKey(SplittableRandom random) {
+            return random.nextInt();
+        }
+    },
+    STRING {
+        @Override
+        Object randomKey(SplittableRandom random) {
+            int length = random.nextInt(8, 33);
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) random.nextInt('a', 'z' + 1);
+            }
+            return new String(chars);
+        }
+    };
+
+    private static final long SEED = 0x5DEECE66DL;
+
+    abstract Object randomKey(SplittableRandom random);
+
+    /**
+     * @return {@code present.length + missing.length} distinct keys, the first
+     * {@code present.length} are written to {@code present} and the rest to {@code missing}
+     */
+    void generate(Object[] present, Object[] missing) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        Set<Object> seen = new HashSet<>();
+        fill(present, seen, random);
+        fill(missing, seen, random);
+    }
+
+    private void fill(Object[] target, Set<Object> seen, SplittableRandom random) {
+        int i = 0;
+        while (i < target.length) {
+            Object key = randomKey(random);
+            if (seen.add(key)) {
+                target[i++] = key;
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.benchmarks;
+
+import org.example.dictionaries.AdaptiveRadixTreeDictionary;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes the keys of every {@link KeyType} for {@link AdaptiveRadixTreeDictionary}: a tag byte,
+ * then the sign-flipped big-endian bytes of an {@code Integer} or the UTF-8 bytes of a {@code String}.
+ * Keys of one type keep their natural order, which is all a benchmark run needs.
+ */
+final class KeyTypeEncoder implements AdaptiveRadixTreeDictionary.KeyEncoder<Object> {
+    static final KeyTypeEncoder INSTANCE = new KeyTypeEncoder();
+
+    private static final byte INTEGER = 0;
+    private static final byte STRING = 1;
+
+    private KeyTypeEncoder() {
+    }
+
+    @Override
+    public byte[] encode(Object key) {
+        if (key instanceof Integer i) {
+            int bits = i ^ Integer.MIN_VALUE;
+            return new byte[]{INTEGER, (byte) (bits >>> 24), (byte) (bits >>> 16), (byte) (bits >>> 8), (byte) bits};
+        }
+        byte[] chars = ((String) key).getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[chars.length + 1];
+        bytes[0] = STRING;
+        System.arraycopy(chars, 0, bytes, 1, chars.length);
+        return bytes;
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        if (bytes[0] == INTEGER) {
+            int bits = (bytes[1] & 0xFF) << 24 | (bytes[2] & 0xFF) << 16 | (bytes[3] & 0xFF) << 8 | bytes[4] & 0xFF;
+            return bits ^ Integer.MIN_VALUE;
+        }
+        return new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.benchmarks;
+
+import org.example.dictionaries.AbstractDictionary;
+import org.example.dictionaries.IDictionary;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Exposes a {@link java.util.Map} as {@link IDictionary}, so java.util baselines are
+ * called through the same interface call sites as the dictionaries under test.
+ */
+final class MapDictionary<K, V> extends AbstractDictionary<K, V> {
+    private final Map<K, V> map;
+
+    MapDictionary(Map<K, V> map) {
+        this.map = map;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return map.put(key, value);
+    }
+
+    @Override
+    public V get(K key) {
+        return map.get(key);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public V remove(K key) {
+        return map.remove(key);
+    }
+
+    @Override
+    protected Iterator<IEntry<K, V>> entryIterator() {
+        Iterator<Map.Entry<K, V>> i = map.entrySet().iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return i.hasNext();
+            }
+
+            @Override
+            public IEntry<K, V> next() {
+                Map.Entry<K, V> entry = i.next();
+                return IDictionary.entry(entry.getKey(), entry.getValue());
+            }
+
+            @Override
+            public void remove() {
+                i.remove();
+            }
+        };
+    }
+
+    @Override
+    protected Iterator<K> keyIterator() {
+        return map.keySet().iterator();
+    }
+
+    @Override
+    protected Iterator<V> valueIterator() {
+        return map.values().iterator();
+    }
+}
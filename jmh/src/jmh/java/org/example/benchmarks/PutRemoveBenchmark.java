@@ -0,0 +1,52 @@
+package org.example.benchmarks;
+
+import org.example.dictionaries.IDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Inserts a missing key and removes it again, so the dictionary keeps
+ * its size across iterations.
+ */
+public class PutRemoveBenchmark extends AbstractDictionaryBenchmark {
+    @Param({
+            "HASH_DICTIONARY",
+            "OPEN_ADDRESSING_HASH_DICTIONARY",
+            "IDENTITY_HASH_DICTIONARY",
+            "MULTI_DICTIONARY",
+            "TRIE_DICTIONARY",
+            "RADIX_TRIE_DICTIONARY",
+            "BYTE_TRIE_DICTIONARY",
+            "TREE_DICTIONARY",
+            "B_PLUS_TREE_DICTIONARY",
+            "PERSISTENT_TREE_DICTIONARY",
+            "ADAPTIVE_RADIX_TREE_DICTIONARY",
+            "SORTED_ARRAY_DICTIONARY",
+            "BUFFERED_SORTED_ARRAY_DICTIONARY",
+            "CONCURRENT_HASH_DICTIONARY",
+            "CONCURRENT_SKIP_LIST_DICTIONARY",
+            "CONCURRENT_TRIE_DICTIONARY",
+            "JAVA_HASH_MAP",
+            "JAVA_TREE_MAP",
+            "JAVA_CONCURRENT_HASH_MAP",
+            "JAVA_CONCURRENT_SKIP_LIST_MAP"
+    })
+    Implementation implementation;
+
+    private IDictionary<Object, Object> dictionary;
+
+    @Setup
+    public void setUp() {
+        generateKeys();
+        dictionary = implementation.newDictionary(keys);
+    }
+
+    @Benchmark
+    public void putRemove(Blackhole blackhole) {
+        Object key = missingKeys[next()];
+        blackhole.consume(dictionary.put(key, key));
+        blackhole.consume(dictionary.remove(key));
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.benchmarks;
+
+import org.example.dictionaries.IDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.SplittableRandom;
+
+/**
+ * Mix of lookups and in-place updates of present keys in the
+ * proportion given by {@code readRatio}.
+ */
+public class ReadWriteBenchmark extends AbstractDictionaryBenchmark {
+    @Param({
+            "HASH_DICTIONARY",
+            "OPEN_ADDRESSING_HASH_DICTIONARY",
+            "IDENTITY_HASH_DICTIONARY",
+            "MULTI_DICTIONARY",
+            "TRIE_DICTIONARY",
+            "RADIX_TRIE_DICTIONARY",
+            "BYTE_TRIE_DICTIONARY",
+            "TREE_DICTIONARY",
+            "B_PLUS_TREE_DICTIONARY",
+            "PERSISTENT_TREE_DICTIONARY",
+            "ADAPTIVE_RADIX_TREE_DICTIONARY",
+            "SORTED_ARRAY_DICTIONARY",
+            "BUFFERED_SORTED_ARRAY_DICTIONARY",
+            "CONCURRENT_HASH_DICTIONARY",
+            "CONCURRENT_SKIP_LIST_DICTIONARY",
+            "CONCURRENT_TRIE_DICTIONARY",
+            "JAVA_HASH_MAP",
+            "JAVA_TREE_MAP",
+            "JAVA_CONCURRENT_HASH_MAP",
+            "JAVA_CONCURRENT_SKIP_LIST_MAP"
+    })
+    Implementation implementation;
+
+    @Param({"0.9", "0.5"})
+    double readRatio;
+
+    private IDictionary<Object, Object> dictionary;
+    private Object[] probes;
+    private boolean[] reads;
+
+    @Setup
+    public void setUp() {
+        generateKeys();
+        dictionary = implementation.newDictionary(keys);
+        probes = probes(1.0);
+        reads = new boolean[PROBES];
+        SplittableRandom random = new SplittableRandom(PROBES);
+        for (int i = 0; i < PROBES; i++) {
+            reads[i] = random.nextDouble() < readRatio;
+        }
+    }
+
+    @Benchmark
+    public Object readWrite() {
+        int i = next();
+        Object key = probes[i];
+        return reads[i]
+                ? dictionary.get(key)
+                : dictionary.put(key, key);
+    }
+}
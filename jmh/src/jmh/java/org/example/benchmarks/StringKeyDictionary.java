@@ -0,0 +1,60 @@
+package org.example.benchmarks;
+
+import org.example.dictionaries.AbstractDictionary;
+import org.example.dictionaries.IDictionary;
+
+import java.util.Iterator;
+
+/**
+ * Exposes a dictionary of {@code String} keys as a dictionary of any keys by converting
+ * them with {@code toString()}, the way {@link org.example.dictionaries.TrieDictionary} does,
+ * so string-only dictionaries run with every {@link KeyType}. Iteration returns the strings.
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+final class StringKeyDictionary<V> extends AbstractDictionary<Object, V> {
+    private final IDictionary<String, V> dictionary;
+
+    StringKeyDictionary(IDictionary<String, V> dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return dictionary.containsKey(key.toString());
+    }
+
+    @Override
+    public V put(Object key, V value) {
+        return dictionary.put(key.toString(), value);
+    }
+
+    @Override
+    public V get(Object key) {
+        return dictionary.get(key.toString());
+    }
+
+    @Override
+    public int size() {
+        return dictionary.size();
+    }
+
+    @Override
+    public V remove(Object key) {
+        return dictionary.remove(key.toString());
+    }
+
+    @Override
+    protected Iterator<IEntry<Object, V>> entryIterator() {
+        return (Iterator) dictionary.entrySet().iterator();
+    }
+
+    @Override
+    protected Iterator<Object> keyIterator() {
+        return (Iterator) dictionary.keys().iterator();
+    }
+
+    @Override
+    protected Iterator<V> valueIterator() {
+        return dictionary.values().iterator();
+    }
+}